@@ -0,0 +1,85 @@
+package com.ontotext.refine.client.benchmark;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.ontotext.refine.client.ConnectionPoolConfig;
+import com.ontotext.refine.client.JsonOperation;
+import com.ontotext.refine.client.Operation;
+import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.RefineClients;
+import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.command.operations.ApplyOperationsCommand;
+import com.ontotext.refine.client.command.operations.ApplyOperationsResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the execution of {@link ApplyOperationsCommand} against embedded stub server. The
+ * command normalizes each of the operations and builds the form of the request, so the cost grows
+ * with the number of the operations. The first operation is always RDF mapping, which is wrapped
+ * as mapping operation by the command.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApplyOperationsBenchmark {
+
+  private static final String TRANSFORM = "{\"op\":\"core/text-transform\","
+      + "\"engineConfig\":{\"facets\":[],\"mode\":\"row-based\"},"
+      + "\"columnName\":\"City %d\",\"expression\":\"value.toTitlecase()\","
+      + "\"onError\":\"keep-original\",\"repeat\":false,\"repeatCount\":10,"
+      + "\"description\":\"Text transform on cells in column City %1$d\"}";
+
+  @Param({"1", "10", "100"})
+  public int operations;
+
+  private EmbeddedRefineServer server;
+  private RefineClient client;
+  private ApplyOperationsCommand command;
+
+  @Setup
+  public void setup() throws Exception {
+    server = EmbeddedRefineServer.start()
+        .respond("/orefine/command/core/apply-operations", "application/json",
+            "{\"code\":\"ok\"}".getBytes(UTF_8));
+    client = RefineClients.pooled(server.uri(), ConnectionPoolConfig.createDefault());
+
+    Operation[] ops = new Operation[operations];
+    ops[0] = JsonOperation.from(Resources.load("mappings/mapping.json"));
+    for (int i = 1; i < operations; i++) {
+      ops[i] = JsonOperation.from(String.format(TRANSFORM, i));
+    }
+
+    command = RefineCommands.applyOperations()
+        .project("1812661014997")
+        .token("token")
+        .operations(ops)
+        .build();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    client.close();
+    server.close();
+  }
+
+  @Benchmark
+  public ApplyOperationsResponse execute() throws IOException {
+    return command.execute(client);
+  }
+}
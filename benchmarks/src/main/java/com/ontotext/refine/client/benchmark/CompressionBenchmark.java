@@ -0,0 +1,170 @@
+package com.ontotext.refine.client.benchmark;
+
+import com.ontotext.refine.client.ConnectionPoolConfig;
+import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.RefineClients;
+import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.command.create.CreateProjectCommand;
+import com.ontotext.refine.client.command.create.CreateProjectResponse;
+import com.ontotext.refine.client.command.export.ExportRowsCommand;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.io.output.ProxyOutputStream;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the wall time and the bytes on the wire of plain and compressed project uploads and row
+ * exports against embedded stub server. The uploads are compressed via
+ * {@link CreateProjectCommand.Builder#compress(boolean)} and the exports negotiate compressed
+ * responses, when the content compression of the client is enabled. The rows are generated in CSV
+ * format with the given size in megabytes.
+ *
+ * <p>The bytes on the wire and the number of the transfers in each iteration are reported as
+ * secondary results, so the bytes per transfer are their ratio. The ratio of the compression is
+ * the bytes per transfer of the compressed run divided by the ones of the plain run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionBenchmark {
+
+  private static final String CREATE_PATH = "/orefine/command/core/create-project-from-upload";
+  private static final String EXPORT_PATH = "/orefine/command/core/export-rows";
+
+  @Param({"16", "128"})
+  public int megabytes;
+
+  @Param({"false", "true"})
+  public boolean compression;
+
+  private final AtomicLong wire = new AtomicLong();
+
+  private Path csv;
+  private EmbeddedRefineServer server;
+  private RefineClient client;
+  private CreateProjectCommand upload;
+  private ExportRowsCommand export;
+
+  /**
+   * Counts the bytes on the wire and the transfers.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Wire {
+
+    public long wireBytes;
+    public long transfers;
+
+    private void add(long bytes) {
+      wireBytes += bytes;
+      transfers++;
+    }
+  }
+
+  @Setup
+  public void setup() throws Exception {
+    csv = Files.createTempFile("compression-benchmark-", ".csv");
+    Files.write(csv, Resources.csv(megabytes * 1024 * 1024));
+
+    server = EmbeddedRefineServer.start()
+        .handle(CREATE_PATH, this::handleUpload)
+        .handle(EXPORT_PATH, this::handleExport);
+
+    ConnectionPoolConfig config = new ConnectionPoolConfig.Builder()
+        .setContentCompression(compression)
+        .build();
+    client = RefineClients.pooled(server.uri(), config);
+
+    upload = RefineCommands.createProject()
+        .token("token")
+        .name("benchmark")
+        .file(csv)
+        .compress(compression)
+        .build();
+    export = RefineCommands.exportRows()
+        .setProject("1")
+        .setFormat("csv")
+        .setToken("token")
+        .build();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    client.close();
+    server.close();
+    Files.deleteIfExists(csv);
+  }
+
+  @Benchmark
+  public CreateProjectResponse upload(Wire counters) throws IOException {
+    long start = wire.get();
+    CreateProjectResponse response = upload.execute(client);
+    counters.add(wire.get() - start);
+    return response;
+  }
+
+  @Benchmark
+  public long export(Wire counters) throws IOException {
+    long start = wire.get();
+    long size = export.stream(client, is -> is.transferTo(OutputStream.nullOutputStream()));
+    counters.add(wire.get() - start);
+    return size;
+  }
+
+  private void handleUpload(HttpExchange exchange) throws IOException {
+    try (InputStream is = exchange.getRequestBody()) {
+      wire.addAndGet(is.transferTo(OutputStream.nullOutputStream()));
+    }
+    exchange.getResponseHeaders().add("Location", "/project?project=1");
+    exchange.sendResponseHeaders(302, -1);
+  }
+
+  private void handleExport(HttpExchange exchange) throws IOException {
+    try (InputStream is = exchange.getRequestBody()) {
+      is.transferTo(OutputStream.nullOutputStream());
+    }
+
+    String accepted = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+    boolean gzip = accepted != null && accepted.contains("gzip");
+    if (gzip) {
+      exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+    }
+    exchange.getResponseHeaders().add("Content-Type", "text/csv");
+    exchange.sendResponseHeaders(200, 0);
+
+    // counted while written, as the client could complete before the handler
+    OutputStream counter = new ProxyOutputStream(exchange.getResponseBody()) {
+
+      @Override
+      protected void afterWrite(int written) {
+        wire.addAndGet(written);
+      }
+    };
+    try (InputStream is = Files.newInputStream(csv);
+        OutputStream os = gzip ? new GZIPOutputStream(counter, 64 * 1024) : counter) {
+      is.transferTo(os);
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package com.ontotext.refine.client.benchmark;
+
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Lightweight HTTP server, which is used as a stub of Refine instance by the benchmarks. The server
+ * is bound to the loopback interface on random port and serves predefined responses for specific
+ * paths, so that the benchmarks measure the client and not the Refine instance.
+ */
+public class EmbeddedRefineServer implements AutoCloseable {
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+
+  private EmbeddedRefineServer(HttpServer server, ExecutorService executor) {
+    this.server = server;
+    this.executor = executor;
+  }
+
+  /**
+   * Starts new embedded server.
+   *
+   * @return the started server
+   * @throws IOException when the server cannot be bound
+   */
+  public static EmbeddedRefineServer start() throws IOException {
+    HttpServer server =
+        HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    ExecutorService executor = Executors.newCachedThreadPool();
+    server.setExecutor(executor);
+    server.start();
+    return new EmbeddedRefineServer(server, executor);
+  }
+
+  /**
+   * Provides the base URI of the server.
+   *
+   * @return the URI as string
+   */
+  public String uri() {
+    InetSocketAddress address = server.getAddress();
+    return "http://" + address.getHostString() + ":" + address.getPort();
+  }
+
+  /**
+   * Registers a static response with status <code>200</code> for the given path. The request body
+   * is consumed before the response is sent.
+   *
+   * @param path of the request
+   * @param contentType of the response body
+   * @param body of the response
+   * @return the current server for fluent usage
+   */
+  public EmbeddedRefineServer respond(String path, String contentType, byte[] body) {
+    return respond(path, contentType, body, Duration.ZERO);
+  }
+
+  /**
+   * Registers a static response with status <code>200</code> for the given path, which is sent
+   * after the given latency. The latency simulates the processing time of the Refine instance.
+   *
+   * @param path of the request
+   * @param contentType of the response body
+   * @param body of the response
+   * @param latency before the response is sent
+   * @return the current server for fluent usage
+   */
+  public EmbeddedRefineServer respond(
+      String path, String contentType, byte[] body, Duration latency) {
+    return handle(path, exchange -> {
+      try (InputStream is = exchange.getRequestBody()) {
+        is.transferTo(OutputStream.nullOutputStream());
+      }
+
+      sleep(latency);
+      exchange.getResponseHeaders().add("Content-Type", contentType);
+      exchange.sendResponseHeaders(200, body.length == 0 ? -1 : body.length);
+      try (OutputStream os = exchange.getResponseBody()) {
+        os.write(body);
+      }
+    });
+  }
+
+  /**
+   * Registers handler for the given path. The exchange is closed after the handler completes.
+   *
+   * @param path of the request
+   * @param handler of the requests
+   * @return the current server for fluent usage
+   */
+  public EmbeddedRefineServer handle(String path, HttpHandler handler) {
+    server.createContext(path, exchange -> {
+      try {
+        handler.handle(exchange);
+      } finally {
+        exchange.close();
+      }
+    });
+    return this;
+  }
+
+  private static void sleep(Duration latency) {
+    if (latency.isZero()) {
+      return;
+    }
+
+    try {
+      Thread.sleep(latency.toMillis());
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,127 @@
+package com.ontotext.refine.client.benchmark;
+
+import com.ontotext.refine.client.ConnectionPoolConfig;
+import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.RefineClients;
+import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.command.export.ExportRowsCommand;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the copying of the exported rows from the response of {@link ExportRowsCommand} to the
+ * different targets supported by the command. The rows are generated in CSV format with the given
+ * size in megabytes and they are served by embedded stub server. The throughput in bytes per
+ * second is the size divided by the reported average time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExportRowsBenchmark {
+
+  private static final String PROJECT = "1812661014997";
+
+  /**
+   * The targets of the exported rows.
+   */
+  public enum Target {
+    /** The file configured via {@link ExportRowsCommand.Builder#setTarget(Path)}. */
+    FILE,
+    /** Channel configured via {@link ExportRowsCommand.Builder#setTarget(WritableByteChannel)}. */
+    CHANNEL,
+    /** The stream provided via {@link ExportRowsCommand#stream}. */
+    STREAM
+  }
+
+  @Param({"1", "16", "128"})
+  public int megabytes;
+
+  @Param({"FILE", "CHANNEL", "STREAM"})
+  public Target target;
+
+  private EmbeddedRefineServer server;
+  private RefineClient client;
+  private Path file;
+  private ExportRowsCommand command;
+
+  @Setup
+  public void setup() throws Exception {
+    server = EmbeddedRefineServer.start()
+        .respond("/orefine/command/core/export-rows", "text/csv",
+            Resources.csv(megabytes * 1024 * 1024));
+    client = RefineClients.pooled(server.uri(), ConnectionPoolConfig.createDefault());
+
+    ExportRowsCommand.Builder builder = RefineCommands.exportRows()
+        .setProject(PROJECT)
+        .setFormat("csv")
+        .setToken("token");
+    if (Target.FILE.equals(target)) {
+      // the same file is overwritten by each export, so the disk usage does not grow
+      file = Files.createTempFile("export-rows-benchmark-", ".csv");
+      builder.setTarget(file);
+    } else if (Target.CHANNEL.equals(target)) {
+      builder.setTarget(new DiscardingChannel());
+    }
+    command = builder.build();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    client.close();
+    server.close();
+    if (file != null) {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Benchmark
+  public long export() throws IOException {
+    if (Target.STREAM.equals(target)) {
+      return command.stream(client, is -> is.transferTo(OutputStream.nullOutputStream()));
+    }
+    return command.execute(client).getSize();
+  }
+
+  /**
+   * Channel, which discards the written data, so that only the copying of the client is measured.
+   */
+  private static class DiscardingChannel implements WritableByteChannel {
+
+    @Override
+    public int write(ByteBuffer src) {
+      int remaining = src.remaining();
+      src.position(src.limit());
+      return remaining;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {
+      // nothing to release
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package com.ontotext.refine.client.benchmark;
+
+import static com.ontotext.refine.client.util.JsonParser.JSON_PARSER;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ontotext.refine.client.command.models.GetProjectModelsResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the binding of the project models response via new mapper for each response, via
+ * single shared mapper and via the shared readers of
+ * {@link com.ontotext.refine.client.util.JsonParser}. The benchmarks include the Blackbird module,
+ * so the shared readers use it, when the runtime supports it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObjectReaderBenchmark {
+
+  private final ObjectMapper shared =
+      new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+  private byte[] body;
+
+  @Setup
+  public void setup() {
+    body = Resources.load("mappings/project-models.json").getBytes(UTF_8);
+  }
+
+  /**
+   * The handling of the response before the shared readers, kept as baseline.
+   */
+  @Benchmark
+  public GetProjectModelsResponse mapperPerResponse() throws IOException {
+    return new ObjectMapper().readValue(new ByteArrayInputStream(body),
+        GetProjectModelsResponse.class);
+  }
+
+  @Benchmark
+  public GetProjectModelsResponse sharedMapper() throws IOException {
+    return shared.readValue(new ByteArrayInputStream(body), GetProjectModelsResponse.class);
+  }
+
+  @Benchmark
+  public GetProjectModelsResponse sharedReader() throws IOException {
+    return JSON_PARSER.read(new ByteArrayInputStream(body), GetProjectModelsResponse.class);
+  }
+}
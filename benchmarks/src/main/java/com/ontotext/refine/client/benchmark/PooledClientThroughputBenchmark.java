@@ -0,0 +1,94 @@
+package com.ontotext.refine.client.benchmark;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.ontotext.refine.client.ConnectionPoolConfig;
+import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.RefineClients;
+import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.command.version.GetVersionCommand;
+import com.ontotext.refine.client.command.version.GetVersionResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the concurrent throughput of the standard and the pooled {@link RefineClient} against
+ * embedded stub server, which simulates the processing time of the Refine instance with latency of
+ * <code>20</code> milliseconds. The commands are executed concurrently by <code>32</code> threads,
+ * which share single client. The standard client allows only two connections to the server, so its
+ * throughput is bound by the latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(PooledClientThroughputBenchmark.THREADS)
+@Fork(1)
+public class PooledClientThroughputBenchmark {
+
+  static final int THREADS = 32;
+
+  private static final String VERSION_PATH = "/orefine/command/core/get-version";
+  private static final byte[] VERSION_BODY = ("{\"full_name\":\"Refine\",\"full_version\":\"1.2\","
+      + "\"version\":\"1.2\",\"revision\":\"1\"}").getBytes(UTF_8);
+
+  /**
+   * The clients, which are compared.
+   */
+  public enum Client {
+    /** Created via {@link RefineClients#standard(String)}. */
+    STANDARD,
+    /** Created via {@link RefineClients#pooled(String, ConnectionPoolConfig)}. */
+    POOLED
+  }
+
+  @Param({"STANDARD", "POOLED"})
+  public Client type;
+
+  private EmbeddedRefineServer server;
+  private RefineClient client;
+  private GetVersionCommand command;
+
+  @Setup
+  public void setup() throws Exception {
+    server = EmbeddedRefineServer.start()
+        .respond(VERSION_PATH, "application/json", VERSION_BODY, Duration.ofMillis(20));
+
+    if (Client.STANDARD.equals(type)) {
+      client = RefineClients.standard(server.uri());
+    } else {
+      ConnectionPoolConfig config = new ConnectionPoolConfig.Builder()
+          .setMaxConnectionsPerRoute(THREADS)
+          .setMaxConnectionsTotal(THREADS)
+          .build();
+      client = RefineClients.pooled(server.uri(), config);
+    }
+    command = RefineCommands.getVersion().build();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    client.close();
+    server.close();
+  }
+
+  @Benchmark
+  public GetVersionResponse getVersion() throws IOException {
+    return command.execute(client);
+  }
+}
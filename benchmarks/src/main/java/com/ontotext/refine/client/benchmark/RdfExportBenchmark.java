@@ -0,0 +1,100 @@
+package com.ontotext.refine.client.benchmark;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.ontotext.refine.client.ConnectionPoolConfig;
+import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.RefineClients;
+import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.command.rdf.DefaultRdfExportCommand;
+import com.ontotext.refine.client.command.rdf.ExportRdfResponse;
+import com.ontotext.refine.client.command.rdf.OutputType;
+import com.ontotext.refine.client.command.rdf.ResultFormat;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the handling of the result of {@link DefaultRdfExportCommand}, when it is buffered as
+ * string and when it is written in file. The result is generated in N-Triples format with the
+ * given size in kilobytes and it is served by embedded stub server. The sizes are below the
+ * default in-memory threshold, so the string output is never spilled in file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RdfExportBenchmark {
+
+  private static final String PROJECT = "1812661014997";
+
+  @Param({"64", "1024", "16384"})
+  public int kilobytes;
+
+  @Param({"STRING", "FILE"})
+  public OutputType output;
+
+  private EmbeddedRefineServer server;
+  private RefineClient client;
+  private Path file;
+  private DefaultRdfExportCommand command;
+
+  @Setup
+  public void setup() throws Exception {
+    server = EmbeddedRefineServer.start()
+        .respond("/rest/rdf-mapper/rdf/", "application/n-triples", triples(kilobytes * 1024));
+    client = RefineClients.pooled(server.uri(), ConnectionPoolConfig.createDefault());
+
+    DefaultRdfExportCommand.Builder builder = RefineCommands.exportRdf()
+        .setProject(PROJECT)
+        .setMapping(Resources.load("mappings/mapping.json"))
+        .setFormat(ResultFormat.NTRIPLES)
+        .setOutput(output);
+    if (OutputType.FILE.equals(output)) {
+      // the same file is overwritten by each export, so the disk usage does not grow
+      file = Files.createTempFile("rdf-export-benchmark-", ".nt");
+      builder.setTarget(file);
+    }
+    command = builder.build();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    client.close();
+    server.close();
+    if (file != null) {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Benchmark
+  public ExportRdfResponse export() throws IOException {
+    return command.execute(client);
+  }
+
+  private static byte[] triples(int bytes) {
+    StringBuilder builder = new StringBuilder(bytes + 256);
+    for (int row = 0; builder.length() < bytes; row++) {
+      builder.append("<http://example/base/restaurant/").append(row)
+          .append("> <http://schema.org/name> \"Restaurant ").append(row).append("\" .\n")
+          .append("<http://example/base/restaurant/").append(row)
+          .append("> <http://schema.org/addressLocality> \"Amsterdam\" .\n");
+    }
+    return builder.toString().getBytes(UTF_8);
+  }
+}
@@ -0,0 +1,54 @@
+package com.ontotext.refine.client.benchmark;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Loads the inputs of the benchmarks from the classpath.
+ */
+public final class Resources {
+
+  private Resources() {
+    throw new UnsupportedOperationException("Utility classes should not be instantiated.");
+  }
+
+  /**
+   * Loads the content of the given resource.
+   *
+   * @param name of the resource, relative to the root of the classpath
+   * @return the content of the resource as UTF-8 string
+   */
+  public static String load(String name) {
+    try (InputStream is = Resources.class.getClassLoader().getResourceAsStream(name)) {
+      if (is == null) {
+        throw new IllegalArgumentException("Missing resource: " + name);
+      }
+      return new String(is.readAllBytes(), UTF_8);
+    } catch (IOException ioe) {
+      throw new UncheckedIOException(ioe);
+    }
+  }
+
+  /**
+   * Generates rows in CSV format with the given approximate size.
+   *
+   * @param bytes the minimal size of the generated data
+   * @return the generated rows as UTF-8 bytes
+   */
+  public static byte[] csv(int bytes) {
+    StringBuilder builder = new StringBuilder(bytes + 128);
+    builder.append("id,name,street,city,latitude,longitude\n");
+    for (int row = 0; builder.length() < bytes; row++) {
+      builder.append(row)
+          .append(",Restaurant ").append(row)
+          .append(",\"Keizersgracht ").append(row % 500).append(", ground floor\"")
+          .append(",Amsterdam,52.37").append(row % 10_000)
+          .append(",4.89").append(row % 10_000)
+          .append('\n');
+    }
+    return builder.toString().getBytes(UTF_8);
+  }
+}
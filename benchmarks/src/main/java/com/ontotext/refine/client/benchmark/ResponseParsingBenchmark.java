@@ -0,0 +1,96 @@
+package com.ontotext.refine.client.benchmark;
+
+import static com.ontotext.refine.client.util.JsonParser.JSON_PARSER;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.command.reconcile.GuessColumnTypeCommand;
+import com.ontotext.refine.client.command.reconcile.GuessColumnTypeCommandResponse;
+import com.ontotext.refine.client.command.reconcile.GuessColumnTypeCommandResponse.ReconciliationType;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.util.EntityUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the handling of JSON response, which is read in string, parsed in tree and partially
+ * serialized and parsed again, with the streaming handling of the commands, which binds the values
+ * directly from the response. The allocations of both are reported via the GC profiler:
+ * <code>java -jar benchmarks/target/benchmarks.jar ResponseParsingBenchmark -prof gc</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseParsingBenchmark {
+
+  private static final TypeReference<List<ReconciliationType>> TYPES = new TypeReference<>() {};
+
+  @Param({"10", "1000"})
+  public int types;
+
+  private byte[] body;
+  private GuessColumnTypeCommand command;
+
+  @Setup
+  public void setup() {
+    StringBuilder builder = new StringBuilder("{\"code\":\"ok\",\"types\":[");
+    for (int i = 0; i < types; i++) {
+      builder.append(i == 0 ? "" : ",")
+          .append("{\"id\":\"Q").append(i)
+          .append("\",\"name\":\"populated place ").append(i)
+          .append("\",\"score\":").append(i * 0.5)
+          .append(",\"count\":").append(i).append('}');
+    }
+    body = builder.append("]}").toString().getBytes(UTF_8);
+
+    command = RefineCommands.guessTypeOfColumn()
+        .setProject("1812661014997")
+        .setColumn("City")
+        .setService("https://wikidata.reconci.link/en/api")
+        .setToken("token")
+        .build();
+  }
+
+  /**
+   * The handling of the response before the streaming, kept as baseline.
+   */
+  @Benchmark
+  public List<ReconciliationType> stringAndTree() throws IOException {
+    String json = EntityUtils.toString(response().getEntity(), UTF_8);
+    JsonNode node = JSON_PARSER.parseJson(json);
+    JSON_PARSER.findExistingPath(node, "code").asText();
+    return JSON_PARSER.read(JSON_PARSER.findExistingPath(node, "types").toString(), TYPES);
+  }
+
+  @Benchmark
+  public GuessColumnTypeCommandResponse streaming() throws IOException {
+    return command.handleResponse(response());
+  }
+
+  private HttpResponse response() {
+    HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+    response.setEntity(new ByteArrayEntity(body, ContentType.APPLICATION_JSON));
+    return response;
+  }
+}
@@ -0,0 +1,73 @@
+package com.ontotext.refine.client.command.rdf;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.message.BasicNameValuePair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the building of the request entity of {@link GraphDbSparqlBasedRdfExportCommand} for
+ * single project via replacement of the placeholder and encoding of the whole query, with the
+ * binding of {@link PreparedQuery}, which splices the project in the encoded template.
+ *
+ * <p>The benchmark is in the package of the commands, so that it can create the entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PreparedQueryBenchmark {
+
+  private static final String PROJECT = "1958197932150";
+
+  @Param({"1", "64"})
+  public int kilobytes;
+
+  private String query;
+  private PreparedQuery prepared;
+
+  @Setup
+  public void setup() {
+    StringBuilder builder = new StringBuilder("CONSTRUCT { ?s ?p ?o } WHERE {\n"
+        + "  SERVICE <rdf-mapper:ontorefine:" + PreparedQuery.DEFAULT_PLACEHOLDER + "> {\n");
+    for (int i = 0; builder.length() < kilobytes * 1024; i++) {
+      builder.append("    BIND(IRI(CONCAT(\"http://example.com/resource/\", ?c_id_")
+          .append(i).append(")) AS ?s_").append(i).append(")\n");
+    }
+    query = builder.append("  }\n}").toString();
+    prepared = PreparedQuery.of(query);
+  }
+
+  /**
+   * The building of the entity before the prepared queries, kept as baseline.
+   */
+  @Benchmark
+  public HttpEntity replaceAndEncode() throws IOException {
+    String bound = query.replaceFirst(PreparedQuery.DEFAULT_PLACEHOLDER, PROJECT);
+    return new BufferedHttpEntity(new UrlEncodedFormEntity(
+        singletonList(new BasicNameValuePair("query", bound)), UTF_8));
+  }
+
+  @Benchmark
+  public HttpEntity preparedQuery() {
+    return prepared.toFormEntity(PROJECT);
+  }
+}
@@ -0,0 +1,75 @@
+package com.ontotext.refine.client.util.mappings;
+
+import static com.ontotext.refine.client.util.JsonParser.JSON_PARSER;
+
+import com.ontotext.refine.client.benchmark.Resources;
+import com.ontotext.refine.client.exceptions.RefineException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the detection and the normalization of the mappings, which are executed for each RDF
+ * export and for each application of operations. The input is one of the shapes accepted by
+ * {@link MappingsNormalizer}: plain mapping, operations history and project models.
+ *
+ * <p>The benchmark is in the package of the normalizer, so that it checks the same structures as
+ * {@link MappingsNormalizer} does via {@link MappingsStructures}. The checks include the parsing of
+ * the input, which is done once per normalization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingsBenchmark {
+
+  @Param({"mapping", "operations", "project-models"})
+  public String input;
+
+  private String json;
+
+  @Setup
+  public void setup() {
+    json = Resources.load("mappings/" + input + ".json");
+  }
+
+  @Benchmark
+  public boolean isMapping() throws RefineException {
+    return MappingsStructures.isMapping(JSON_PARSER.parseJson(json));
+  }
+
+  @Benchmark
+  public boolean isOperations() throws RefineException {
+    return MappingsStructures.isOperations(JSON_PARSER.parseJson(json));
+  }
+
+  @Benchmark
+  public String forRdfExport() {
+    return MappingsNormalizer.forRdfExport(json);
+  }
+
+  /**
+   * The normalization for RDF export via the shared cache, as it is done by the export commands.
+   * After the first invocation all of the lookups are hits.
+   */
+  @Benchmark
+  public PreparedMapping cachedForRdfExport() {
+    return MappingsCache.getDefault().forRdfExport(json);
+  }
+
+  @Benchmark
+  public String forApplyOperations() {
+    return MappingsNormalizer.forApplyOperations(json);
+  }
+}
@@ -0,0 +1,565 @@
+package com.ontotext.refine.client;
+
+import static com.ontotext.refine.client.util.JsonParser.JSON_PARSER;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notBlank;
+import static org.apache.commons.lang3.Validate.notEmpty;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ontotext.refine.client.command.RefineCommand;
+import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.command.create.CreateProjectCommand;
+import com.ontotext.refine.client.command.create.CreateProjectResponse;
+import com.ontotext.refine.client.exceptions.CircuitOpenException;
+import com.ontotext.refine.client.exceptions.RefineException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Client of multiple Refine instances, which are not behind load balancer. Each instance is
+ * accessed via its own {@link RefineClient}, called node.
+ *
+ * <p>The stateless commands, which do not depend on specific project, are balanced between the
+ * healthy nodes, either to the node with the least requests in flight or to the better of two
+ * randomly chosen nodes. When such command fails, because the node is not available, it is
+ * executed on the next node. The stateless commands are executed via
+ * {@link #execute(RefineCommand)} or via the client provided by {@link #any()}.
+ *
+ * <p>The projects exist only in the Refine instance, where they are created, so the commands for
+ * specific project are executed on the node, which owns it. The owner of the projects, created via
+ * the cluster, is recorded from the {@link CreateProjectResponse}. The owner of the other projects
+ * is located by requesting the metadata of the project from the nodes. The project commands are
+ * executed via {@link #execute(String, RefineCommand)} or via the client provided by
+ * {@link #forProject(String)}.
+ *
+ * <p>The health of the nodes is checked periodically via
+ * {@link com.ontotext.refine.client.command.version.GetVersionCommand}. The node is considered
+ * unhealthy, when the check fails or when a request to it fails due to connection error, and it is
+ * excluded from the balancing, until the next successful check.
+ */
+public class ClusterRefineClient implements Closeable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ClusterRefineClient.class);
+  private static final String METADATA_ENDPOINT = "/orefine/command/core/get-project-metadata";
+
+  /**
+   * The strategies for balancing of the stateless commands.
+   */
+  public enum Balancing {
+    /** Selects the node with the least requests in flight. */
+    LEAST_IN_FLIGHT,
+    /** Selects two random nodes and uses the one with less requests in flight. */
+    POWER_OF_TWO_CHOICES
+  }
+
+  private final List<Node> nodes;
+  private final Balancing balancing;
+  private final ScheduledExecutorService healthChecks;
+  private final Map<String, Node> owners = new ConcurrentHashMap<>();
+  private final AtomicInteger rotation = new AtomicInteger();
+
+  private ClusterRefineClient(List<Node> nodes, Balancing balancing, Duration healthCheckInterval) {
+    this.nodes = nodes;
+    this.balancing = balancing;
+    if (healthCheckInterval == null) {
+      this.healthChecks = null;
+      return;
+    }
+
+    this.healthChecks = Executors.newSingleThreadScheduledExecutor(task -> {
+      Thread thread = new Thread(task, "refine-cluster-health-check");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long interval = healthCheckInterval.toMillis();
+    healthChecks.scheduleWithFixedDelay(this::checkHealth, 0, interval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Provides client for stateless commands, which is bound to the node selected by the balancing.
+   * The client should be used for single command, as the load of the nodes changes.
+   *
+   * @return the client of the selected node
+   */
+  public RefineClient any() {
+    return new NodeClient(candidates().get(0));
+  }
+
+  /**
+   * Provides client for the commands of the given project, which is bound to the node that owns
+   * the project.
+   *
+   * @param project the identifier of the project
+   * @return the client of the node, which owns the project
+   * @throws RefineException when none of the nodes has the project
+   */
+  public RefineClient forProject(String project) throws RefineException {
+    return new NodeClient(ownerOf(notBlank(project, "Missing 'project' argument")));
+  }
+
+  /**
+   * Executes stateless command on the node selected by the balancing. When the node is not
+   * available, the command is executed on the next node, until it succeeds or all nodes are tried.
+   *
+   * <p>The commands, which create projects, are executed without failover, as the project could
+   * be created, even though the response is not received.
+   *
+   * @param <T> the type of the response
+   * @param command to execute
+   * @return the response of the command
+   * @throws RefineException when the command fails
+   */
+  public <T> T execute(RefineCommand<T> command) throws RefineException {
+    notNull(command, "Missing 'command' argument");
+    boolean failover = !(command instanceof CreateProjectCommand);
+
+    RefineException failure = null;
+    for (Node node : candidates()) {
+      NodeClient client = new NodeClient(node);
+      try {
+        return command.execute(client);
+      } catch (RefineException re) {
+        if (!failover || !client.unavailable) {
+          throw re;
+        }
+        LOGGER.warn("Failing over command '{}' from unavailable node: {}", command.endpoint(),
+            node.client);
+        failure = re;
+      }
+    }
+    throw failure;
+  }
+
+  /**
+   * Executes command of the given project on the node that owns the project.
+   *
+   * @param <T> the type of the response
+   * @param project the identifier of the project
+   * @param command to execute
+   * @return the response of the command
+   * @throws RefineException when the command fails or none of the nodes has the project
+   */
+  public <T> T execute(String project, RefineCommand<T> command) throws RefineException {
+    notNull(command, "Missing 'command' argument");
+    return command.execute(forProject(project));
+  }
+
+  /**
+   * Removes the cached owner of the project, for example after the project is deleted.
+   *
+   * @param project the identifier of the project
+   */
+  public void forget(String project) {
+    owners.remove(project);
+  }
+
+  /**
+   * Provides the current state of the nodes.
+   *
+   * @return the states of the nodes in the order of their registration
+   */
+  public List<NodeState> getNodes() {
+    return nodes.stream()
+        .map(node -> new NodeState(node.client.toString(), node.healthy, node.inFlight.get()))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Stops the health checks and closes the clients of the nodes.
+   */
+  @Override
+  public void close() throws IOException {
+    if (healthChecks != null) {
+      healthChecks.shutdownNow();
+    }
+
+    IOException failure = null;
+    for (Node node : nodes) {
+      try {
+        node.client.close();
+      } catch (IOException ioe) {
+        failure = ioe;
+      }
+    }
+
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Orders the nodes for execution of stateless command. The first node is the one selected by
+   * the balancing, followed by the rest of the healthy nodes and then by the unhealthy ones, which
+   * are tried as last resort.
+   */
+  private List<Node> candidates() {
+    List<Node> healthy = new ArrayList<>(nodes.size());
+    List<Node> unhealthy = new ArrayList<>();
+    for (Node node : nodes) {
+      (node.healthy ? healthy : unhealthy).add(node);
+    }
+
+    List<Node> ordered = new ArrayList<>(nodes.size());
+    if (!healthy.isEmpty()) {
+      Node selected = select(healthy);
+      ordered.add(selected);
+      healthy.remove(selected);
+      healthy.sort(Comparator.comparingInt(node -> node.inFlight.get()));
+      ordered.addAll(healthy);
+    }
+    ordered.addAll(unhealthy);
+    return ordered;
+  }
+
+  private Node select(List<Node> healthy) {
+    int size = healthy.size();
+    if (size == 1) {
+      return healthy.get(0);
+    }
+
+    if (balancing == Balancing.POWER_OF_TWO_CHOICES) {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      int first = random.nextInt(size);
+      int second = (first + 1 + random.nextInt(size - 1)) % size;
+      Node one = healthy.get(first);
+      Node two = healthy.get(second);
+      return one.inFlight.get() <= two.inFlight.get() ? one : two;
+    }
+
+    // rotates the start, so the ties are spread between the nodes
+    int start = Math.floorMod(rotation.getAndIncrement(), size);
+    Node least = healthy.get(start);
+    for (int i = 1; i < size; i++) {
+      Node node = healthy.get((start + i) % size);
+      if (node.inFlight.get() < least.inFlight.get()) {
+        least = node;
+      }
+    }
+    return least;
+  }
+
+  private Node ownerOf(String project) throws RefineException {
+    Node owner = owners.get(project);
+    if (owner != null) {
+      return owner;
+    }
+
+    List<RefineException> failures = new ArrayList<>();
+    for (Node node : candidates()) {
+      try {
+        if (hasProject(new NodeClient(node), project)) {
+          owners.put(project, node);
+          return node;
+        }
+        LOGGER.debug("Project '{}' is not found on node: {}", project, node.client);
+      } catch (RefineException re) {
+        // the node could be down since the last health check, the next one could own the project
+        LOGGER.debug("Failed to look up project '{}' on node: {}", project, node.client, re);
+        failures.add(re);
+      }
+    }
+
+    if (failures.isEmpty()) {
+      throw new RefineException("None of the nodes of the cluster has project: '%s'", project);
+    }
+    RefineException exc = new RefineException(
+        "Failed to look up project '%s', it is not found on the available nodes", project);
+    failures.forEach(exc::addSuppressed);
+    throw exc;
+  }
+
+  /**
+   * Checks whether the node has the project. Only the responses, which report that the project is
+   * not found, are treated as absence of the project. The failures of the transport and the other
+   * errors are reported, so the owner is not considered missing when some node cannot answer.
+   */
+  private static boolean hasProject(NodeClient client, String project) throws RefineException {
+    HttpUriRequest request = RequestBuilder
+        .get(client.createUri(METADATA_ENDPOINT))
+        .setHeader(HttpHeaders.ACCEPT, ContentType.APPLICATION_JSON.getMimeType())
+        .addParameter("project", project)
+        .build();
+    try {
+      return client.execute(request, ClusterRefineClient::isProjectFound);
+    } catch (RefineException re) {
+      throw re;
+    } catch (IOException ioe) {
+      throw new RefineException(
+          String.format("Failed to look up project '%s' on node: %s", project, client), ioe);
+    }
+  }
+
+  /**
+   * The Refine instance reports the missing project either with <code>404</code> status or as
+   * JSON error, which has <code>"code": "error"</code>.
+   */
+  private static boolean isProjectFound(HttpResponse response) throws IOException {
+    int status = response.getStatusLine().getStatusCode();
+    if (status == HttpStatus.SC_NOT_FOUND) {
+      EntityUtils.consumeQuietly(response.getEntity());
+      return false;
+    }
+    if (status != HttpStatus.SC_OK) {
+      EntityUtils.consumeQuietly(response.getEntity());
+      throw new RefineException("Unexpected response : " + response.getStatusLine());
+    }
+
+    JsonNode metadata = JSON_PARSER.parseJson(EntityUtils.toString(response.getEntity(), UTF_8));
+    return !"error".equals(metadata.path("code").asText());
+  }
+
+  private void checkHealth() {
+    for (Node node : nodes) {
+      boolean healthy;
+      try {
+        RefineCommands.getVersion().build().execute(node.client);
+        healthy = true;
+      } catch (IOException | RuntimeException exc) {
+        healthy = false;
+      }
+
+      if (node.healthy != healthy) {
+        LOGGER.info("The node {} is {}", node.client, healthy ? "healthy" : "unhealthy");
+      }
+      node.healthy = healthy;
+    }
+  }
+
+  private static boolean isUnavailable(Throwable error) {
+    Throwable cause = error instanceof CompletionException && error.getCause() != null
+        ? error.getCause()
+        : error;
+    return cause instanceof CircuitOpenException
+        || cause instanceof IOException && !(cause instanceof RefineException);
+  }
+
+  /**
+   * Single Refine instance of the cluster.
+   */
+  private static class Node {
+
+    private final RefineClient client;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean healthy = true;
+
+    private Node(RefineClient client) {
+      this.client = client;
+    }
+  }
+
+  /**
+   * Executes the requests via the client of single node. It tracks the requests in flight and the
+   * availability of the node, and records the owner of the created projects.
+   */
+  private class NodeClient extends RefineClient {
+
+    private final Node node;
+    private volatile boolean unavailable;
+
+    private NodeClient(Node node) {
+      super(node.client);
+      this.node = node;
+    }
+
+    @Override
+    public URI createUri(String path) {
+      return node.client.createUri(path);
+    }
+
+    @Override
+    public RefineClient addInterceptor(ExecutionInterceptor interceptor) {
+      node.client.addInterceptor(interceptor);
+      return this;
+    }
+
+    @Override
+    public <T> T execute(HttpUriRequest request, ResponseHandler<? extends T> responseHandler)
+        throws IOException {
+      node.inFlight.incrementAndGet();
+      try {
+        return node.client.execute(request, recording(responseHandler));
+      } catch (IOException | RuntimeException exc) {
+        failed(exc);
+        throw exc;
+      } finally {
+        node.inFlight.decrementAndGet();
+      }
+    }
+
+    @Override
+    public <T> CompletableFuture<T> executeAsync(
+        HttpUriRequest request, ResponseHandler<? extends T> responseHandler) {
+      node.inFlight.incrementAndGet();
+      return node.client
+          .<T>executeAsync(request, recording(responseHandler))
+          .whenComplete((result, error) -> {
+            node.inFlight.decrementAndGet();
+            if (error != null) {
+              failed(error);
+            }
+          });
+    }
+
+    private <T> ResponseHandler<T> recording(ResponseHandler<? extends T> handler) {
+      return response -> {
+        T result = handler.handleResponse(response);
+        if (result instanceof CreateProjectResponse) {
+          owners.put(((CreateProjectResponse) result).getProjectId(), node);
+        }
+        return result;
+      };
+    }
+
+    private void failed(Throwable error) {
+      if (isUnavailable(error)) {
+        unavailable = true;
+        node.healthy = false;
+      }
+    }
+
+    @Override
+    public void close() {
+      // the resources are owned by the cluster
+    }
+
+    @Override
+    public String toString() {
+      return node.client.toString();
+    }
+  }
+
+  /**
+   * The state of single node of the cluster.
+   */
+  public static class NodeState {
+
+    private final String node;
+    private final boolean healthy;
+    private final int inFlight;
+
+    NodeState(String node, boolean healthy, int inFlight) {
+      this.node = node;
+      this.healthy = healthy;
+      this.inFlight = inFlight;
+    }
+
+    public String getNode() {
+      return node;
+    }
+
+    public boolean isHealthy() {
+      return healthy;
+    }
+
+    public int getInFlight() {
+      return inFlight;
+    }
+
+    @Override
+    public String toString() {
+      return "NodeState{node=" + node + ", healthy=" + healthy + ", inFlight=" + inFlight + '}';
+    }
+  }
+
+  /**
+   * The builder for {@link ClusterRefineClient}.
+   */
+  public static class Builder {
+
+    private final List<RefineClient> clients = new ArrayList<>();
+    private Balancing balancing = Balancing.LEAST_IN_FLIGHT;
+    private Duration healthCheckInterval = Duration.ofSeconds(10);
+
+    /**
+     * Adds node with the given address. The node is accessed via client created by
+     * {@link RefineClients#pooled(String, ConnectionPoolConfig)} with the default configuration.
+     *
+     * @param uri the address of the Refine instance
+     * @return the builder for fluent usage
+     * @throws URISyntaxException when the address is invalid
+     */
+    public Builder addNode(String uri) throws URISyntaxException {
+      return addNode(RefineClients.pooled(uri, ConnectionPoolConfig.createDefault()));
+    }
+
+    /**
+     * Adds node, which is accessed via the given client. The client is closed together with the
+     * cluster.
+     *
+     * @param client of the Refine instance
+     * @return the builder for fluent usage
+     */
+    public Builder addNode(RefineClient client) {
+      clients.add(notNull(client, "Missing 'client' argument"));
+      return this;
+    }
+
+    /**
+     * Sets the balancing of the stateless commands. The default is
+     * {@link Balancing#LEAST_IN_FLIGHT}.
+     *
+     * @param balancing the strategy for balancing
+     * @return the builder for fluent usage
+     */
+    public Builder setBalancing(Balancing balancing) {
+      this.balancing = balancing;
+      return this;
+    }
+
+    /**
+     * Sets the interval between the health checks of the nodes. The default is <code>10</code> s.
+     * The periodic checks are disabled, when <code>null</code> is set.
+     *
+     * @param healthCheckInterval the interval between the checks
+     * @return the builder for fluent usage
+     */
+    public Builder setHealthCheckInterval(Duration healthCheckInterval) {
+      this.healthCheckInterval = healthCheckInterval;
+      return this;
+    }
+
+    /**
+     * Builds the cluster client after validation.
+     *
+     * @return the client
+     */
+    public ClusterRefineClient build() {
+      notEmpty(clients, "At least one node is required");
+      notNull(balancing, "Missing 'balancing' argument");
+      isTrue(healthCheckInterval == null
+          || !healthCheckInterval.isNegative() && !healthCheckInterval.isZero(),
+          "The 'healthCheckInterval' should be positive");
+
+      List<Node> nodes = clients.stream().map(Node::new).collect(Collectors.toUnmodifiableList());
+      return new ClusterRefineClient(nodes, balancing, healthCheckInterval);
+    }
+  }
+}
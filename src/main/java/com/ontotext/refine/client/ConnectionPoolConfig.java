@@ -0,0 +1,396 @@
+package com.ontotext.refine.client;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import com.ontotext.refine.client.tracing.ExchangeProbes;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.RequestAcceptEncoding;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.ConnPoolControl;
+
+/**
+ * Holds the configurations for the transport of the pooled {@link RefineClient} instances. The
+ * configurations cover the size of the connection pool, the keep-alive and the eviction of the
+ * idle connections, the timeouts of the requests and the TCP settings of the sockets.
+ *
+ * <p>The default values are tuned for clients that execute multiple commands concurrently against
+ * single Refine instance, for example parallel exports of different projects.
+ *
+ * @see RefineClients#pooled(String, ConnectionPoolConfig)
+ */
+public class ConnectionPoolConfig {
+
+  private final int maxConnectionsPerRoute;
+  private final int maxConnectionsTotal;
+  private final Duration keepAlive;
+  private final Duration maxIdleTime;
+  private final Duration connectTimeout;
+  private final Duration socketTimeout;
+  private final Duration connectionRequestTimeout;
+  private final boolean tcpNoDelay;
+  private final boolean contentCompression;
+  private final Executor asyncExecutor;
+
+  private ConnectionPoolConfig(Builder builder) {
+    this.maxConnectionsPerRoute = builder.maxConnectionsPerRoute;
+    this.maxConnectionsTotal = builder.maxConnectionsTotal;
+    this.keepAlive = builder.keepAlive;
+    this.maxIdleTime = builder.maxIdleTime;
+    this.connectTimeout = builder.connectTimeout;
+    this.socketTimeout = builder.socketTimeout;
+    this.connectionRequestTimeout = builder.connectionRequestTimeout;
+    this.tcpNoDelay = builder.tcpNoDelay;
+    this.contentCompression = builder.contentCompression;
+    this.asyncExecutor = builder.asyncExecutor;
+  }
+
+  /**
+   * Creates new instance of {@link ConnectionPoolConfig} with the default values.
+   *
+   * @return new configuration instance
+   */
+  public static ConnectionPoolConfig createDefault() {
+    return new Builder().build();
+  }
+
+  public int getMaxConnectionsPerRoute() {
+    return maxConnectionsPerRoute;
+  }
+
+  public int getMaxConnectionsTotal() {
+    return maxConnectionsTotal;
+  }
+
+  public Duration getKeepAlive() {
+    return keepAlive;
+  }
+
+  public Duration getMaxIdleTime() {
+    return maxIdleTime;
+  }
+
+  public Duration getConnectTimeout() {
+    return connectTimeout;
+  }
+
+  public Duration getSocketTimeout() {
+    return socketTimeout;
+  }
+
+  public Duration getConnectionRequestTimeout() {
+    return connectionRequestTimeout;
+  }
+
+  public boolean isTcpNoDelay() {
+    return tcpNoDelay;
+  }
+
+  public boolean isContentCompression() {
+    return contentCompression;
+  }
+
+  public Executor getAsyncExecutor() {
+    return asyncExecutor;
+  }
+
+  /**
+   * Builds new {@link CloseableHttpClient} backed by {@link PoolingHttpClientConnectionManager},
+   * which is configured using the current configurations.
+   *
+   * @param pools receives the connection pool of the client, so its statistics can be reported
+   * @return new HTTP client
+   */
+  CloseableHttpClient createHttpClient(Consumer<ConnPoolControl<HttpRoute>> pools) {
+    PoolingHttpClientConnectionManager connManager = new PoolingHttpClientConnectionManager();
+    connManager.setMaxTotal(maxConnectionsTotal);
+    connManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+    connManager.setDefaultSocketConfig(createSocketConfig());
+    pools.accept(connManager);
+
+    HttpClientBuilder builder = HttpClients.custom()
+        .setConnectionManager(connManager)
+        .setDefaultRequestConfig(createRequestConfig())
+        .setKeepAliveStrategy(createKeepAliveStrategy())
+        .evictExpiredConnections()
+        .evictIdleConnections(maxIdleTime.toMillis(), TimeUnit.MILLISECONDS)
+        .setRequestExecutor(ExchangeProbes.requestExecutor());
+    if (!contentCompression) {
+      builder.disableContentCompression();
+    }
+    return builder.build();
+  }
+
+  /**
+   * Builds new {@link CloseableHttpAsyncClient} backed by
+   * {@link PoolingNHttpClientConnectionManager}, which is configured using the current
+   * configurations. The idle connections of the asynchronous client are not evicted in the
+   * background, they are validated when leased from the pool instead.<br>
+   * When the content compression is enabled, the client negotiates compressed responses, which are
+   * decompressed by the {@link SpoolingResponseConsumer}.
+   *
+   * @param pools receives the connection pool of the client, so its statistics can be reported
+   * @return new asynchronous HTTP client
+   */
+  CloseableHttpAsyncClient createHttpAsyncClient(Consumer<ConnPoolControl<HttpRoute>> pools) {
+    IOReactorConfig reactorConfig = IOReactorConfig.custom()
+        .setTcpNoDelay(tcpNoDelay)
+        .setSoKeepAlive(true)
+        .setConnectTimeout(toTimeout(connectTimeout))
+        .setSoTimeout(toTimeout(socketTimeout))
+        .build();
+
+    try {
+      PoolingNHttpClientConnectionManager connManager =
+          new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(reactorConfig));
+      connManager.setMaxTotal(maxConnectionsTotal);
+      connManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+      pools.accept(connManager);
+
+      HttpAsyncClientBuilder builder = HttpAsyncClients.custom()
+          .setConnectionManager(connManager)
+          .setDefaultRequestConfig(createRequestConfig())
+          .setKeepAliveStrategy(createKeepAliveStrategy())
+          .addInterceptorFirst(ExchangeProbes.RESPONSE);
+      if (contentCompression) {
+        builder.addInterceptorLast(new RequestAcceptEncoding());
+      }
+      return builder.build();
+    } catch (IOReactorException ire) {
+      throw new IllegalStateException("Failed to create the I/O reactor of the client.", ire);
+    }
+  }
+
+  SocketConfig createSocketConfig() {
+    return SocketConfig.custom()
+        .setTcpNoDelay(tcpNoDelay)
+        .setSoKeepAlive(true)
+        .setSoTimeout(toTimeout(socketTimeout))
+        .build();
+  }
+
+  RequestConfig createRequestConfig() {
+    return RequestConfig.custom()
+        .setConnectTimeout(toTimeout(connectTimeout))
+        .setSocketTimeout(toTimeout(socketTimeout))
+        .setConnectionRequestTimeout(toTimeout(connectionRequestTimeout))
+        .build();
+  }
+
+  /**
+   * The keep-alive provided by the server, via the <code>Keep-Alive</code> header, takes precedence
+   * over the configured one, but only when it is shorter.
+   */
+  ConnectionKeepAliveStrategy createKeepAliveStrategy() {
+    long configured = keepAlive.toMillis();
+    return (response, context) -> {
+      long fromServer = DefaultConnectionKeepAliveStrategy.INSTANCE
+          .getKeepAliveDuration(response, context);
+      return fromServer > 0 ? Math.min(fromServer, configured) : configured;
+    };
+  }
+
+  private static int toTimeout(Duration duration) {
+    return (int) Math.min(duration.toMillis(), Integer.MAX_VALUE);
+  }
+
+  @Override
+  public String toString() {
+    return "ConnectionPoolConfig{"
+        + "maxConnectionsPerRoute=" + maxConnectionsPerRoute
+        + ", maxConnectionsTotal=" + maxConnectionsTotal
+        + ", keepAlive=" + keepAlive
+        + ", maxIdleTime=" + maxIdleTime
+        + ", connectTimeout=" + connectTimeout
+        + ", socketTimeout=" + socketTimeout
+        + ", connectionRequestTimeout=" + connectionRequestTimeout
+        + ", tcpNoDelay=" + tcpNoDelay
+        + ", contentCompression=" + contentCompression
+        + ", asyncExecutor=" + asyncExecutor
+        + '}';
+  }
+
+  /**
+   * Builder for {@link ConnectionPoolConfig}.
+   */
+  public static class Builder {
+
+    private int maxConnectionsPerRoute = 20;
+    private int maxConnectionsTotal = 100;
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private Duration maxIdleTime = Duration.ofSeconds(60);
+    private Duration connectTimeout = Duration.ofSeconds(30);
+    private Duration socketTimeout = Duration.ZERO;
+    private Duration connectionRequestTimeout = Duration.ofSeconds(60);
+    private boolean tcpNoDelay = true;
+    private boolean contentCompression = true;
+    private Executor asyncExecutor = ForkJoinPool.commonPool();
+
+    /**
+     * Sets the maximum number of connections, which can be opened to single Refine instance. The
+     * default is <code>20</code>.
+     *
+     * @param maxConnectionsPerRoute the maximum number of connections per route
+     * @return the builder for fluent usage
+     */
+    public Builder setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+      this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of connections in the pool. The default is <code>100</code>.
+     *
+     * @param maxConnectionsTotal the maximum number of connections in the pool
+     * @return the builder for fluent usage
+     */
+    public Builder setMaxConnectionsTotal(int maxConnectionsTotal) {
+      this.maxConnectionsTotal = maxConnectionsTotal;
+      return this;
+    }
+
+    /**
+     * Sets for how long the connections are kept alive, when the server does not provide such
+     * information. The default is <code>30</code> seconds.
+     *
+     * @param keepAlive the keep-alive duration
+     * @return the builder for fluent usage
+     */
+    public Builder setKeepAlive(Duration keepAlive) {
+      this.keepAlive = keepAlive;
+      return this;
+    }
+
+    /**
+     * Sets the time after which the idle connections are evicted from the pool by background
+     * thread. The default is <code>60</code> seconds.
+     *
+     * @param maxIdleTime the maximum time for which the connection can be idle
+     * @return the builder for fluent usage
+     */
+    public Builder setMaxIdleTime(Duration maxIdleTime) {
+      this.maxIdleTime = maxIdleTime;
+      return this;
+    }
+
+    /**
+     * Sets the timeout for establishing of the connection. The default is <code>30</code> seconds.
+     *
+     * @param connectTimeout the connect timeout, zero is interpreted as infinite timeout
+     * @return the builder for fluent usage
+     */
+    public Builder setConnectTimeout(Duration connectTimeout) {
+      this.connectTimeout = connectTimeout;
+      return this;
+    }
+
+    /**
+     * Sets the maximum period of inactivity between two consecutive data packets. The default is
+     * infinite as some of the exports could take a lot of time, before the data is streamed.
+     *
+     * @param socketTimeout the socket timeout, zero is interpreted as infinite timeout
+     * @return the builder for fluent usage
+     */
+    public Builder setSocketTimeout(Duration socketTimeout) {
+      this.socketTimeout = socketTimeout;
+      return this;
+    }
+
+    /**
+     * Sets the timeout for leasing a connection from the pool. The default is <code>60</code>
+     * seconds.
+     *
+     * @param connectionRequestTimeout the connection lease timeout, zero is interpreted as infinite
+     *        timeout
+     * @return the builder for fluent usage
+     */
+    public Builder setConnectionRequestTimeout(Duration connectionRequestTimeout) {
+      this.connectionRequestTimeout = connectionRequestTimeout;
+      return this;
+    }
+
+    /**
+     * Sets whether the Nagle's algorithm should be disabled for the sockets. The default is
+     * <code>true</code>.
+     *
+     * @param tcpNoDelay <code>true</code> to disable the Nagle's algorithm
+     * @return the builder for fluent usage
+     */
+    public Builder setTcpNoDelay(boolean tcpNoDelay) {
+      this.tcpNoDelay = tcpNoDelay;
+      return this;
+    }
+
+    /**
+     * Sets whether the client should request compressed responses, via the
+     * <code>Accept-Encoding</code> header, and decompress them while they are read. The default is
+     * <code>true</code>. The compression reduces significantly the transferred bytes of the
+     * exports, but it costs CPU time on both sides, which may be slower on fast local networks.
+     *
+     * @param contentCompression <code>true</code> to negotiate <code>gzip</code> and
+     *        <code>deflate</code> compression of the responses
+     * @return the builder for fluent usage
+     */
+    public Builder setContentCompression(boolean contentCompression) {
+      this.contentCompression = contentCompression;
+      return this;
+    }
+
+    /**
+     * Sets the executor of the blocking work of the asynchronous requests. The response handlers
+     * are invoked on it, after the response is received by the I/O threads, as some of them are
+     * writing files. The default is {@link ForkJoinPool#commonPool()}, which is shared with the
+     * rest of the application, so dedicated executor should be preferred, when the handlers are
+     * slow or a lot of requests are executed concurrently.
+     *
+     * @param asyncExecutor the executor of the asynchronous requests
+     * @return the builder for fluent usage
+     */
+    public Builder setAsyncExecutor(Executor asyncExecutor) {
+      this.asyncExecutor = asyncExecutor;
+      return this;
+    }
+
+    /**
+     * Builds the configuration after validation.
+     *
+     * @return new configuration instance
+     */
+    public ConnectionPoolConfig build() {
+      isTrue(maxConnectionsPerRoute > 0, "The 'maxConnectionsPerRoute' should be positive");
+      isTrue(maxConnectionsTotal >= maxConnectionsPerRoute,
+          "The 'maxConnectionsTotal' should not be less than 'maxConnectionsPerRoute'");
+      validate(keepAlive, "keepAlive");
+      validate(maxIdleTime, "maxIdleTime");
+      validate(connectTimeout, "connectTimeout");
+      validate(socketTimeout, "socketTimeout");
+      validate(connectionRequestTimeout, "connectionRequestTimeout");
+      notNull(asyncExecutor, "Missing 'asyncExecutor' argument");
+      return new ConnectionPoolConfig(this);
+    }
+
+    private static void validate(Duration duration, String name) {
+      notNull(duration, "Missing '%s' argument", name);
+      isTrue(!duration.isNegative(), "The '%s' should not be negative", name);
+    }
+  }
+}
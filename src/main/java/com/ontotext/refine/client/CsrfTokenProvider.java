@@ -0,0 +1,168 @@
+package com.ontotext.refine.client;
+
+import com.ontotext.refine.client.command.RefineCommand;
+import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.exceptions.InvalidCsrfTokenException;
+import com.ontotext.refine.client.exceptions.RefineException;
+import com.ontotext.refine.client.util.ThrowingFunction;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Provides the CSRF tokens required by the commands that modify the data of the Refine instance.
+ * The token is retrieved lazily, on the first request, and afterwards it is cached and reused by
+ * all of the commands executed via the same client.<br>
+ * When the Refine instance rejects the cached token, the token is retrieved again and the
+ * rejected command is executed once more with the new token. The concurrent requests for token
+ * share single in-flight retrieval.
+ *
+ * <p>The provider is used by the commands, which are configured to use the cached token of the
+ * client via the <code>useClientToken</code> method of their builders.
+ */
+public class CsrfTokenProvider {
+
+  private final RefineClient client;
+  private final AtomicReference<CompletableFuture<String>> current = new AtomicReference<>();
+
+  CsrfTokenProvider(RefineClient client) {
+    this.client = client;
+  }
+
+  /**
+   * Creates provider, which starts with the given retrieval of token. It is used to pass already
+   * retrieved token to the commands, which are dispatched asynchronously.
+   */
+  CsrfTokenProvider(RefineClient client, CompletableFuture<String> token) {
+    this.client = client;
+    this.current.set(token);
+  }
+
+  /**
+   * Provides the cached token or retrieves new one, if there is no cached token.
+   *
+   * @return the CSRF token
+   * @throws RefineException when the token cannot be retrieved
+   */
+  public String getToken() throws RefineException {
+    CompletableFuture<String> token = current.get();
+    if (token == null || token.isCompletedExceptionally()) {
+      token = fetch(token, false);
+    }
+    return await(token);
+  }
+
+  /**
+   * Provides the cached token or retrieves new one asynchronously, if there is no cached token.
+   * The token is retrieved via {@link RefineClient#executeAsync(RefineCommand)}, so the calling
+   * thread is not blocked.
+   *
+   * @return a future which is completed with the CSRF token
+   */
+  CompletableFuture<String> getTokenAsync() {
+    CompletableFuture<String> token = current.get();
+    if (token == null || token.isCompletedExceptionally()) {
+      token = fetch(token, true);
+    }
+    return token;
+  }
+
+  /**
+   * Retrieves new token, if the given one is still the cached token. When the token is already
+   * refreshed by another caller, the refreshed token is returned without new request.
+   *
+   * @param stale the token rejected by the Refine instance
+   * @return the new CSRF token
+   * @throws RefineException when the token cannot be retrieved
+   */
+  public String refresh(String stale) throws RefineException {
+    CompletableFuture<String> token = current.get();
+    if (token == null
+        || token.isCompletedExceptionally()
+        || (token.isDone() && Objects.equals(token.join(), stale))) {
+      token = fetch(token, false);
+    }
+    return await(token);
+  }
+
+  /**
+   * Removes the cached token. The next request will retrieve new token.
+   */
+  public void invalidate() {
+    current.set(null);
+  }
+
+  /**
+   * Removes the given token, if it is still the cached token.
+   */
+  void invalidate(CompletableFuture<String> stale) {
+    current.compareAndSet(stale, null);
+  }
+
+  /**
+   * Provides the retrieval of the cached token, so that it could be invalidated only once, when it
+   * is rejected by multiple asynchronous requests.
+   */
+  CompletableFuture<String> cached() {
+    return current.get();
+  }
+
+  /**
+   * Executes a call that requires CSRF token. When the call fails, because the token is rejected
+   * by the Refine instance, it is executed again with refreshed token.
+   *
+   * @param <T> the type of the result
+   * @param call which uses the provided token
+   * @return the result of the call
+   * @throws IOException when the call fails
+   */
+  public <T> T execute(ThrowingFunction<String, T, IOException> call) throws IOException {
+    String token = getToken();
+    try {
+      return call.apply(token);
+    } catch (InvalidCsrfTokenException ite) {
+      return call.apply(refresh(token));
+    }
+  }
+
+  private CompletableFuture<String> fetch(CompletableFuture<String> expected, boolean async) {
+    CompletableFuture<String> token = new CompletableFuture<>();
+    if (!current.compareAndSet(expected, token)) {
+      // another caller is already retrieving the token
+      CompletableFuture<String> concurrent = current.get();
+      return concurrent != null ? concurrent : fetch(null, async);
+    }
+
+    if (async) {
+      RefineCommands.getCsrfToken().build().executeAsync(client).whenComplete(
+          (response, error) -> {
+            if (error != null) {
+              token.completeExceptionally(error);
+            } else {
+              token.complete(response.getToken());
+            }
+          });
+      return token;
+    }
+
+    try {
+      token.complete(RefineCommands.getCsrfToken().build().execute(client).getToken());
+    } catch (RefineException | RuntimeException exc) {
+      token.completeExceptionally(exc);
+    }
+    return token;
+  }
+
+  private static String await(CompletableFuture<String> token) throws RefineException {
+    try {
+      return token.join();
+    } catch (CompletionException ce) {
+      if (ce.getCause() instanceof RefineException) {
+        throw (RefineException) ce.getCause();
+      }
+      throw new RefineException("Failed to retrieve CSRF token.", ce.getCause());
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.ontotext.refine.client;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpUriRequest;
+
+/**
+ * Intercepts the requests executed via {@link RefineClient}. The interceptors are registered via
+ * {@link RefineClient#addInterceptor(ExecutionInterceptor)} and they are invoked as chain, in the
+ * order of their registration. Each interceptor decides whether and how many times the request is
+ * passed to the next one in the chain, which allows implementing of retries, rate limiting,
+ * instrumentation and so on.
+ *
+ * <p>The request path is the path of the endpoint of the command, which executes it, so it can be
+ * used to configure the interceptors per type of command.
+ *
+ * @see RefineClient#execute(HttpUriRequest, ResponseHandler)
+ * @see RefineClient#executeAsync(HttpUriRequest, ResponseHandler)
+ */
+public interface ExecutionInterceptor {
+
+  /**
+   * Intercepts synchronous execution of request.
+   *
+   * @param <T> the type of the response
+   * @param request which is executed
+   * @param handler which processes the response of the request
+   * @param chain used to pass the request to the next interceptor
+   * @return the result of the handler
+   * @throws IOException when there is an error during execution
+   */
+  <T> T intercept(HttpUriRequest request, ResponseHandler<? extends T> handler, Chain chain)
+      throws IOException;
+
+  /**
+   * Intercepts asynchronous execution of request. The default implementation passes the request to
+   * the next interceptor without changes.
+   *
+   * @param <T> the type of the response
+   * @param request which is executed
+   * @param handler which processes the response of the request
+   * @param chain used to pass the request to the next interceptor
+   * @return a future which is completed with the result of the handler
+   */
+  default <T> CompletableFuture<T> interceptAsync(
+      HttpUriRequest request, ResponseHandler<? extends T> handler, AsyncChain chain) {
+    return chain.proceed(request, handler);
+  }
+
+  /**
+   * The rest of the chain of the synchronous execution.
+   */
+  interface Chain {
+
+    /**
+     * Passes the request to the next interceptor or executes it, when there are no more
+     * interceptors.
+     *
+     * @param <T> the type of the response
+     * @param request to execute
+     * @param handler which processes the response of the request
+     * @return the result of the handler
+     * @throws IOException when there is an error during execution
+     */
+    <T> T proceed(HttpUriRequest request, ResponseHandler<? extends T> handler)
+        throws IOException;
+  }
+
+  /**
+   * The rest of the chain of the asynchronous execution.
+   */
+  interface AsyncChain {
+
+    /**
+     * Passes the request to the next interceptor or executes it, when there are no more
+     * interceptors.
+     *
+     * @param <T> the type of the response
+     * @param request to execute
+     * @param handler which processes the response of the request
+     * @return a future which is completed with the result of the handler
+     */
+    <T> CompletableFuture<T> proceed(HttpUriRequest request, ResponseHandler<? extends T> handler);
+  }
+}
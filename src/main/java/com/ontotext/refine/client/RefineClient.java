@@ -1,13 +1,41 @@
 package com.ontotext.refine.client;
 
+import com.ontotext.refine.client.command.RefineCommand;
+import com.ontotext.refine.client.exceptions.InvalidCsrfTokenException;
+import com.ontotext.refine.client.exceptions.RefineException;
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import org.apache.commons.lang3.Validate;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
 import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+import org.apache.http.pool.ConnPoolControl;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.EntityUtils;
 
 /**
  * Represents the client which purpose is to provide the HTTP communication between the application
@@ -17,6 +45,12 @@ public class RefineClient implements Closeable {
 
   private final URI uri;
   private final CloseableHttpClient httpClient;
+  private final Supplier<CloseableHttpAsyncClient> asyncClientFactory;
+  private volatile CloseableHttpAsyncClient asyncClient;
+  private final CsrfTokenProvider csrfTokenProvider;
+  private final List<ExecutionInterceptor> interceptors = new CopyOnWriteArrayList<>();
+  private final List<ConnPoolControl<HttpRoute>> pools;
+  private final Executor asyncExecutor;
 
   /**
    * Creates new client instance.
@@ -25,8 +59,88 @@ public class RefineClient implements Closeable {
    * @param httpClient used to executed the requests
    */
   RefineClient(URI uri, CloseableHttpClient httpClient) {
+    this(uri, httpClient, HttpAsyncClients::createDefault);
+  }
+
+  /**
+   * Creates new client instance.
+   *
+   * @param uri where the Refine instance could be accessed
+   * @param httpClient used to executed the requests
+   * @param asyncClientFactory provides the client used to execute the asynchronous requests. It is
+   *        invoked lazily, on the first asynchronous execution
+   */
+  RefineClient(
+      URI uri,
+      CloseableHttpClient httpClient,
+      Supplier<CloseableHttpAsyncClient> asyncClientFactory) {
+    this(uri, httpClient, asyncClientFactory, Collections.emptyList());
+  }
+
+  /**
+   * Creates new client instance.
+   *
+   * @param uri where the Refine instance could be accessed
+   * @param httpClient used to executed the requests
+   * @param asyncClientFactory provides the client used to execute the asynchronous requests. It is
+   *        invoked lazily, on the first asynchronous execution
+   * @param pools the connection pools of the HTTP clients, which statistics are reported via
+   *        {@link #getPoolStats()}. The pool of the asynchronous client is added on its creation
+   */
+  RefineClient(
+      URI uri,
+      CloseableHttpClient httpClient,
+      Supplier<CloseableHttpAsyncClient> asyncClientFactory,
+      List<ConnPoolControl<HttpRoute>> pools) {
+    this(uri, httpClient, asyncClientFactory, pools, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates new client instance.
+   *
+   * @param uri where the Refine instance could be accessed
+   * @param httpClient used to executed the requests
+   * @param asyncClientFactory provides the client used to execute the asynchronous requests. It is
+   *        invoked lazily, on the first asynchronous execution
+   * @param pools the connection pools of the HTTP clients, which statistics are reported via
+   *        {@link #getPoolStats()}. The pool of the asynchronous client is added on its creation
+   * @param asyncExecutor executes the blocking work of the asynchronous requests, like the response
+   *        handlers
+   */
+  RefineClient(
+      URI uri,
+      CloseableHttpClient httpClient,
+      Supplier<CloseableHttpAsyncClient> asyncClientFactory,
+      List<ConnPoolControl<HttpRoute>> pools,
+      Executor asyncExecutor) {
+    this(uri, httpClient, asyncClientFactory, pools, asyncExecutor, null);
+  }
+
+  /**
+   * Creates client instance, which shares the transport and the CSRF tokens of the given client.
+   * It is used by the clients, which delegate the execution of the requests to other client.
+   *
+   * @param client which transport and token provider are shared
+   */
+  RefineClient(RefineClient client) {
+    this(client.uri, client.httpClient, client.asyncClientFactory, client.pools,
+        client.asyncExecutor, client.getCsrfTokenProvider());
+  }
+
+  private RefineClient(
+      URI uri,
+      CloseableHttpClient httpClient,
+      Supplier<CloseableHttpAsyncClient> asyncClientFactory,
+      List<ConnPoolControl<HttpRoute>> pools,
+      Executor asyncExecutor,
+      CsrfTokenProvider csrfTokenProvider) {
     this.uri = uri;
     this.httpClient = httpClient;
+    this.asyncClientFactory = asyncClientFactory;
+    this.pools = pools;
+    this.asyncExecutor = asyncExecutor;
+    this.csrfTokenProvider =
+        csrfTokenProvider != null ? csrfTokenProvider : new CsrfTokenProvider(this);
   }
 
   /**
@@ -44,26 +158,424 @@ public class RefineClient implements Closeable {
   }
 
   /**
-   * Executes given {@link HttpUriRequest}.
+   * Provides the CSRF tokens for the commands executed via the current client, which are built
+   * without explicit token.
+   *
+   * @return the token provider of the client
+   */
+  public CsrfTokenProvider getCsrfTokenProvider() {
+    return csrfTokenProvider;
+  }
+
+  /**
+   * Provides the total statistics of the connection pools of the client, summed for the synchronous
+   * and the asynchronous requests. The statistics are available only for the clients created via
+   * {@link RefineClients#pooled(String, ConnectionPoolConfig)}, the other clients report empty
+   * statistics.
+   *
+   * @return the statistics of the connection pools
+   */
+  public PoolStats getPoolStats() {
+    int leased = 0;
+    int pending = 0;
+    int available = 0;
+    int max = 0;
+    for (ConnPoolControl<HttpRoute> pool : pools) {
+      PoolStats stats = pool.getTotalStats();
+      leased += stats.getLeased();
+      pending += stats.getPending();
+      available += stats.getAvailable();
+      max += stats.getMax();
+    }
+    return new PoolStats(leased, pending, available, max);
+  }
+
+  /**
+   * Registers interceptor of the requests executed via the current client. The interceptors are
+   * invoked in the order of their registration, for the synchronous and for the asynchronous
+   * executions.
+   *
+   * @param interceptor to register
+   * @return the current client for fluent usage
+   */
+  public RefineClient addInterceptor(ExecutionInterceptor interceptor) {
+    interceptors.add(Validate.notNull(interceptor, "The interceptor argument is required."));
+    return this;
+  }
+
+  /**
+   * Executes given {@link HttpUriRequest}. The request passes through the registered
+   * {@link ExecutionInterceptor}s, before it is sent.
    *
    * @param <T> the type of the response
    * @param request which should be executed
    * @param responseHandler which is used to process the response from the request
    * @return a response
    * @throws IOException when there is an error during execution
+   * @throws InvalidCsrfTokenException when the request is rejected due to missing or invalid CSRF
+   *         token
    */
   public <T> T execute(HttpUriRequest request, ResponseHandler<? extends T> responseHandler)
       throws IOException {
+    return new InterceptorChain(interceptors.toArray(new ExecutionInterceptor[0]))
+        .proceed(request, responseHandler);
+  }
+
+  private <T> T send(HttpUriRequest request, ResponseHandler<? extends T> responseHandler)
+      throws IOException {
     return httpClient.execute(request, responseHandler);
   }
 
+  /**
+   * Executes given {@link HttpUriRequest} without blocking the calling thread. The request passes
+   * through the registered {@link ExecutionInterceptor}s, then it is sent and its response is
+   * received by non-blocking I/O. The response body is buffered in-memory or spilled into
+   * temporary file, when it is large, and afterwards it is processed by the handler,
+   * on the executor configured via {@link ConnectionPoolConfig.Builder#setAsyncExecutor}.
+   *
+   * <p>The request entities which cannot provide their content as stream, like the multipart
+   * entities, are written on the same executor and they are sent in chunks, as they are written.
+   *
+   * @param <T> the type of the response
+   * @param request which should be executed
+   * @param responseHandler which is used to process the response from the request
+   * @return a future which is completed with the result of the handler or exceptionally, when
+   *         there is an error during the execution
+   */
+  public <T> CompletableFuture<T> executeAsync(
+      HttpUriRequest request, ResponseHandler<? extends T> responseHandler) {
+    return new InterceptorChain(interceptors.toArray(new ExecutionInterceptor[0]))
+        .proceedAsync(request, responseHandler);
+  }
+
+  /**
+   * Executes given {@link RefineCommand} without blocking the calling thread. The request of the
+   * command is built on the calling thread and then it is executed asynchronously via
+   * {@link #executeAsync(HttpUriRequest, ResponseHandler)}. The command itself is used as handler
+   * for the response.
+   *
+   * <p>This is the default mechanism used by {@link RefineCommand#executeAsync(RefineClient)}. It
+   * requires the command to execute single request via {@link #execute(HttpUriRequest,
+   * ResponseHandler)} and to return its result.
+   *
+   * <p>The commands configured to use the cached CSRF token of the client are dispatched once the
+   * token is available. When the token is not retrieved yet, it is retrieved asynchronously and the
+   * command is dispatched afterwards on the executor configured via
+   * {@link ConnectionPoolConfig.Builder#setAsyncExecutor}. The commands are retried once, when the
+   * Refine instance rejects the token, like in the synchronous execution. The retry is dispatched
+   * in the same way, after new token is retrieved.
+   *
+   * @param <T> the type of the response
+   * @param command to execute
+   * @return a future which is completed with the result of the command
+   */
+  public <T> CompletableFuture<T> executeAsync(RefineCommand<T> command) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    dispatch(command, future, true);
+    return future;
+  }
+
+  private <T> void dispatch(RefineCommand<T> command, CompletableFuture<T> future, boolean retry) {
+    AsyncDispatcher<T> dispatcher = new AsyncDispatcher<>(this);
+    try {
+      T result = command.execute(dispatcher);
+      if (dispatcher.future == null) {
+        future.complete(result);
+        return;
+      }
+
+      CompletableFuture<String> token = dispatcher.token;
+      dispatcher.future.whenComplete((response, error) -> {
+        if (error == null) {
+          future.complete(response);
+        } else if (token != null && isTokenRejection(error)) {
+          getCsrfTokenProvider().invalidate(token);
+          if (retry) {
+            dispatchWithToken(command, future, false);
+          } else {
+            future.completeExceptionally(toRefineException(error));
+          }
+        } else {
+          future.completeExceptionally(toRefineException(error));
+        }
+      });
+    } catch (PendingTokenException pte) {
+      dispatchWithToken(command, future, retry);
+    } catch (IOException | RuntimeException exc) {
+      future.completeExceptionally(toRefineException(exc));
+    }
+  }
+
+  /**
+   * Dispatches the command, once the cached CSRF token is retrieved, so the retrieval blocks
+   * neither the calling thread, nor the thread which completes the previous attempt.
+   */
+  private <T> void dispatchWithToken(
+      RefineCommand<T> command, CompletableFuture<T> future, boolean retry) {
+    getCsrfTokenProvider().getTokenAsync().whenCompleteAsync((token, error) -> {
+      if (error != null) {
+        future.completeExceptionally(toRefineException(error));
+      } else {
+        dispatch(command, future, retry);
+      }
+    }, asyncExecutor);
+  }
+
+  private static boolean isTokenRejection(Throwable error) {
+    return error instanceof InvalidCsrfTokenException
+        || error.getCause() instanceof InvalidCsrfTokenException;
+  }
+
+  /**
+   * The transport errors are reported as they are by the interceptors, so they could be classified,
+   * but the futures of the commands are completed only with {@link RefineException}s.
+   */
+  private static Throwable toRefineException(Throwable error) {
+    Throwable cause = error instanceof CompletionException && error.getCause() != null
+        ? error.getCause()
+        : error;
+    if (cause instanceof RefineException || cause instanceof CancellationException) {
+      return cause;
+    }
+    return new RefineException(
+        "Failed to execute the command due to: " + cause.getMessage(), cause);
+  }
+
+  private <T> CompletableFuture<T> sendAsync(
+      HttpUriRequest request, ResponseHandler<? extends T> responseHandler) {
+    CompletableFuture<HttpResponse> exchange = new CompletableFuture<>();
+    try {
+      getAsyncClient().execute(
+          createProducer(request),
+          new SpoolingResponseConsumer(),
+          new FutureCallback<HttpResponse>() {
+
+            @Override
+            public void completed(HttpResponse result) {
+              exchange.complete(result);
+            }
+
+            @Override
+            public void failed(Exception exc) {
+              exchange.completeExceptionally(exc);
+            }
+
+            @Override
+            public void cancelled() {
+              exchange.cancel(false);
+            }
+          });
+    } catch (RuntimeException exc) {
+      exchange.completeExceptionally(exc);
+    }
+
+    // the handling is moved out of the I/O threads as some handlers are writing files
+    return exchange.thenApplyAsync(response -> handle(response, responseHandler), asyncExecutor);
+  }
+
+  private <T> T handle(HttpResponse response, ResponseHandler<? extends T> handler) {
+    HttpEntity entity = response.getEntity();
+    try {
+      return handler.handleResponse(response);
+    } catch (IOException ioe) {
+      throw new CompletionException(ioe);
+    } finally {
+      EntityUtils.consumeQuietly(entity);
+    }
+  }
+
+  private HttpAsyncRequestProducer createProducer(HttpUriRequest request) {
+    HttpHost target = URIUtils.extractHost(request.getURI());
+    if (request instanceof HttpEntityEnclosingRequest) {
+      HttpEntityEnclosingRequest enclosing = (HttpEntityEnclosingRequest) request;
+      if (!providesContent(enclosing.getEntity())) {
+        return StreamingContentProducer.createRequestProducer(target, enclosing, asyncExecutor);
+      }
+    }
+    return HttpAsyncMethods.create(target, request);
+  }
+
+  /**
+   * The streaming entities are written via the streaming producer, as their content is consumed
+   * once and some of them, like the multipart entities with stream bodies, could only be written.
+   * The repeatable entities are probed whether they could provide their content without writing.
+   */
+  private static boolean providesContent(HttpEntity entity) {
+    if (entity == null) {
+      return true;
+    }
+    if (entity.isStreaming() || !entity.isRepeatable()) {
+      return false;
+    }
+
+    try (InputStream is = entity.getContent()) { // NOSONAR
+      return true;
+    } catch (UnsupportedOperationException | IOException exc) {
+      return false;
+    }
+  }
+
+  private CloseableHttpAsyncClient getAsyncClient() {
+    CloseableHttpAsyncClient client = asyncClient;
+    if (client == null) {
+      synchronized (this) {
+        client = asyncClient;
+        if (client == null) {
+          client = asyncClientFactory.get();
+          if (!client.isRunning()) {
+            client.start();
+          }
+          asyncClient = client;
+        }
+      }
+    }
+    return client;
+  }
+
   @Override
   public void close() throws IOException {
-    httpClient.close();
+    try {
+      httpClient.close();
+    } finally {
+      CloseableHttpAsyncClient client = asyncClient;
+      if (client != null) {
+        client.close();
+      }
+    }
   }
 
   @Override
   public String toString() {
     return "RefineClient{" + "url=" + uri + '}';
   }
+
+  /**
+   * Passes the request through the snapshot of the interceptors, which is taken at the start of the
+   * execution, and sends it after the last one.
+   */
+  private class InterceptorChain {
+
+    private final ExecutionInterceptor[] chain;
+    private final int index;
+
+    private InterceptorChain(ExecutionInterceptor[] chain) {
+      this(chain, 0);
+    }
+
+    private InterceptorChain(ExecutionInterceptor[] chain, int index) {
+      this.chain = chain;
+      this.index = index;
+    }
+
+    private <T> T proceed(HttpUriRequest request, ResponseHandler<? extends T> handler)
+        throws IOException {
+      if (index == chain.length) {
+        return send(request, handler);
+      }
+
+      InterceptorChain next = new InterceptorChain(chain, index + 1);
+      return chain[index].intercept(request, handler, new ExecutionInterceptor.Chain() {
+
+        @Override
+        public <R> R proceed(HttpUriRequest req, ResponseHandler<? extends R> hdl)
+            throws IOException {
+          return next.proceed(req, hdl);
+        }
+      });
+    }
+
+    private <T> CompletableFuture<T> proceedAsync(
+        HttpUriRequest request, ResponseHandler<? extends T> handler) {
+      if (index == chain.length) {
+        return sendAsync(request, handler);
+      }
+
+      InterceptorChain next = new InterceptorChain(chain, index + 1);
+      try {
+        return chain[index].interceptAsync(request, handler, new ExecutionInterceptor.AsyncChain() {
+
+          @Override
+          public <R> CompletableFuture<R> proceed(
+              HttpUriRequest req, ResponseHandler<? extends R> hdl) {
+            return next.proceedAsync(req, hdl);
+          }
+        });
+      } catch (RuntimeException exc) {
+        return CompletableFuture.failedFuture(exc);
+      }
+    }
+  }
+
+  /**
+   * Signals that the command requires the cached CSRF token, which is not retrieved yet. It stops
+   * the building of the request, so the token could be retrieved asynchronously.
+   */
+  private static class PendingTokenException extends RuntimeException {
+
+    private static final long serialVersionUID = -5270315874528431147L;
+
+    private PendingTokenException() {
+      super("The CSRF token is not retrieved yet.", null, false, false);
+    }
+  }
+
+  /**
+   * Captures the request executed by a command and dispatches it asynchronously via the client that
+   * created the dispatcher.
+   */
+  private static class AsyncDispatcher<R> extends RefineClient {
+
+    private final RefineClient client;
+    private CompletableFuture<R> future;
+    private CompletableFuture<String> token;
+
+    private AsyncDispatcher(RefineClient client) {
+      super(client);
+      this.client = client;
+    }
+
+    @Override
+    public URI createUri(String path) {
+      return client.createUri(path);
+    }
+
+    /**
+     * The commands request the provider only when they use the cached token. The command is given
+     * the token, only when it is already retrieved, otherwise it is dispatched again afterwards.
+     */
+    @Override
+    public CsrfTokenProvider getCsrfTokenProvider() {
+      CompletableFuture<String> cached = client.getCsrfTokenProvider().cached();
+      if (cached == null || !cached.isDone() || cached.isCompletedExceptionally()) {
+        throw new PendingTokenException();
+      }
+      token = cached;
+      return new CsrfTokenProvider(client, cached);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T execute(HttpUriRequest request, ResponseHandler<? extends T> responseHandler)
+        throws IOException {
+      if (future != null) {
+        throw new RefineException(
+            "The command executes more than one request and it cannot be dispatched"
+                + " asynchronously. Override 'executeAsync' of the command instead.");
+      }
+
+      future = (CompletableFuture<R>) client.executeAsync(request, responseHandler);
+      return null;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> executeAsync(
+        HttpUriRequest request, ResponseHandler<? extends T> responseHandler) {
+      return client.executeAsync(request, responseHandler);
+    }
+
+    @Override
+    public void close() {
+      // the resources are owned by the actual client
+    }
+  }
 }
@@ -2,18 +2,22 @@ package com.ontotext.refine.client;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import org.apache.commons.lang3.Validate;
 import org.apache.http.client.CredentialsProvider;
+import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.pool.ConnPoolControl;
 
 /**
  * Defines different instances of {@link RefineClient}.
  *
  * @author Antoniy Kunchev
  */
-// TODO configure some sensible timeouts and other configurations
 public interface RefineClients {
 
   /**
@@ -28,6 +32,30 @@ public interface RefineClients {
     return new RefineClient(new URI(uri), HttpClients.createDefault());
   }
 
+  /**
+   * Creates {@link RefineClient} instance, which uses pool of persistent connections. The pool, the
+   * timeouts and the socket options are configured via the given {@link ConnectionPoolConfig}.<br>
+   * Such client should be preferred, when multiple commands are executed concurrently, as the
+   * {@link #standard(String)} client allows only two connections to the Refine instance.
+   *
+   * @param uri to be used as base for the commands execution. Basically the address of the Refine
+   *        tool instance
+   * @param config for the transport of the client
+   * @return new {@link RefineClient} instance
+   * @throws URISyntaxException when the input <code>uri</code> argument is invalid
+   * @throws NullPointerException if the <code>config</code> argument is <code>null</code>
+   */
+  static RefineClient pooled(String uri, ConnectionPoolConfig config) throws URISyntaxException {
+    Validate.notNull(config, "The connection pool configuration is required.");
+    List<ConnPoolControl<HttpRoute>> pools = new CopyOnWriteArrayList<>();
+    return new RefineClient(
+        new URI(uri),
+        config.createHttpClient(pools::add),
+        () -> config.createHttpAsyncClient(pools::add),
+        pools,
+        config.getAsyncExecutor());
+  }
+
   /**
    * Creates secured {@link RefineClient} instance. It uses the given {@link CredentialsProvider}
    * for authentication, when the commands are executed.
@@ -61,4 +89,26 @@ public interface RefineClients {
     Validate.notNull(internalClient, "The internal client argument is required.");
     return new RefineClient(new URI(uri), internalClient);
   }
+
+  /**
+   * Creates {@link RefineClient} instance using the provided {@link CloseableHttpClient} and
+   * {@link CloseableHttpAsyncClient}. The asynchronous client is used for the asynchronous
+   * execution of the commands. It is started by the {@link RefineClient}, on the first usage, if it
+   * is not started already.
+   *
+   * @param uri to be used as base for the commands execution. Basically the address of the Refine
+   *        tool instance
+   * @param internalClient to be used for execution of the requests to the Refine tool
+   * @param internalAsyncClient to be used for asynchronous execution of the requests to the Refine
+   *        tool
+   * @return new {@link RefineClient} instance
+   * @throws URISyntaxException when the input <code>uri</code> argument is invalid
+   */
+  static RefineClient custom(
+      String uri, CloseableHttpClient internalClient, CloseableHttpAsyncClient internalAsyncClient)
+      throws URISyntaxException {
+    Validate.notNull(internalClient, "The internal client argument is required.");
+    Validate.notNull(internalAsyncClient, "The internal asynchronous client argument is required.");
+    return new RefineClient(new URI(uri), internalClient, () -> internalAsyncClient);
+  }
 }
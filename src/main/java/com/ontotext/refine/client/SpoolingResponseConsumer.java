@@ -0,0 +1,157 @@
+package com.ontotext.refine.client;
+
+import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.entity.DeflateDecompressingEntity;
+import org.apache.http.client.entity.GzipDecompressingEntity;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Consumes the responses of the asynchronous requests without blocking the I/O threads. The body of
+ * the response is kept in-memory until it reaches specific size. After that it is spilled into
+ * temporary file, which is deleted when the content of the result entity is closed.<br>
+ * This allows the asynchronous execution of commands with potentially large responses, like
+ * exports, without buffering the whole response in the heap.
+ *
+ * <p>The compressed responses are buffered and spilled as they are received and they are
+ * decompressed while the content of the result entity is read.
+ */
+class SpoolingResponseConsumer extends AbstractAsyncResponseConsumer<HttpResponse> {
+
+  static final int MEMORY_THRESHOLD = 1024 * 1024;
+
+  private final ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+  private HttpResponse response;
+  private HttpEntity source;
+  private UnsynchronizedByteArrayOutputStream memory;
+  private Path spillFile;
+  private FileChannel spillChannel;
+  private long length;
+
+  @Override
+  protected void onResponseReceived(HttpResponse response) {
+    this.response = response;
+  }
+
+  @Override
+  protected void onEntityEnclosed(HttpEntity entity, ContentType contentType) throws IOException {
+    this.source = entity;
+    long expected = entity.getContentLength();
+    if (expected > MEMORY_THRESHOLD) {
+      spill();
+    } else {
+      memory = new UnsynchronizedByteArrayOutputStream(expected > 0 ? (int) expected : 4096);
+    }
+  }
+
+  @Override
+  protected void onContentReceived(ContentDecoder decoder, IOControl ioctrl) throws IOException {
+    int read;
+    while ((read = decoder.read(buffer)) > 0) {
+      buffer.flip();
+      if (spillChannel == null && length + read > MEMORY_THRESHOLD) {
+        spill();
+      }
+
+      if (spillChannel != null) {
+        while (buffer.hasRemaining()) {
+          spillChannel.write(buffer);
+        }
+      } else {
+        memory.write(buffer.array(), 0, read);
+      }
+
+      length += read;
+      buffer.clear();
+    }
+  }
+
+  private void spill() throws IOException {
+    spillFile = Files.createTempFile("ontorefine-client-async-", ".tmp");
+    spillChannel = FileChannel.open(spillFile, WRITE);
+    if (memory != null) {
+      memory.writeTo(Channels.newOutputStream(spillChannel));
+      memory = null;
+    }
+  }
+
+  @Override
+  protected HttpResponse buildResult(HttpContext context) throws IOException {
+    if (source == null) {
+      return response;
+    }
+
+    BasicHttpEntity entity = new BasicHttpEntity();
+    entity.setContentType(source.getContentType());
+    entity.setContentEncoding(source.getContentEncoding());
+    entity.setContentLength(length);
+    if (spillChannel == null) {
+      entity.setContent(new ByteArrayInputStream(memory.toByteArray()));
+    } else {
+      spillChannel.close();
+      spillChannel = null;
+      entity.setContent(Files.newInputStream(spillFile, READ, DELETE_ON_CLOSE));
+      spillFile = null;
+    }
+
+    response.setEntity(decompress(entity));
+    return response;
+  }
+
+  private HttpEntity decompress(HttpEntity entity) {
+    Header encoding = entity.getContentEncoding();
+    if (encoding == null) {
+      return entity;
+    }
+
+    String codec = encoding.getValue().trim().toLowerCase(Locale.ROOT);
+    if (!"gzip".equals(codec) && !"x-gzip".equals(codec) && !"deflate".equals(codec)) {
+      return entity;
+    }
+
+    response.removeHeaders(HTTP.CONTENT_LEN);
+    response.removeHeaders(HTTP.CONTENT_ENCODING);
+    response.removeHeaders("Content-MD5");
+    return "deflate".equals(codec)
+        ? new DeflateDecompressingEntity(entity)
+        : new GzipDecompressingEntity(entity);
+  }
+
+  @Override
+  protected void releaseResources() {
+    memory = null;
+    try {
+      if (spillChannel != null) {
+        spillChannel.close();
+      }
+
+      // the file is still owned by the consumer, when the response was not completed
+      if (spillFile != null) {
+        Files.deleteIfExists(spillFile);
+      }
+    } catch (IOException ioe) { // NOSONAR
+      // nothing more to do
+    }
+  }
+}
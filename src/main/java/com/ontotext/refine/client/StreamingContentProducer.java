@@ -0,0 +1,209 @@
+package com.ontotext.refine.client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHost;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.HttpAsyncContentProducer;
+import org.apache.http.nio.protocol.BasicAsyncRequestProducer;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+
+/**
+ * Produces the content of request entities, which can only write their content to stream, like the
+ * multipart entities, without buffering it in-memory. The entity is written on the given executor
+ * into bounded queue of chunks and the I/O thread sends the chunks, as they become available. The
+ * output of the connection is suspended, while the queue is empty, and the writer blocks, while the
+ * queue is full, so at most few chunks of the content are in the heap at any time.
+ *
+ * <p>The producer is repeatable when the entity is. Each attempt writes the entity again and the
+ * writer of the previous attempt is stopped, when the producer is closed.
+ */
+class StreamingContentProducer implements HttpAsyncContentProducer {
+
+  static final int CHUNK_SIZE = 8192;
+  private static final int MAX_CHUNKS = 8;
+
+  private final HttpEntity entity;
+  private final Executor executor;
+
+  private Transfer transfer;
+
+  StreamingContentProducer(HttpEntity entity, Executor executor) {
+    this.entity = entity;
+    this.executor = executor;
+  }
+
+  /**
+   * Creates producer of the given request, which streams its entity via new
+   * {@link StreamingContentProducer}.
+   *
+   * @param target host of the request
+   * @param request with the entity to stream
+   * @param executor on which the entity is written
+   * @return new request producer
+   */
+  static HttpAsyncRequestProducer createRequestProducer(
+      HttpHost target, HttpEntityEnclosingRequest request, Executor executor) {
+    return new RequestProducer(
+        target, request, new StreamingContentProducer(request.getEntity(), executor));
+  }
+
+  @Override
+  public void produceContent(ContentEncoder encoder, IOControl ioctrl) throws IOException {
+    if (transfer == null) {
+      transfer = new Transfer(ioctrl);
+      try {
+        executor.execute(transfer);
+      } catch (RejectedExecutionException ree) {
+        throw new IOException("Failed to start the writing of the request entity.", ree);
+      }
+    }
+    transfer.produce(encoder, ioctrl);
+  }
+
+  @Override
+  public boolean isRepeatable() {
+    return entity.isRepeatable();
+  }
+
+  @Override
+  public void close() {
+    if (transfer != null) {
+      transfer.closed = true;
+      transfer = null;
+    }
+  }
+
+  /**
+   * Single write of the entity. The writer thread and the I/O thread communicate only via the queue
+   * and the volatile flags.
+   */
+  private class Transfer extends OutputStream implements Runnable {
+
+    private final BlockingQueue<ByteBuffer> chunks = new ArrayBlockingQueue<>(MAX_CHUNKS);
+    private final IOControl ioctrl;
+
+    private volatile boolean written;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    private byte[] pending = new byte[CHUNK_SIZE];
+    private int count;
+    private ByteBuffer current;
+
+    private Transfer(IOControl ioctrl) {
+      this.ioctrl = ioctrl;
+    }
+
+    @Override
+    public void run() {
+      try {
+        entity.writeTo(this);
+        flush();
+      } catch (IOException ioe) {
+        failure = ioe;
+      } catch (RuntimeException re) {
+        failure = new IOException("Failed to write the request entity.", re);
+      } finally {
+        written = true;
+        ioctrl.requestOutput();
+      }
+    }
+
+    private void produce(ContentEncoder encoder, IOControl control) throws IOException {
+      while (true) {
+        if (current == null || !current.hasRemaining()) {
+          current = chunks.poll();
+        }
+
+        if (current == null) {
+          // the flags are set after the last chunk is queued
+          if (failure != null) {
+            throw failure;
+          }
+          if (written && chunks.isEmpty()) {
+            encoder.complete();
+            return;
+          }
+
+          control.suspendOutput();
+          // the writer could have queued chunk after the check, before the output was suspended
+          if (!chunks.isEmpty() || written) {
+            control.requestOutput();
+          }
+          return;
+        }
+
+        encoder.write(current);
+        if (current.hasRemaining()) {
+          return;
+        }
+      }
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+      if (count == pending.length) {
+        flush();
+      }
+      pending[count++] = (byte) value;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+      int position = offset;
+      int remaining = length;
+      while (remaining > 0) {
+        if (count == pending.length) {
+          flush();
+        }
+        int size = Math.min(remaining, pending.length - count);
+        System.arraycopy(bytes, position, pending, count, size);
+        count += size;
+        position += size;
+        remaining -= size;
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      if (count == 0) {
+        return;
+      }
+
+      ByteBuffer chunk = ByteBuffer.wrap(pending, 0, count);
+      try {
+        while (!chunks.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+          if (closed) {
+            throw new IOException("The request was completed before its entity was written.");
+          }
+        }
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while writing the request entity.");
+      }
+
+      pending = new byte[CHUNK_SIZE];
+      count = 0;
+      ioctrl.requestOutput();
+    }
+  }
+
+  private static class RequestProducer extends BasicAsyncRequestProducer {
+
+    private RequestProducer(
+        HttpHost target, HttpEntityEnclosingRequest request, HttpAsyncContentProducer producer) {
+      super(target, request, producer);
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package com.ontotext.refine.client.admission;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+import com.ontotext.refine.client.ExecutionInterceptor;
+import com.ontotext.refine.client.exceptions.RefineException;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpUriRequest;
+
+/**
+ * Limits the load, which the client puts on the Refine instance. The requests are classified in
+ * {@link CommandCategory}s and each category has its own {@link AdmissionLimits}, for example few
+ * concurrent uploads, several exports at limited rate and unlimited metadata calls. The requests,
+ * which exceed the limits, wait in the client, instead of piling up in the Refine instance, which
+ * makes their latency predictable and prevents the timeouts on the server side.
+ *
+ * <p>The controller is registered via
+ * {@link com.ontotext.refine.client.RefineClient#addInterceptor}. The synchronous requests block
+ * the calling thread, while they wait for admission, while the asynchronous ones wait in the queue
+ * without blocking any thread. When the controller is combined with
+ * {@link com.ontotext.refine.client.retry.RetryInterceptor}, the retry interceptor should be
+ * registered first, so that each attempt is admitted separately and the back-off between the
+ * attempts does not hold admission slot.
+ *
+ * <p>The queue length, the requests in flight and the queue time of each category are available
+ * via {@link #getMetrics(CommandCategory)}.
+ */
+public class AdmissionController implements ExecutionInterceptor {
+
+  private final Map<CommandCategory, AdmissionGate> gates;
+  private final Function<HttpUriRequest, CommandCategory> classifier;
+
+  private AdmissionController(
+      Map<CommandCategory, AdmissionGate> gates,
+      Function<HttpUriRequest, CommandCategory> classifier) {
+    this.gates = gates;
+    this.classifier = classifier;
+  }
+
+  /**
+   * Provides the metrics of the given category.
+   *
+   * @param category of the commands
+   * @return the metrics of the admission
+   */
+  public AdmissionMetrics getMetrics(CommandCategory category) {
+    return gates.get(notNull(category, "Missing 'category' argument"));
+  }
+
+  @Override
+  public <T> T intercept(HttpUriRequest request, ResponseHandler<? extends T> handler, Chain chain)
+      throws IOException {
+    AdmissionGate gate = gateOf(request);
+    CompletableFuture<Void> admission = gate.acquire();
+    try {
+      admission.get();
+    } catch (InterruptedException ie) {
+      gate.abandon(admission);
+      Thread.currentThread().interrupt();
+      throw new RefineException("Interrupted while waiting for admission of the request.", ie);
+    } catch (ExecutionException ee) {
+      Throwable cause = ee.getCause();
+      throw cause instanceof RefineException
+          ? (RefineException) cause
+          : new RefineException("Failed to admit the request.", cause);
+    }
+
+    try {
+      return chain.proceed(request, handler);
+    } finally {
+      gate.release();
+    }
+  }
+
+  @Override
+  public <T> CompletableFuture<T> interceptAsync(
+      HttpUriRequest request, ResponseHandler<? extends T> handler, AsyncChain chain) {
+    AdmissionGate gate = gateOf(request);
+    return gate.acquire().thenCompose(admitted -> {
+      CompletableFuture<T> result;
+      try {
+        result = chain.proceed(request, handler);
+      } catch (RuntimeException exc) {
+        gate.release();
+        throw exc;
+      }
+      return result.whenComplete((value, error) -> gate.release());
+    });
+  }
+
+  private AdmissionGate gateOf(HttpUriRequest request) {
+    CommandCategory category = classifier.apply(request);
+    return gates.get(category == null ? CommandCategory.METADATA : category);
+  }
+
+  /**
+   * The builder for {@link AdmissionController}.
+   */
+  public static class Builder {
+
+    private final Map<CommandCategory, AdmissionLimits> limits =
+        new EnumMap<>(CommandCategory.class);
+    private Function<HttpUriRequest, CommandCategory> classifier = CommandCategory::of;
+
+    /**
+     * Sets the limits of the given category. By default the categories are not limited.
+     *
+     * @param category of the commands
+     * @param limits of the category
+     * @return the builder for fluent usage
+     */
+    public Builder setLimits(CommandCategory category, AdmissionLimits limits) {
+      this.limits.put(
+          notNull(category, "Missing 'category' argument"),
+          notNull(limits, "Missing 'limits' argument"));
+      return this;
+    }
+
+    /**
+     * Sets the classification of the requests. By default it is
+     * {@link CommandCategory#of(HttpUriRequest)}.
+     *
+     * @param classifier of the requests
+     * @return the builder for fluent usage
+     */
+    public Builder setClassifier(Function<HttpUriRequest, CommandCategory> classifier) {
+      this.classifier = classifier;
+      return this;
+    }
+
+    /**
+     * Builds the controller after validation.
+     *
+     * @return the controller
+     */
+    public AdmissionController build() {
+      notNull(classifier, "Missing 'classifier' argument");
+
+      Map<CommandCategory, AdmissionGate> gates = new EnumMap<>(CommandCategory.class);
+      for (CommandCategory category : CommandCategory.values()) {
+        AdmissionLimits categoryLimits =
+            limits.getOrDefault(category, AdmissionLimits.unlimited());
+        gates.put(category, new AdmissionGate(category, categoryLimits));
+      }
+      return new AdmissionController(gates, classifier);
+    }
+  }
+}
@@ -0,0 +1,216 @@
+package com.ontotext.refine.client.admission;
+
+import com.ontotext.refine.client.exceptions.AdmissionRejectedException;
+import com.ontotext.refine.client.util.LatencyHistogram;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admits the requests of single {@link CommandCategory}. The requests, which exceed the limit of
+ * the requests in flight, wait in FIFO queue. When the request takes a slot, it also reserves a
+ * token from the bucket and it is admitted, once the token is available. The wait for the token
+ * counts towards the maximum queue time. The admission is completed via future, so the
+ * asynchronous requests wait in the queue without blocking threads.
+ */
+class AdmissionGate implements AdmissionMetrics {
+
+  private final CommandCategory category;
+  private final AdmissionLimits limits;
+  private final TokenBucket bucket;
+  private final Deque<Waiter> queue = new ArrayDeque<>();
+  private final LongAdder admitted = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LatencyHistogram queueTime = new LatencyHistogram();
+
+  private int inFlight;
+
+  AdmissionGate(CommandCategory category, AdmissionLimits limits) {
+    this.category = category;
+    this.limits = limits;
+    this.bucket = limits.getRate() > 0
+        ? new TokenBucket(limits.getRate(), limits.getBurst())
+        : null;
+  }
+
+  /**
+   * Requests admission. Every completed admission should be followed by {@link #release()}.
+   *
+   * @return a future which is completed, when the request is admitted, or exceptionally with
+   *         {@link AdmissionRejectedException}, when the maximum queue time expires
+   */
+  CompletableFuture<Void> acquire() {
+    Waiter waiter = new Waiter();
+    long delay;
+    synchronized (this) {
+      if (inFlight < limits.getMaxInFlight() && queue.isEmpty()) {
+        inFlight++;
+        delay = reserve();
+      } else {
+        queue.add(waiter);
+        scheduleExpiration(waiter);
+        return waiter.future;
+      }
+    }
+
+    if (!grant(waiter, delay)) {
+      release();
+    }
+    return waiter.future;
+  }
+
+  /**
+   * Releases the slot of admitted request and admits the next one in the queue.
+   */
+  void release() {
+    while (true) {
+      Waiter next;
+      long delay;
+      synchronized (this) {
+        next = queue.poll();
+        if (next == null) {
+          inFlight--;
+          return;
+        }
+        delay = reserve();
+      }
+
+      // the slot passes directly to the next request, or further, when it is rejected
+      if (grant(next, delay)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Abandons the admission, when the caller stops waiting for it.
+   *
+   * @param admission the future provided by {@link #acquire()}
+   */
+  void abandon(CompletableFuture<Void> admission) {
+    synchronized (this) {
+      if (queue.removeIf(waiter -> waiter.future == admission)) {
+        admission.cancel(false);
+        return;
+      }
+    }
+
+    if (admission.cancel(false) || !admission.isCompletedExceptionally()) {
+      // the slot is granted, but the request will not be executed
+      release();
+    }
+  }
+
+  /**
+   * Reserves token for the request, which takes slot. The reservations are made under the lock of
+   * the gate, so the tokens are reserved in the order of the slots.
+   */
+  private long reserve() {
+    return bucket == null ? 0L : bucket.reserve();
+  }
+
+  /**
+   * Admits the request, once its token is available. The wait for the token is part of the queue
+   * time, so the request is rejected without waiting, when the token would be available after the
+   * maximum queue time. In that case the token is returned to the bucket.
+   *
+   * @return <code>true</code> if the request is admitted or it will be, <code>false</code> if it is
+   *         rejected and its slot should be released
+   */
+  private boolean grant(Waiter waiter, long delay) {
+    if (delay == 0) {
+      admit(waiter);
+      return true;
+    }
+
+    Duration maxQueueTime = limits.getMaxQueueTime();
+    long queued = System.nanoTime() + delay - waiter.arrived;
+    if (maxQueueTime != null && queued > maxQueueTime.toNanos()) {
+      bucket.refund();
+      reject(waiter);
+      return false;
+    }
+
+    CompletableFuture
+        .delayedExecutor(delay, TimeUnit.NANOSECONDS)
+        .execute(() -> admit(waiter));
+    return true;
+  }
+
+  private void admit(Waiter waiter) {
+    if (waiter.future.complete(null)) {
+      admitted.increment();
+      queueTime.record(System.nanoTime() - waiter.arrived, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private void scheduleExpiration(Waiter waiter) {
+    if (limits.getMaxQueueTime() == null) {
+      return;
+    }
+
+    CompletableFuture
+        .delayedExecutor(limits.getMaxQueueTime().toNanos(), TimeUnit.NANOSECONDS)
+        .execute(() -> {
+          synchronized (this) {
+            if (!queue.remove(waiter)) {
+              return;
+            }
+          }
+          reject(waiter);
+        });
+  }
+
+  private void reject(Waiter waiter) {
+    rejected.increment();
+    waiter.future.completeExceptionally(new AdmissionRejectedException(String.format(
+        "The %s request waited for admission more than %s.", category, limits.getMaxQueueTime())));
+  }
+
+  @Override
+  public synchronized int getQueued() {
+    return queue.size();
+  }
+
+  @Override
+  public synchronized int getInFlight() {
+    return inFlight;
+  }
+
+  @Override
+  public long getAdmitted() {
+    return admitted.sum();
+  }
+
+  @Override
+  public long getRejected() {
+    return rejected.sum();
+  }
+
+  @Override
+  public LatencyHistogram getQueueTime() {
+    return queueTime;
+  }
+
+  @Override
+  public String toString() {
+    return "AdmissionMetrics{category=" + category
+        + ", queued=" + getQueued()
+        + ", inFlight=" + getInFlight()
+        + ", admitted=" + getAdmitted()
+        + ", rejected=" + getRejected()
+        + ", queueTime=" + queueTime + '}';
+  }
+
+  /**
+   * Request waiting for admission.
+   */
+  private static class Waiter {
+
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    private final long arrived = System.nanoTime();
+  }
+}
@@ -0,0 +1,146 @@
+package com.ontotext.refine.client.admission;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+
+import java.time.Duration;
+
+/**
+ * The limits of single {@link CommandCategory} applied by the {@link AdmissionController}. The
+ * number of the requests in flight is limited via semaphore and the rate of the requests is
+ * limited via token bucket, which allows short bursts. The requests, which exceed the limits, wait
+ * in queue in the order of their arrival, up to the maximum queue time.
+ */
+public class AdmissionLimits {
+
+  private static final AdmissionLimits UNLIMITED = new Builder().build();
+
+  private final int maxInFlight;
+  private final double rate;
+  private final int burst;
+  private final Duration maxQueueTime;
+
+  private AdmissionLimits(int maxInFlight, double rate, int burst, Duration maxQueueTime) {
+    this.maxInFlight = maxInFlight;
+    this.rate = rate;
+    this.burst = burst;
+    this.maxQueueTime = maxQueueTime;
+  }
+
+  /**
+   * Provides limits, which admit all requests immediately.
+   *
+   * @return the limits without restrictions
+   */
+  public static AdmissionLimits unlimited() {
+    return UNLIMITED;
+  }
+
+  public int getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  /**
+   * Provides the rate of the requests per second.
+   *
+   * @return the rate or <code>0</code>, when the rate is not limited
+   */
+  public double getRate() {
+    return rate;
+  }
+
+  public int getBurst() {
+    return burst;
+  }
+
+  /**
+   * Provides the maximum time, which the request may wait for admission.
+   *
+   * @return the maximum queue time or <code>null</code>, when the waiting is not limited
+   */
+  public Duration getMaxQueueTime() {
+    return maxQueueTime;
+  }
+
+  @Override
+  public String toString() {
+    return "AdmissionLimits{maxInFlight=" + maxInFlight
+        + ", rate=" + rate
+        + ", burst=" + burst
+        + ", maxQueueTime=" + maxQueueTime + '}';
+  }
+
+  /**
+   * The builder for {@link AdmissionLimits}.
+   */
+  public static class Builder {
+
+    private int maxInFlight = Integer.MAX_VALUE;
+    private double rate;
+    private int burst;
+    private Duration maxQueueTime;
+
+    /**
+     * Sets the maximum number of the requests in flight. By default it is not limited.
+     *
+     * @param maxInFlight the maximum number of concurrent requests
+     * @return the builder for fluent usage
+     */
+    public Builder setMaxInFlight(int maxInFlight) {
+      this.maxInFlight = maxInFlight;
+      return this;
+    }
+
+    /**
+     * Sets the maximum rate of the requests per second. By default it is not limited.
+     *
+     * @param rate the number of requests per second
+     * @return the builder for fluent usage
+     */
+    public Builder setRate(double rate) {
+      this.rate = rate;
+      return this;
+    }
+
+    /**
+     * Sets the number of requests, which can be admitted at once, when the rate is limited and
+     * there were no requests for some time. By default it is the rate rounded up.
+     *
+     * @param burst the size of the token bucket
+     * @return the builder for fluent usage
+     */
+    public Builder setBurst(int burst) {
+      this.burst = burst;
+      return this;
+    }
+
+    /**
+     * Sets the maximum time, which the request may wait for admission. The requests, which wait
+     * longer, are rejected with
+     * {@link com.ontotext.refine.client.exceptions.AdmissionRejectedException}. By default the
+     * waiting is not limited.
+     *
+     * @param maxQueueTime the maximum queue time
+     * @return the builder for fluent usage
+     */
+    public Builder setMaxQueueTime(Duration maxQueueTime) {
+      this.maxQueueTime = maxQueueTime;
+      return this;
+    }
+
+    /**
+     * Builds the limits after validation.
+     *
+     * @return the limits
+     */
+    public AdmissionLimits build() {
+      isTrue(maxInFlight > 0, "The 'maxInFlight' should be positive");
+      isTrue(rate >= 0, "The 'rate' should not be negative");
+      isTrue(burst >= 0, "The 'burst' should not be negative");
+      isTrue(maxQueueTime == null || !maxQueueTime.isNegative(),
+          "The 'maxQueueTime' should not be negative");
+
+      int bucket = burst > 0 ? burst : (int) Math.max(1, Math.ceil(rate));
+      return new AdmissionLimits(maxInFlight, rate, rate > 0 ? bucket : 0, maxQueueTime);
+    }
+  }
+}
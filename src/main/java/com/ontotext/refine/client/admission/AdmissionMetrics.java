@@ -0,0 +1,45 @@
+package com.ontotext.refine.client.admission;
+
+import com.ontotext.refine.client.util.LatencyHistogram;
+
+/**
+ * The metrics of the admission of single {@link CommandCategory}. The counters are updated while
+ * the requests are admitted, so the metrics reflect the current state of the controller.
+ */
+public interface AdmissionMetrics {
+
+  /**
+   * Provides the number of the requests, which currently wait for admission.
+   *
+   * @return the length of the queue
+   */
+  int getQueued();
+
+  /**
+   * Provides the number of the admitted requests, which are not completed yet.
+   *
+   * @return the number of the requests in flight
+   */
+  int getInFlight();
+
+  /**
+   * Provides the total number of the admitted requests.
+   *
+   * @return the number of the admitted requests
+   */
+  long getAdmitted();
+
+  /**
+   * Provides the total number of the rejected requests, which exceeded the maximum queue time.
+   *
+   * @return the number of the rejected requests
+   */
+  long getRejected();
+
+  /**
+   * Provides the histogram of the time, which the admitted requests spent waiting in the queue.
+   *
+   * @return the histogram of the queue time
+   */
+  LatencyHistogram getQueueTime();
+}
@@ -0,0 +1,58 @@
+package com.ontotext.refine.client.admission;
+
+import java.util.List;
+import org.apache.http.client.methods.HttpUriRequest;
+
+/**
+ * The categories of the commands, which are admitted with separate limits by the
+ * {@link AdmissionController}. The category of the request is resolved by the endpoint of the
+ * command, which executes it.
+ */
+public enum CommandCategory {
+
+  /** The creation of projects, which uploads the data to the Refine instance. */
+  UPLOAD(List.of("/orefine/command/core/create-project-from-upload")),
+
+  /** The exports of rows, RDF data and project configurations. */
+  EXPORT(List.of(
+      "/orefine/command/core/export-rows",
+      "/orefine/command/project-configurations/export",
+      "/rest/rdf-mapper/",
+      "/repositories/",
+      "/graphdb-proxy/repositories/")),
+
+  /** The processing of the projects data, like the operations and the reconciliation. */
+  PROCESSING(List.of(
+      "/orefine/command/core/apply-operations",
+      "/orefine/command/core/reconcile",
+      "/orefine/command/core/guess-types-of-column",
+      "/orefine/command/core/preview-expression")),
+
+  /** The light calls, which read or update metadata, like the version, the processes and so on. */
+  METADATA(List.of());
+
+  private final List<String> endpoints;
+
+  CommandCategory(List<String> endpoints) {
+    this.endpoints = endpoints;
+  }
+
+  /**
+   * Resolves the category of the request by its path. The requests to unknown endpoints are
+   * considered {@link #METADATA} calls.
+   *
+   * @param request to classify
+   * @return the category of the request
+   */
+  public static CommandCategory of(HttpUriRequest request) {
+    String path = request.getURI().getPath();
+    if (path != null) {
+      for (CommandCategory category : values()) {
+        if (category.endpoints.stream().anyMatch(path::startsWith)) {
+          return category;
+        }
+      }
+    }
+    return METADATA;
+  }
+}
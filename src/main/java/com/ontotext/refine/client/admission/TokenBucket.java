@@ -0,0 +1,43 @@
+package com.ontotext.refine.client.admission;
+
+/**
+ * Token bucket, which limits the rate of the requests. The tokens are refilled continuously with
+ * the configured rate, up to the size of the bucket. The tokens are reserved in advance, so the
+ * bucket can go into debt and the caller waits until the debt is refilled. This keeps the order of
+ * the callers and does not require them to poll the bucket.
+ */
+class TokenBucket {
+
+  private final double tokensPerNano;
+  private final double size;
+
+  private double tokens;
+  private long refilled;
+
+  TokenBucket(double rate, int size) {
+    this.tokensPerNano = rate / 1_000_000_000d;
+    this.size = size;
+    this.tokens = size;
+    this.refilled = System.nanoTime();
+  }
+
+  /**
+   * Reserves single token.
+   *
+   * @return the time in nanoseconds, after which the token is available
+   */
+  synchronized long reserve() {
+    long now = System.nanoTime();
+    tokens = Math.min(size, tokens + (now - refilled) * tokensPerNano);
+    refilled = now;
+    tokens -= 1;
+    return tokens >= 0 ? 0L : (long) Math.ceil(-tokens / tokensPerNano);
+  }
+
+  /**
+   * Returns token, which is reserved, but not used.
+   */
+  synchronized void refund() {
+    tokens = Math.min(size, tokens + 1);
+  }
+}
@@ -9,12 +9,15 @@ import static org.apache.http.HttpHeaders.ACCEPT;
 import static org.apache.http.HttpStatus.SC_OK;
 import static org.apache.http.entity.ContentType.APPLICATION_JSON;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.command.csrf.CsrfTokens;
 import com.ontotext.refine.client.exceptions.RefineException;
+import com.ontotext.refine.client.util.JsonFields;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.StringJoiner;
 import org.apache.http.HttpResponse;
@@ -23,7 +26,6 @@ import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.methods.RequestBuilder;
 import org.apache.http.message.BasicNameValuePair;
-import org.apache.http.util.EntityUtils;
 
 /**
  * A command to preview expressions on a project.
@@ -77,15 +79,17 @@ public class ExpressionPreviewCommand implements RefineCommand<ExpressionPreview
       form.add(new BasicNameValuePair("repeat", String.valueOf(repeat)));
       form.add(new BasicNameValuePair("repeatCount", String.valueOf(repeatCount)));
 
-      HttpUriRequest request = RequestBuilder
-          .post(client.createUri(endpoint()))
-          .addParameter(Constants.CSRF_TOKEN, token)
-          .setHeader(ACCEPT, APPLICATION_JSON.getMimeType())
-          .setEntity(new UrlEncodedFormEntity(form,
-              UTF_8))
-          .build();
+      return CsrfTokens.withToken(client, token, csrf -> {
+        HttpUriRequest request = RequestBuilder
+            .post(client.createUri(endpoint()))
+            .addParameter(Constants.CSRF_TOKEN, csrf)
+            .setHeader(ACCEPT, APPLICATION_JSON.getMimeType())
+            .setEntity(new UrlEncodedFormEntity(form,
+                UTF_8))
+            .build();
 
-      return client.execute(request, this);
+        return client.execute(request, CsrfTokens.checked(this));
+      });
     } catch (IOException ioe) {
       throw new RefineException(
           "Failed to get expression preview for project: '%s' due to: %s",
@@ -97,35 +101,59 @@ public class ExpressionPreviewCommand implements RefineCommand<ExpressionPreview
   @Override
   public ExpressionPreviewResponse handleResponse(HttpResponse response) throws IOException {
     HTTP_PARSER.assureStatusCode(response, SC_OK);
-    String responseBody = EntityUtils.toString(response.getEntity(), UTF_8);
-    return parseExpressionPreviewResponse(responseBody);
+    try (InputStream stream = response.getEntity().getContent()) {
+      return parseExpressionPreviewResponse(stream);
+    }
   }
 
-  ExpressionPreviewResponse parseExpressionPreviewResponse(String json) throws IOException {
-    JsonNode node = JSON_PARSER.parseJson(json);
-    String code = JSON_PARSER.findExistingPath(node, "code").asText();
-    if ("ok".equals(code)) {
-      JsonNode resultsNode = JSON_PARSER.findExistingPath(node, "results");
-      if (resultsNode.isMissingNode()) {
-        return ExpressionPreviewResponse.ok(Collections.emptyList());
-      }
-
-      if (resultsNode.isArray()) {
-        List<String> results = JSON_PARSER.toResults(resultsNode);
-        return ExpressionPreviewResponse.ok(results);
+  ExpressionPreviewResponse parseExpressionPreviewResponse(InputStream json) throws IOException {
+    JsonFields fields = JSON_PARSER.readFields(json, (name, value) -> {
+      switch (name) {
+        case "code":
+        case "message":
+          return value.getValueAsString();
+        case "results":
+          return readResults(value);
+        default:
+          return null;
       }
+    });
 
-      throw new RefineException("Node with path 'results' is not any array: %s", resultsNode);
+    String code = fields.getExisting("code");
+    if ("ok".equals(code)) {
+      return ExpressionPreviewResponse.ok(fields.getExisting("results"));
     }
 
     if ("error".equals(code)) {
-      String message = JSON_PARSER.findExistingPath(node, "message").asText();
+      String message = fields.getExisting("message");
       return ExpressionPreviewResponse.error(message);
     }
 
     throw new RefineException("Unexpected code: %s", code);
   }
 
+  /**
+   * Reads the results as text, the same way as <code>JsonNode.asText()</code> represents them. The
+   * results which are objects, for example the errors of the expression, are empty.
+   */
+  private static List<String> readResults(JsonParser parser) throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      throw new RefineException(
+          "Node with path 'results' is not any array: %s", parser.currentToken());
+    }
+
+    List<String> results = new ArrayList<>();
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      if (parser.currentToken().isStructStart()) {
+        parser.skipChildren();
+        results.add("");
+      } else {
+        results.add(parser.getText());
+      }
+    }
+    return results;
+  }
+
   /**
    * The builder for {@link ExpressionPreviewCommand}.
    */
@@ -138,6 +166,7 @@ public class ExpressionPreviewCommand implements RefineCommand<ExpressionPreview
     private boolean repeat;
     private int repeatCount;
     private String token;
+    private boolean clientToken;
 
     /**
      * Sets the project ID.
@@ -151,7 +180,8 @@ public class ExpressionPreviewCommand implements RefineCommand<ExpressionPreview
     }
 
     /**
-     * Sets the project ID.
+     * Sets the CSRF token. The token is required, unless the command is configured to
+     * {@link #useClientToken() use the cached token of the client}.
      *
      * @param token the csrf token
      * @return the builder for fluent usage
@@ -161,6 +191,17 @@ public class ExpressionPreviewCommand implements RefineCommand<ExpressionPreview
       return this;
     }
 
+    /**
+     * Configures the command to use the cached token of the client that executes it, when the
+     * token is not set explicitly. See {@link com.ontotext.refine.client.CsrfTokenProvider}.
+     *
+     * @return the builder for fluent usage
+     */
+    public Builder useClientToken() {
+      this.clientToken = true;
+      return this;
+    }
+
     /**
      * Sets the cell/column to execute the expression on.
      *
@@ -259,7 +300,7 @@ public class ExpressionPreviewCommand implements RefineCommand<ExpressionPreview
       notBlank(projectId, "projectId is blank");
       notNull(rowIndices, "rowIndices");
       notNull(expression, "expression");
-      notNull(token, "token");
+      CsrfTokens.validate(token, clientToken);
       return new ExpressionPreviewCommand(
           projectId, cellIndex, rowIndices, expression, repeat, repeatCount, token);
     }
@@ -2,7 +2,6 @@ package com.ontotext.refine.client.command;
 
 import static com.ontotext.refine.client.util.HttpParser.HTTP_PARSER;
 import static com.ontotext.refine.client.util.JsonParser.JSON_PARSER;
-import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.commons.lang3.Validate.notBlank;
 import static org.apache.http.HttpHeaders.ACCEPT;
 import static org.apache.http.HttpStatus.SC_OK;
@@ -12,11 +11,11 @@ import com.ontotext.refine.client.ProjectMetadata;
 import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.exceptions.RefineException;
 import java.io.IOException;
+import java.io.InputStream;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.methods.RequestBuilder;
 import org.apache.http.message.BasicNameValuePair;
-import org.apache.http.util.EntityUtils;
 
 /**
  * A command to retrieve project meta data.
@@ -52,8 +51,9 @@ public class GetProjectMetadataCommand implements RefineCommand<GetProjectMetada
   @Override
   public GetProjectMetadataResponse handleResponse(HttpResponse response) throws IOException {
     HTTP_PARSER.assureStatusCode(response, SC_OK);
-    String responseBody = EntityUtils.toString(response.getEntity(), UTF_8);
-    return new GetProjectMetadataResponse(JSON_PARSER.read(responseBody, ProjectMetadata.class));
+    try (InputStream stream = response.getEntity().getContent()) {
+      return new GetProjectMetadataResponse(JSON_PARSER.read(stream, ProjectMetadata.class));
+    }
   }
 
   /**
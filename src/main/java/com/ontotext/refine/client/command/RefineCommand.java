@@ -2,6 +2,7 @@ package com.ontotext.refine.client.command;
 
 import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.exceptions.RefineException;
+import java.util.concurrent.CompletableFuture;
 import org.apache.http.client.ResponseHandler;
 
 
@@ -30,6 +31,23 @@ public interface RefineCommand<T> extends ResponseHandler<T> {
    */
   T execute(RefineClient client) throws RefineException;
 
+  /**
+   * Executes the command without blocking the calling thread. The request is built on the calling
+   * thread, but it is sent and its response is received via non-blocking I/O. This allows single
+   * client to have a lot of commands in-flight, using only few threads.
+   *
+   * <p>The default implementation expects the command to execute single request via
+   * {@link RefineClient#execute(org.apache.http.client.methods.HttpUriRequest, ResponseHandler)}.
+   * The commands that are composed of multiple requests should override this method.
+   *
+   * @param client to be used for command request
+   * @return a future which is completed with the command response or exceptionally with
+   *         {@link RefineException}, when any error occurs during command execution
+   */
+  default CompletableFuture<T> executeAsync(RefineClient client) {
+    return client.executeAsync(this);
+  }
+
   /**
    * Contains constants used throughout the commands.
    *
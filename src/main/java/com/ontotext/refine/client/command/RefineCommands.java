@@ -1,9 +1,11 @@
 package com.ontotext.refine.client.command;
 
+import com.ontotext.refine.client.command.create.BatchCreateProjectsCommand;
 import com.ontotext.refine.client.command.create.CreateProjectCommand;
 import com.ontotext.refine.client.command.csrf.GetCsrfTokenCommand;
 import com.ontotext.refine.client.command.delete.DeleteProjectCommand;
 import com.ontotext.refine.client.command.export.ExportRowsCommand;
+import com.ontotext.refine.client.command.export.ParallelExportRowsCommand;
 import com.ontotext.refine.client.command.models.GetProjectModelsCommand;
 import com.ontotext.refine.client.command.operations.ApplyOperationsCommand;
 import com.ontotext.refine.client.command.operations.GetOperationsCommand;
@@ -44,6 +46,15 @@ public interface RefineCommands {
     return new CreateProjectCommand.Builder();
   }
 
+  /**
+   * Provides a builder instance for the {@link BatchCreateProjectsCommand}.
+   *
+   * @return new builder instance
+   */
+  static BatchCreateProjectsCommand.Builder createProjects() {
+    return new BatchCreateProjectsCommand.Builder();
+  }
+
   /**
    * Provides a builder instance for the {@link DeleteProjectCommand}.
    *
@@ -98,6 +109,15 @@ public interface RefineCommands {
     return new ExportRowsCommand.Builder();
   }
 
+  /**
+   * Provides a builder instance for the {@link ParallelExportRowsCommand}.
+   *
+   * @return new builder instance
+   */
+  static ParallelExportRowsCommand.Builder exportRowsInParallel() {
+    return new ParallelExportRowsCommand.Builder();
+  }
+
   /**
    * Provides a builder instance for the {@link GetOperationsCommand}.
    *
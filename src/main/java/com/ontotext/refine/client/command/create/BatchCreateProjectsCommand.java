@@ -0,0 +1,290 @@
+package com.ontotext.refine.client.command.create;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.noNullElements;
+import static org.apache.commons.lang3.Validate.notBlank;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import com.ontotext.refine.client.Options;
+import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.UploadFormat;
+import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.command.create.BatchCreateProjectsResponse.Result;
+import com.ontotext.refine.client.command.csrf.CsrfTokens;
+import com.ontotext.refine.client.exceptions.RefineException;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * A command that creates multiple projects. The projects are created concurrently via
+ * {@link CreateProjectCommand}s, executed by bounded pool of workers. The uploads are submitted
+ * only when there is free worker, so at most <code>parallelism</code> uploads are in progress at
+ * any time, regardless of the size of the batch.
+ *
+ * <p>The failure of single upload does not abort the batch. The outcome of each upload is reported
+ * in the {@link BatchCreateProjectsResponse}, along with the aggregated throughput of the batch.
+ *
+ * <p>When the batch is configured to use the cached CSRF token of the client, all of the uploads
+ * share the token, which is retrieved once for the whole batch. As the uploads are executed
+ * concurrently, the command should be used with client that allows multiple connections to the
+ * Refine instance, like the one created via
+ * {@link com.ontotext.refine.client.RefineClients#pooled}.
+ */
+public class BatchCreateProjectsCommand {
+
+  private final List<Item> items;
+  private final String token;
+  private final int parallelism;
+  private final Executor executor;
+
+  private BatchCreateProjectsCommand(
+      List<Item> items, String token, int parallelism, Executor executor) {
+    this.items = items;
+    this.token = token;
+    this.parallelism = parallelism;
+    this.executor = executor;
+  }
+
+  /**
+   * Executes the command. The method blocks until all of the uploads are completed.
+   *
+   * @param client to be used for command requests
+   * @return a command response
+   * @throws RefineException when the thread is interrupted, while waiting for the uploads
+   */
+  public BatchCreateProjectsResponse execute(RefineClient client) throws RefineException {
+    ExecutorService ownExecutor =
+        executor == null ? Executors.newFixedThreadPool(parallelism) : null;
+    Executor uploadExecutor = executor == null ? ownExecutor : executor;
+    Semaphore workers = new Semaphore(parallelism);
+    try {
+      final long start = System.nanoTime();
+      List<CompletableFuture<Result>> futures = new ArrayList<>(items.size());
+      for (Item item : items) {
+        workers.acquire();
+        futures.add(submit(client, item, uploadExecutor).whenComplete((r, e) -> workers.release()));
+      }
+
+      List<Result> results = new ArrayList<>(futures.size());
+      for (CompletableFuture<Result> future : futures) {
+        results.add(future.join());
+      }
+      return new BatchCreateProjectsResponse(results, System.nanoTime() - start);
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new RefineException("Interrupted while creating batch of projects.", ie);
+    } finally {
+      if (ownExecutor != null) {
+        ownExecutor.shutdownNow();
+      }
+    }
+  }
+
+  private CompletableFuture<Result> submit(RefineClient client, Item item, Executor executor) {
+    try {
+      return CompletableFuture.supplyAsync(() -> upload(client, item), executor);
+    } catch (RejectedExecutionException ree) {
+      RefineException error = new RefineException("The upload was rejected by the executor.", ree);
+      return CompletableFuture.completedFuture(Result.failed(item, error, 0L));
+    }
+  }
+
+  private Result upload(RefineClient client, Item item) {
+    final long start = System.nanoTime();
+    try {
+      CreateProjectResponse response = RefineCommands
+          .createProject()
+          .name(item.getName())
+          .file(item.getFile())
+          .format(item.getFormat())
+          .options(item.getOptions())
+          .token(token)
+          .useClientToken()
+          .build()
+          .execute(client);
+      return Result.created(item, response, System.nanoTime() - start);
+    } catch (RefineException re) {
+      return Result.failed(item, re, System.nanoTime() - start);
+    } catch (RuntimeException re) {
+      return Result.failed(item, new RefineException("Failed to create project.", re),
+          System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Describes single project of the batch.
+   */
+  public static class Item {
+
+    private final String name;
+    private final File file;
+    private final UploadFormat format;
+    private final Options options;
+
+    /**
+     * Creates new item.
+     *
+     * @param name the project name
+     * @param file the file containing the data to upload
+     * @param format the optional upload format
+     * @param options the optional options
+     */
+    public Item(String name, File file, UploadFormat format, Options options) {
+      this.name = notBlank(name, "Missing 'name' argument");
+      this.file = notNull(file, "Missing 'file' argument");
+      this.format = format;
+      this.options = options;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public File getFile() {
+      return file;
+    }
+
+    public UploadFormat getFormat() {
+      return format;
+    }
+
+    public Options getOptions() {
+      return options;
+    }
+
+    @Override
+    public String toString() {
+      return "Item{" + "name=" + name + ", file=" + file + '}';
+    }
+  }
+
+  /**
+   * The builder for {@link BatchCreateProjectsCommand}.
+   */
+  public static class Builder {
+
+    private static final int DEFAULT_PARALLELISM = 4;
+
+    private final List<Item> items = new ArrayList<>();
+    private String token;
+    private boolean clientToken;
+    private int parallelism = DEFAULT_PARALLELISM;
+    private Executor executor;
+
+    /**
+     * Adds project to the batch.
+     *
+     * @param name the project name
+     * @param file the file containing the data to upload
+     * @return the builder for fluent usage
+     */
+    public Builder addProject(String name, File file) {
+      return addProject(new Item(name, file, null, null));
+    }
+
+    /**
+     * Adds project to the batch.
+     *
+     * @param name the project name
+     * @param file the file containing the data to upload
+     * @param format the optional upload format
+     * @param options the optional options
+     * @return the builder for fluent usage
+     */
+    public Builder addProject(String name, File file, UploadFormat format, Options options) {
+      return addProject(new Item(name, file, format, options));
+    }
+
+    /**
+     * Adds project to the batch.
+     *
+     * @param item describing the project
+     * @return the builder for fluent usage
+     */
+    public Builder addProject(Item item) {
+      items.add(notNull(item, "Missing 'item' argument"));
+      return this;
+    }
+
+    /**
+     * Adds multiple projects to the batch.
+     *
+     * @param items describing the projects
+     * @return the builder for fluent usage
+     */
+    public Builder addProjects(Collection<Item> items) {
+      notNull(items, "Missing 'items' argument");
+      noNullElements(items, "'items' should not contain 'null' elements");
+      this.items.addAll(items);
+      return this;
+    }
+
+    /**
+     * Sets token. When the token is not provided, the cached token of the client that executes the
+     * command is used.
+     *
+     * @param token the csrf token
+     * @return the builder for fluent usage
+     */
+    public Builder token(String token) {
+      this.token = token;
+      return this;
+    }
+
+    /**
+     * Configures the command to use the cached token of the client that executes it, when the
+     * token is not set explicitly. See {@link com.ontotext.refine.client.CsrfTokenProvider}.
+     *
+     * @return the builder for fluent usage
+     */
+    public Builder useClientToken() {
+      this.clientToken = true;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of concurrent uploads. The default is <code>4</code>.
+     *
+     * @param parallelism the number of concurrent uploads
+     * @return the builder for fluent usage
+     */
+    public Builder parallelism(int parallelism) {
+      this.parallelism = parallelism;
+      return this;
+    }
+
+    /**
+     * Sets the executor used for the uploads. The number of concurrent uploads is still limited by
+     * the parallelism of the command. By default the command uses its own executor, which is shut
+     * down after the execution.
+     *
+     * @param executor for the uploads
+     * @return the builder for fluent usage
+     */
+    public Builder executor(Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * Builds the command after validation.
+     *
+     * @return the command
+     */
+    public BatchCreateProjectsCommand build() {
+      isTrue(!items.isEmpty(), "The batch should contain at least one project");
+      isTrue(parallelism > 0, "The parallelism should be positive");
+      CsrfTokens.validate(token, clientToken);
+      return new BatchCreateProjectsCommand(
+          new ArrayList<>(items), token, parallelism, executor);
+    }
+  }
+}
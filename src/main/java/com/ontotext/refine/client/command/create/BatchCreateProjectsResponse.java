@@ -0,0 +1,175 @@
+package com.ontotext.refine.client.command.create;
+
+import com.ontotext.refine.client.command.create.BatchCreateProjectsCommand.Item;
+import com.ontotext.refine.client.exceptions.RefineException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the results from the {@link BatchCreateProjectsCommand}. The results are in the order of
+ * the projects in the batch.
+ */
+public class BatchCreateProjectsResponse {
+
+  private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+  private static final double BYTES_PER_MEGABYTE = 1024d * 1024d;
+
+  private final List<Result> results;
+  private final long elapsedNanos;
+  private final int createdCount;
+  private final long createdBytes;
+
+  BatchCreateProjectsResponse(List<Result> results, long elapsedNanos) {
+    this.results = Collections.unmodifiableList(results);
+    this.elapsedNanos = elapsedNanos;
+    this.createdCount = (int) results.stream().filter(Result::isCreated).count();
+    this.createdBytes = results.stream().filter(Result::isCreated).mapToLong(Result::getSize).sum();
+  }
+
+  public List<Result> getResults() {
+    return results;
+  }
+
+  public int getCreatedCount() {
+    return createdCount;
+  }
+
+  public int getFailedCount() {
+    return results.size() - createdCount;
+  }
+
+  /**
+   * Provides the total size of the files uploaded for the created projects.
+   *
+   * @return the uploaded bytes
+   */
+  public long getCreatedBytes() {
+    return createdBytes;
+  }
+
+  /**
+   * Provides the time elapsed for the whole batch.
+   *
+   * @param unit of the result
+   * @return the elapsed time
+   */
+  public long getElapsed(TimeUnit unit) {
+    return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Provides the number of the created projects per second.
+   *
+   * @return the files per second
+   */
+  public double getFilesPerSecond() {
+    return perSecond(createdCount);
+  }
+
+  /**
+   * Provides the number of megabytes uploaded for the created projects per second.
+   *
+   * @return the megabytes per second
+   */
+  public double getMegabytesPerSecond() {
+    return perSecond(createdBytes / BYTES_PER_MEGABYTE);
+  }
+
+  private double perSecond(double value) {
+    return elapsedNanos == 0 ? 0d : value * NANOS_PER_SECOND / elapsedNanos;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "BatchCreateProjectsResponse{created=%d, failed=%d, files/s=%.2f, MB/s=%.2f}",
+        createdCount,
+        getFailedCount(),
+        getFilesPerSecond(),
+        getMegabytesPerSecond());
+  }
+
+  /**
+   * The outcome of the upload of single project.
+   */
+  public static class Result {
+
+    private final Item item;
+    private final CreateProjectResponse response;
+    private final RefineException error;
+    private final long size;
+    private final long elapsedNanos;
+
+    private Result(
+        Item item,
+        CreateProjectResponse response,
+        RefineException error,
+        long size,
+        long elapsedNanos) {
+      this.item = item;
+      this.response = response;
+      this.error = error;
+      this.size = size;
+      this.elapsedNanos = elapsedNanos;
+    }
+
+    static Result created(Item item, CreateProjectResponse response, long elapsedNanos) {
+      return new Result(item, response, null, item.getFile().length(), elapsedNanos);
+    }
+
+    static Result failed(Item item, RefineException error, long elapsedNanos) {
+      return new Result(item, null, error, item.getFile().length(), elapsedNanos);
+    }
+
+    public Item getItem() {
+      return item;
+    }
+
+    public boolean isCreated() {
+      return response != null;
+    }
+
+    /**
+     * Provides the response of the created project.
+     *
+     * @return the response or <code>null</code>, when the upload failed
+     */
+    public CreateProjectResponse getResponse() {
+      return response;
+    }
+
+    /**
+     * Provides the error of the failed upload.
+     *
+     * @return the error or <code>null</code>, when the project is created
+     */
+    public RefineException getError() {
+      return error;
+    }
+
+    /**
+     * Provides the size of the uploaded file.
+     *
+     * @return the size in bytes
+     */
+    public long getSize() {
+      return size;
+    }
+
+    /**
+     * Provides the time elapsed for the upload.
+     *
+     * @param unit of the result
+     * @return the elapsed time
+     */
+    public long getElapsed(TimeUnit unit) {
+      return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+      return "Result{" + "item=" + item + ", response=" + response + ", error=" + error + '}';
+    }
+  }
+}
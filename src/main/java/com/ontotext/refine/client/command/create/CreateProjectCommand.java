@@ -1,5 +1,6 @@
 package com.ontotext.refine.client.command.create;
 
+import static org.apache.commons.lang3.StringUtils.defaultIfBlank;
 import static org.apache.commons.lang3.Validate.notBlank;
 import static org.apache.commons.lang3.Validate.notNull;
 import static org.apache.http.HttpHeaders.ACCEPT;
@@ -11,15 +12,21 @@ import com.ontotext.refine.client.Options;
 import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.UploadFormat;
 import com.ontotext.refine.client.command.RefineCommand;
+import com.ontotext.refine.client.command.csrf.CsrfTokens;
 import com.ontotext.refine.client.exceptions.RefineException;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.function.Supplier;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.RequestBuilder;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.apache.http.entity.mime.content.ContentBody;
 
 /**
  * A command to create a project.
@@ -27,7 +34,9 @@ import org.apache.http.entity.mime.MultipartEntityBuilder;
 public class CreateProjectCommand implements RefineCommand<CreateProjectResponse> {
 
   private final String name;
-  private final File file;
+  private final UploadSource source;
+  private final String fileName;
+  private final boolean compress;
   private final UploadFormat format;
   private final Options options;
   private final String token;
@@ -36,15 +45,25 @@ public class CreateProjectCommand implements RefineCommand<CreateProjectResponse
    * Constructor for {@link Builder}.
    *
    * @param name the project name
-   * @param file the file containing the data to upload
+   * @param source the source of the data to upload
+   * @param fileName the name of the uploaded file
+   * @param compress whether to compress the uploaded data
    * @param format the optional upload format
    * @param options the optional options
    * @param token the csrf token
    */
   private CreateProjectCommand(
-      String name, File file, UploadFormat format, Options options, String token) {
+      String name,
+      UploadSource source,
+      String fileName,
+      boolean compress,
+      UploadFormat format,
+      Options options,
+      String token) {
     this.name = name;
-    this.file = file;
+    this.source = source;
+    this.fileName = fileName;
+    this.compress = compress;
     this.format = format;
     this.options = options;
     this.token = token;
@@ -58,32 +77,35 @@ public class CreateProjectCommand implements RefineCommand<CreateProjectResponse
   @Override
   public CreateProjectResponse execute(RefineClient client) throws RefineException {
     try {
-      RequestBuilder requestBuilder = RequestBuilder.post(client.createUri(endpoint()))
-          .addParameter(Constants.CSRF_TOKEN, token)
-          .setHeader(ACCEPT, APPLICATION_JSON.getMimeType());
+      return CsrfTokens.withToken(client, token, csrf -> {
+        RequestBuilder requestBuilder = RequestBuilder.post(client.createUri(endpoint()))
+            .addParameter(Constants.CSRF_TOKEN, csrf)
+            .setHeader(ACCEPT, APPLICATION_JSON.getMimeType());
 
 
-      MultipartEntityBuilder multipartEntityBuilder = MultipartEntityBuilder.create();
-      if (format != null) {
-        multipartEntityBuilder.addTextBody("format", format.getValue(), TEXT_PLAIN);
-      }
+        MultipartEntityBuilder multipartEntityBuilder = MultipartEntityBuilder.create();
+        if (format != null) {
+          multipartEntityBuilder.addTextBody("format", format.getValue(), TEXT_PLAIN);
+        }
 
-      if (options != null) {
-        // currently not working because of the implementation in the OpenRefine
-        // multipartEntityBuilder.addTextBody("options", options.asJson(), APPLICATION_JSON)
+        if (options != null) {
+          // currently not working because of the implementation in the OpenRefine
+          // multipartEntityBuilder.addTextBody("options", options.asJson(), APPLICATION_JSON)
 
-        // Sacrilege, Pure Heresy!
-        requestBuilder.addParameter("options", unwrap(options.asJson()));
-      }
+          // Sacrilege, Pure Heresy!
+          requestBuilder.addParameter("options", unwrap(options.asJson()));
+        }
 
-      HttpEntity entity = multipartEntityBuilder
-          .addBinaryBody("project-file", file)
-          .addTextBody("project-name", name, TEXT_PLAIN)
-          .build();
+        ContentBody data = source.open(fileName);
+        HttpEntity entity = multipartEntityBuilder
+            .addPart("project-file", compress ? new GzipContentBody(data) : data)
+            .addTextBody("project-name", name, TEXT_PLAIN)
+            .build();
 
-      requestBuilder.setEntity(entity);
+        requestBuilder.setEntity(entity);
 
-      return client.execute(requestBuilder.build(), this);
+        return client.execute(requestBuilder.build(), CsrfTokens.checked(this));
+      });
     } catch (IOException ioe) {
       String error = String.format("Failed to create project due to: '%s'", ioe.getMessage());
       throw new RefineException(error);
@@ -121,10 +143,13 @@ public class CreateProjectCommand implements RefineCommand<CreateProjectResponse
   public static class Builder {
 
     private String name;
-    private File file;
+    private UploadSource source;
+    private String fileName;
+    private boolean compress;
     private UploadFormat format;
     private Options options;
     private String token;
+    private boolean clientToken;
 
     /**
      * Sets the project name.
@@ -138,7 +163,8 @@ public class CreateProjectCommand implements RefineCommand<CreateProjectResponse
     }
 
     /**
-     * Sets token.
+     * Sets token. When the token is not provided, the cached token of the client that executes the
+     * command is used.
      *
      * @param token the csrf token
      * @return the builder for fluent usage
@@ -148,6 +174,17 @@ public class CreateProjectCommand implements RefineCommand<CreateProjectResponse
       return this;
     }
 
+    /**
+     * Configures the command to use the cached token of the client that executes it, when the
+     * token is not set explicitly. See {@link com.ontotext.refine.client.CsrfTokenProvider}.
+     *
+     * @return the builder for fluent usage
+     */
+    public Builder useClientToken() {
+      this.clientToken = true;
+      return this;
+    }
+
     /**
      * Sets the file containing the data to upload.
      *
@@ -155,7 +192,88 @@ public class CreateProjectCommand implements RefineCommand<CreateProjectResponse
      * @return the builder for fluent usage
      */
     public Builder file(File file) {
-      this.file = file;
+      this.source = file == null ? null : UploadSource.of(file);
+      return this;
+    }
+
+    /**
+     * Sets the file containing the data to upload.
+     *
+     * @param file the file containing the data to upload
+     * @return the builder for fluent usage
+     */
+    public Builder file(Path file) {
+      this.source = file == null ? null : UploadSource.of(file);
+      return this;
+    }
+
+    /**
+     * Sets stream with the data to upload. The data is streamed directly into the request, in
+     * chunks, without intermediate file. The stream is closed after the upload.
+     *
+     * <p>Note that the stream can be uploaded only once. When the upload is retried, for example
+     * because the cached CSRF token is refreshed, the command fails. Use
+     * {@link #stream(Supplier)}, if the data can be produced again.
+     *
+     * @param stream with the data to upload
+     * @return the builder for fluent usage
+     */
+    public Builder stream(InputStream stream) {
+      this.source = stream == null ? null : UploadSource.of(stream);
+      return this;
+    }
+
+    /**
+     * Sets supplier of streams with the data to upload. The supplier is invoked for each upload
+     * attempt and the provided stream is closed after the attempt. The data is streamed directly
+     * into the request, in chunks, without intermediate file.
+     *
+     * @param supplier of the data to upload
+     * @return the builder for fluent usage
+     */
+    public Builder stream(Supplier<InputStream> supplier) {
+      this.source = supplier == null ? null : UploadSource.of(supplier);
+      return this;
+    }
+
+    /**
+     * Sets channel with the data to upload. The same as {@link #stream(InputStream)}, the channel
+     * can be uploaded only once and it is closed after the upload.
+     *
+     * @param channel with the data to upload
+     * @return the builder for fluent usage
+     */
+    public Builder channel(ReadableByteChannel channel) {
+      this.source = channel == null ? null : UploadSource.of(channel);
+      return this;
+    }
+
+    /**
+     * Sets the name of the uploaded file, which is used by the Refine instance to guess the format
+     * of the data, when the format is not provided. By default the name of the file is used or the
+     * name of the project, when the data is provided as stream.
+     *
+     * @param fileName the name of the uploaded file
+     * @return the builder for fluent usage
+     */
+    public Builder fileName(String fileName) {
+      this.fileName = fileName;
+      return this;
+    }
+
+    /**
+     * Sets whether the data should be compressed in <code>gzip</code> archive, while it is
+     * uploaded. The Refine instance decompresses the archive, before the import of the data. The
+     * compression reduces the transferred bytes several times for the textual formats, but it costs
+     * CPU time on both sides. The default is <code>false</code>.
+     *
+     * <p>Note that the data should not be compressed already.
+     *
+     * @param compress <code>true</code> to compress the uploaded data
+     * @return the builder for fluent usage
+     */
+    public Builder compress(boolean compress) {
+      this.compress = compress;
       return this;
     }
 
@@ -188,9 +306,11 @@ public class CreateProjectCommand implements RefineCommand<CreateProjectResponse
      */
     public CreateProjectCommand build() {
       notBlank(name, "Missing 'name' argument");
-      notNull(file, "Missing 'file' argument");
-      notBlank(token, "Missing CSRF token");
-      return new CreateProjectCommand(name, file, format, options, token);
+      notNull(source, "Missing 'file' argument");
+      String uploadName = defaultIfBlank(fileName, defaultIfBlank(source.getName(), name));
+      CsrfTokens.validate(token, clientToken);
+      return new CreateProjectCommand(
+          name, source, uploadName, compress, format, options, token);
     }
   }
 }
@@ -0,0 +1,69 @@
+package com.ontotext.refine.client.command.create;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.MIME;
+import org.apache.http.entity.mime.content.AbstractContentBody;
+import org.apache.http.entity.mime.content.ContentBody;
+
+/**
+ * Compresses the content of another body in <code>gzip</code> archive, while it is written in the
+ * request. The Refine instance recognizes the archive by its name and content type and it
+ * decompresses the data, before the import. The length of the compressed content is unknown, so
+ * the request is sent in chunks.
+ */
+class GzipContentBody extends AbstractContentBody {
+
+  static final ContentType GZIP = ContentType.create("application/x-gzip");
+
+  private static final String EXTENSION = ".gz";
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final ContentBody content;
+
+  GzipContentBody(ContentBody content) {
+    super(GZIP);
+    this.content = content;
+  }
+
+  @Override
+  public String getFilename() {
+    String name = content.getFilename();
+    return name == null || name.endsWith(EXTENSION) ? name : name + EXTENSION;
+  }
+
+  @Override
+  public void writeTo(OutputStream out) throws IOException {
+    // the request stream is owned by the entity, so it should remain open
+    OutputStream shielded = CloseShieldOutputStream.wrap(out);
+    try (GZIPOutputStream gzip = new FastGzipOutputStream(shielded)) {
+      content.writeTo(gzip);
+    }
+  }
+
+  @Override
+  public String getTransferEncoding() {
+    return MIME.ENC_BINARY;
+  }
+
+  @Override
+  public long getContentLength() {
+    return -1;
+  }
+
+  /**
+   * Uses the fastest compression level. The ratio is slightly worse than the default one, but the
+   * compression is several times faster, which keeps the upload throughput close to the network.
+   */
+  private static class FastGzipOutputStream extends GZIPOutputStream {
+
+    FastGzipOutputStream(OutputStream out) throws IOException {
+      super(out, BUFFER_SIZE);
+      def.setLevel(Deflater.BEST_SPEED);
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package com.ontotext.refine.client.command.create;
+
+import com.ontotext.refine.client.exceptions.RefineException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.content.ContentBody;
+import org.apache.http.entity.mime.content.FileBody;
+import org.apache.http.entity.mime.content.InputStreamBody;
+
+/**
+ * The source of the data uploaded by the {@link CreateProjectCommand}. The files are uploaded with
+ * known length, while the streams are uploaded as multipart body with unknown length, which is
+ * sent in chunks while the stream is read.<br>
+ * The files, the paths and the stream suppliers can be uploaded more than once, for example when
+ * the upload is retried with refreshed CSRF token. The streams and the channels provided directly
+ * can be uploaded only once. They are closed after the upload.
+ */
+abstract class UploadSource {
+
+  private static final ContentType CONTENT_TYPE = ContentType.DEFAULT_BINARY;
+
+  /**
+   * Provides the name of the uploaded file. It is used by the Refine instance to guess the format
+   * of the data, when the format is not provided explicitly.
+   *
+   * @return the file name or <code>null</code>, when the source has no name
+   */
+  abstract String getName();
+
+  /**
+   * Opens the body of the multipart request with the content of the source.
+   *
+   * @param fileName for the body
+   * @return the body
+   * @throws IOException when the source cannot be opened
+   */
+  abstract ContentBody open(String fileName) throws IOException;
+
+  static UploadSource of(File file) {
+    return new UploadSource() {
+
+      @Override
+      String getName() {
+        return file.getName();
+      }
+
+      @Override
+      ContentBody open(String fileName) {
+        return new FileBody(file, CONTENT_TYPE, fileName);
+      }
+    };
+  }
+
+  static UploadSource of(Path path) {
+    if (FileSystems.getDefault().equals(path.getFileSystem())) {
+      return of(path.toFile());
+    }
+
+    Path fileName = path.getFileName();
+    return of(fileName == null ? null : fileName.toString(), () -> Files.newInputStream(path));
+  }
+
+  static UploadSource of(Supplier<InputStream> supplier) {
+    return of(null, supplier::get);
+  }
+
+  static UploadSource of(InputStream stream) {
+    AtomicBoolean opened = new AtomicBoolean();
+    return of(null, () -> {
+      if (opened.getAndSet(true)) {
+        throw new RefineException("The upload stream is already consumed and cannot be reopened.");
+      }
+      return stream;
+    });
+  }
+
+  static UploadSource of(ReadableByteChannel channel) {
+    return of(Channels.newInputStream(channel));
+  }
+
+  private static UploadSource of(String name, StreamOpener opener) {
+    return new UploadSource() {
+
+      @Override
+      String getName() {
+        return name;
+      }
+
+      @Override
+      ContentBody open(String fileName) throws IOException {
+        InputStream stream = opener.open();
+        if (stream == null) {
+          throw new RefineException("The supplier of the upload stream provided 'null'.");
+        }
+        return new InputStreamBody(stream, CONTENT_TYPE, fileName);
+      }
+    };
+  }
+
+  @FunctionalInterface
+  private interface StreamOpener {
+
+    InputStream open() throws IOException;
+  }
+}
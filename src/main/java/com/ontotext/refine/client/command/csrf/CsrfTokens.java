@@ -0,0 +1,149 @@
+package com.ontotext.refine.client.command.csrf;
+
+import static com.ontotext.refine.client.util.JsonParser.JSON_PARSER;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ontotext.refine.client.CsrfTokenProvider;
+import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.exceptions.InvalidCsrfTokenException;
+import com.ontotext.refine.client.exceptions.RefineException;
+import com.ontotext.refine.client.util.ThrowingFunction;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.entity.ContentType;
+
+/**
+ * Utility used by the commands which require CSRF token to resolve the token that should be sent
+ * with the request and to recognize the rejections of the token.
+ */
+public class CsrfTokens {
+
+  /**
+   * The Refine instance reports the rejected tokens as small JSON error, so the larger responses
+   * are not inspected at all.
+   */
+  private static final int MAX_ERROR_SIZE = 1024;
+
+  private CsrfTokens() {
+    // utility
+  }
+
+  /**
+   * Validates the token configured in the builder of command. The token is required, unless the
+   * command is configured to use the cached token of the client.
+   *
+   * @param token explicitly provided token. Can be <code>null</code>, if the client token is used
+   * @param clientToken whether the cached token of the client should be used
+   */
+  public static void validate(String token, boolean clientToken) {
+    if (!clientToken) {
+      Validate.notBlank(token, "Missing CSRF token");
+    }
+  }
+
+  /**
+   * Executes a call with the given token. When the token is not provided, the call is executed
+   * with the cached token of the client, see {@link CsrfTokenProvider#execute(ThrowingFunction)}.
+   *
+   * @param <T> the type of the result
+   * @param client used to retrieve the token, when it is not provided
+   * @param token explicitly provided token. Can be <code>null</code>
+   * @param call to execute with the token
+   * @return the result of the call
+   * @throws IOException when the call or the retrieval of the token fails
+   */
+  public static <T> T withToken(
+      RefineClient client, String token, ThrowingFunction<String, T, IOException> call)
+      throws IOException {
+    if (StringUtils.isNotBlank(token)) {
+      return call.apply(token);
+    }
+    return client.getCsrfTokenProvider().execute(call);
+  }
+
+  /**
+   * Wraps the handler of the response of command, which sends CSRF token, so that the rejection of
+   * the token is reported as {@link InvalidCsrfTokenException}, before the response is handled.
+   *
+   * @param <T> the type of the result
+   * @param handler of the response
+   * @return handler which checks the response, before it is passed to the given handler
+   */
+  public static <T> ResponseHandler<T> checked(ResponseHandler<T> handler) {
+    return response -> {
+      assureValidToken(response);
+      return handler.handleResponse(response);
+    };
+  }
+
+  /**
+   * Checks whether the response is rejection of the request due to missing or invalid CSRF token.
+   * Only the small JSON responses are inspected and they are recognized by the <code>code</code>
+   * and the <code>message</code> fields of the error. At most {@link #MAX_ERROR_SIZE} bytes of the
+   * responses with unknown length are read, and they are preserved for the actual handling.
+   */
+  static void assureValidToken(HttpResponse response) throws IOException {
+    HttpEntity entity = response.getEntity();
+    if (entity == null || !isJson(entity) || entity.getContentLength() > MAX_ERROR_SIZE) {
+      return;
+    }
+
+    InputStream content = entity.getContent();
+    byte[] head = content.readNBytes(MAX_ERROR_SIZE + 1);
+    if (head.length > MAX_ERROR_SIZE) {
+      response.setEntity(
+          copyOf(entity, new SequenceInputStream(new ByteArrayInputStream(head), content)));
+      return;
+    }
+
+    content.close();
+    if (isTokenRejection(head)) {
+      throw new InvalidCsrfTokenException(
+          "The CSRF token was rejected: " + new String(head, UTF_8).trim());
+    }
+    response.setEntity(copyOf(entity, new ByteArrayInputStream(head)));
+  }
+
+  private static boolean isJson(HttpEntity entity) {
+    if (entity.getContentType() == null) {
+      return false;
+    }
+
+    String mimeType = ContentType.parse(entity.getContentType().getValue()).getMimeType();
+    return ContentType.APPLICATION_JSON.getMimeType().equalsIgnoreCase(mimeType);
+  }
+
+  private static boolean isTokenRejection(byte[] content) {
+    if (content.length == 0) {
+      return false;
+    }
+
+    try {
+      JsonNode error = JSON_PARSER.parseJson(new String(content, UTF_8));
+      return "error".equals(error.path("code").asText())
+          && StringUtils.containsIgnoreCase(error.path("message").asText(), "csrf_token");
+    } catch (RefineException re) {
+      // not a JSON error, the actual handler reports it
+      return false;
+    }
+  }
+
+  private static HttpEntity copyOf(HttpEntity entity, InputStream content) {
+    BasicHttpEntity copy = new BasicHttpEntity();
+    copy.setContent(content);
+    copy.setContentLength(entity.getContentLength());
+    copy.setContentType(entity.getContentType());
+    copy.setContentEncoding(entity.getContentEncoding());
+    copy.setChunked(entity.isChunked());
+    return copy;
+  }
+}
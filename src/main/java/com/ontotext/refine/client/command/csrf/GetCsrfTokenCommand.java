@@ -2,20 +2,19 @@ package com.ontotext.refine.client.command.csrf;
 
 import static com.ontotext.refine.client.util.HttpParser.HTTP_PARSER;
 import static com.ontotext.refine.client.util.JsonParser.JSON_PARSER;
-import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.http.HttpHeaders.ACCEPT;
 import static org.apache.http.HttpStatus.SC_OK;
 import static org.apache.http.entity.ContentType.APPLICATION_JSON;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.command.RefineCommand;
 import com.ontotext.refine.client.exceptions.RefineException;
+import com.ontotext.refine.client.util.JsonFields;
 import java.io.IOException;
+import java.io.InputStream;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.methods.RequestBuilder;
-import org.apache.http.util.EntityUtils;
 
 /**
  * A command to retrieve Refine server version information.
@@ -52,13 +51,10 @@ public class GetCsrfTokenCommand implements RefineCommand<GetCsrfTokenResponse>
   @Override
   public GetCsrfTokenResponse handleResponse(HttpResponse response) throws IOException {
     HTTP_PARSER.assureStatusCode(response, SC_OK);
-    String responseBody = EntityUtils.toString(response.getEntity(), UTF_8);
-    return parseGetCsrfTokenResponse(responseBody);
-  }
-
-  private GetCsrfTokenResponse parseGetCsrfTokenResponse(String json) throws IOException {
-    JsonNode node = JSON_PARSER.parseJson(json);
-    return new GetCsrfTokenResponse(JSON_PARSER.findExistingPath(node, "token").asText());
+    try (InputStream stream = response.getEntity().getContent()) {
+      JsonFields fields = JSON_PARSER.readTextFields(stream, "token");
+      return new GetCsrfTokenResponse(fields.getExisting("token"));
+    }
   }
 
   /**
@@ -9,17 +9,18 @@ import static org.apache.http.HttpHeaders.ACCEPT;
 import static org.apache.http.HttpStatus.SC_OK;
 import static org.apache.http.entity.ContentType.APPLICATION_JSON;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.command.RefineCommand;
+import com.ontotext.refine.client.command.csrf.CsrfTokens;
 import com.ontotext.refine.client.exceptions.RefineException;
+import com.ontotext.refine.client.util.JsonFields;
 import java.io.IOException;
+import java.io.InputStream;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.methods.RequestBuilder;
 import org.apache.http.message.BasicNameValuePair;
-import org.apache.http.util.EntityUtils;
 
 /**
  * A command to delete a project.
@@ -48,17 +49,19 @@ public class DeleteProjectCommand implements RefineCommand<DeleteProjectResponse
   @Override
   public DeleteProjectResponse execute(RefineClient client) throws RefineException {
     try {
-      UrlEncodedFormEntity entity = new UrlEncodedFormEntity(
-          singletonList(new BasicNameValuePair("project", projectId)), UTF_8);
-
-      HttpUriRequest request = RequestBuilder
-          .post(client.createUri(endpoint()))
-          .addParameter(Constants.CSRF_TOKEN, token)
-          .setHeader(ACCEPT, APPLICATION_JSON.getMimeType())
-          .setEntity(entity)
-          .build();
-
-      return client.execute(request, this);
+      return CsrfTokens.withToken(client, token, csrf -> {
+        UrlEncodedFormEntity entity = new UrlEncodedFormEntity(
+            singletonList(new BasicNameValuePair("project", projectId)), UTF_8);
+
+        HttpUriRequest request = RequestBuilder
+            .post(client.createUri(endpoint()))
+            .addParameter(Constants.CSRF_TOKEN, csrf)
+            .setHeader(ACCEPT, APPLICATION_JSON.getMimeType())
+            .setEntity(entity)
+            .build();
+
+        return client.execute(request, CsrfTokens.checked(this));
+      });
     } catch (IOException ioe) {
       String error =
           String.format("Failed to delete project: '%s' due to: %s", projectId, ioe.getMessage());
@@ -69,19 +72,19 @@ public class DeleteProjectCommand implements RefineCommand<DeleteProjectResponse
   @Override
   public DeleteProjectResponse handleResponse(HttpResponse response) throws IOException {
     HTTP_PARSER.assureStatusCode(response, SC_OK);
-    String responseBody = EntityUtils.toString(response.getEntity(), UTF_8);
-    return parseDeleteProjectResponse(responseBody);
+    try (InputStream stream = response.getEntity().getContent()) {
+      return parseDeleteProjectResponse(JSON_PARSER.readTextFields(stream, "code", "message"));
+    }
   }
 
-  private DeleteProjectResponse parseDeleteProjectResponse(String json) throws IOException {
-    JsonNode node = JSON_PARSER.parseJson(json);
-    String code = JSON_PARSER.findExistingPath(node, "code").asText();
+  private DeleteProjectResponse parseDeleteProjectResponse(JsonFields fields) throws IOException {
+    String code = fields.getExisting("code");
     if ("ok".equals(code)) {
       return DeleteProjectResponse.ok();
     }
 
     if ("error".equals(code)) {
-      String message = JSON_PARSER.findExistingPath(node, "message").asText();
+      String message = fields.getExisting("message");
       return DeleteProjectResponse.error(message);
     }
 
@@ -95,9 +98,11 @@ public class DeleteProjectCommand implements RefineCommand<DeleteProjectResponse
 
     private String projectId;
     private String token;
+    private boolean clientToken;
 
     /**
-     * Sets the project ID.
+     * Sets the CSRF token. The token is required, unless the command is configured to
+     * {@link #useClientToken() use the cached token of the client}.
      *
      * @param token the csrf token
      * @return the builder for fluent usage
@@ -107,6 +112,17 @@ public class DeleteProjectCommand implements RefineCommand<DeleteProjectResponse
       return this;
     }
 
+    /**
+     * Configures the command to use the cached token of the client that executes it, when the
+     * token is not set explicitly. See {@link com.ontotext.refine.client.CsrfTokenProvider}.
+     *
+     * @return the builder for fluent usage
+     */
+    public Builder useClientToken() {
+      this.clientToken = true;
+      return this;
+    }
+
     /**
      * Sets the project ID.
      *
@@ -125,7 +141,7 @@ public class DeleteProjectCommand implements RefineCommand<DeleteProjectResponse
      */
     public DeleteProjectCommand build() {
       notBlank(projectId, "Missing 'projectId' argument");
-      notBlank(token, "Missing CSRF token");
+      CsrfTokens.validate(token, clientToken);
       return new DeleteProjectCommand(projectId, token);
     }
   }
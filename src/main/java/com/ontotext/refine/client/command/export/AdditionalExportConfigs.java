@@ -25,7 +25,8 @@ public class AdditionalExportConfigs {
 
   /**
    * Whether the last line of the result file of the {@link ExportRowsCommand} should be removed or
-   * not. The default is <code>false</code>.
+   * not. The new line is removed while the data is streamed, there is no second pass over the
+   * result. The default is <code>false</code>.
    *
    * @return <code>true</code> if the line should be removed, <code>false</code> otherwise
    */
@@ -2,7 +2,7 @@ package com.ontotext.refine.client.command.export;
 
 import static com.ontotext.refine.client.util.OrcJsonFactory.object;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 /**
  * Provides a engine options for the {@link ExportRowsCommand}.
@@ -15,9 +15,9 @@ public enum Engines {
 
   RECORD_BASED(object().put("mode", "record-based"));
 
-  private final JsonNode engine;
+  private final ObjectNode engine;
 
-  private Engines(final JsonNode engine) {
+  private Engines(final ObjectNode engine) {
     this.engine = engine;
   }
 
@@ -30,4 +30,31 @@ public enum Engines {
   public String get() {
     return engine.toString();
   }
+
+  /**
+   * Provides a string representation of the engine configuration, which selects only the rows with
+   * index in specific range. The selection is done via range facet over the row index.
+   *
+   * @param from the index of the first selected row, inclusive
+   * @param to the index of the last selected row, exclusive
+   * @return the string representation of the JSON that is the used for engine configuration of the
+   *         refine tool
+   */
+  public String withRowRange(long from, long to) {
+    ObjectNode facet = object()
+        .put("type", "range")
+        .put("name", "row-range")
+        .put("expression", "row.index")
+        .put("columnName", "")
+        .put("from", from)
+        .put("to", to)
+        .put("selectNumeric", true)
+        .put("selectNonNumeric", false)
+        .put("selectBlank", false)
+        .put("selectError", false);
+
+    ObjectNode ranged = engine.deepCopy();
+    ranged.putArray("facets").add(facet);
+    return ranged.toString();
+  }
 }
@@ -2,6 +2,7 @@ package com.ontotext.refine.client.command.export;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
+import static org.apache.commons.lang3.Validate.isTrue;
 import static org.apache.commons.lang3.Validate.notBlank;
 import static org.apache.http.HttpHeaders.ACCEPT;
 import static org.apache.http.entity.ContentType.APPLICATION_JSON;
@@ -9,15 +10,27 @@ import static org.apache.http.entity.ContentType.APPLICATION_JSON;
 import com.ontotext.refine.client.Options;
 import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.command.RefineCommand;
+import com.ontotext.refine.client.command.csrf.CsrfTokens;
 import com.ontotext.refine.client.exceptions.RefineException;
-import java.io.File;
-import java.io.FileOutputStream;
+import com.ontotext.refine.client.util.ThrowingFunction;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
@@ -27,6 +40,11 @@ import org.apache.http.message.BasicNameValuePair;
 
 /**
  * A command to export rows from the project.
+ *
+ * <p>By default the exported data is written in file with unique name in the working directory.
+ * The data can be written directly to specific file or channel, configured via the builder of the
+ * command, or it can be consumed as stream via {@link #stream(RefineClient, ThrowingFunction)}. In
+ * all cases the response is streamed, without intermediate buffering.
  */
 public class ExportRowsCommand implements RefineCommand<ExportRowsResponse> {
 
@@ -36,6 +54,8 @@ public class ExportRowsCommand implements RefineCommand<ExportRowsResponse> {
   private final String options;
   private final String token;
   private final AdditionalExportConfigs exportConfigs;
+  private final Path targetFile;
+  private final WritableByteChannel targetChannel;
 
   private ExportRowsCommand(
       String project,
@@ -43,13 +63,17 @@ public class ExportRowsCommand implements RefineCommand<ExportRowsResponse> {
       String format,
       String options,
       String token,
-      AdditionalExportConfigs exportConfigs) {
+      AdditionalExportConfigs exportConfigs,
+      Path targetFile,
+      WritableByteChannel targetChannel) {
     this.project = project;
     this.engine = engine;
     this.format = format;
     this.options = options;
     this.token = token;
     this.exportConfigs = exportConfigs;
+    this.targetFile = targetFile;
+    this.targetChannel = targetChannel;
   }
 
   @Override
@@ -60,16 +84,40 @@ public class ExportRowsCommand implements RefineCommand<ExportRowsResponse> {
   @Override
   public ExportRowsResponse execute(RefineClient client) throws RefineException {
     try {
+      return CsrfTokens.withToken(client, token,
+          csrf -> client.execute(buildRequest(client, csrf), CsrfTokens.checked(this)));
+    } catch (IOException ioe) {
+      throw new RefineException(
+          "Failed to export data for project: '%s' due to: '%s'",
+          project,
+          ioe.getMessage());
+    }
+  }
 
-      List<NameValuePair> form = buildForm();
-
-      HttpUriRequest request = RequestBuilder
-          .post(client.createUri(endpoint()))
-          .setHeader(ACCEPT, APPLICATION_JSON.getMimeType())
-          .setEntity(new UrlEncodedFormEntity(form, UTF_8))
-          .build();
-
-      return client.execute(request, this);
+  /**
+   * Executes the export and provides the exported data as stream to the given consumer. The stream
+   * is read directly from the response, there is no intermediate file or buffer. When the trailing
+   * new line should be removed, it is removed while the stream is read.<br>
+   * The stream is valid only during the invocation of the consumer and it is closed afterwards. If
+   * channel is required, the stream could be adapted via {@link Channels#newChannel(InputStream)}.
+   *
+   * <p>Note that the target file or channel configured for the command are not used in this mode.
+   *
+   * @param <R> the type of the result produced by the consumer
+   * @param client used to execute the command
+   * @param consumer of the exported data
+   * @return the result of the consumer
+   * @throws RefineException when there is an error during the execution or the consumption
+   */
+  public <R> R stream(RefineClient client, ThrowingFunction<InputStream, R, IOException> consumer)
+      throws RefineException {
+    try {
+      return CsrfTokens.withToken(client, token,
+          csrf -> client.execute(buildRequest(client, csrf), CsrfTokens.checked(response -> {
+            try (InputStream is = openContent(response)) {
+              return consumer.apply(is);
+            }
+          })));
     } catch (IOException ioe) {
       throw new RefineException(
           "Failed to export data for project: '%s' due to: '%s'",
@@ -78,35 +126,124 @@ public class ExportRowsCommand implements RefineCommand<ExportRowsResponse> {
     }
   }
 
-  private List<NameValuePair> buildForm() {
+  /**
+   * Executes the export and provides the exported data as rows to the given consumer. The rows are
+   * parsed incrementally, while the response is read, and the buffers are reused for all of the
+   * rows. This way the memory is constant regardless of the size of the export.<br>
+   * The parsing is supported only for <code>csv</code> and <code>tsv</code> formats. The data is
+   * decoded as <code>UTF-8</code>, which is the default encoding of the export.
+   *
+   * <p>The reader is valid only during the invocation of the consumer and it is closed afterwards.
+   *
+   * @param <R> the type of the result produced by the consumer
+   * @param client used to execute the command
+   * @param consumer of the rows
+   * @return the result of the consumer
+   * @throws RefineException when there is an error during the execution or the consumption
+   * @throws IllegalArgumentException when the format of the export is not supported
+   */
+  public <R> R rows(RefineClient client, ThrowingFunction<RowReader, R, IOException> consumer)
+      throws RefineException {
+    char separator = RowReader.separatorOf(format);
+    return stream(client, is -> {
+      try (RowReader reader = new RowReader(new InputStreamReader(is, UTF_8), separator)) {
+        return consumer.apply(reader);
+      }
+    });
+  }
+
+  /**
+   * Executes the export and passes each of the exported rows to the given consumer. See
+   * {@link #rows(RefineClient, ThrowingFunction)} for details.
+   *
+   * @param client used to execute the command
+   * @param consumer of the rows
+   * @return the number of the consumed rows
+   * @throws RefineException when there is an error during the execution
+   */
+  public long forEachRow(RefineClient client, Consumer<Row> consumer) throws RefineException {
+    return rows(client, reader -> {
+      long count = 0;
+      while (reader.next()) {
+        consumer.accept(reader.row());
+        count++;
+      }
+      return count;
+    });
+  }
+
+  private HttpUriRequest buildRequest(RefineClient client, String csrf) {
+    return RequestBuilder
+        .post(client.createUri(endpoint()))
+        .setHeader(ACCEPT, APPLICATION_JSON.getMimeType())
+        .setEntity(new UrlEncodedFormEntity(buildForm(csrf), UTF_8))
+        .build();
+  }
+
+  private List<NameValuePair> buildForm(String csrf) {
     List<NameValuePair> form = new ArrayList<>(5);
     form.add(new BasicNameValuePair(Constants.PROJECT, project));
     form.add(new BasicNameValuePair("format", format));
     form.add(new BasicNameValuePair("options", options));
     form.add(new BasicNameValuePair("engine", engine));
-    form.add(new BasicNameValuePair(Constants.CSRF_TOKEN, token));
+    form.add(new BasicNameValuePair(Constants.CSRF_TOKEN, csrf));
     return form;
   }
 
   @Override
   public ExportRowsResponse handleResponse(HttpResponse response) throws IOException {
-    File file = new File(new Date().getTime() + "." + format);
-    try (FileOutputStream fos = new FileOutputStream(file);
-        InputStream is = response.getEntity().getContent()) {
-      int read = 0;
-      byte[] buffer = new byte[32768];
-      while ((read = is.read(buffer)) > 0) {
-        fos.write(buffer, 0, read);
+    try (InputStream is = openContent(response)) {
+      if (targetChannel != null) {
+        return new ExportRowsResponse(null, copy(is, targetChannel));
       }
 
-      if (exportConfigs.truncateFile()) {
-        // removes the empty line that is added at the end of the file
-        FileChannel fosChannel = fos.getChannel();
-        fosChannel.truncate(fosChannel.size() - 1);
+      Path file = targetFile != null ? targetFile : createDefaultFile(format);
+      try (FileChannel channel = FileChannel.open(file,
+          StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING)) {
+        return new ExportRowsResponse(file.toFile(), copy(is, channel));
       }
+    }
+  }
 
-      return new ExportRowsResponse(file);
+  private InputStream openContent(HttpResponse response) throws IOException {
+    HttpEntity entity = response.getEntity();
+    InputStream is = entity != null ? entity.getContent() : InputStream.nullInputStream();
+    // removes the empty line that is added at the end of the exported data
+    return exportConfigs.truncateFile() ? new TrailingNewlineStrippingInputStream(is) : is;
+  }
+
+  /**
+   * Creates the file in the working directory, which is used when the export has no target. The
+   * file is created with the default permissions, like the files of the previous versions, unlike
+   * the temporary files, which are readable only by their owner.
+   */
+  static Path createDefaultFile(String format) throws IOException {
+    while (true) {
+      // the timestamp keeps the old naming, the random part prevents collisions of parallel exports
+      String name = System.currentTimeMillis() + "-"
+          + Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + "." + format;
+      try {
+        return Files.createFile(Paths.get(name));
+      } catch (FileAlreadyExistsException faee) { // NOSONAR
+        // very unlikely, the next name is tried
+      }
+    }
+  }
+
+  private static long copy(InputStream is, WritableByteChannel target) throws IOException {
+    ReadableByteChannel source = Channels.newChannel(is);
+    ByteBuffer buffer = ByteBuffer.allocate(32768);
+    long total = 0;
+    while (source.read(buffer) >= 0) {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        total += target.write(buffer);
+      }
+      buffer.clear();
     }
+    return total;
   }
 
   /**
@@ -121,7 +258,12 @@ public class ExportRowsCommand implements RefineCommand<ExportRowsResponse> {
     private String format;
     private Options options;
     private String token;
+    private boolean clientToken;
     private AdditionalExportConfigs exportConfigs;
+    private Path targetFile;
+    private WritableByteChannel targetChannel;
+    private long offset;
+    private long limit = -1;
 
     public Builder setProject(String project) {
       this.project = project;
@@ -148,11 +290,75 @@ public class ExportRowsCommand implements RefineCommand<ExportRowsResponse> {
       return this;
     }
 
+    /**
+     * Configures the command to use the cached token of the client that executes it, when the
+     * token is not set explicitly. See {@link com.ontotext.refine.client.CsrfTokenProvider}.
+     *
+     * @return the builder for fluent usage
+     */
+    public Builder useClientToken() {
+      this.clientToken = true;
+      return this;
+    }
+
     public Builder setExportConfigs(AdditionalExportConfigs exportConfigs) {
       this.exportConfigs = exportConfigs;
       return this;
     }
 
+    /**
+     * Sets the file where the exported data should be written. The file is created, if it does not
+     * exist, or it is overwritten otherwise. By default the data is written in new file in the
+     * working directory.
+     *
+     * @param targetFile where to write the data
+     * @return current builder
+     */
+    public Builder setTarget(Path targetFile) {
+      this.targetFile = targetFile;
+      this.targetChannel = null;
+      return this;
+    }
+
+    /**
+     * Sets the channel where the exported data should be written. The channel is not closed after
+     * the export, it remains owned by the caller. When channel is used, the response of the command
+     * does not contain file.
+     *
+     * @param targetChannel where to write the data
+     * @return current builder
+     */
+    public Builder setTarget(WritableByteChannel targetChannel) {
+      this.targetChannel = targetChannel;
+      this.targetFile = null;
+      return this;
+    }
+
+    /**
+     * Sets the index of the first row that should be exported. By default the export starts from
+     * the first row of the project. The ranges are supported only by the row based engine.
+     *
+     * @param offset the zero based index of the first exported row
+     * @return current builder
+     */
+    public Builder setOffset(long offset) {
+      this.offset = offset;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of rows that should be exported. By default all of the rows are
+     * exported, which is also the case when negative value is provided. The ranges are supported
+     * only by the row based engine.
+     *
+     * @param limit the maximum number of exported rows
+     * @return current builder
+     */
+    public Builder setLimit(long limit) {
+      this.limit = limit;
+      return this;
+    }
+
     /**
      * Builds the command after validation.
      *
@@ -161,12 +367,31 @@ public class ExportRowsCommand implements RefineCommand<ExportRowsResponse> {
     public ExportRowsCommand build() {
       notBlank(project, "Missing 'project' argument");
       notBlank(format, "Missing 'format' argument");
-      notBlank(token, "Missing CSRF token");
+      CsrfTokens.validate(token, clientToken);
       options = defaultIfNull(options, DEFAULT_OPTIONS);
       engine = defaultIfNull(engine, Engines.ROW_BASED);
       exportConfigs = defaultIfNull(exportConfigs, AdditionalExportConfigs.createDefault());
       return new ExportRowsCommand(
-          project, engine.get(), format, options.asJson(), token, exportConfigs);
+          project,
+          buildEngine(),
+          format,
+          options.asJson(),
+          token,
+          exportConfigs,
+          targetFile,
+          targetChannel);
+    }
+
+    private String buildEngine() {
+      if (offset == 0 && limit < 0) {
+        return engine.get();
+      }
+
+      isTrue(offset >= 0, "The 'offset' should not be negative");
+      isTrue(limit != 0, "The 'limit' should be positive");
+      isTrue(engine == Engines.ROW_BASED, "The row ranges are supported only by row based engine");
+      long to = limit < 0 || Long.MAX_VALUE - offset < limit ? Long.MAX_VALUE : offset + limit;
+      return engine.withRowRange(offset, to);
     }
   }
 }
@@ -10,12 +10,29 @@ import java.io.File;
 public class ExportRowsResponse {
 
   private File file;
+  private long size;
 
-  ExportRowsResponse(File file) {
+  ExportRowsResponse(File file, long size) {
     this.file = file;
+    this.size = size;
   }
 
+  /**
+   * Provides the file containing the exported data. The file is <code>null</code>, when the data
+   * is exported to channel.
+   *
+   * @return the file with the data
+   */
   public File getFile() {
     return file;
   }
+
+  /**
+   * Provides the number of the exported bytes.
+   *
+   * @return the size of the exported data in bytes
+   */
+  public long getSize() {
+    return size;
+  }
 }
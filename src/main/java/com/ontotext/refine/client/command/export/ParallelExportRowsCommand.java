@@ -0,0 +1,457 @@
+package com.ontotext.refine.client.command.export;
+
+import static com.ontotext.refine.client.util.JsonParser.JSON_PARSER;
+import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notBlank;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.ontotext.refine.client.Options;
+import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.command.csrf.CsrfTokens;
+import com.ontotext.refine.client.exceptions.RefineException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+/**
+ * A command that exports the rows of a project in parallel. The rows of the project are split into
+ * slices with equal size, based on the row count of the project. The slices are exported
+ * concurrently via ranged {@link ExportRowsCommand}s and spooled into temporary files, which are
+ * concatenated in order, when all of the slices are exported. The column headers are exported
+ * only with the first slice.
+ *
+ * <p>The command supports only <code>csv</code> and <code>tsv</code> formats, as they can be
+ * concatenated safely. As the slices are exported concurrently, the command should be used with
+ * client that allows multiple connections to the Refine instance, like the one created via
+ * {@link com.ontotext.refine.client.RefineClients#pooled}.
+ */
+public class ParallelExportRowsCommand {
+
+  private static final String HEADERS_OPTION = "outputColumnHeaders";
+
+  private final String project;
+  private final String format;
+  private final String options;
+  private final String token;
+  private final AdditionalExportConfigs exportConfigs;
+  private final int slices;
+  private final Executor executor;
+  private final Path targetFile;
+  private final WritableByteChannel targetChannel;
+
+  private ParallelExportRowsCommand(
+      String project,
+      String format,
+      String options,
+      String token,
+      AdditionalExportConfigs exportConfigs,
+      int slices,
+      Executor executor,
+      Path targetFile,
+      WritableByteChannel targetChannel) {
+    this.project = project;
+    this.format = format;
+    this.options = options;
+    this.token = token;
+    this.exportConfigs = exportConfigs;
+    this.slices = slices;
+    this.executor = executor;
+    this.targetFile = targetFile;
+    this.targetChannel = targetChannel;
+  }
+
+  /**
+   * Executes the command.
+   *
+   * @param client to be used for command requests
+   * @return a command response
+   * @throws RefineException when any error occurs during command execution
+   */
+  public ExportRowsResponse execute(RefineClient client) throws RefineException {
+    long rowCount = RefineCommands
+        .getProjectMetadataCommand()
+        .project(project)
+        .build()
+        .execute(client)
+        .getProjectMetadata()
+        .getRowCount();
+
+    int count = (int) Math.max(1, Math.min(slices, rowCount));
+    if (count == 1) {
+      return slice(0, -1, options, exportConfigs).execute(client);
+    }
+
+    try {
+      return exportSlices(client, count, (rowCount + count - 1) / count);
+    } catch (IOException ioe) {
+      throw new RefineException(
+          "Failed to export data for project: '%s' due to: '%s'",
+          project,
+          ioe.getMessage());
+    }
+  }
+
+  /**
+   * The spool is deleted only after all of the slices are stopped. When any of the slices fails,
+   * the rest of them are cancelled and the running ones are interrupted, but the command still
+   * waits for them to stop, as they are writing into the spool.
+   */
+  private ExportRowsResponse exportSlices(RefineClient client, int count, long sliceSize)
+      throws IOException {
+    String headless = withoutHeaders(options);
+    AdditionalExportConfigs defaultConfigs = AdditionalExportConfigs.createDefault();
+
+    Path spool = Files.createTempDirectory("ontorefine-client-export-");
+    ExecutorService ownExecutor = executor == null ? Executors.newFixedThreadPool(count) : null;
+    Executor sliceExecutor = executor == null ? ownExecutor : executor;
+    BlockingQueue<Slice> completed = new ArrayBlockingQueue<>(count);
+    List<Slice> tasks = new ArrayList<>(count);
+    try {
+      List<Path> files = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        boolean last = i == count - 1;
+        Path file = spool.resolve(i + "." + format);
+        // the last slice is not limited, in order to include rows added after the count retrieval
+        ExportRowsCommand command = slice(
+            i * sliceSize,
+            last ? -1 : sliceSize,
+            i == 0 ? options : headless,
+            last ? exportConfigs : defaultConfigs,
+            file);
+        files.add(file);
+        Slice task = new Slice(() -> command.execute(client), completed);
+        tasks.add(task);
+        task.submit(sliceExecutor);
+      }
+
+      await(tasks, completed);
+      return concat(files);
+    } finally {
+      tasks.forEach(task -> task.cancel(true));
+      if (ownExecutor != null) {
+        ownExecutor.shutdownNow().forEach(task -> ((Slice) task).skip());
+      }
+      tasks.forEach(Slice::awaitStopped);
+      delete(spool);
+    }
+  }
+
+  private ExportRowsCommand slice(
+      long offset, long limit, String sliceOptions, AdditionalExportConfigs configs) {
+    ExportRowsCommand.Builder builder = sliceBuilder(offset, limit, sliceOptions, configs);
+    return targetChannel != null
+        ? builder.setTarget(targetChannel).build()
+        : builder.setTarget(targetFile).build();
+  }
+
+  private ExportRowsCommand slice(
+      long offset,
+      long limit,
+      String sliceOptions,
+      AdditionalExportConfigs configs,
+      Path file) {
+    return sliceBuilder(offset, limit, sliceOptions, configs).setTarget(file).build();
+  }
+
+  private ExportRowsCommand.Builder sliceBuilder(
+      long offset, long limit, String sliceOptions, AdditionalExportConfigs configs) {
+    return RefineCommands
+        .exportRows()
+        .setProject(project)
+        .setFormat(format)
+        .setToken(token)
+        .useClientToken()
+        .setEngine(Engines.ROW_BASED)
+        .setOptions(() -> sliceOptions)
+        .setExportConfigs(configs)
+        .setOffset(offset)
+        .setLimit(limit);
+  }
+
+  private static void await(List<Slice> tasks, BlockingQueue<Slice> completed)
+      throws RefineException {
+    try {
+      for (int i = 0; i < tasks.size(); i++) {
+        completed.take().get();
+      }
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new RefineException("Interrupted while exporting slices of the project.", ie);
+    } catch (CancellationException ce) {
+      throw new RefineException("The export of slice of the project was cancelled.", ce);
+    } catch (ExecutionException ee) {
+      if (ee.getCause() instanceof RefineException) {
+        throw (RefineException) ee.getCause();
+      }
+      throw new RefineException("Failed to export slice of the project.", ee.getCause());
+    }
+  }
+
+  private ExportRowsResponse concat(List<Path> files) throws IOException {
+    if (targetChannel != null) {
+      return new ExportRowsResponse(null, transfer(files, targetChannel));
+    }
+
+    Path file = targetFile != null ? targetFile : ExportRowsCommand.createDefaultFile(format);
+    try (FileChannel channel = FileChannel.open(file,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      return new ExportRowsResponse(file.toFile(), transfer(files, channel));
+    }
+  }
+
+  private static long transfer(List<Path> files, WritableByteChannel target) throws IOException {
+    long total = 0;
+    for (Path file : files) {
+      try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ)) {
+        long size = source.size();
+        long position = 0;
+        while (position < size) {
+          position += source.transferTo(position, size - position, target);
+        }
+        total += size;
+      }
+    }
+    return total;
+  }
+
+  private static String withoutHeaders(String options) throws RefineException {
+    JsonNode json = JSON_PARSER.parseJson(options);
+    if (!json.isObject()) {
+      throw new RefineException("The export options should be JSON object, but were: " + options);
+    }
+
+    return ((ObjectNode) json.deepCopy()).put(HEADERS_OPTION, false).toString();
+  }
+
+  private static void delete(Path directory) {
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> {
+        try {
+          Files.deleteIfExists(path);
+        } catch (IOException ioe) {
+          throw new UncheckedIOException(ioe);
+        }
+      });
+    } catch (IOException | UncheckedIOException exc) { // NOSONAR
+      // best effort, the files are in the temporary directory
+    }
+  }
+
+  /**
+   * Export of single slice. The task is queued as completed, when it is done or cancelled, and it
+   * is stopped, when its thread leaves it or when it is skipped without being started. The
+   * cancelled task is done immediately, but it could be still running until it notices the
+   * interruption.
+   */
+  private static class Slice extends FutureTask<ExportRowsResponse> {
+
+    private final BlockingQueue<Slice> completed;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    private Slice(Callable<ExportRowsResponse> export, BlockingQueue<Slice> completed) {
+      super(export);
+      this.completed = completed;
+    }
+
+    private void submit(Executor executor) {
+      try {
+        executor.execute(this);
+      } catch (RejectedExecutionException ree) {
+        setException(ree);
+        skip();
+      }
+    }
+
+    @Override
+    public void run() {
+      try {
+        super.run();
+      } finally {
+        stopped.countDown();
+      }
+    }
+
+    private void skip() {
+      cancel(false);
+      stopped.countDown();
+    }
+
+    private void awaitStopped() {
+      boolean interrupted = false;
+      while (stopped.getCount() > 0) {
+        try {
+          stopped.await();
+        } catch (InterruptedException ie) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    @Override
+    protected void done() {
+      completed.add(this);
+    }
+  }
+
+  /**
+   * The builder for {@link ParallelExportRowsCommand}.
+   */
+  public static class Builder {
+
+    private static final Options DEFAULT_OPTIONS = () -> "{}";
+    private static final int DEFAULT_SLICES = 4;
+
+    private String project;
+    private String format;
+    private Options options;
+    private String token;
+    private boolean clientToken;
+    private AdditionalExportConfigs exportConfigs;
+    private int slices = DEFAULT_SLICES;
+    private Executor executor;
+    private Path targetFile;
+    private WritableByteChannel targetChannel;
+
+    public Builder setProject(String project) {
+      this.project = project;
+      return this;
+    }
+
+    public Builder setFormat(String format) {
+      this.format = format;
+      return this;
+    }
+
+    public Builder setOptions(Options options) {
+      this.options = options;
+      return this;
+    }
+
+    public Builder setToken(String token) {
+      this.token = token;
+      return this;
+    }
+
+    /**
+     * Configures the command to use the cached token of the client that executes it, when the
+     * token is not set explicitly. See {@link com.ontotext.refine.client.CsrfTokenProvider}.
+     *
+     * @return the builder for fluent usage
+     */
+    public Builder useClientToken() {
+      this.clientToken = true;
+      return this;
+    }
+
+    public Builder setExportConfigs(AdditionalExportConfigs exportConfigs) {
+      this.exportConfigs = exportConfigs;
+      return this;
+    }
+
+    /**
+     * Sets the number of the slices, which are exported concurrently. The default is
+     * <code>4</code>. Projects with less rows are exported in less slices.
+     *
+     * @param slices the number of the slices
+     * @return current builder
+     */
+    public Builder setSlices(int slices) {
+      this.slices = slices;
+      return this;
+    }
+
+    /**
+     * Sets the executor used for the export of the slices. By default the command uses its own
+     * executor with thread for each slice, which is shut down after the execution.<br>
+     * When the export fails, the slices are cancelled and the command returns after all of them
+     * are stopped, so the slices queued in the given executor should not be discarded by it.
+     *
+     * @param executor for the slices
+     * @return current builder
+     */
+    public Builder setExecutor(Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * Sets the file where the exported data should be written. The file is created, if it does not
+     * exist, or it is overwritten otherwise. By default the data is written in new file in the
+     * working directory.
+     *
+     * @param targetFile where to write the data
+     * @return current builder
+     */
+    public Builder setTarget(Path targetFile) {
+      this.targetFile = targetFile;
+      this.targetChannel = null;
+      return this;
+    }
+
+    /**
+     * Sets the channel where the exported data should be written. The channel is not closed after
+     * the export, it remains owned by the caller.
+     *
+     * @param targetChannel where to write the data
+     * @return current builder
+     */
+    public Builder setTarget(WritableByteChannel targetChannel) {
+      this.targetChannel = targetChannel;
+      this.targetFile = null;
+      return this;
+    }
+
+    /**
+     * Builds the command after validation.
+     *
+     * @return the command
+     */
+    public ParallelExportRowsCommand build() {
+      notBlank(project, "Missing 'project' argument");
+      notBlank(format, "Missing 'format' argument");
+      isTrue(slices > 0, "The number of slices should be positive");
+      // only the formats supported by the row parsing can be concatenated
+      RowReader.separatorOf(format);
+      CsrfTokens.validate(token, clientToken);
+      options = defaultIfNull(options, DEFAULT_OPTIONS);
+      exportConfigs = defaultIfNull(exportConfigs, AdditionalExportConfigs.createDefault());
+      return new ParallelExportRowsCommand(
+          project,
+          format,
+          options.asJson(),
+          token,
+          exportConfigs,
+          slices,
+          executor,
+          targetFile,
+          targetChannel);
+    }
+  }
+}
@@ -0,0 +1,178 @@
+package com.ontotext.refine.client.command.export;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents single row of exported project data, produced by {@link RowReader}.
+ *
+ * <p>The instance is reused by the reader for all of the rows and the cells are exposed as
+ * {@link CharSequence} views over the internal buffer of the reader. This keeps the memory constant
+ * regardless of the size of the export, but it also means that the row and its cells are valid
+ * only until the reader advances. When the data should be retained, it should be copied via
+ * {@link #getString(int)} or {@link #toList()}.
+ */
+public class Row {
+
+  private char[] data = new char[1024];
+  private int length;
+
+  // start and end offsets of the cells in the data buffer
+  private int[] bounds = new int[32];
+  private int cells;
+  private int cellStart;
+
+  private Cell[] views = new Cell[0];
+  private long index = -1;
+
+  Row() {
+    // created by the reader
+  }
+
+  void reset(long index) {
+    this.index = index;
+    this.length = 0;
+    this.cells = 0;
+    this.cellStart = 0;
+  }
+
+  void append(char ch) {
+    if (length == data.length) {
+      data = Arrays.copyOf(data, data.length * 2);
+    }
+    data[length++] = ch;
+  }
+
+  void endCell() {
+    if (cells * 2 == bounds.length) {
+      bounds = Arrays.copyOf(bounds, bounds.length * 2);
+    }
+    bounds[cells * 2] = cellStart;
+    bounds[cells * 2 + 1] = length;
+    cells++;
+    cellStart = length;
+  }
+
+  /**
+   * Provides the zero based index of the row in the exported data. When the export contains
+   * header, it has index <code>0</code>.
+   *
+   * @return the index of the row
+   */
+  public long getIndex() {
+    return index;
+  }
+
+  /**
+   * Provides the number of the cells in the row.
+   *
+   * @return the number of cells
+   */
+  public int size() {
+    return cells;
+  }
+
+  /**
+   * Provides view of the content of specific cell. The view is valid until the reader advances to
+   * the next row.
+   *
+   * @param column the zero based index of the cell
+   * @return the content of the cell
+   * @throws IndexOutOfBoundsException when the row does not contain such cell
+   */
+  public CharSequence get(int column) {
+    checkColumn(column);
+    if (column >= views.length) {
+      Cell[] extended = Arrays.copyOf(views, Math.max(column + 1, views.length * 2));
+      for (int i = views.length; i < extended.length; i++) {
+        extended[i] = new Cell(i);
+      }
+      views = extended;
+    }
+    return views[column];
+  }
+
+  /**
+   * Provides copy of the content of specific cell.
+   *
+   * @param column the zero based index of the cell
+   * @return the content of the cell
+   * @throws IndexOutOfBoundsException when the row does not contain such cell
+   */
+  public String getString(int column) {
+    checkColumn(column);
+    return new String(data, start(column), end(column) - start(column));
+  }
+
+  /**
+   * Copies the content of all cells of the row.
+   *
+   * @return list with the contents of the cells
+   */
+  public List<String> toList() {
+    List<String> values = new ArrayList<>(cells);
+    for (int i = 0; i < cells; i++) {
+      values.add(getString(i));
+    }
+    return values;
+  }
+
+  private void checkColumn(int column) {
+    if (column < 0 || column >= cells) {
+      throw new IndexOutOfBoundsException(
+          "Column " + column + " is out of range for row with " + cells + " cells.");
+    }
+  }
+
+  private int start(int column) {
+    return bounds[column * 2];
+  }
+
+  private int end(int column) {
+    return bounds[column * 2 + 1];
+  }
+
+  @Override
+  public String toString() {
+    return "Row{" + "index=" + index + ", cells=" + toList() + '}';
+  }
+
+  /**
+   * View of the content of single cell in the current row.
+   */
+  private class Cell implements CharSequence {
+
+    private final int column;
+
+    private Cell(int column) {
+      this.column = column;
+    }
+
+    @Override
+    public int length() {
+      return end(column) - start(column);
+    }
+
+    @Override
+    public char charAt(int index) {
+      if (index < 0 || index >= length()) {
+        throw new IndexOutOfBoundsException("Index " + index + " is out of range.");
+      }
+      return data[start(column) + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      if (start < 0 || end > length() || start > end) {
+        throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") is out of range.");
+      }
+      return new String(data, start(column) + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+      return new String(data, start(column), length());
+    }
+  }
+}
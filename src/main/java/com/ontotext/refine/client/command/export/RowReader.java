@@ -0,0 +1,186 @@
+package com.ontotext.refine.client.command.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Incremental parser of rows exported in <code>csv</code> or <code>tsv</code> format. The reader
+ * parses the data while it is read from the underlying source and it does not keep more than the
+ * current row in memory. The buffers are reused for all of the rows.
+ *
+ * <p>The cells may be enclosed in double quotes, in which case they can contain the separator, new
+ * lines and escaped (doubled) double quotes. Both <code>LF</code> and <code>CRLF</code> line
+ * endings are supported.
+ */
+public class RowReader implements Closeable {
+
+  private static final int DEFAULT_BUFFER_SIZE = 65536;
+  private static final char QUOTE = '"';
+
+  private final Reader reader;
+  private final char separator;
+  private final char[] buffer;
+  private final Row row = new Row();
+
+  private int position;
+  private int limit;
+  private boolean eof;
+  private long index = -1;
+
+  /**
+   * Creates new reader.
+   *
+   * @param reader the source of the data
+   * @param separator of the cells in the row
+   */
+  public RowReader(Reader reader, char separator) {
+    this(reader, separator, DEFAULT_BUFFER_SIZE);
+  }
+
+  RowReader(Reader reader, char separator, int bufferSize) {
+    this.reader = reader;
+    this.separator = separator;
+    this.buffer = new char[bufferSize];
+  }
+
+  /**
+   * Creates reader for the data exported in specific format.
+   *
+   * @param reader the source of the data
+   * @param format of the export, <code>csv</code> or <code>tsv</code>
+   * @return new reader
+   * @throws IllegalArgumentException when the format is not supported
+   */
+  public static RowReader forFormat(Reader reader, String format) {
+    return new RowReader(reader, separatorOf(format));
+  }
+
+  static char separatorOf(String format) {
+    if ("csv".equalsIgnoreCase(format)) {
+      return ',';
+    }
+
+    if ("tsv".equalsIgnoreCase(format)) {
+      return '\t';
+    }
+
+    throw new IllegalArgumentException(
+        "Row parsing is supported only for 'csv' and 'tsv' formats, but was: " + format);
+  }
+
+  /**
+   * Advances the reader to the next row.
+   *
+   * @return <code>true</code> if there is next row, <code>false</code> when the end of the data is
+   *         reached
+   * @throws IOException when the data cannot be read
+   */
+  public boolean next() throws IOException {
+    if (!hasData()) {
+      return false;
+    }
+
+    row.reset(++index);
+    boolean inQuotes = false;
+    boolean cellStart = true;
+    while (hasData()) {
+      char ch = buffer[position++];
+      if (inQuotes) {
+        if (ch != QUOTE) {
+          row.append(ch);
+        } else if (hasData() && buffer[position] == QUOTE) {
+          row.append(QUOTE);
+          position++;
+        } else {
+          inQuotes = false;
+        }
+      } else if (ch == separator) {
+        row.endCell();
+        cellStart = true;
+        continue;
+      } else if (ch == '\n') {
+        break;
+      } else if (ch == '\r') {
+        if (hasData() && buffer[position] == '\n') {
+          position++;
+        }
+        break;
+      } else if (ch == QUOTE && cellStart) {
+        inQuotes = true;
+      } else {
+        row.append(ch);
+      }
+      cellStart = false;
+    }
+
+    row.endCell();
+    return true;
+  }
+
+  /**
+   * Provides the current row. The instance is reused for all rows.
+   *
+   * @return the current row
+   */
+  public Row row() {
+    return row;
+  }
+
+  /**
+   * Provides the remaining rows as sequential {@link Stream}. As the row instance is reused, the
+   * rows should not be collected without copying their data. The {@link IOException}s are thrown
+   * as {@link UncheckedIOException}s.
+   *
+   * @return stream of the rows
+   */
+  public Stream<Row> stream() {
+    Spliterator<Row> spliterator = new Spliterators.AbstractSpliterator<Row>(
+        Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+
+      @Override
+      public boolean tryAdvance(Consumer<? super Row> action) {
+        try {
+          if (!next()) {
+            return false;
+          }
+        } catch (IOException ioe) {
+          throw new UncheckedIOException(ioe);
+        }
+
+        action.accept(row);
+        return true;
+      }
+    };
+    return StreamSupport.stream(spliterator, false);
+  }
+
+  private boolean hasData() throws IOException {
+    while (position == limit) {
+      if (eof) {
+        return false;
+      }
+
+      int read = reader.read(buffer, 0, buffer.length);
+      if (read < 0) {
+        eof = true;
+        return false;
+      }
+
+      position = 0;
+      limit = read;
+    }
+    return true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
@@ -0,0 +1,122 @@
+package com.ontotext.refine.client.command.export;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream that removes the new line at the end of the wrapped stream, while the content is
+ * read. The stream always holds back one byte, which is released only when it is known that it is
+ * not the last one. This way the trailing new line is removed in a single pass, without buffering
+ * the whole content or truncating the output afterwards.
+ */
+class TrailingNewlineStrippingInputStream extends FilterInputStream {
+
+  private static final int NONE = -1;
+
+  private int pending = NONE;
+  private boolean eof;
+
+  TrailingNewlineStrippingInputStream(InputStream in) {
+    super(in);
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (eof || !fill()) {
+      return -1;
+    }
+
+    int next = in.read();
+    int current = pending;
+    pending = next;
+    if (next < 0) {
+      eof = true;
+      return current == '\n' ? -1 : current;
+    }
+    return current;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+
+    if (len == 1) {
+      int single = read();
+      if (single < 0) {
+        return -1;
+      }
+      b[off] = (byte) single;
+      return 1;
+    }
+
+    if (eof || !fill()) {
+      return -1;
+    }
+
+    b[off] = (byte) pending;
+    int read;
+    do {
+      read = in.read(b, off + 1, len - 1);
+    } while (read == 0);
+
+    if (read < 0) {
+      eof = true;
+      int last = pending;
+      pending = NONE;
+      return last == '\n' ? -1 : 1;
+    }
+
+    // the last read byte is held back and the previously pending one is released
+    pending = b[off + read] & 0xFF;
+    return read;
+  }
+
+  private boolean fill() throws IOException {
+    if (pending == NONE) {
+      pending = in.read();
+      if (pending < 0) {
+        pending = NONE;
+        eof = true;
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    byte[] buffer = new byte[(int) Math.min(n, 8192)];
+    long remaining = n;
+    while (remaining > 0) {
+      int read = read(buffer, 0, (int) Math.min(remaining, buffer.length));
+      if (read < 0) {
+        break;
+      }
+      remaining -= read;
+    }
+    return n - remaining;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return eof ? 0 : in.available();
+  }
+
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+
+  @Override
+  public synchronized void mark(int readlimit) {
+    // not supported
+  }
+
+  @Override
+  public synchronized void reset() throws IOException {
+    throw new IOException("Mark/reset is not supported.");
+  }
+}
@@ -1,10 +1,10 @@
 package com.ontotext.refine.client.command.models;
 
-import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.command.RefineCommand;
 import com.ontotext.refine.client.exceptions.RefineException;
 import com.ontotext.refine.client.util.HttpParser;
+import com.ontotext.refine.client.util.JsonParser;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -51,7 +51,7 @@ public class GetProjectModelsCommand implements RefineCommand<GetProjectModelsRe
   public GetProjectModelsResponse handleResponse(HttpResponse response) throws IOException {
     HttpParser.HTTP_PARSER.assureStatusCode(response, HttpStatus.SC_OK);
     try (InputStream stream = response.getEntity().getContent()) {
-      return new JsonMapper().readValue(stream, GetProjectModelsResponse.class);
+      return JsonParser.JSON_PARSER.read(stream, GetProjectModelsResponse.class);
     }
   }
 
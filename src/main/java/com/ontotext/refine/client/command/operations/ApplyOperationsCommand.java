@@ -13,13 +13,15 @@ import static org.apache.http.HttpHeaders.ACCEPT;
 import static org.apache.http.HttpStatus.SC_OK;
 import static org.apache.http.entity.ContentType.APPLICATION_JSON;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.ontotext.refine.client.Operation;
 import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.command.RefineCommand;
+import com.ontotext.refine.client.command.csrf.CsrfTokens;
 import com.ontotext.refine.client.exceptions.RefineException;
-import com.ontotext.refine.client.util.mappings.MappingsNormalizer;
+import com.ontotext.refine.client.util.JsonFields;
+import com.ontotext.refine.client.util.mappings.MappingsCache;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -30,7 +32,6 @@ import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.methods.RequestBuilder;
 import org.apache.http.message.BasicNameValuePair;
-import org.apache.http.util.EntityUtils;
 
 
 /**
@@ -69,7 +70,7 @@ public class ApplyOperationsCommand implements RefineCommand<ApplyOperationsResp
       String ops =
           Arrays.stream(operations)
               .map(Operation::asJson)
-              .map(MappingsNormalizer::forApplyOperations)
+              .map(MappingsCache.getDefault()::forApplyOperations)
               .collect(Collectors.joining(","));
 
       String opsAsJsonArray = appendIfMissing(prependIfMissing(ops, "["), "]");
@@ -77,14 +78,16 @@ public class ApplyOperationsCommand implements RefineCommand<ApplyOperationsResp
 
       UrlEncodedFormEntity entity = new UrlEncodedFormEntity(form, UTF_8);
 
-      HttpUriRequest request = RequestBuilder
-          .post(client.createUri(endpoint()))
-          .addParameter(Constants.CSRF_TOKEN, token)
-          .setHeader(ACCEPT, APPLICATION_JSON.getMimeType())
-          .setEntity(entity)
-          .build();
+      return CsrfTokens.withToken(client, token, csrf -> {
+        HttpUriRequest request = RequestBuilder
+            .post(client.createUri(endpoint()))
+            .addParameter(Constants.CSRF_TOKEN, csrf)
+            .setHeader(ACCEPT, APPLICATION_JSON.getMimeType())
+            .setEntity(entity)
+            .build();
 
-      return client.execute(request, this);
+        return client.execute(request, CsrfTokens.checked(this));
+      });
     } catch (IOException ioe) {
       String error = String.format(
           "Failed to apply operations on project: '%s' due to: '%s'",
@@ -97,13 +100,14 @@ public class ApplyOperationsCommand implements RefineCommand<ApplyOperationsResp
   @Override
   public ApplyOperationsResponse handleResponse(HttpResponse response) throws IOException {
     HTTP_PARSER.assureStatusCode(response, SC_OK);
-    String responseBody = EntityUtils.toString(response.getEntity(), UTF_8);
-    return parseApplyOperationsResponse(responseBody);
+    try (InputStream stream = response.getEntity().getContent()) {
+      return parseApplyOperationsResponse(JSON_PARSER.readTextFields(stream, "code", "message"));
+    }
   }
 
-  private ApplyOperationsResponse parseApplyOperationsResponse(String json) throws IOException {
-    JsonNode node = JSON_PARSER.parseJson(json);
-    String code = JSON_PARSER.findExistingPath(node, "code").asText();
+  private ApplyOperationsResponse parseApplyOperationsResponse(JsonFields fields)
+      throws IOException {
+    String code = fields.getExisting("code");
     if ("ok".equals(code)) {
       return ApplyOperationsResponse.ok();
     }
@@ -113,7 +117,7 @@ public class ApplyOperationsCommand implements RefineCommand<ApplyOperationsResp
     }
 
     if ("error".equals(code)) {
-      String message = JSON_PARSER.findExistingPath(node, "message").asText();
+      String message = fields.getExisting("message");
       return ApplyOperationsResponse.error(message);
     }
 
@@ -128,6 +132,7 @@ public class ApplyOperationsCommand implements RefineCommand<ApplyOperationsResp
     private String projectId;
     private Operation[] operations;
     private String token;
+    private boolean clientToken;
 
     /**
      * Sets the project ID.
@@ -141,7 +146,8 @@ public class ApplyOperationsCommand implements RefineCommand<ApplyOperationsResp
     }
 
     /**
-     * Sets token.
+     * Sets token. When the token is not provided, the cached token of the client that executes the
+     * command is used.
      *
      * @param token the csrf token
      * @return the builder for fluent usage
@@ -151,6 +157,17 @@ public class ApplyOperationsCommand implements RefineCommand<ApplyOperationsResp
       return this;
     }
 
+    /**
+     * Configures the command to use the cached token of the client that executes it, when the
+     * token is not set explicitly. See {@link com.ontotext.refine.client.CsrfTokenProvider}.
+     *
+     * @return the builder for fluent usage
+     */
+    public Builder useClientToken() {
+      this.clientToken = true;
+      return this;
+    }
+
     /**
      * Sets one or more operations.
      *
@@ -172,7 +189,7 @@ public class ApplyOperationsCommand implements RefineCommand<ApplyOperationsResp
       notNull(operations, "'operations' argument should not be null");
       notEmpty(operations, "'operations' argument should not be empty");
       noNullElements(operations, "'operations' should not contain 'null' elements");
-      notBlank(token, "Missing CSRF token");
+      CsrfTokens.validate(token, clientToken);
       return new ApplyOperationsCommand(projectId, operations, token);
     }
   }
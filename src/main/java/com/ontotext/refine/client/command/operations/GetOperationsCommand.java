@@ -3,11 +3,12 @@ package com.ontotext.refine.client.command.operations;
 import static com.ontotext.refine.client.command.RefineCommand.Constants.PROJECT;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.command.RefineCommand;
 import com.ontotext.refine.client.exceptions.RefineException;
 import com.ontotext.refine.client.util.HttpParser;
+import com.ontotext.refine.client.util.JsonParser;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
@@ -54,11 +55,10 @@ public class GetOperationsCommand implements RefineCommand<GetOperationsResponse
   public GetOperationsResponse handleResponse(HttpResponse response) throws IOException {
     HttpParser.HTTP_PARSER.assureStatusCode(response, HttpStatus.SC_OK);
     try (InputStream stream = response.getEntity().getContent()) {
-      JsonMapper mapper = new JsonMapper();
-      JsonNode responseJson = mapper.readTree(stream);
+      JsonNode responseJson = JsonParser.JSON_PARSER.parseJson(stream);
       List<JsonNode> operations = responseJson.findValues("operation");
       return new GetOperationsResponse()
-          .setContent(mapper.createArrayNode().addAll(operations))
+          .setContent(JsonNodeFactory.instance.arrayNode().addAll(operations))
           .setProject(project);
     }
   }
@@ -4,10 +4,11 @@ import static com.ontotext.refine.client.util.HttpParser.HTTP_PARSER;
 import static com.ontotext.refine.client.util.JsonParser.JSON_PARSER;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.command.RefineCommand;
+import com.ontotext.refine.client.command.csrf.CsrfTokens;
 import com.ontotext.refine.client.exceptions.RefineException;
+import com.ontotext.refine.client.util.JsonFields;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -46,17 +47,19 @@ public class SetPreferenceCommand implements RefineCommand<SetPreferenceCommandR
   @Override
   public SetPreferenceCommandResponse execute(RefineClient client) throws RefineException {
     try {
-      List<NameValuePair> form = new ArrayList<>(2);
-      form.add(new BasicNameValuePair(Constants.CSRF_TOKEN, token));
-      form.add(new BasicNameValuePair("value", value.toString()));
-
-      HttpUriRequest request = RequestBuilder
-          .post(client.createUri(endpoint()))
-          .addParameter("name", property)
-          .setEntity(new UrlEncodedFormEntity(form, UTF_8))
-          .build();
-
-      return client.execute(request, this);
+      return CsrfTokens.withToken(client, token, csrf -> {
+        List<NameValuePair> form = new ArrayList<>(2);
+        form.add(new BasicNameValuePair(Constants.CSRF_TOKEN, csrf));
+        form.add(new BasicNameValuePair("value", value.toString()));
+
+        HttpUriRequest request = RequestBuilder
+            .post(client.createUri(endpoint()))
+            .addParameter("name", property)
+            .setEntity(new UrlEncodedFormEntity(form, UTF_8))
+            .build();
+
+        return client.execute(request, CsrfTokens.checked(this));
+      });
     } catch (RefineException re) {
       throw re;
     } catch (IOException ioe) {
@@ -71,13 +74,13 @@ public class SetPreferenceCommand implements RefineCommand<SetPreferenceCommandR
   public SetPreferenceCommandResponse handleResponse(HttpResponse response) throws IOException {
     HTTP_PARSER.assureStatusCode(response, HttpStatus.SC_OK);
     try (InputStream stream = response.getEntity().getContent()) {
-      JsonNode node = JSON_PARSER.parseJson(stream);
-      String code = JSON_PARSER.findExistingPath(node, "code").asText();
+      JsonFields fields = JSON_PARSER.readTextFields(stream, "code", "message");
+      String code = fields.getExisting("code");
       switch (code) {
         case "ok":
           return SetPreferenceCommandResponse.ok();
         case "error":
-          String message = JSON_PARSER.findExistingPath(node, "message").asText();
+          String message = fields.getExisting("message");
           return SetPreferenceCommandResponse.error(message);
         default:
           throw new RefineException(
@@ -97,6 +100,7 @@ public class SetPreferenceCommand implements RefineCommand<SetPreferenceCommandR
     private String property;
     private Object value;
     private String token;
+    private boolean clientToken;
 
     public Builder setProperty(String property) {
       this.property = property;
@@ -113,6 +117,17 @@ public class SetPreferenceCommand implements RefineCommand<SetPreferenceCommandR
       return this;
     }
 
+    /**
+     * Configures the command to use the cached token of the client that executes it, when the
+     * token is not set explicitly. See {@link com.ontotext.refine.client.CsrfTokenProvider}.
+     *
+     * @return the builder for fluent usage
+     */
+    public Builder useClientToken() {
+      this.clientToken = true;
+      return this;
+    }
+
     /**
      * Builds the {@link SetPreferenceCommand}.
      *
@@ -121,7 +136,7 @@ public class SetPreferenceCommand implements RefineCommand<SetPreferenceCommandR
     public SetPreferenceCommand build() {
       Validate.notBlank(property, "Missing 'property' argument");
       Validate.notNull(value, "Missing 'value' argument");
-      Validate.notBlank(token, "Missing CSRF token");
+      CsrfTokens.validate(token, clientToken);
       return new SetPreferenceCommand(property, value, token);
     }
   }
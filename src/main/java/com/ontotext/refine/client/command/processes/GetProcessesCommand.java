@@ -3,12 +3,12 @@ package com.ontotext.refine.client.command.processes;
 import static org.apache.commons.lang3.Validate.notBlank;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.command.RefineCommand;
 import com.ontotext.refine.client.command.processes.GetProcessesCommandResponse.ProjectProcess;
 import com.ontotext.refine.client.exceptions.RefineException;
 import com.ontotext.refine.client.util.HttpParser;
+import com.ontotext.refine.client.util.JsonFields;
 import com.ontotext.refine.client.util.JsonParser;
 import java.io.IOException;
 import java.io.InputStream;
@@ -61,9 +61,9 @@ public class GetProcessesCommand implements RefineCommand<GetProcessesCommandRes
   public GetProcessesCommandResponse handleResponse(HttpResponse response) throws IOException {
     HttpParser.HTTP_PARSER.assureStatusCode(response, HttpStatus.SC_OK);
     try (InputStream stream = response.getEntity().getContent()) {
-      JsonNode json = JsonParser.JSON_PARSER.parseJson(stream);
-      Collection<ProjectProcess> processes =
-          JsonParser.JSON_PARSER.read(json.findValue("processes").toString(), PROCESSES_TYPE);
+      JsonFields fields = JsonParser.JSON_PARSER.readFields(stream,
+          (name, value) -> "processes".equals(name) ? value.readValueAs(PROCESSES_TYPE) : null);
+      Collection<ProjectProcess> processes = fields.getExisting("processes");
       return new GetProcessesCommandResponse(processes);
     }
   }
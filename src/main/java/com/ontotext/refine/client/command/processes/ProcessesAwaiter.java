@@ -0,0 +1,351 @@
+package com.ontotext.refine.client.command.processes;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notBlank;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.command.processes.GetProcessesCommandResponse.ProjectProcess;
+import com.ontotext.refine.client.exceptions.RefineException;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waits for the processes of projects to complete. The Refine instance executes some of the
+ * operations asynchronously, in which case the commands respond with
+ * {@link com.ontotext.refine.client.ResponseCode#PENDING} and the processes of the project should
+ * be checked via {@link GetProcessesCommand}, until the queue of the project is drained.
+ *
+ * <p>The awaiter checks the processes with adaptive exponential back-off. The first check is made
+ * after the initial delay and each next delay is multiplied, until it reaches the maximum delay.
+ * While the processes progress between the checks, the delay is not increased. Each delay is
+ * randomized with the configured jitter, so that the checks for many projects are spread in time,
+ * instead of hitting the Refine instance at once.
+ *
+ * <p>When timeout is configured, the deadline is checked before and after each check, regardless
+ * of its outcome, and the response of the check is not awaited beyond the deadline.
+ *
+ * <p>The checks for all awaited projects are scheduled on single thread and the requests are
+ * executed via {@link GetProcessesCommand#executeAsync(RefineClient)}, so the waiting for many
+ * projects does not occupy a thread per project. The awaiter can be shared and it should be closed,
+ * when it is no longer needed.
+ */
+public class ProcessesAwaiter implements Closeable {
+
+  private final ScheduledExecutorService scheduler;
+  private final boolean ownScheduler;
+  private final long initialDelay;
+  private final long maxDelay;
+  private final double multiplier;
+  private final double jitter;
+  private final Duration timeout;
+  private final Set<Poll> polls = ConcurrentHashMap.newKeySet();
+
+  private ProcessesAwaiter(
+      ScheduledExecutorService scheduler,
+      boolean ownScheduler,
+      Duration initialDelay,
+      Duration maxDelay,
+      double multiplier,
+      double jitter,
+      Duration timeout) {
+    this.scheduler = scheduler;
+    this.ownScheduler = ownScheduler;
+    this.initialDelay = initialDelay.toNanos();
+    this.maxDelay = maxDelay.toNanos();
+    this.multiplier = multiplier;
+    this.jitter = jitter;
+    this.timeout = timeout;
+  }
+
+  /**
+   * Waits for the processes of the given project to complete.
+   *
+   * @param client used to check the processes
+   * @param project the identifier of the project
+   * @return a future which is completed, when there are no more processes for the project, or
+   *         exceptionally with {@link RefineException}, when the processes cannot be retrieved or
+   *         the timeout expires. The cancellation of the future stops the checks
+   */
+  public CompletableFuture<Void> await(RefineClient client, String project) {
+    notNull(client, "Missing 'client' argument");
+    notBlank(project, "Missing 'project' argument");
+
+    Poll poll = new Poll(client, project);
+    polls.add(poll);
+    poll.future.whenComplete((ignored, error) -> polls.remove(poll));
+    poll.schedule();
+    return poll.future;
+  }
+
+  /**
+   * Provides the number of the projects, which are currently awaited.
+   *
+   * @return the number of the awaited projects
+   */
+  public int getAwaitedCount() {
+    return polls.size();
+  }
+
+  /**
+   * Stops the checks. The futures of the projects, which are still awaited, are completed
+   * exceptionally. The scheduler is shut down, unless it is provided via the builder.
+   */
+  @Override
+  public void close() {
+    if (ownScheduler) {
+      scheduler.shutdownNow();
+    }
+
+    for (Poll poll : polls) {
+      poll.future.completeExceptionally(new RefineException(
+          "The awaiting of the processes for project: '%s' is stopped.", poll.project));
+    }
+  }
+
+  private long randomize(long delay) {
+    if (jitter == 0) {
+      return delay;
+    }
+
+    double factor = 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+    return (long) (delay * factor);
+  }
+
+  private static RefineException asRefineException(String project, Throwable error) {
+    Throwable cause = error instanceof CompletionException && error.getCause() != null
+        ? error.getCause()
+        : error;
+    return cause instanceof RefineException
+        ? (RefineException) cause
+        : new RefineException(
+            "Failed to retrieve the processes for project: '%s' due to: %s",
+            project,
+            cause.getMessage());
+  }
+
+  /**
+   * The state of the checks for single project.
+   */
+  private class Poll {
+
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    private final RefineClient client;
+    private final String project;
+    private final long deadline;
+
+    private long delay = initialDelay;
+    private Collection<ProjectProcess> previous;
+
+    private Poll(RefineClient client, String project) {
+      this.client = client;
+      this.project = project;
+      this.deadline = timeout == null ? 0L : System.nanoTime() + timeout.toNanos();
+    }
+
+    private void schedule() {
+      try {
+        scheduler.schedule(
+            this::check, Math.min(randomize(delay), remaining()), TimeUnit.NANOSECONDS);
+      } catch (RejectedExecutionException ree) {
+        future.completeExceptionally(new RefineException(
+            "Failed to schedule the check of the processes for project: '%s'.", project));
+      }
+    }
+
+    private void check() {
+      if (future.isDone()) {
+        return;
+      }
+
+      if (isExpired()) {
+        expire();
+        return;
+      }
+
+      CompletableFuture<GetProcessesCommandResponse> response = RefineCommands
+          .getProcesses()
+          .setProject(project)
+          .build()
+          .executeAsync(client);
+      if (timeout != null) {
+        // the response of the check is not awaited beyond the deadline
+        response = response.orTimeout(remaining(), TimeUnit.NANOSECONDS);
+      }
+      response.whenComplete(this::handle);
+    }
+
+    private void handle(GetProcessesCommandResponse response, Throwable error) {
+      if (future.isDone()) {
+        return;
+      }
+
+      if (error != null) {
+        if (isExpired()) {
+          expire();
+        } else {
+          future.completeExceptionally(asRefineException(project, error));
+        }
+        return;
+      }
+
+      Collection<ProjectProcess> processes = response.getProcesses();
+      if (processes == null || processes.isEmpty()) {
+        future.complete(null);
+        return;
+      }
+
+      if (isExpired()) {
+        expire();
+        return;
+      }
+
+      if (processes.equals(previous)) {
+        delay = Math.min(maxDelay, (long) (delay * multiplier));
+      }
+      previous = processes;
+      schedule();
+    }
+
+    private long remaining() {
+      return timeout == null ? Long.MAX_VALUE : Math.max(0L, deadline - System.nanoTime());
+    }
+
+    private boolean isExpired() {
+      return timeout != null && System.nanoTime() - deadline >= 0;
+    }
+
+    private void expire() {
+      future.completeExceptionally(new RefineException(
+          "The processes for project: '%s' did not complete within %s.", project, timeout));
+    }
+  }
+
+  /**
+   * The builder for {@link ProcessesAwaiter}.
+   */
+  public static class Builder {
+
+    private static final Duration DEFAULT_INITIAL_DELAY = Duration.ofMillis(100);
+    private static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(5);
+    private static final double DEFAULT_MULTIPLIER = 2;
+    private static final double DEFAULT_JITTER = 0.2;
+
+    private Duration initialDelay = DEFAULT_INITIAL_DELAY;
+    private Duration maxDelay = DEFAULT_MAX_DELAY;
+    private double multiplier = DEFAULT_MULTIPLIER;
+    private double jitter = DEFAULT_JITTER;
+    private Duration timeout;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Sets the delay before the first check of the processes. The default is <code>100</code> ms.
+     *
+     * @param initialDelay the delay before the first check
+     * @return the builder for fluent usage
+     */
+    public Builder setInitialDelay(Duration initialDelay) {
+      this.initialDelay = initialDelay;
+      return this;
+    }
+
+    /**
+     * Sets the upper bound of the delay between the checks. The default is <code>5</code> s.
+     *
+     * @param maxDelay the maximum delay
+     * @return the builder for fluent usage
+     */
+    public Builder setMaxDelay(Duration maxDelay) {
+      this.maxDelay = maxDelay;
+      return this;
+    }
+
+    /**
+     * Sets the multiplier of the delay, which is applied when the processes did not progress since
+     * the previous check. The default is <code>2</code>.
+     *
+     * @param multiplier of the delay, not less than <code>1</code>
+     * @return the builder for fluent usage
+     */
+    public Builder setMultiplier(double multiplier) {
+      this.multiplier = multiplier;
+      return this;
+    }
+
+    /**
+     * Sets the relative randomization of the delays. For example with jitter <code>0.2</code> each
+     * delay is randomized within 20% of its value. The default is <code>0.2</code>.
+     *
+     * @param jitter between <code>0</code> and <code>1</code>
+     * @return the builder for fluent usage
+     */
+    public Builder setJitter(double jitter) {
+      this.jitter = jitter;
+      return this;
+    }
+
+    /**
+     * Sets the maximum time for the processes of single project to complete. By default there is
+     * no timeout.
+     *
+     * @param timeout the maximum time to wait
+     * @return the builder for fluent usage
+     */
+    public Builder setTimeout(Duration timeout) {
+      this.timeout = timeout;
+      return this;
+    }
+
+    /**
+     * Sets the scheduler of the checks. The provided scheduler is not shut down, when the awaiter
+     * is closed. By default the awaiter uses own single thread scheduler.
+     *
+     * @param scheduler of the checks
+     * @return the builder for fluent usage
+     */
+    public Builder setScheduler(ScheduledExecutorService scheduler) {
+      this.scheduler = scheduler;
+      return this;
+    }
+
+    /**
+     * Builds the awaiter after validation.
+     *
+     * @return the awaiter
+     */
+    public ProcessesAwaiter build() {
+      notNull(initialDelay, "Missing 'initialDelay' argument");
+      notNull(maxDelay, "Missing 'maxDelay' argument");
+      isTrue(!initialDelay.isNegative() && !initialDelay.isZero(),
+          "The 'initialDelay' should be positive");
+      isTrue(maxDelay.compareTo(initialDelay) >= 0, "The 'maxDelay' should not be less than "
+          + "the 'initialDelay'");
+      isTrue(multiplier >= 1, "The 'multiplier' should not be less than 1");
+      isTrue(jitter >= 0 && jitter <= 1, "The 'jitter' should be between 0 and 1");
+      isTrue(timeout == null || !timeout.isNegative(), "The 'timeout' should not be negative");
+
+      if (scheduler != null) {
+        return new ProcessesAwaiter(
+            scheduler, false, initialDelay, maxDelay, multiplier, jitter, timeout);
+      }
+
+      ScheduledExecutorService own = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "refine-processes-awaiter");
+        thread.setDaemon(true);
+        return thread;
+      });
+      return new ProcessesAwaiter(own, true, initialDelay, maxDelay, multiplier, jitter, timeout);
+    }
+  }
+}
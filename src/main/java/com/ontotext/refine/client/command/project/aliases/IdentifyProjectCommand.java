@@ -1,8 +1,8 @@
 package com.ontotext.refine.client.command.project.aliases;
 
+import static com.ontotext.refine.client.util.JsonParser.JSON_PARSER;
 import static org.apache.commons.lang3.Validate.notBlank;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.command.RefineCommand;
 import com.ontotext.refine.client.exceptions.RefineException;
@@ -58,7 +58,7 @@ public class IdentifyProjectCommand implements RefineCommand<IdentifyProjectResp
     }
 
     try (InputStream is = response.getEntity().getContent()) {
-      return new ObjectMapper().readValue(is, IdentifyProjectResponse.class);
+      return JSON_PARSER.read(is, IdentifyProjectResponse.class);
     }
   }
 
@@ -10,6 +10,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.command.RefineCommand;
 import com.ontotext.refine.client.exceptions.RefineException;
+import com.ontotext.refine.client.util.JsonFields;
 import com.ontotext.refine.client.util.JsonParser;
 import java.io.IOException;
 import java.io.InputStream;
@@ -94,9 +95,9 @@ public class UpdateProjectAliasesCommand implements RefineCommand<UpdateProjectA
     }
 
     try (InputStream is = response.getEntity().getContent()) {
-      JsonNode json = JsonParser.JSON_PARSER.parseJson(is);
-      JsonNode reason = json.has("message") ? json.get("message") : json.get("error");
-      return UpdateProjectAliasesResponse.error(reason.asText());
+      JsonFields fields = JsonParser.JSON_PARSER.readTextFields(is, "message", "error");
+      String reason = fields.has("message") ? fields.get("message") : fields.get("error");
+      return UpdateProjectAliasesResponse.error(reason);
     }
   }
 
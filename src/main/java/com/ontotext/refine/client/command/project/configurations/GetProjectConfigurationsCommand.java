@@ -2,12 +2,12 @@ package com.ontotext.refine.client.command.project.configurations;
 
 import static com.ontotext.refine.client.command.RefineCommand.Constants.PROJECT;
 
-import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.command.RefineCommand;
 import com.ontotext.refine.client.command.operations.GetOperationsCommand;
 import com.ontotext.refine.client.exceptions.RefineException;
 import com.ontotext.refine.client.util.HttpParser;
+import com.ontotext.refine.client.util.JsonParser;
 import java.io.IOException;
 import java.io.InputStream;
 import org.apache.commons.lang3.Validate;
@@ -63,9 +63,8 @@ public class GetProjectConfigurationsCommand
 
     HttpParser.HTTP_PARSER.assureStatusCode(response, HttpStatus.SC_OK);
     try (InputStream stream = response.getEntity().getContent()) {
-      JsonMapper mapper = new JsonMapper();
       return new GetProjectConfigurationsResponse()
-          .setContent(mapper.readTree(stream))
+          .setContent(JsonParser.JSON_PARSER.parseJson(stream))
           .setProject(project);
     }
   }
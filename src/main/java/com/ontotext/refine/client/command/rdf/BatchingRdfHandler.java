@@ -0,0 +1,97 @@
+package com.ontotext.refine.client.command.rdf;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+
+/**
+ * {@link org.eclipse.rdf4j.rio.RDFHandler} that groups the received statements in batches with
+ * specific size and passes them to a consumer. The last batch, which may be smaller, is passed when
+ * the parsing ends.
+ *
+ * <p>The handler can be used with the incremental RDF export of the commands, in order to load the
+ * exported data in a repository with bounded memory:
+ *
+ * <pre>
+ * command.execute(client, new BatchingRdfHandler(10_000, connection::add));
+ * </pre>
+ *
+ * <p>The batch list is reused by the handler, so the consumer should not retain it after the
+ * invocation.
+ */
+public class BatchingRdfHandler extends AbstractRDFHandler {
+
+  private final int batchSize;
+  private final Consumer<List<Statement>> consumer;
+  private final List<Statement> batch;
+  private final List<Statement> view;
+
+  private long statements;
+  private long batches;
+
+  /**
+   * Creates new handler.
+   *
+   * @param batchSize the maximum number of statements in a batch
+   * @param consumer of the batches
+   */
+  public BatchingRdfHandler(int batchSize, Consumer<List<Statement>> consumer) {
+    isTrue(batchSize > 0, "The batch size should be positive");
+    this.batchSize = batchSize;
+    this.consumer = notNull(consumer, "The batch consumer is required");
+    this.batch = new ArrayList<>(batchSize);
+    this.view = Collections.unmodifiableList(batch);
+  }
+
+  @Override
+  public void handleStatement(Statement statement) throws RDFHandlerException {
+    batch.add(statement);
+    statements++;
+    if (batch.size() >= batchSize) {
+      flush();
+    }
+  }
+
+  @Override
+  public void endRDF() throws RDFHandlerException {
+    flush();
+  }
+
+  private void flush() {
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    try {
+      consumer.accept(view);
+      batches++;
+    } finally {
+      batch.clear();
+    }
+  }
+
+  /**
+   * Provides the number of the statements received by the handler.
+   *
+   * @return the count of the statements
+   */
+  public long getStatements() {
+    return statements;
+  }
+
+  /**
+   * Provides the number of the batches passed to the consumer.
+   *
+   * @return the count of the batches
+   */
+  public long getBatches() {
+    return batches;
+  }
+}
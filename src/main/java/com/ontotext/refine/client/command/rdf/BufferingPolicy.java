@@ -0,0 +1,189 @@
+package com.ontotext.refine.client.command.rdf;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides whether the result of RDF export should be buffered in-memory or spilled into file. The
+ * result is buffered only when its length is known, it does not exceed the in-memory threshold of
+ * the policy and the memory for it can be reserved from the {@link MemoryBudget} of the policy.
+ * Otherwise the result is spilled into file.
+ *
+ * <p>The budget is reserved, when the response is read, and it is held while the buffered result is
+ * retained by the {@link ExportRdfResponse}, so it limits the memory retained by all of the
+ * buffered results. The reservation is released via {@link ExportRdfResponse#release()} or when
+ * the response is garbage collected. The policy also collects metrics about the handled responses.
+ *
+ * <p>By default all of the export commands share single policy, see {@link #getDefault()}.
+ */
+public class BufferingPolicy {
+
+  /**
+   * The default in-memory threshold - 32 MB.
+   */
+  public static final long DEFAULT_THRESHOLD = 32L * 1024 * 1024;
+
+  private static final BufferingPolicy DEFAULT = new Builder().build();
+
+  private final long threshold;
+  private final MemoryBudget budget;
+
+  private final LongAdder buffered = new LongAdder();
+  private final LongAdder bufferedBytes = new LongAdder();
+  private final LongAdder spilled = new LongAdder();
+  private final LongAdder spilledOverBudget = new LongAdder();
+
+  private BufferingPolicy(long threshold, MemoryBudget budget) {
+    this.threshold = threshold;
+    this.budget = budget;
+  }
+
+  /**
+   * Provides the policy shared by default between all of the export commands. The policy uses
+   * {@link #DEFAULT_THRESHOLD} and budget, which is a quarter of the maximum heap size, but not
+   * less than the threshold.
+   *
+   * @return the default policy
+   */
+  public static BufferingPolicy getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Tries to reserve memory for buffering of response with specific length. When the reservation
+   * is successful, it should be released via {@link #release(long)}, when the buffered result is
+   * no longer retained.
+   *
+   * @param length of the response, if it is known, or non-positive value otherwise
+   * @return <code>true</code> if the response can be buffered, <code>false</code> if it should be
+   *         spilled
+   */
+  boolean tryBuffer(long length) {
+    if (length <= 0 || length > threshold) {
+      return false;
+    }
+
+    if (!budget.tryReserve(length)) {
+      spilledOverBudget.increment();
+      return false;
+    }
+
+    buffered.increment();
+    bufferedBytes.add(length);
+    return true;
+  }
+
+  void release(long length) {
+    budget.release(length);
+  }
+
+  void onSpill() {
+    spilled.increment();
+  }
+
+  public long getThreshold() {
+    return threshold;
+  }
+
+  public MemoryBudget getBudget() {
+    return budget;
+  }
+
+  /**
+   * Provides the number of the responses that were buffered in-memory.
+   *
+   * @return the count of the buffered responses
+   */
+  public long getBufferedCount() {
+    return buffered.sum();
+  }
+
+  /**
+   * Provides the total size of the responses that were buffered in-memory.
+   *
+   * @return the number of the buffered bytes
+   */
+  public long getBufferedBytes() {
+    return bufferedBytes.sum();
+  }
+
+  /**
+   * Provides the number of the responses that were written in files, including the ones for which
+   * file output was requested explicitly.
+   *
+   * @return the count of the spilled responses
+   */
+  public long getSpilledCount() {
+    return spilled.sum();
+  }
+
+  /**
+   * Provides the number of the responses that were spilled, because there was not enough memory in
+   * the budget, when they were received.
+   *
+   * @return the count of the responses spilled due to the budget
+   */
+  public long getSpilledOverBudgetCount() {
+    return spilledOverBudget.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "BufferingPolicy{"
+        + "threshold=" + threshold
+        + ", budget=" + budget
+        + ", buffered=" + buffered
+        + ", spilled=" + spilled
+        + ", spilledOverBudget=" + spilledOverBudget
+        + '}';
+  }
+
+  /**
+   * Builder for {@link BufferingPolicy}.
+   */
+  public static class Builder {
+
+    private long threshold = DEFAULT_THRESHOLD;
+    private MemoryBudget budget;
+
+    /**
+     * Sets the maximum length of response that can be buffered in-memory.
+     *
+     * @param threshold in bytes
+     * @return current builder
+     */
+    public Builder setThreshold(long threshold) {
+      this.threshold = threshold;
+      return this;
+    }
+
+    /**
+     * Sets the budget for the in-memory buffering. The same budget can be shared between multiple
+     * policies. By default the policy uses its own budget, which is a quarter of the maximum heap
+     * size, but not less than the threshold.
+     *
+     * @param budget for the buffering
+     * @return current builder
+     */
+    public Builder setBudget(MemoryBudget budget) {
+      this.budget = notNull(budget, "The memory budget should not be null");
+      return this;
+    }
+
+    /**
+     * Builds new {@link BufferingPolicy}.
+     *
+     * @return new policy
+     */
+    public BufferingPolicy build() {
+      isTrue(threshold >= 0, "The threshold should not be negative");
+      isTrue(threshold < Integer.MAX_VALUE, "The threshold should be less than 2 GB");
+      MemoryBudget policyBudget = budget != null
+          ? budget
+          : new MemoryBudget(Math.max(Runtime.getRuntime().maxMemory() / 4, threshold + 1));
+      return new BufferingPolicy(threshold, policyBudget);
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package com.ontotext.refine.client.command.rdf;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
+import static org.apache.commons.lang3.Validate.isTrue;
 import static org.apache.commons.lang3.Validate.notBlank;
 import static org.apache.commons.lang3.Validate.notNull;
 import static org.apache.http.HttpHeaders.ACCEPT;
@@ -10,14 +11,17 @@ import static org.apache.http.entity.ContentType.APPLICATION_JSON;
 import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.command.RefineCommand;
 import com.ontotext.refine.client.exceptions.RefineException;
-import com.ontotext.refine.client.util.mappings.MappingsNormalizer;
+import com.ontotext.refine.client.util.mappings.MappingsCache;
+import com.ontotext.refine.client.util.mappings.PreparedMapping;
 import java.io.IOException;
-import org.apache.commons.io.IOUtils;
+import java.nio.file.Path;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.methods.RequestBuilder;
-import org.apache.http.entity.BasicHttpEntity;
-import org.apache.http.entity.BufferedHttpEntity;
+import org.eclipse.rdf4j.common.exception.RDF4JException;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.UnsupportedRDFormatException;
 
 /**
  * A command that exports the data of specific project in RDF format using the mapping defined in
@@ -29,15 +33,27 @@ public class DefaultRdfExportCommand implements RefineCommand<ExportRdfResponse>
 
   private final String project;
   private final String mapping;
+  private final PreparedMapping prepared;
   private final ResultFormat format;
   private final OutputType output;
+  private final RdfExportTarget target;
+  private final BufferingPolicy buffering;
 
   private DefaultRdfExportCommand(
-      String project, String mapping, ResultFormat format, OutputType output) {
+      String project,
+      String mapping,
+      PreparedMapping prepared,
+      ResultFormat format,
+      OutputType output,
+      RdfExportTarget target,
+      BufferingPolicy buffering) {
     this.project = project;
     this.mapping = mapping;
+    this.prepared = prepared;
     this.format = format;
     this.output = output;
+    this.target = target;
+    this.buffering = buffering;
   }
 
   @Override
@@ -48,27 +64,7 @@ public class DefaultRdfExportCommand implements RefineCommand<ExportRdfResponse>
   @Override
   public ExportRdfResponse execute(RefineClient client) throws RefineException {
     try {
-      String normalizedMapping = MappingsNormalizer.forRdfExport(mapping);
-      if (normalizedMapping == null) {
-        throw new RefineException(
-            "Export of RDF data for project: '%s' failed due to unavailable mapping."
-                + " Please recheck if the mapping you are providing is correct.",
-            project);
-      }
-
-      BasicHttpEntity entity = new BasicHttpEntity();
-      entity.setContentType(APPLICATION_JSON.getMimeType());
-      entity.setContentEncoding(APPLICATION_JSON.getCharset().toString());
-      entity.setContent(IOUtils.toInputStream(normalizedMapping, UTF_8));
-
-      HttpUriRequest request = RequestBuilder
-          .post(client.createUri(endpoint() + ":" + project))
-          .addHeader(CONTENT_TYPE, APPLICATION_JSON.getMimeType())
-          .addHeader(ACCEPT, RdfExportUtils.getAcceptHeader(format))
-          .setEntity(new BufferedHttpEntity(entity))
-          .build();
-
-      return client.execute(request, this);
+      return client.execute(buildRequest(client), this);
     } catch (RefineException re) {
       throw re;
     } catch (IOException ioe) {
@@ -79,9 +75,55 @@ public class DefaultRdfExportCommand implements RefineCommand<ExportRdfResponse>
     }
   }
 
+  /**
+   * Executes the export and parses the result incrementally, while the response is read. The
+   * parsed statements are pushed into the given handler, without materializing the result. The
+   * output type and the target of the command are not used in this mode.<br>
+   * The parser for the format of the command should be available on the classpath, for example
+   * <code>rdf4j-rio-turtle</code> for the Turtle format. The statements can be grouped in batches
+   * via {@link BatchingRdfHandler}.
+   *
+   * @param client to be used for command request
+   * @param handler which receives the parsed statements
+   * @throws RefineException when any error occurs during command execution or parsing
+   */
+  public void execute(RefineClient client, RDFHandler handler) throws RefineException {
+    try {
+      client.execute(buildRequest(client), response -> {
+        RdfExportResponseHandler.parse(response, format, handler);
+        return null;
+      });
+    } catch (RefineException re) {
+      throw re;
+    } catch (IOException | RDF4JException | UnsupportedRDFormatException exc) {
+      throw new RefineException(
+          "Export of RDF data failed for project: '%s' due to: %s",
+          project,
+          exc.getMessage());
+    }
+  }
+
+  private HttpUriRequest buildRequest(RefineClient client) throws IOException {
+    PreparedMapping normalizedMapping =
+        prepared != null ? prepared : MappingsCache.getDefault().forRdfExport(mapping);
+    if (normalizedMapping == null) {
+      throw new RefineException(
+          "Export of RDF data for project: '%s' failed due to unavailable mapping."
+              + " Please recheck if the mapping you are providing is correct.",
+          project);
+    }
+
+    return RequestBuilder
+        .post(client.createUri(endpoint() + ":" + project))
+        .addHeader(CONTENT_TYPE, APPLICATION_JSON.getMimeType())
+        .addHeader(ACCEPT, RdfExportUtils.getAcceptHeader(format))
+        .setEntity(normalizedMapping.toEntity())
+        .build();
+  }
+
   @Override
   public ExportRdfResponse handleResponse(HttpResponse response) throws IOException {
-    return RdfExportResponseHandler.handle(project, response, output);
+    return RdfExportResponseHandler.handle(project, response, output, target, buffering);
   }
 
   /**
@@ -93,19 +135,44 @@ public class DefaultRdfExportCommand implements RefineCommand<ExportRdfResponse>
 
     private String project;
     private String mapping;
+    private PreparedMapping prepared;
     private ResultFormat format;
     private OutputType output;
+    private Path target;
+    private SpoolDirectory spool;
+    private BufferingPolicy buffering;
 
     public Builder setProject(String project) {
       this.project = project;
       return this;
     }
 
+    /**
+     * Sets the mapping used to convert the data to RDF. The input can be mapping, operations or
+     * project models JSON, which contains the mapping. The mapping is extracted from the input via
+     * the shared {@link MappingsCache}, so it is normalized once for the same input.
+     *
+     * @param mapping JSON, which contains the mapping
+     * @return current builder
+     */
     public Builder setMapping(String mapping) {
       this.mapping = mapping;
       return this;
     }
 
+    /**
+     * Sets mapping, which is already normalized. It is sent as it is, which allows reuse of single
+     * mapping for the export of many projects. The prepared mapping takes precedence over the
+     * mapping set via {@link #setMapping(String)}.
+     *
+     * @param mapping the prepared mapping
+     * @return current builder
+     */
+    public Builder setMapping(PreparedMapping mapping) {
+      this.prepared = mapping;
+      return this;
+    }
+
     public Builder setFormat(ResultFormat format) {
       this.format = format;
       return this;
@@ -116,6 +183,44 @@ public class DefaultRdfExportCommand implements RefineCommand<ExportRdfResponse>
       return this;
     }
 
+    /**
+     * Sets the file where the result of the export should be written. When the file is set, the
+     * result is always written in it, regardless of the output type. The file is created, if it
+     * does not exist, or it is overwritten otherwise.
+     *
+     * @param target file for the result
+     * @return current builder
+     */
+    public Builder setTarget(Path target) {
+      this.target = target;
+      return this;
+    }
+
+    /**
+     * Sets the spool directory where the result file should be created, when the result is written
+     * in file. By default the result file is created in the shared temporary directory of the
+     * library. The spool is ignored, when explicit target file is set.
+     *
+     * @param spool directory for the result file
+     * @return current builder
+     */
+    public Builder setSpoolDirectory(SpoolDirectory spool) {
+      this.spool = spool;
+      return this;
+    }
+
+    /**
+     * Sets the policy, which decides whether the result should be buffered in-memory or written
+     * in file. By default the {@link BufferingPolicy#getDefault()} is used.
+     *
+     * @param buffering the policy for the result
+     * @return current builder
+     */
+    public Builder setBufferingPolicy(BufferingPolicy buffering) {
+      this.buffering = buffering;
+      return this;
+    }
+
     /**
      * Builds a {@link DefaultRdfExportCommand}.
      *
@@ -123,9 +228,16 @@ public class DefaultRdfExportCommand implements RefineCommand<ExportRdfResponse>
      */
     public DefaultRdfExportCommand build() {
       notBlank(project, "Missing 'project' argument");
-      notBlank(mapping, "Missing 'mapping' argument");
+      isTrue(prepared != null || StringUtils.isNotBlank(mapping), "Missing 'mapping' argument");
       notNull(format, "Missing 'format' argument");
-      return new DefaultRdfExportCommand(project, mapping, format, output);
+      return new DefaultRdfExportCommand(
+          project,
+          mapping,
+          prepared,
+          format,
+          output,
+          RdfExportTarget.of(target, spool),
+          defaultIfNull(buffering, BufferingPolicy.getDefault()));
     }
   }
 }
@@ -7,6 +7,8 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.Cleaner;
+import java.lang.ref.Cleaner.Cleanable;
 import java.nio.file.Files;
 import org.apache.commons.lang3.StringUtils;
 
@@ -17,9 +19,12 @@ import org.apache.commons.lang3.StringUtils;
  */
 public class ExportRdfResponse {
 
+  private static final Cleaner CLEANER = Cleaner.create();
+
   private String project;
   private String result;
   private File resultFile;
+  private Cleanable reservation;
 
   public String getProject() {
     return project;
@@ -39,6 +44,33 @@ public class ExportRdfResponse {
     return this;
   }
 
+  /**
+   * Sets result, which is buffered with memory reserved from {@link MemoryBudget}. The reservation
+   * is held while the result is retained by the response.
+   */
+  ExportRdfResponse setResult(String result, Runnable releaseReservation) {
+    this.result = result;
+    this.reservation = CLEANER.register(this, releaseReservation);
+    return this;
+  }
+
+  /**
+   * Releases the result, which is buffered in-memory, and the memory reserved for it from the
+   * {@link MemoryBudget} of the {@link BufferingPolicy}. The in-memory result is not available
+   * after that. The result written in file is not affected.
+   *
+   * <p>The responses, which are not released explicitly, release their reservation when they are
+   * garbage collected, so the explicit release allows the following exports to buffer their
+   * results earlier.
+   */
+  public void release() {
+    result = null;
+    if (reservation != null) {
+      reservation.clean();
+      reservation = null;
+    }
+  }
+
   /**
    * Retrieves the result as stream. The result is returned either as {@link ByteArrayInputStream}
    * or {@link FileInputStream} depending on whether it was buffered in-memory or written in a file.
@@ -1,7 +1,8 @@
 package com.ontotext.refine.client.command.rdf;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
-import static java.util.Collections.singletonList;
+import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
+import static org.apache.commons.lang3.Validate.isTrue;
 import static org.apache.commons.lang3.Validate.notBlank;
 import static org.apache.commons.lang3.Validate.notNull;
 import static org.apache.http.HttpHeaders.ACCEPT;
@@ -12,15 +13,15 @@ import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.command.RefineCommand;
 import com.ontotext.refine.client.exceptions.RefineException;
 import java.io.IOException;
-import java.util.List;
+import java.nio.file.Path;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
-import org.apache.http.NameValuePair;
-import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.methods.RequestBuilder;
-import org.apache.http.entity.BufferedHttpEntity;
-import org.apache.http.message.BasicNameValuePair;
+import org.eclipse.rdf4j.common.exception.RDF4JException;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.UnsupportedRDFormatException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,11 +45,12 @@ public class GraphDbSparqlBasedRdfExportCommand implements RefineCommand<ExportR
       LoggerFactory.getLogger(GraphDbSparqlBasedRdfExportCommand.class);
 
   private final String project;
-  private final String projectPlaceholder;
-  private final String query;
+  private final PreparedQuery query;
   private final ResultFormat format;
   private final String repository;
   private final OutputType output;
+  private final RdfExportTarget target;
+  private final BufferingPolicy buffering;
 
   protected GraphDbSparqlBasedRdfExportCommand(
       String project,
@@ -57,12 +59,31 @@ public class GraphDbSparqlBasedRdfExportCommand implements RefineCommand<ExportR
       ResultFormat format,
       String repository,
       OutputType output) {
+    this(
+        project,
+        PreparedQuery.of(query, projectPlaceholder),
+        format,
+        repository,
+        output,
+        RdfExportTarget.DEFAULT,
+        BufferingPolicy.getDefault());
+  }
+
+  private GraphDbSparqlBasedRdfExportCommand(
+      String project,
+      PreparedQuery query,
+      ResultFormat format,
+      String repository,
+      OutputType output,
+      RdfExportTarget target,
+      BufferingPolicy buffering) {
     this.project = project;
-    this.projectPlaceholder = projectPlaceholder;
     this.query = query;
     this.format = format;
     this.repository = repository;
     this.output = output;
+    this.target = target;
+    this.buffering = buffering;
   }
 
   @Override
@@ -73,14 +94,7 @@ public class GraphDbSparqlBasedRdfExportCommand implements RefineCommand<ExportR
   @Override
   public ExportRdfResponse execute(RefineClient client) throws RefineException {
     try {
-      HttpUriRequest request = RequestBuilder
-          .post(client.createUri(endpoint().replace("{repo}", repository)))
-          .addHeader(ACCEPT, RdfExportUtils.getAcceptHeader(format))
-          .addHeader(CONTENT_TYPE, APPLICATION_FORM_URLENCODED.withCharset(UTF_8).toString())
-          .setEntity(buildEntity())
-          .build();
-
-      return client.execute(request, this);
+      return client.execute(buildRequest(client), this);
     } catch (IOException ioe) {
       throw new RefineException(
           "Export of RDF data failed for project: '%s' due to: %s",
@@ -90,15 +104,44 @@ public class GraphDbSparqlBasedRdfExportCommand implements RefineCommand<ExportR
   }
 
   /**
-   * Builds the request entity with the expected content. The produced {@link HttpEntity} is
-   * repeatable so that it can be used in retries.
+   * Executes the export and parses the result incrementally, while the response is read. The
+   * parsed statements are pushed into the given handler, without materializing the result. The
+   * output type and the target of the command are not used in this mode.<br>
+   * The parser for the format of the command should be available on the classpath, for example
+   * <code>rdf4j-rio-turtle</code> for the Turtle format. The statements can be grouped in batches
+   * via {@link BatchingRdfHandler}.
+   *
+   * @param client to be used for command request
+   * @param handler which receives the parsed statements
+   * @throws RefineException when any error occurs during command execution or parsing
    */
-  private HttpEntity buildEntity() throws IOException {
-    return new BufferedHttpEntity(new UrlEncodedFormEntity(buildRequestContent(), UTF_8));
+  public void execute(RefineClient client, RDFHandler handler) throws RefineException {
+    try {
+      client.execute(buildRequest(client), response -> {
+        RdfExportResponseHandler.parse(response, format, handler);
+        return null;
+      });
+    } catch (IOException | RDF4JException | UnsupportedRDFormatException exc) {
+      throw new RefineException(
+          "Export of RDF data failed for project: '%s' due to: %s",
+          project,
+          exc.getMessage());
+    }
+  }
+
+  private HttpUriRequest buildRequest(RefineClient client) throws IOException {
+    return RequestBuilder
+        .post(client.createUri(endpoint().replace("{repo}", repository)))
+        .addHeader(ACCEPT, RdfExportUtils.getAcceptHeader(format))
+        .addHeader(CONTENT_TYPE, APPLICATION_FORM_URLENCODED.withCharset(UTF_8).toString())
+        .setEntity(buildEntity())
+        .build();
   }
 
   /**
-   * Replaces the placeholder for the project in the query template.<br>
+   * Builds the request entity with the expected content. The produced {@link HttpEntity} is
+   * repeatable so that it can be used in retries.<br>
+   * The placeholder for the project in the query template is replaced with the project.
    * Effectively:
    *
    * <pre>
@@ -108,17 +151,18 @@ public class GraphDbSparqlBasedRdfExportCommand implements RefineCommand<ExportR
    *
    * SERVICE &lt;rdf-mapper:ontorefine:1958197932150&gt;
    * </pre>
-   * And prepends the expected field for the request.
+   * The query is encoded once, when it is prepared, and the project is spliced in the encoded form.
    */
-  private List<NameValuePair> buildRequestContent() {
-    String fixedQuery = query.replaceFirst(projectPlaceholder, project);
-    LOGGER.debug("The query that will be used for RDF export is: {}", fixedQuery);
-    return singletonList(new BasicNameValuePair("query", fixedQuery));
+  private HttpEntity buildEntity() {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("The query that will be used for RDF export is: {}", query.bind(project));
+    }
+    return query.toFormEntity(project);
   }
 
   @Override
   public ExportRdfResponse handleResponse(HttpResponse response) throws IOException {
-    return RdfExportResponseHandler.handle(project, response, output);
+    return RdfExportResponseHandler.handle(project, response, output, target, buffering);
   }
 
   /**
@@ -129,11 +173,15 @@ public class GraphDbSparqlBasedRdfExportCommand implements RefineCommand<ExportR
   public static class Builder {
 
     private String project;
-    private String projectPlaceholder = "#project_placeholder#";
+    private String projectPlaceholder = PreparedQuery.DEFAULT_PLACEHOLDER;
     private String query;
+    private PreparedQuery prepared;
     private ResultFormat format;
     private String repository;
     private OutputType output;
+    private Path target;
+    private SpoolDirectory spool;
+    private BufferingPolicy buffering;
 
     public Builder setProject(String project) {
       this.project = project;
@@ -150,6 +198,20 @@ public class GraphDbSparqlBasedRdfExportCommand implements RefineCommand<ExportR
       return this;
     }
 
+    /**
+     * Sets query template, which is already encoded. Only the project is encoded for each command,
+     * which allows reuse of single template for the export of many projects. The prepared query
+     * takes precedence over the query set via {@link #setQuery(String)} and it is bound via its own
+     * placeholder, instead of the one set via {@link #setProjectPlaceholder(String)}.
+     *
+     * @param query the prepared query template
+     * @return current builder
+     */
+    public Builder setQuery(PreparedQuery query) {
+      this.prepared = query;
+      return this;
+    }
+
     public Builder setFormat(ResultFormat format) {
       this.format = format;
       return this;
@@ -165,6 +227,44 @@ public class GraphDbSparqlBasedRdfExportCommand implements RefineCommand<ExportR
       return this;
     }
 
+    /**
+     * Sets the file where the result of the export should be written. When the file is set, the
+     * result is always written in it, regardless of the output type. The file is created, if it
+     * does not exist, or it is overwritten otherwise.
+     *
+     * @param target file for the result
+     * @return current builder
+     */
+    public Builder setTarget(Path target) {
+      this.target = target;
+      return this;
+    }
+
+    /**
+     * Sets the spool directory where the result file should be created, when the result is written
+     * in file. By default the result file is created in the shared temporary directory of the
+     * library. The spool is ignored, when explicit target file is set.
+     *
+     * @param spool directory for the result file
+     * @return current builder
+     */
+    public Builder setSpoolDirectory(SpoolDirectory spool) {
+      this.spool = spool;
+      return this;
+    }
+
+    /**
+     * Sets the policy, which decides whether the result should be buffered in-memory or written
+     * in file. By default the {@link BufferingPolicy#getDefault()} is used.
+     *
+     * @param buffering the policy for the result
+     * @return current builder
+     */
+    public Builder setBufferingPolicy(BufferingPolicy buffering) {
+      this.buffering = buffering;
+      return this;
+    }
+
     /**
      * Builds a {@link GraphDbSparqlBasedRdfExportCommand}.
      *
@@ -173,11 +273,17 @@ public class GraphDbSparqlBasedRdfExportCommand implements RefineCommand<ExportR
     public GraphDbSparqlBasedRdfExportCommand build() {
       notBlank(project, "Missing 'project' argument");
       notBlank(projectPlaceholder, "The 'projectPlaceholder' argument should not be blank");
-      notBlank(query, "Missing 'query' argument");
+      isTrue(prepared != null || StringUtils.isNotBlank(query), "Missing 'query' argument");
       notNull(format, "Missing 'format' argument");
       notBlank(repository, "Missing 'repository' argument");
       return new GraphDbSparqlBasedRdfExportCommand(
-          project, projectPlaceholder, query, format, repository, output);
+          project,
+          prepared != null ? prepared : PreparedQuery.of(query, projectPlaceholder),
+          format,
+          repository,
+          output,
+          RdfExportTarget.of(target, spool),
+          defaultIfNull(buffering, BufferingPolicy.getDefault()));
     }
   }
 }
@@ -0,0 +1,67 @@
+package com.ontotext.refine.client.command.rdf;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the amount of memory, which can be used for in-memory buffering of responses at the same
+ * time. The budget can be shared between multiple {@link BufferingPolicy} instances, in order to
+ * limit the memory used by all of the concurrent exports.
+ */
+public class MemoryBudget {
+
+  private final long capacity;
+  private final AtomicLong used = new AtomicLong();
+
+  /**
+   * Creates new budget.
+   *
+   * @param capacity the maximum number of bytes that can be reserved at the same time
+   */
+  public MemoryBudget(long capacity) {
+    isTrue(capacity > 0, "The capacity of the memory budget should be positive");
+    this.capacity = capacity;
+  }
+
+  /**
+   * Tries to reserve specific amount of memory from the budget. The reservation should be released
+   * via {@link #release(long)}, when the memory is no longer used.
+   *
+   * @param bytes to reserve
+   * @return <code>true</code> if the memory is reserved, <code>false</code> when there is not
+   *         enough memory in the budget
+   */
+  public boolean tryReserve(long bytes) {
+    long current;
+    do {
+      current = used.get();
+      if (bytes > capacity - current) {
+        return false;
+      }
+    } while (!used.compareAndSet(current, current + bytes));
+    return true;
+  }
+
+  /**
+   * Releases memory reserved via {@link #tryReserve(long)}.
+   *
+   * @param bytes to release
+   */
+  public void release(long bytes) {
+    used.addAndGet(-bytes);
+  }
+
+  public long getCapacity() {
+    return capacity;
+  }
+
+  public long getUsed() {
+    return used.get();
+  }
+
+  @Override
+  public String toString() {
+    return "MemoryBudget{" + "capacity=" + capacity + ", used=" + used + '}';
+  }
+}
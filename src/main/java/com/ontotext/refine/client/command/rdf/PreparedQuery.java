@@ -0,0 +1,147 @@
+package com.ontotext.refine.client.command.rdf;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.lang3.Validate.notBlank;
+import static org.apache.http.entity.ContentType.APPLICATION_FORM_URLENCODED;
+
+import java.net.URLEncoder;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+
+/**
+ * SPARQL query for RDF export, which is encoded once and can be reused for the export of any number
+ * of projects. The query could be template, which contains placeholder for the project identifier.
+ *
+ * <p>The template is split on the first occurrence of the placeholder and the parts before and
+ * after it are encoded in advance. Binding of project only encodes the project identifier and
+ * copies it between the encoded parts, so the query is neither searched nor encoded again.
+ *
+ * <p>The prepared query can be passed to {@link SparqlBasedRdfExportCommand.Builder} and to
+ * {@link GraphDbSparqlBasedRdfExportCommand.Builder}.
+ */
+public final class PreparedQuery {
+
+  /**
+   * The default placeholder for the project identifier in the query templates.
+   */
+  public static final String DEFAULT_PLACEHOLDER = "#project_placeholder#";
+
+  private static final byte[] QUERY_FIELD = "query=".getBytes(US_ASCII);
+
+  private static final ContentType QUERY_CONTENT_TYPE = ContentType.TEXT_PLAIN.withCharset(UTF_8);
+  private static final ContentType FORM_CONTENT_TYPE =
+      APPLICATION_FORM_URLENCODED.withCharset(UTF_8);
+
+  private final String query;
+  private final int placeholderIndex;
+  private final int placeholderLength;
+  private final byte[] encoded;
+  private final byte[] formHead;
+  private final byte[] formTail;
+
+  private PreparedQuery(String query, String placeholder) {
+    this.query = query;
+    this.placeholderIndex = query.indexOf(placeholder);
+    this.placeholderLength = placeholder.length();
+    this.encoded = query.getBytes(UTF_8);
+    if (placeholderIndex < 0) {
+      this.formHead = concat(QUERY_FIELD, formEncode(query));
+      this.formTail = new byte[0];
+    } else {
+      this.formHead = concat(QUERY_FIELD, formEncode(query.substring(0, placeholderIndex)));
+      this.formTail = formEncode(query.substring(placeholderIndex + placeholderLength));
+    }
+  }
+
+  /**
+   * Prepares query template with the {@link #DEFAULT_PLACEHOLDER} for the project identifier.
+   *
+   * @param query the query template
+   * @return the prepared query
+   */
+  public static PreparedQuery of(String query) {
+    return of(query, DEFAULT_PLACEHOLDER);
+  }
+
+  /**
+   * Prepares query template with specific placeholder for the project identifier. The placeholder
+   * is matched literally and only its first occurrence is replaced.
+   *
+   * @param query the query template
+   * @param placeholder for the project identifier
+   * @return the prepared query
+   */
+  public static PreparedQuery of(String query, String placeholder) {
+    notBlank(query, "Missing 'query' argument");
+    notBlank(placeholder, "The 'placeholder' argument should not be blank");
+    return new PreparedQuery(query, placeholder);
+  }
+
+  /**
+   * Provides the query template as it is.
+   *
+   * @return the query
+   */
+  public String getQuery() {
+    return query;
+  }
+
+  /**
+   * Replaces the placeholder in the template with the given project identifier.
+   *
+   * @param project identifier
+   * @return the query for the project
+   */
+  public String bind(String project) {
+    if (placeholderIndex < 0) {
+      return query;
+    }
+    return query.substring(0, placeholderIndex)
+        + project
+        + query.substring(placeholderIndex + placeholderLength);
+  }
+
+  /**
+   * Creates entity with the query as it is, for the SPARQL endpoint of the tool.
+   */
+  HttpEntity toEntity() {
+    return new ByteArrayEntity(encoded, QUERY_CONTENT_TYPE);
+  }
+
+  /**
+   * Creates form entity with the query bound to the given project. The content is equal to the
+   * content of {@link org.apache.http.client.entity.UrlEncodedFormEntity} with single
+   * <code>query</code> field.
+   */
+  HttpEntity toFormEntity(String project) {
+    byte[] content = formHead;
+    if (placeholderIndex >= 0) {
+      byte[] encodedProject = formEncode(project);
+      content = new byte[formHead.length + encodedProject.length + formTail.length];
+      System.arraycopy(formHead, 0, content, 0, formHead.length);
+      System.arraycopy(encodedProject, 0, content, formHead.length, encodedProject.length);
+      System.arraycopy(
+          formTail, 0, content, formHead.length + encodedProject.length, formTail.length);
+    }
+    return new ByteArrayEntity(content, FORM_CONTENT_TYPE);
+  }
+
+  private static byte[] formEncode(String value) {
+    return URLEncoder.encode(value, UTF_8).getBytes(US_ASCII);
+  }
+
+  private static byte[] concat(byte[] first, byte[] second) {
+    byte[] result = new byte[first.length + second.length];
+    System.arraycopy(first, 0, result, 0, first.length);
+    System.arraycopy(second, 0, result, first.length, second.length);
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "PreparedQuery{" + "size=" + encoded.length + ", template=" + (placeholderIndex >= 0)
+        + '}';
+  }
+}
@@ -1,19 +1,23 @@
 package com.ontotext.refine.client.command.rdf;
 
-import static com.ontotext.refine.client.command.rdf.RdfExportUtils.createTempFile;
 import static com.ontotext.refine.client.util.HttpParser.HTTP_PARSER;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.http.HttpStatus.SC_OK;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import org.apache.commons.io.IOUtils;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.Rio;
 
 /**
  * Utility class for providing handling of the {@link HttpResponse} from the RDF export commands.
@@ -22,6 +26,8 @@ import org.apache.http.HttpResponse;
  */
 class RdfExportResponseHandler {
 
+  private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+
   private RdfExportResponseHandler() {
     throw new UnsupportedOperationException("Utility classes should not be instantiated.");
   }
@@ -32,10 +38,17 @@ class RdfExportResponseHandler {
    * @param project identifier which data was exported
    * @param response that was returned from the request execution
    * @param output the type of the output that should be used for the result
+   * @param target where to write the result, when it is written in file
+   * @param buffering decides whether the result should be buffered in-memory or written in file
    * @return {@link ExportRdfResponse} object containing the result from the export command
    * @throws IOException when there is a problem during the response handling
    */
-  static ExportRdfResponse handle(String project, HttpResponse response, OutputType output)
+  static ExportRdfResponse handle(
+      String project,
+      HttpResponse response,
+      OutputType output,
+      RdfExportTarget target,
+      BufferingPolicy buffering)
       throws IOException {
     HTTP_PARSER.assureStatusCode(response, SC_OK);
 
@@ -43,17 +56,46 @@ class RdfExportResponseHandler {
     try (InputStream stream = entity.getContent()) {
       ExportRdfResponse rdfResponse = new ExportRdfResponse().setProject(project);
 
-      if (OutputType.FILE.equals(output)) {
-        return toFile(stream, rdfResponse);
+      if (OutputType.FILE.equals(output) || target.isExplicit()) {
+        buffering.onSpill();
+        return toFile(stream, rdfResponse, target);
       }
 
       long length = Math.max(entity.getContentLength(), getFromHeader(response));
-      boolean buffer = canBuffer(length);
-      if (OutputType.STRING.equals(output) && buffer) {
-        return toStr(stream, rdfResponse);
+      if (buffering.tryBuffer(length)) {
+        // the reservation is held by the response, while it retains the result
+        try {
+          return rdfResponse.setResult(
+              IOUtils.toString(stream, UTF_8), () -> buffering.release(length));
+        } catch (IOException | RuntimeException exc) {
+          buffering.release(length);
+          throw exc;
+        }
       }
 
-      return buffer ? toStr(stream, rdfResponse) : toFile(stream, rdfResponse);
+      buffering.onSpill();
+      return toFile(stream, rdfResponse, target);
+    }
+  }
+
+  /**
+   * Parses the response from RDF export command incrementally and pushes the statements into the
+   * given handler. The response is not buffered, the statements are produced while the response is
+   * read.
+   *
+   * @param response that was returned from the request execution
+   * @param format of the exported data
+   * @param handler which receives the parsed statements
+   * @throws IOException when there is a problem during the response reading
+   */
+  static void parse(HttpResponse response, ResultFormat format, RDFHandler handler)
+      throws IOException {
+    HTTP_PARSER.assureStatusCode(response, SC_OK);
+
+    RDFParser parser = Rio.createParser(format.getRdfFormat());
+    parser.setRDFHandler(handler);
+    try (InputStream stream = response.getEntity().getContent()) {
+      parser.parse(stream);
     }
   }
 
@@ -62,21 +104,36 @@ class RdfExportResponseHandler {
     return header == null ? 0 : Long.valueOf(header.getValue());
   }
 
-  private static boolean canBuffer(long length) {
-    return length > 0 && length < Integer.MAX_VALUE;
-  }
-
-  private static ExportRdfResponse toStr(InputStream stream, ExportRdfResponse response)
-      throws IOException {
-    return response.setResult(IOUtils.toString(stream, UTF_8));
+  private static ExportRdfResponse toFile(
+      InputStream stream, ExportRdfResponse response, RdfExportTarget target) throws IOException {
+    Path file = target.resolve(response.getProject());
+    try (FileChannel channel = FileChannel.open(file,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      transfer(stream, channel);
+    }
+    return response.setResultFile(file.toFile());
   }
 
-  private static ExportRdfResponse toFile(InputStream stream, ExportRdfResponse response)
-      throws IOException {
-    File tempFile = createTempFile(response.getProject()).toFile();
-    try (FileOutputStream fos = new FileOutputStream(tempFile)) {
-      IOUtils.copyLarge(stream, fos);
+  /**
+   * Transfers the content via heap buffer, which is filled directly from the stream and written in
+   * the file. The stream is not adapted as channel and {@link FileChannel#transferFrom} is not
+   * used, because for sources that are not files both copy the data through small intermediate
+   * buffers.
+   * The buffer is allocated on the heap, as the direct buffers are expensive to allocate for each
+   * export and their native memory is released only by the garbage collector.
+   */
+  private static void transfer(InputStream source, FileChannel target) throws IOException {
+    byte[] buffer = new byte[TRANSFER_BUFFER_SIZE];
+    ByteBuffer wrapper = ByteBuffer.wrap(buffer);
+    int read;
+    while ((read = source.read(buffer)) >= 0) {
+      wrapper.clear();
+      wrapper.limit(read);
+      while (wrapper.hasRemaining()) {
+        target.write(wrapper);
+      }
     }
-    return response.setResultFile(tempFile);
   }
 }
@@ -0,0 +1,55 @@
+package com.ontotext.refine.client.command.rdf;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Describes where the result of the RDF export should be written, when it is not buffered
+ * in-memory. The result is written either in explicitly provided file, in new file in the given
+ * {@link SpoolDirectory} or in new file in the shared temporary directory of the library.
+ *
+ * @see RdfExportUtils#createTempFile(String)
+ */
+class RdfExportTarget {
+
+  static final RdfExportTarget DEFAULT = new RdfExportTarget(null, null);
+
+  private final Path file;
+  private final SpoolDirectory spool;
+
+  private RdfExportTarget(Path file, SpoolDirectory spool) {
+    this.file = file;
+    this.spool = spool;
+  }
+
+  static RdfExportTarget of(Path file, SpoolDirectory spool) {
+    return file == null && spool == null ? DEFAULT : new RdfExportTarget(file, spool);
+  }
+
+  /**
+   * Whether the result file is explicitly requested, in which case the result should be always
+   * written in file, regardless of the requested output type.
+   *
+   * @return <code>true</code> when there is explicit target file, <code>false</code> otherwise
+   */
+  boolean isExplicit() {
+    return file != null;
+  }
+
+  /**
+   * Provides the file where the result of the export of the given project should be written.
+   *
+   * @param project which data is exported
+   * @return path to the file
+   * @throws IOException when the file cannot be created
+   */
+  Path resolve(String project) throws IOException {
+    if (file != null) {
+      return file;
+    }
+
+    return spool != null
+        ? spool.newFile(RdfExportUtils.filePrefix(project), RdfExportUtils.FILE_SUFFIX)
+        : RdfExportUtils.createTempFile(project);
+  }
+}
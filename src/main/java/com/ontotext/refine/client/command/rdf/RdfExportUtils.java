@@ -12,6 +12,10 @@ import org.eclipse.rdf4j.rio.RDFFormat;
  */
 class RdfExportUtils {
 
+  static final String FILE_SUFFIX = ".tmp";
+
+  private static Path tempDirectory;
+
   private RdfExportUtils() {
     throw new UnsupportedOperationException("Utility class.");
   }
@@ -20,16 +24,27 @@ class RdfExportUtils {
    * Creates temporary file with name pattern:<br>
    * <i>project-{project identifier}-rdfExport-{java generated number}.tmp</i><br>
    * in temporary directory prefixed with: <br>
-   * <i>ontorefine-client-{java generated number}</i>.
+   * <i>ontorefine-client-{java generated number}</i>.<br>
+   * The directory is shared by all of the files created by the current process. It is created on
+   * the first invocation and recreated, if it is deleted afterwards.
    *
    * @param project the identifer of the refine project, which data is exported
    * @return path to the created file
    * @throws IOException when there is an error during the file creation
    */
   static Path createTempFile(String project) throws IOException {
-    Path tempDirectory = Files.createTempDirectory("ontorefine-client-");
-    String suffix = "project-" + project + "-rdfExport-";
-    return Files.createTempFile(tempDirectory, suffix, ".tmp");
+    return Files.createTempFile(getTempDirectory(), filePrefix(project), FILE_SUFFIX);
+  }
+
+  private static synchronized Path getTempDirectory() throws IOException {
+    if (tempDirectory == null || !Files.isDirectory(tempDirectory)) {
+      tempDirectory = Files.createTempDirectory("ontorefine-client-");
+    }
+    return tempDirectory;
+  }
+
+  static String filePrefix(String project) {
+    return "project-" + project + "-rdfExport-";
   }
 
   /**
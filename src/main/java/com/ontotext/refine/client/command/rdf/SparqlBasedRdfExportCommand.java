@@ -1,6 +1,7 @@
 package com.ontotext.refine.client.command.rdf;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
+import static org.apache.commons.lang3.Validate.isTrue;
 import static org.apache.commons.lang3.Validate.notBlank;
 import static org.apache.commons.lang3.Validate.notNull;
 import static org.apache.http.HttpHeaders.ACCEPT;
@@ -10,13 +11,15 @@ import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.command.RefineCommand;
 import com.ontotext.refine.client.exceptions.RefineException;
 import java.io.IOException;
+import java.nio.file.Path;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.methods.RequestBuilder;
-import org.apache.http.entity.BufferedHttpEntity;
-import org.apache.http.entity.StringEntity;
+import org.eclipse.rdf4j.common.exception.RDF4JException;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.UnsupportedRDFormatException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,17 +53,27 @@ public class SparqlBasedRdfExportCommand implements RefineCommand<ExportRdfRespo
 
   private final String project;
   private final String prefix;
-  private final String query;
+  private final PreparedQuery query;
   private final ResultFormat format;
   private final OutputType output;
+  private final RdfExportTarget target;
+  private final BufferingPolicy buffering;
 
   private SparqlBasedRdfExportCommand(
-      String project, String prefix, String query, ResultFormat format, OutputType output) {
+      String project,
+      String prefix,
+      PreparedQuery query,
+      ResultFormat format,
+      OutputType output,
+      RdfExportTarget target,
+      BufferingPolicy buffering) {
     this.project = project;
     this.prefix = prefix;
     this.query = query;
     this.format = format;
     this.output = output;
+    this.target = target;
+    this.buffering = buffering;
   }
 
   @Override
@@ -71,15 +84,7 @@ public class SparqlBasedRdfExportCommand implements RefineCommand<ExportRdfRespo
   @Override
   public ExportRdfResponse execute(RefineClient client) throws RefineException {
     try {
-      String pfx = StringUtils.defaultIfBlank(prefix, ONTOREFINE_PREFIX);
-      HttpUriRequest request = RequestBuilder
-          .post(client.createUri(endpoint() + pfx + project))
-          .addHeader(ACCEPT, RdfExportUtils.getAcceptHeader(format))
-          .addHeader(CONTENT_TYPE, SPARQL_QUERY_CONTENT_TYPE)
-          .setEntity(buildEntity())
-          .build();
-
-      return client.execute(request, this);
+      return client.execute(buildRequest(client), this);
     } catch (IOException ioe) {
       throw new RefineException(
           "Export of RDF data failed for project: '%s' due to: %s",
@@ -88,18 +93,54 @@ public class SparqlBasedRdfExportCommand implements RefineCommand<ExportRdfRespo
     }
   }
 
+  /**
+   * Executes the export and parses the result incrementally, while the response is read. The
+   * parsed statements are pushed into the given handler, without materializing the result. The
+   * output type and the target of the command are not used in this mode.<br>
+   * The parser for the format of the command should be available on the classpath, for example
+   * <code>rdf4j-rio-turtle</code> for the Turtle format. The statements can be grouped in batches
+   * via {@link BatchingRdfHandler}.
+   *
+   * @param client to be used for command request
+   * @param handler which receives the parsed statements
+   * @throws RefineException when any error occurs during command execution or parsing
+   */
+  public void execute(RefineClient client, RDFHandler handler) throws RefineException {
+    try {
+      client.execute(buildRequest(client), response -> {
+        RdfExportResponseHandler.parse(response, format, handler);
+        return null;
+      });
+    } catch (IOException | RDF4JException | UnsupportedRDFormatException exc) {
+      throw new RefineException(
+          "Export of RDF data failed for project: '%s' due to: %s",
+          project,
+          exc.getMessage());
+    }
+  }
+
+  private HttpUriRequest buildRequest(RefineClient client) throws IOException {
+    String pfx = StringUtils.defaultIfBlank(prefix, ONTOREFINE_PREFIX);
+    return RequestBuilder
+        .post(client.createUri(endpoint() + pfx + project))
+        .addHeader(ACCEPT, RdfExportUtils.getAcceptHeader(format))
+        .addHeader(CONTENT_TYPE, SPARQL_QUERY_CONTENT_TYPE)
+        .setEntity(buildEntity())
+        .build();
+  }
+
   /**
    * Builds the request entity with the expected content. The produced {@link HttpEntity} is
-   * repeatable so that it can be used in retries.
+   * repeatable so that it can be used in retries. The query is encoded once, when it is prepared.
    */
-  private HttpEntity buildEntity() throws IOException {
-    LOGGER.debug("The query that will be used for RDF export is: {}", query);
-    return new BufferedHttpEntity(new StringEntity(query, UTF_8));
+  private HttpEntity buildEntity() {
+    LOGGER.debug("The query that will be used for RDF export is: {}", query.getQuery());
+    return query.toEntity();
   }
 
   @Override
   public ExportRdfResponse handleResponse(HttpResponse response) throws IOException {
-    return RdfExportResponseHandler.handle(project, response, output);
+    return RdfExportResponseHandler.handle(project, response, output, target, buffering);
   }
 
   /**
@@ -112,8 +153,12 @@ public class SparqlBasedRdfExportCommand implements RefineCommand<ExportRdfRespo
     private String project;
     private String prefix;
     private String query;
+    private PreparedQuery prepared;
     private ResultFormat format;
     private OutputType output;
+    private Path target;
+    private SpoolDirectory spool;
+    private BufferingPolicy buffering;
 
     public Builder setProject(String project) {
       this.project = project;
@@ -130,6 +175,19 @@ public class SparqlBasedRdfExportCommand implements RefineCommand<ExportRdfRespo
       return this;
     }
 
+    /**
+     * Sets query, which is already encoded. It is sent as it is, which allows reuse of single query
+     * for the export of many projects. The prepared query takes precedence over the query set via
+     * {@link #setQuery(String)}.
+     *
+     * @param query the prepared query
+     * @return current builder
+     */
+    public Builder setQuery(PreparedQuery query) {
+      this.prepared = query;
+      return this;
+    }
+
     public Builder setFormat(ResultFormat format) {
       this.format = format;
       return this;
@@ -140,6 +198,44 @@ public class SparqlBasedRdfExportCommand implements RefineCommand<ExportRdfRespo
       return this;
     }
 
+    /**
+     * Sets the file where the result of the export should be written. When the file is set, the
+     * result is always written in it, regardless of the output type. The file is created, if it
+     * does not exist, or it is overwritten otherwise.
+     *
+     * @param target file for the result
+     * @return current builder
+     */
+    public Builder setTarget(Path target) {
+      this.target = target;
+      return this;
+    }
+
+    /**
+     * Sets the spool directory where the result file should be created, when the result is written
+     * in file. By default the result file is created in the shared temporary directory of the
+     * library. The spool is ignored, when explicit target file is set.
+     *
+     * @param spool directory for the result file
+     * @return current builder
+     */
+    public Builder setSpoolDirectory(SpoolDirectory spool) {
+      this.spool = spool;
+      return this;
+    }
+
+    /**
+     * Sets the policy, which decides whether the result should be buffered in-memory or written
+     * in file. By default the {@link BufferingPolicy#getDefault()} is used.
+     *
+     * @param buffering the policy for the result
+     * @return current builder
+     */
+    public Builder setBufferingPolicy(BufferingPolicy buffering) {
+      this.buffering = buffering;
+      return this;
+    }
+
     /**
      * Builds new {@link SparqlBasedRdfExportCommand}.
      *
@@ -147,9 +243,16 @@ public class SparqlBasedRdfExportCommand implements RefineCommand<ExportRdfRespo
      */
     public SparqlBasedRdfExportCommand build() {
       notBlank(project, "Missing 'project' argument");
-      notBlank(query, "Missing 'query' argument");
+      isTrue(prepared != null || StringUtils.isNotBlank(query), "Missing 'query' argument");
       notNull(format, "Missing 'format' argument");
-      return new SparqlBasedRdfExportCommand(project, prefix, query, format, output);
+      return new SparqlBasedRdfExportCommand(
+          project,
+          prefix,
+          prepared != null ? prepared : PreparedQuery.of(query),
+          format,
+          output,
+          RdfExportTarget.of(target, spool),
+          defaultIfNull(buffering, BufferingPolicy.getDefault()));
     }
   }
 }
@@ -0,0 +1,112 @@
+package com.ontotext.refine.client.command.rdf;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Directory that can be reused for the result files of multiple RDF exports. The files created in
+ * the directory are tracked and they are deleted, when the spool is closed. When the directory is
+ * created by the spool itself, it is deleted as well.
+ *
+ * <p>Sharing single spool between the exports of a batch avoids the creation of new temporary
+ * directory for each export. Note that the result files of the exports are no longer available,
+ * after the spool is closed.
+ */
+public class SpoolDirectory implements Closeable {
+
+  private final Path directory;
+  private final boolean owned;
+  private final Set<Path> files = ConcurrentHashMap.newKeySet();
+
+  private SpoolDirectory(Path directory, boolean owned) {
+    this.directory = directory;
+    this.owned = owned;
+  }
+
+  /**
+   * Creates new spool in temporary directory. The directory is deleted, when the spool is closed.
+   *
+   * @return new spool
+   * @throws IOException when the directory cannot be created
+   */
+  public static SpoolDirectory create() throws IOException {
+    return new SpoolDirectory(Files.createTempDirectory("ontorefine-client-spool-"), true);
+  }
+
+  /**
+   * Creates new spool in the given directory. The directory is created, if it does not exist. When
+   * the spool is closed, only the files created via the spool are deleted.
+   *
+   * @param directory where to create the result files
+   * @return new spool
+   * @throws IOException when the directory cannot be created
+   */
+  public static SpoolDirectory in(Path directory) throws IOException {
+    return new SpoolDirectory(Files.createDirectories(directory), false);
+  }
+
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Creates new empty file in the spool directory.
+   *
+   * @param prefix of the file name
+   * @param suffix of the file name
+   * @return the path to the created file
+   * @throws IOException when the file cannot be created
+   */
+  public Path newFile(String prefix, String suffix) throws IOException {
+    Path file = Files.createTempFile(directory, prefix, suffix);
+    files.add(file);
+    return file;
+  }
+
+  /**
+   * Deletes file created by the spool, before the spool is closed. This can be used to release the
+   * disk space as early as possible, when the spool is used for large number of exports.
+   *
+   * @param file to delete
+   * @throws IOException when the file cannot be deleted
+   */
+  public void delete(Path file) throws IOException {
+    if (files.remove(file)) {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    IOException failure = null;
+    for (Path file : files) {
+      try {
+        delete(file);
+      } catch (IOException ioe) {
+        failure = ioe;
+      }
+    }
+
+    if (owned) {
+      try {
+        Files.deleteIfExists(directory);
+      } catch (DirectoryNotEmptyException dnee) { // NOSONAR
+        // contains files that are not created by the spool
+      }
+    }
+
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "SpoolDirectory{" + "directory=" + directory + ", files=" + files.size() + '}';
+  }
+}
@@ -5,11 +5,12 @@ import static com.ontotext.refine.client.util.JsonParser.JSON_PARSER;
 import static org.apache.commons.lang3.Validate.notBlank;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.command.RefineCommand;
+import com.ontotext.refine.client.command.csrf.CsrfTokens;
 import com.ontotext.refine.client.command.reconcile.GuessColumnTypeCommandResponse.ReconciliationType;
 import com.ontotext.refine.client.exceptions.RefineException;
+import com.ontotext.refine.client.util.JsonFields;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
@@ -53,16 +54,18 @@ public class GuessColumnTypeCommand implements RefineCommand<GuessColumnTypeComm
       RequestConfig config = RequestConfig
           .custom().setSocketTimeout(0).setConnectTimeout(0).setConnectionRequestTimeout(0).build();
 
-      HttpUriRequest request = RequestBuilder
-          .post(client.createUri(endpoint()))
-          .setConfig(config)
-          .addParameter(Constants.PROJECT, project)
-          .addParameter("columnName", column)
-          .addParameter("service", service)
-          .addParameter(Constants.CSRF_TOKEN, token)
-          .build();
-
-      return client.execute(request, this);
+      return CsrfTokens.withToken(client, token, csrf -> {
+        HttpUriRequest request = RequestBuilder
+            .post(client.createUri(endpoint()))
+            .setConfig(config)
+            .addParameter(Constants.PROJECT, project)
+            .addParameter("columnName", column)
+            .addParameter("service", service)
+            .addParameter(Constants.CSRF_TOKEN, csrf)
+            .build();
+
+        return client.execute(request, CsrfTokens.checked(this));
+      });
     } catch (IOException ioe) {
       throw new RefineException(
           "Failed to perform reconciliation on project: '%s' due to: %s",
@@ -75,17 +78,26 @@ public class GuessColumnTypeCommand implements RefineCommand<GuessColumnTypeComm
   public GuessColumnTypeCommandResponse handleResponse(HttpResponse response) throws IOException {
     HTTP_PARSER.assureStatusCode(response, HttpStatus.SC_OK);
     try (InputStream stream = response.getEntity().getContent()) {
-      JsonNode node = JSON_PARSER.parseJson(stream);
-      String code = JSON_PARSER.findExistingPath(node, "code").asText();
+      JsonFields fields = JSON_PARSER.readFields(stream, (name, value) -> {
+        switch (name) {
+          case "code":
+          case "message":
+            return value.getValueAsString();
+          case "types":
+            return value.readValueAs(TYPES);
+          default:
+            return null;
+        }
+      });
+      String code = fields.getExisting("code");
 
       if ("ok".equals(code)) {
-        String typesAsStr = JSON_PARSER.findExistingPath(node, "types").toString();
-        List<ReconciliationType> types = JSON_PARSER.read(typesAsStr, TYPES);
+        List<ReconciliationType> types = fields.getExisting("types");
         return GuessColumnTypeCommandResponse.ok(project, column, types);
       }
 
       if ("error".equals(code)) {
-        String message = JSON_PARSER.findExistingPath(node, "message").asText();
+        String message = fields.getExisting("message");
         return GuessColumnTypeCommandResponse.error(project, column, message);
       }
 
@@ -107,6 +119,7 @@ public class GuessColumnTypeCommand implements RefineCommand<GuessColumnTypeComm
     private String column;
     private String service;
     private String token;
+    private boolean clientToken;
 
     public Builder setProject(String project) {
       this.project = project;
@@ -128,6 +141,17 @@ public class GuessColumnTypeCommand implements RefineCommand<GuessColumnTypeComm
       return this;
     }
 
+    /**
+     * Configures the command to use the cached token of the client that executes it, when the
+     * token is not set explicitly. See {@link com.ontotext.refine.client.CsrfTokenProvider}.
+     *
+     * @return the builder for fluent usage
+     */
+    public Builder useClientToken() {
+      this.clientToken = true;
+      return this;
+    }
+
     /**
      * Builds the {@link GuessColumnTypeCommand}.
      *
@@ -137,7 +161,7 @@ public class GuessColumnTypeCommand implements RefineCommand<GuessColumnTypeComm
       notBlank(project, "Missing 'project' argument");
       notBlank(column, "Missing 'column' argument");
       notBlank(service, "Missing 'service' argument");
-      notBlank(token, "Missing CSRF token");
+      CsrfTokens.validate(token, clientToken);
       return new GuessColumnTypeCommand(project, column, service, token);
     }
   }
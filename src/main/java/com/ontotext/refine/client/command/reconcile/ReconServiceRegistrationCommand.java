@@ -10,6 +10,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.ResponseCode;
 import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.command.csrf.CsrfTokens;
 import com.ontotext.refine.client.command.preferences.GetPreferenceCommandResponse;
 import com.ontotext.refine.client.command.preferences.SetPreferenceCommandResponse;
 import com.ontotext.refine.client.exceptions.RefineException;
@@ -121,6 +122,7 @@ public class ReconServiceRegistrationCommand {
         .setProperty(PROPERTY)
         .setValue(value)
         .setToken(token)
+        .useClientToken()
         .build()
         .execute(client);
   }
@@ -141,6 +143,7 @@ public class ReconServiceRegistrationCommand {
 
     private String service;
     private String token;
+    private boolean clientToken;
 
     public Builder setService(String service) {
       this.service = service;
@@ -152,6 +155,17 @@ public class ReconServiceRegistrationCommand {
       return this;
     }
 
+    /**
+     * Configures the command to use the cached token of the client that executes it, when the
+     * token is not set explicitly. See {@link com.ontotext.refine.client.CsrfTokenProvider}.
+     *
+     * @return the builder for fluent usage
+     */
+    public Builder useClientToken() {
+      this.clientToken = true;
+      return this;
+    }
+
     /**
      * Builds the {@link ReconServiceRegistrationCommand}.
      *
@@ -159,7 +173,7 @@ public class ReconServiceRegistrationCommand {
      */
     public ReconServiceRegistrationCommand build() {
       Validate.notBlank(service, "Missing 'service' argument");
-      Validate.notBlank(token, "Missing CSRF token");
+      CsrfTokens.validate(token, clientToken);
       return new ReconServiceRegistrationCommand(service, token);
     }
   }
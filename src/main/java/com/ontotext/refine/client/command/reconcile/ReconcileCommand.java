@@ -12,7 +12,9 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.util.RawValue;
 import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.command.RefineCommand;
+import com.ontotext.refine.client.command.csrf.CsrfTokens;
 import com.ontotext.refine.client.exceptions.RefineException;
+import com.ontotext.refine.client.util.JsonFields;
 import java.io.IOException;
 import java.io.InputStream;
 import org.apache.http.HttpHeaders;
@@ -75,17 +77,19 @@ public class ReconcileCommand implements RefineCommand<ReconcileCommandResponse>
     try {
       ObjectNode configuration = CONFIG.deepCopy();
 
-      HttpUriRequest request = RequestBuilder
-          .post(client.createUri(endpoint()))
-          .addHeader(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE)
-          .addParameter(Constants.PROJECT, project)
-          .addParameter("columnName", column)
-          .addParameter("config", configuration.set("type", columnType.asJson()).toString())
-          .addParameter("engine", ENGINE.toString())
-          .addParameter(Constants.CSRF_TOKEN, token)
-          .build();
-
-      return client.execute(request, this);
+      return CsrfTokens.withToken(client, token, csrf -> {
+        HttpUriRequest request = RequestBuilder
+            .post(client.createUri(endpoint()))
+            .addHeader(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE)
+            .addParameter(Constants.PROJECT, project)
+            .addParameter("columnName", column)
+            .addParameter("config", configuration.set("type", columnType.asJson()).toString())
+            .addParameter("engine", ENGINE.toString())
+            .addParameter(Constants.CSRF_TOKEN, csrf)
+            .build();
+
+        return client.execute(request, CsrfTokens.checked(this));
+      });
     } catch (IOException ioe) {
       throw new RefineException(
           "Failed to perform reconciliation on project: '%s' due to: %s",
@@ -98,15 +102,15 @@ public class ReconcileCommand implements RefineCommand<ReconcileCommandResponse>
   public ReconcileCommandResponse handleResponse(HttpResponse response) throws IOException {
     HTTP_PARSER.assureStatusCode(response, HttpStatus.SC_OK);
     try (InputStream stream = response.getEntity().getContent()) {
-      JsonNode node = JSON_PARSER.parseJson(stream);
-      String code = JSON_PARSER.findExistingPath(node, "code").asText();
+      JsonFields fields = JSON_PARSER.readTextFields(stream, "code", "message");
+      String code = fields.getExisting("code");
       switch (code) {
         case "ok":
           return ReconcileCommandResponse.ok();
         case "pending":
           return ReconcileCommandResponse.pending();
         case "error":
-          String message = JSON_PARSER.findExistingPath(node, "message").asText();
+          String message = fields.getExisting("message");
           return ReconcileCommandResponse.error(message);
         default:
           throw new RefineException("Failed to reconcile column: '%s' for project: '%s'",
@@ -127,6 +131,7 @@ public class ReconcileCommand implements RefineCommand<ReconcileCommandResponse>
     private String column;
     private ColumnType columnType;
     private String token;
+    private boolean clientToken;
 
     public Builder setProject(String project) {
       this.project = project;
@@ -148,6 +153,17 @@ public class ReconcileCommand implements RefineCommand<ReconcileCommandResponse>
       return this;
     }
 
+    /**
+     * Configures the command to use the cached token of the client that executes it, when the
+     * token is not set explicitly. See {@link com.ontotext.refine.client.CsrfTokenProvider}.
+     *
+     * @return the builder for fluent usage
+     */
+    public Builder useClientToken() {
+      this.clientToken = true;
+      return this;
+    }
+
     /**
      * Builds the {@link ReconcileCommand}.
      *
@@ -157,7 +173,7 @@ public class ReconcileCommand implements RefineCommand<ReconcileCommandResponse>
       notBlank(project, "Missing 'project' argument");
       notBlank(column, "Missing 'column' argument");
       notNull(columnType, "Missing 'column type' argument");
-      notBlank(token, "Missing CSRF token");
+      CsrfTokens.validate(token, clientToken);
       return new ReconcileCommand(project, column, token, columnType);
     }
   }
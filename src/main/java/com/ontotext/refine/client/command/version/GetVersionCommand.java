@@ -2,20 +2,19 @@ package com.ontotext.refine.client.command.version;
 
 import static com.ontotext.refine.client.util.HttpParser.HTTP_PARSER;
 import static com.ontotext.refine.client.util.JsonParser.JSON_PARSER;
-import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.http.HttpHeaders.ACCEPT;
 import static org.apache.http.HttpStatus.SC_OK;
 import static org.apache.http.entity.ContentType.APPLICATION_JSON;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.command.RefineCommand;
 import com.ontotext.refine.client.exceptions.RefineException;
+import com.ontotext.refine.client.util.JsonFields;
 import java.io.IOException;
+import java.io.InputStream;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.methods.RequestBuilder;
-import org.apache.http.util.EntityUtils;
 
 /**
  * A command to retrieve Refine server version information.
@@ -53,17 +52,15 @@ public class GetVersionCommand implements RefineCommand<GetVersionResponse> {
   @Override
   public GetVersionResponse handleResponse(HttpResponse response) throws IOException {
     HTTP_PARSER.assureStatusCode(response, SC_OK);
-    String responseBody = EntityUtils.toString(response.getEntity(), UTF_8);
-    return parseGetVersionResponse(responseBody);
-  }
-
-  private GetVersionResponse parseGetVersionResponse(String json) throws IOException {
-    JsonNode node = JSON_PARSER.parseJson(json);
-    return new GetVersionResponse(
-        JSON_PARSER.findExistingPath(node, "full_name").asText(),
-        JSON_PARSER.findExistingPath(node, "full_version").asText(),
-        JSON_PARSER.findExistingPath(node, "version").asText(),
-        JSON_PARSER.findExistingPath(node, "revision").asText());
+    try (InputStream stream = response.getEntity().getContent()) {
+      JsonFields fields = JSON_PARSER.readTextFields(
+          stream, "full_name", "full_version", "version", "revision");
+      return new GetVersionResponse(
+          fields.getExisting("full_name"),
+          fields.getExisting("full_version"),
+          fields.getExisting("version"),
+          fields.getExisting("revision"));
+    }
   }
 
   /**
@@ -0,0 +1,14 @@
+package com.ontotext.refine.client.exceptions;
+
+/**
+ * Thrown when the request is rejected without being sent, because it waited for admission longer
+ * than the allowed queue time.
+ */
+public class AdmissionRejectedException extends RefineException {
+
+  private static final long serialVersionUID = 3318207746602530125L;
+
+  public AdmissionRejectedException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,14 @@
+package com.ontotext.refine.client.exceptions;
+
+/**
+ * Thrown when the request is rejected without being sent, because the circuit breaker for the
+ * Refine instance is open after a series of failures.
+ */
+public class CircuitOpenException extends RefineException {
+
+  private static final long serialVersionUID = -2476531998237154123L;
+
+  public CircuitOpenException(String message) {
+    super(message);
+  }
+}
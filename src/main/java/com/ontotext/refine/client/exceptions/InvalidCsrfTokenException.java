@@ -0,0 +1,15 @@
+package com.ontotext.refine.client.exceptions;
+
+
+/**
+ * Thrown when the Refine instance rejects the request, because the CSRF token provided with it is
+ * missing, invalid or stale.
+ */
+public class InvalidCsrfTokenException extends RefineException {
+
+  private static final long serialVersionUID = -2883410377541911378L;
+
+  public InvalidCsrfTokenException(String message) {
+    super(message);
+  }
+}
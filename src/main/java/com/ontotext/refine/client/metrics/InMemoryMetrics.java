@@ -0,0 +1,150 @@
+package com.ontotext.refine.client.metrics;
+
+import com.ontotext.refine.client.util.LatencyHistogram;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.apache.http.pool.PoolStats;
+
+/**
+ * {@link MetricsRecorder}, which keeps the measurements in memory, without dependencies on
+ * metrics libraries. It is suitable for tests and for simple applications, which report the
+ * measurements on their own.
+ */
+public class InMemoryMetrics implements MetricsRecorder {
+
+  private final Map<String, EndpointMetrics> exchanges = new ConcurrentHashMap<>();
+  private final Map<String, EndpointMetrics> commands = new ConcurrentHashMap<>();
+  private final Map<String, Supplier<PoolStats>> pools = new ConcurrentHashMap<>();
+
+  @Override
+  public void recordExchange(
+      String endpoint, String outcome, long duration, long requestBytes, long responseBytes) {
+    EndpointMetrics metrics = exchanges.computeIfAbsent(endpoint, key -> new EndpointMetrics());
+    metrics.record(outcome, duration);
+    metrics.requestBytes.add(requestBytes);
+    metrics.responseBytes.add(responseBytes);
+  }
+
+  @Override
+  public void recordCommand(String endpoint, String outcome, long duration) {
+    commands.computeIfAbsent(endpoint, key -> new EndpointMetrics()).record(outcome, duration);
+  }
+
+  @Override
+  public void recordRetry(String endpoint) {
+    exchanges.computeIfAbsent(endpoint, key -> new EndpointMetrics()).retries.increment();
+  }
+
+  @Override
+  public void bindPool(String name, Supplier<PoolStats> stats) {
+    pools.put(name, stats);
+  }
+
+  /**
+   * Provides the metrics of the HTTP exchanges with the given endpoint.
+   *
+   * @param endpoint of the requests
+   * @return the metrics or <code>null</code>, when there are no exchanges with the endpoint
+   */
+  public EndpointMetrics getExchanges(String endpoint) {
+    return exchanges.get(endpoint);
+  }
+
+  /**
+   * Provides the metrics of the commands with the given endpoint.
+   *
+   * @param endpoint of the commands
+   * @return the metrics or <code>null</code>, when there are no executions of the commands
+   */
+  public EndpointMetrics getCommands(String endpoint) {
+    return commands.get(endpoint);
+  }
+
+  public Set<String> getExchangeEndpoints() {
+    return Collections.unmodifiableSet(exchanges.keySet());
+  }
+
+  public Set<String> getCommandEndpoints() {
+    return Collections.unmodifiableSet(commands.keySet());
+  }
+
+  /**
+   * Provides the current statistics of the bound pool.
+   *
+   * @param name of the pool
+   * @return the statistics or <code>null</code>, when there is no such pool
+   */
+  public PoolStats getPoolStats(String name) {
+    Supplier<PoolStats> stats = pools.get(name);
+    return stats == null ? null : stats.get();
+  }
+
+  @Override
+  public String toString() {
+    return "InMemoryMetrics{exchanges=" + new TreeMap<>(exchanges)
+        + ", commands=" + new TreeMap<>(commands) + '}';
+  }
+
+  /**
+   * The measurements of single endpoint.
+   */
+  public static class EndpointMetrics {
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+
+    private void record(String outcome, long duration) {
+      latency.record(duration, TimeUnit.NANOSECONDS);
+      outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+    }
+
+    public LatencyHistogram getLatency() {
+      return latency;
+    }
+
+    public long getCount() {
+      return latency.getCount();
+    }
+
+    /**
+     * Provides the number of the executions with the given outcome.
+     *
+     * @param outcome the status code, <code>success</code> or the name of the error
+     * @return the number of the executions
+     */
+    public long getCount(String outcome) {
+      LongAdder count = outcomes.get(outcome);
+      return count == null ? 0L : count.sum();
+    }
+
+    public long getRequestBytes() {
+      return requestBytes.sum();
+    }
+
+    public long getResponseBytes() {
+      return responseBytes.sum();
+    }
+
+    public long getRetries() {
+      return retries.sum();
+    }
+
+    @Override
+    public String toString() {
+      return "EndpointMetrics{outcomes=" + new TreeMap<>(outcomes)
+          + ", requestBytes=" + requestBytes
+          + ", responseBytes=" + responseBytes
+          + ", retries=" + retries
+          + ", latency=" + latency + '}';
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package com.ontotext.refine.client.metrics;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.command.RefineCommand;
+import com.ontotext.refine.client.exceptions.RefineException;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.apache.http.HttpResponse;
+
+/**
+ * Decorates {@link RefineCommand} and reports the duration and the outcome of its executions to
+ * {@link MetricsRecorder}. The executions are tagged with the {@link RefineCommand#endpoint()} of
+ * the command.
+ *
+ * <p>Unlike the {@link MetricsInterceptor}, which measures the separate HTTP exchanges, the
+ * decorated command measures the whole execution, including the retrieval of the CSRF token and
+ * the processing of the response.
+ *
+ * @param <T> the type of the response
+ */
+public class MeteredCommand<T> implements RefineCommand<T> {
+
+  static final String SUCCESS = "success";
+
+  private final RefineCommand<T> command;
+  private final MetricsRecorder recorder;
+
+  private MeteredCommand(RefineCommand<T> command, MetricsRecorder recorder) {
+    this.command = command;
+    this.recorder = recorder;
+  }
+
+  /**
+   * Decorates the command.
+   *
+   * @param <T> the type of the response
+   * @param command to decorate
+   * @param recorder of the measurements
+   * @return the decorated command
+   */
+  public static <T> MeteredCommand<T> of(RefineCommand<T> command, MetricsRecorder recorder) {
+    return new MeteredCommand<>(
+        notNull(command, "Missing 'command' argument"),
+        notNull(recorder, "Missing 'recorder' argument"));
+  }
+
+  @Override
+  public String endpoint() {
+    return command.endpoint();
+  }
+
+  @Override
+  public T execute(RefineClient client) throws RefineException {
+    long start = System.nanoTime();
+    try {
+      T result = command.execute(client);
+      recorder.recordCommand(endpoint(), SUCCESS, System.nanoTime() - start);
+      return result;
+    } catch (RefineException | RuntimeException exc) {
+      recorder.recordCommand(endpoint(), outcomeOf(exc), System.nanoTime() - start);
+      throw exc;
+    }
+  }
+
+  @Override
+  public CompletableFuture<T> executeAsync(RefineClient client) {
+    long start = System.nanoTime();
+    return command.executeAsync(client).whenComplete((result, error) -> recorder.recordCommand(
+        endpoint(), error == null ? SUCCESS : outcomeOf(error), System.nanoTime() - start));
+  }
+
+  @Override
+  public T handleResponse(HttpResponse response) throws IOException {
+    return command.handleResponse(response);
+  }
+
+  private static String outcomeOf(Throwable error) {
+    Throwable cause = error instanceof CompletionException && error.getCause() != null
+        ? error.getCause()
+        : error;
+    return cause.getClass().getSimpleName();
+  }
+
+  @Override
+  public String toString() {
+    return "MeteredCommand{" + command + '}';
+  }
+}
@@ -0,0 +1,214 @@
+package com.ontotext.refine.client.metrics;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+import com.ontotext.refine.client.ExecutionInterceptor;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import org.apache.commons.io.input.ProxyInputStream;
+import org.apache.commons.io.output.ProxyOutputStream;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.HttpEntityWrapper;
+
+/**
+ * Measures the HTTP exchanges of the client and reports them to {@link MetricsRecorder}. It is
+ * registered via {@link com.ontotext.refine.client.RefineClient#addInterceptor}.
+ *
+ * <p>Each exchange is reported with its duration, the size of the request and the response bodies
+ * and its outcome. When the interceptor is registered before the
+ * {@link com.ontotext.refine.client.retry.RetryInterceptor}, it measures the whole execution,
+ * including the retries. When it is registered after it, each attempt is measured separately.
+ *
+ * <p>The endpoint of the exchange is the path of the request, where the segments that identify
+ * projects are replaced with <code>{project}</code>, which keeps the number of the endpoints low.
+ */
+public class MetricsInterceptor implements ExecutionInterceptor {
+
+  private static final Pattern PROJECT_SEGMENT = Pattern.compile("/(ontorefine:)?\\d+(?=/|$)");
+
+  private final MetricsRecorder recorder;
+  private final Function<HttpUriRequest, String> endpoints;
+
+  private MetricsInterceptor(MetricsRecorder recorder, Function<HttpUriRequest, String> endpoints) {
+    this.recorder = recorder;
+    this.endpoints = endpoints;
+  }
+
+  /**
+   * Provides the endpoint of the request, which is used to tag its measurements. This is the
+   * default extraction of the endpoints.
+   *
+   * @param request which endpoint to provide
+   * @return the path of the request without the identifiers of the projects
+   */
+  public static String endpointOf(HttpUriRequest request) {
+    String path = request.getURI().getPath();
+    return path == null || path.isEmpty()
+        ? "/"
+        : PROJECT_SEGMENT.matcher(path).replaceAll("/{project}");
+  }
+
+  @Override
+  public <T> T intercept(HttpUriRequest request, ResponseHandler<? extends T> handler, Chain chain)
+      throws IOException {
+    Exchange<T> exchange = new Exchange<>(request, handler);
+    try {
+      T result = chain.proceed(request, exchange);
+      exchange.completed(null);
+      return result;
+    } catch (IOException | RuntimeException exc) {
+      exchange.completed(exc);
+      throw exc;
+    }
+  }
+
+  @Override
+  public <T> CompletableFuture<T> interceptAsync(
+      HttpUriRequest request, ResponseHandler<? extends T> handler, AsyncChain chain) {
+    Exchange<T> exchange = new Exchange<>(request, handler);
+    return chain.proceed(request, exchange)
+        .whenComplete((result, error) -> exchange.completed(error));
+  }
+
+  /**
+   * Single measured exchange. It counts the bytes of the request entity, while it is sent, and the
+   * bytes of the response entity, while the handler reads it.
+   */
+  private class Exchange<T> implements ResponseHandler<T> {
+
+    private final ResponseHandler<? extends T> handler;
+    private final String endpoint;
+    private final long start = System.nanoTime();
+    private final AtomicLong requestBytes = new AtomicLong();
+    private final AtomicLong responseBytes = new AtomicLong();
+    private volatile int status;
+
+    private Exchange(HttpUriRequest request, ResponseHandler<? extends T> handler) {
+      this.handler = handler;
+      this.endpoint = endpoints.apply(request);
+      if (request instanceof HttpEntityEnclosingRequest) {
+        HttpEntityEnclosingRequest enclosing = (HttpEntityEnclosingRequest) request;
+        HttpEntity entity = enclosing.getEntity();
+        if (entity != null && !(entity instanceof CountingEntity)) {
+          enclosing.setEntity(new CountingEntity(entity, requestBytes));
+        } else if (entity != null) {
+          // the request is retried, its bytes are counted by the current exchange
+          ((CountingEntity) entity).counter = requestBytes;
+        }
+      }
+    }
+
+    @Override
+    public T handleResponse(HttpResponse response) throws IOException {
+      status = response.getStatusLine().getStatusCode();
+      HttpEntity entity = response.getEntity();
+      if (entity != null) {
+        response.setEntity(new CountingEntity(entity, responseBytes));
+      }
+      return handler.handleResponse(response);
+    }
+
+    private void completed(Throwable error) {
+      Throwable cause = error instanceof CompletionException && error.getCause() != null
+          ? error.getCause()
+          : error;
+      String outcome = status != 0 || cause == null
+          ? Integer.toString(status)
+          : cause.getClass().getSimpleName();
+      recorder.recordExchange(endpoint, outcome, System.nanoTime() - start, requestBytes.get(),
+          responseBytes.get());
+    }
+  }
+
+  /**
+   * Counts the bytes of the entity, which are written or read.
+   */
+  private static class CountingEntity extends HttpEntityWrapper {
+
+    private volatile AtomicLong counter;
+
+    private CountingEntity(HttpEntity entity, AtomicLong counter) {
+      super(entity);
+      this.counter = counter;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+      AtomicLong current = counter;
+      return new ProxyInputStream(super.getContent()) {
+
+        @Override
+        protected void afterRead(int read) {
+          if (read > 0) {
+            current.addAndGet(read);
+          }
+        }
+      };
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+      AtomicLong current = counter;
+      super.writeTo(new ProxyOutputStream(outStream) {
+
+        @Override
+        protected void beforeWrite(int count) {
+          current.addAndGet(count);
+        }
+      });
+    }
+  }
+
+  /**
+   * The builder for {@link MetricsInterceptor}.
+   */
+  public static class Builder {
+
+    private MetricsRecorder recorder;
+    private Function<HttpUriRequest, String> endpoints = MetricsInterceptor::endpointOf;
+
+    /**
+     * Sets the recorder of the measurements. It is required.
+     *
+     * @param recorder of the measurements
+     * @return the builder for fluent usage
+     */
+    public Builder setRecorder(MetricsRecorder recorder) {
+      this.recorder = recorder;
+      return this;
+    }
+
+    /**
+     * Sets the extraction of the endpoints of the requests. By default it is
+     * {@link MetricsInterceptor#endpointOf(HttpUriRequest)}.
+     *
+     * @param endpoints provides the endpoint of the request
+     * @return the builder for fluent usage
+     */
+    public Builder setEndpoints(Function<HttpUriRequest, String> endpoints) {
+      this.endpoints = endpoints;
+      return this;
+    }
+
+    /**
+     * Builds the interceptor after validation.
+     *
+     * @return the interceptor
+     */
+    public MetricsInterceptor build() {
+      notNull(recorder, "Missing 'recorder' argument");
+      notNull(endpoints, "Missing 'endpoints' argument");
+      return new MetricsInterceptor(recorder, endpoints);
+    }
+  }
+}
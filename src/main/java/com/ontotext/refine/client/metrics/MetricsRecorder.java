@@ -0,0 +1,64 @@
+package com.ontotext.refine.client.metrics;
+
+import java.util.function.Supplier;
+import org.apache.http.pool.PoolStats;
+
+/**
+ * Receives the measurements of the client. This is the extension point for the metrics libraries,
+ * which should be implemented by the applications that use library different from the provided
+ * ones.
+ *
+ * <p>The requests are measured by {@link MetricsInterceptor}, the commands by
+ * {@link MeteredCommand} and the retries by
+ * {@link com.ontotext.refine.client.retry.RetryInterceptor}. The measurements are tagged with the
+ * endpoint of the request or the command, which should have low cardinality, and with outcome,
+ * which is the status code of the response or the simple name of the exception, when the execution
+ * fails without response.
+ *
+ * <p>The implementations are invoked concurrently and they should not block.
+ *
+ * @see InMemoryMetrics
+ * @see com.ontotext.refine.client.metrics.micrometer.MicrometerMetrics
+ */
+public interface MetricsRecorder {
+
+  /**
+   * Records single HTTP exchange with the Refine instance.
+   *
+   * @param endpoint the endpoint of the request
+   * @param outcome the status code of the response or the name of the error
+   * @param duration of the exchange in nanoseconds, including the handling of the response
+   * @param requestBytes the size of the request body
+   * @param responseBytes the size of the response body, which is read by the handler
+   */
+  void recordExchange(
+      String endpoint, String outcome, long duration, long requestBytes, long responseBytes);
+
+  /**
+   * Records single execution of command, which may consist of multiple HTTP exchanges.
+   *
+   * @param endpoint the endpoint of the command
+   * @param outcome <code>success</code> or the name of the error
+   * @param duration of the execution in nanoseconds
+   */
+  void recordCommand(String endpoint, String outcome, long duration);
+
+  /**
+   * Records retry of request.
+   *
+   * @param endpoint the endpoint of the retried request
+   */
+  void recordRetry(String endpoint);
+
+  /**
+   * Binds the statistics of connection pool, which are reported as gauges. The default
+   * implementation ignores the pool.
+   *
+   * @param name of the pool, for example the address of the Refine instance
+   * @param stats provides the current statistics of the pool, see
+   *        {@link com.ontotext.refine.client.RefineClient#getPoolStats()}
+   */
+  default void bindPool(String name, Supplier<PoolStats> stats) {
+    // the pool statistics are not reported
+  }
+}
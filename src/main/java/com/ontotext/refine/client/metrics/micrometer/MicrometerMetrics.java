@@ -0,0 +1,114 @@
+package com.ontotext.refine.client.metrics.micrometer;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+import com.ontotext.refine.client.metrics.MetricsRecorder;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import org.apache.http.pool.PoolStats;
+
+/**
+ * {@link MetricsRecorder}, which reports the measurements to Micrometer {@link MeterRegistry}. The
+ * Micrometer is optional dependency of the library, so it should be provided by the application,
+ * which uses this binding.
+ *
+ * <p>The following meters are reported, where the name prefix is <code>refine.client</code> by
+ * default:
+ *
+ * <ul>
+ *   <li><code>requests</code> - timer of the HTTP exchanges, tagged with <code>endpoint</code> and
+ *   <code>outcome</code></li>
+ *   <li><code>request.bytes</code> and <code>response.bytes</code> - summaries of the sizes of the
+ *   bodies, tagged with <code>endpoint</code></li>
+ *   <li><code>commands</code> - timer of the commands, tagged with <code>endpoint</code> and
+ *   <code>outcome</code></li>
+ *   <li><code>retries</code> - counter of the retries, tagged with <code>endpoint</code></li>
+ *   <li><code>pool.leased</code>, <code>pool.pending</code>, <code>pool.available</code> and
+ *   <code>pool.max</code> - gauges of the connection pools, tagged with <code>pool</code></li>
+ * </ul>
+ */
+public class MicrometerMetrics implements MetricsRecorder {
+
+  private static final String ENDPOINT = "endpoint";
+  private static final String OUTCOME = "outcome";
+
+  private final MeterRegistry registry;
+  private final String prefix;
+
+  /**
+   * Creates recorder with the default name prefix <code>refine.client</code>.
+   *
+   * @param registry where the meters are registered
+   */
+  public MicrometerMetrics(MeterRegistry registry) {
+    this(registry, "refine.client");
+  }
+
+  /**
+   * Creates recorder with the given name prefix.
+   *
+   * @param registry where the meters are registered
+   * @param prefix of the names of the meters
+   */
+  public MicrometerMetrics(MeterRegistry registry, String prefix) {
+    this.registry = notNull(registry, "Missing 'registry' argument");
+    this.prefix = notNull(prefix, "Missing 'prefix' argument");
+  }
+
+  @Override
+  public void recordExchange(
+      String endpoint, String outcome, long duration, long requestBytes, long responseBytes) {
+    Timer.builder(prefix + ".requests")
+        .description("The HTTP exchanges with the Refine instance")
+        .tags(ENDPOINT, endpoint, OUTCOME, outcome)
+        .register(registry)
+        .record(duration, TimeUnit.NANOSECONDS);
+    DistributionSummary.builder(prefix + ".request.bytes")
+        .baseUnit("bytes")
+        .tags(ENDPOINT, endpoint)
+        .register(registry)
+        .record(requestBytes);
+    DistributionSummary.builder(prefix + ".response.bytes")
+        .baseUnit("bytes")
+        .tags(ENDPOINT, endpoint)
+        .register(registry)
+        .record(responseBytes);
+  }
+
+  @Override
+  public void recordCommand(String endpoint, String outcome, long duration) {
+    Timer.builder(prefix + ".commands")
+        .description("The executions of the Refine commands")
+        .tags(ENDPOINT, endpoint, OUTCOME, outcome)
+        .register(registry)
+        .record(duration, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void recordRetry(String endpoint) {
+    registry.counter(prefix + ".retries", ENDPOINT, endpoint).increment();
+  }
+
+  @Override
+  public void bindPool(String name, Supplier<PoolStats> stats) {
+    Tags tags = Tags.of("pool", name);
+    gauge("pool.leased", tags, stats, PoolStats::getLeased);
+    gauge("pool.pending", tags, stats, PoolStats::getPending);
+    gauge("pool.available", tags, stats, PoolStats::getAvailable);
+    gauge("pool.max", tags, stats, PoolStats::getMax);
+  }
+
+  private void gauge(
+      String name, Tags tags, Supplier<PoolStats> stats, ToIntFunction<PoolStats> value) {
+    Gauge.builder(prefix + "." + name, stats, supplier -> value.applyAsInt(supplier.get()))
+        .tags(tags)
+        .strongReference(true)
+        .register(registry);
+  }
+}
@@ -0,0 +1,70 @@
+package com.ontotext.refine.client.pipeline;
+
+import com.ontotext.refine.client.util.LatencyHistogram;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the results from the execution of the {@link ProjectPipeline}. The results are in the
+ * order of the inputs.
+ */
+public class PipelineReport {
+
+  private final List<PipelineResult> results;
+  private final Map<PipelineStage, LatencyHistogram> latencies;
+  private final long elapsedNanos;
+
+  PipelineReport(
+      List<PipelineResult> results,
+      Map<PipelineStage, LatencyHistogram> latencies,
+      long elapsedNanos) {
+    this.results = Collections.unmodifiableList(results);
+    this.latencies = latencies;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  public List<PipelineResult> getResults() {
+    return results;
+  }
+
+  public long getSuccessfulCount() {
+    return results.stream().filter(PipelineResult::isSuccessful).count();
+  }
+
+  public long getFailedCount() {
+    return results.size() - getSuccessfulCount();
+  }
+
+  /**
+   * Provides the histogram of the latencies of the given stage. The latency of each execution of
+   * the stage is recorded, including the failed ones.
+   *
+   * @param stage of the pipeline
+   * @return the latencies of the stage
+   */
+  public LatencyHistogram getLatency(PipelineStage stage) {
+    return latencies.get(stage);
+  }
+
+  /**
+   * Provides the time elapsed for the whole pipeline.
+   *
+   * @param unit of the result
+   * @return the elapsed time
+   */
+  public long getElapsed(TimeUnit unit) {
+    return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public String toString() {
+    return "PipelineReport{"
+        + "successful=" + getSuccessfulCount()
+        + ", failed=" + getFailedCount()
+        + ", elapsed=" + getElapsed(TimeUnit.MILLISECONDS) + "ms"
+        + ", latencies=" + latencies
+        + '}';
+  }
+}
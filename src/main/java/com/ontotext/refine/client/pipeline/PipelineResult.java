@@ -0,0 +1,113 @@
+package com.ontotext.refine.client.pipeline;
+
+import com.ontotext.refine.client.command.create.BatchCreateProjectsCommand.Item;
+import com.ontotext.refine.client.exceptions.RefineException;
+
+/**
+ * The outcome of single input of the {@link ProjectPipeline}.
+ */
+public class PipelineResult {
+
+  private final Item item;
+  private final String project;
+  private final PipelineStage failedStage;
+  private final RefineException error;
+  private final long statements;
+  private final RefineException deleteError;
+
+  PipelineResult(
+      Item item,
+      String project,
+      PipelineStage failedStage,
+      RefineException error,
+      long statements,
+      RefineException deleteError) {
+    this.item = item;
+    this.project = project;
+    this.failedStage = failedStage;
+    this.error = error;
+    this.statements = statements;
+    this.deleteError = deleteError;
+  }
+
+  public Item getItem() {
+    return item;
+  }
+
+  /**
+   * Provides the identifier of the project created for the input.
+   *
+   * @return the project identifier or <code>null</code>, when the project was not created
+   */
+  public String getProject() {
+    return project;
+  }
+
+  /**
+   * Checks whether the data of the input is exported successfully. The outcome of the deletion of
+   * the project is not taken into account.
+   *
+   * @return <code>true</code> when all of the stages before the deletion are successful
+   */
+  public boolean isSuccessful() {
+    return error == null;
+  }
+
+  /**
+   * Provides the stage which failed.
+   *
+   * @return the failed stage or <code>null</code>, when the input is exported successfully
+   */
+  public PipelineStage getFailedStage() {
+    return failedStage;
+  }
+
+  /**
+   * Provides the error of the failed stage.
+   *
+   * @return the error or <code>null</code>, when the input is exported successfully
+   */
+  public RefineException getError() {
+    return error;
+  }
+
+  /**
+   * Provides the number of the statements pushed into the sink.
+   *
+   * @return the number of the exported statements
+   */
+  public long getStatements() {
+    return statements;
+  }
+
+  /**
+   * Checks whether the project is deleted. The projects, which were not created, are considered
+   * deleted.
+   *
+   * @return <code>true</code> when the project does not remain in the Refine instance
+   */
+  public boolean isDeleted() {
+    return deleteError == null;
+  }
+
+  /**
+   * Provides the error of the deletion of the project.
+   *
+   * @return the error or <code>null</code>, when the project is deleted
+   */
+  public RefineException getDeleteError() {
+    return deleteError;
+  }
+
+  @Override
+  public String toString() {
+    return "PipelineResult{"
+        + "item=" + item
+        + ", project=" + project
+        + ", failedStage=" + failedStage
+        + ", error=" + error
+        + ", statements=" + statements
+        + ", deleteError=" + deleteError
+        + '}';
+  }
+}
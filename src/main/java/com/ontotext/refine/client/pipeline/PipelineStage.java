@@ -0,0 +1,28 @@
+package com.ontotext.refine.client.pipeline;
+
+/**
+ * The stages of the {@link ProjectPipeline}, in the order of their execution.
+ */
+public enum PipelineStage {
+
+  /**
+   * Creates the project from the input data.
+   */
+  CREATE,
+
+  /**
+   * Applies the operations on the project and waits for their completion.
+   */
+  APPLY_OPERATIONS,
+
+  /**
+   * Exports the data of the project as RDF into the sink of the input.
+   */
+  EXPORT,
+
+  /**
+   * Deletes the project. The stage is executed for every created project, regardless of the
+   * outcome of the other stages.
+   */
+  DELETE;
+}
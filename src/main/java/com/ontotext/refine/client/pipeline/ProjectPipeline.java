@@ -0,0 +1,425 @@
+package com.ontotext.refine.client.pipeline;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.noNullElements;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import com.ontotext.refine.client.Operation;
+import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.ResponseCode;
+import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.command.create.BatchCreateProjectsCommand.Item;
+import com.ontotext.refine.client.command.operations.ApplyOperationsResponse;
+import com.ontotext.refine.client.command.processes.ProcessesAwaiter;
+import com.ontotext.refine.client.command.rdf.ResultFormat;
+import com.ontotext.refine.client.exceptions.RefineException;
+import com.ontotext.refine.client.util.LatencyHistogram;
+import com.ontotext.refine.client.util.ThrowingSupplier;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.helpers.RDFHandlerWrapper;
+
+/**
+ * Runs the lifecycle of projects for many inputs concurrently. For each input the pipeline creates
+ * project, applies the operations on it, exports its data as RDF into the {@link RdfSink} and
+ * deletes the project afterwards.
+ *
+ * <p>Each {@link PipelineStage} is executed by its own pool of workers, so the concurrency of the
+ * stages is limited independently, for example 4 concurrent uploads and 8 concurrent exports. The
+ * number of the inputs that are processed at the same time, which is the number of the projects
+ * that exist in the Refine instance at the same time, is limited as well.
+ *
+ * <p>The failure of single input does not abort the pipeline. The created projects are always
+ * deleted, regardless of the outcome of the other stages. The outcome of each input and the
+ * latency histograms of the stages are reported in the {@link PipelineReport}.
+ *
+ * <p>When the operations are applied asynchronously by the Refine instance, the pipeline waits for
+ * the processes of the project via {@link ProcessesAwaiter}. The waiting does not occupy worker of
+ * the operations stage, so the concurrency of that stage limits only the submission of the
+ * operations, while the number of the projects in flight limits the waiting ones.
+ *
+ * <p>All of the commands of the pipeline use the cached CSRF token of the client. As the stages
+ * are executed concurrently, the pipeline should be used with client that allows multiple
+ * connections to the Refine instance, like the one created via
+ * {@link com.ontotext.refine.client.RefineClients#pooled}.
+ */
+public class ProjectPipeline {
+
+  private final Operation[] operations;
+  private final RdfExporter exporter;
+  private final RdfSink sink;
+  private final Map<PipelineStage, Integer> concurrency;
+  private final int maxInFlight;
+  private final ProcessesAwaiter awaiter;
+
+  private ProjectPipeline(
+      Operation[] operations,
+      RdfExporter exporter,
+      RdfSink sink,
+      Map<PipelineStage, Integer> concurrency,
+      int maxInFlight,
+      ProcessesAwaiter awaiter) {
+    this.operations = operations;
+    this.exporter = exporter;
+    this.sink = sink;
+    this.concurrency = concurrency;
+    this.maxInFlight = maxInFlight;
+    this.awaiter = awaiter;
+  }
+
+  /**
+   * Runs the pipeline for the given inputs. The method blocks until all of the inputs are
+   * processed.
+   *
+   * @param client used to execute the commands
+   * @param items the inputs of the pipeline
+   * @return the report of the execution
+   * @throws RefineException when the thread is interrupted, while waiting for the inputs
+   */
+  public PipelineReport run(RefineClient client, Collection<Item> items) throws RefineException {
+    notNull(client, "Missing 'client' argument");
+    noNullElements(notNull(items, "Missing 'items' argument"), "'items' should not contain nulls");
+
+    Map<PipelineStage, ExecutorService> workers = new EnumMap<>(PipelineStage.class);
+    Map<PipelineStage, LatencyHistogram> latencies = new EnumMap<>(PipelineStage.class);
+    for (PipelineStage stage : PipelineStage.values()) {
+      workers.put(stage, Executors.newFixedThreadPool(concurrency.get(stage)));
+      latencies.put(stage, new LatencyHistogram());
+    }
+
+    ProcessesAwaiter processes = awaiter != null
+        ? awaiter
+        : new ProcessesAwaiter.Builder().build();
+    Semaphore inFlight = new Semaphore(maxInFlight);
+    try {
+      final long start = System.nanoTime();
+      List<CompletableFuture<PipelineResult>> futures = new ArrayList<>(items.size());
+      for (Item item : items) {
+        inFlight.acquire();
+        Job job = new Job(client, processes, item, latencies);
+        futures.add(CompletableFuture
+            .runAsync(job::create, workers.get(PipelineStage.CREATE))
+            .thenComposeAsync(ignored -> job.applyOperations(),
+                workers.get(PipelineStage.APPLY_OPERATIONS))
+            .thenRunAsync(job::export, workers.get(PipelineStage.EXPORT))
+            .thenApplyAsync(ignored -> job.delete(), workers.get(PipelineStage.DELETE))
+            .whenComplete((result, error) -> inFlight.release()));
+      }
+
+      List<PipelineResult> results = new ArrayList<>(futures.size());
+      for (CompletableFuture<PipelineResult> future : futures) {
+        results.add(future.join());
+      }
+      return new PipelineReport(results, latencies, System.nanoTime() - start);
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new RefineException("Interrupted while running the project pipeline.", ie);
+    } finally {
+      workers.values().forEach(ExecutorService::shutdown);
+      if (awaiter == null) {
+        processes.close();
+      }
+    }
+  }
+
+  /**
+   * Holds the state of single input, while it passes through the stages. The stages record their
+   * failures instead of throwing them, so the chain of the stages always reaches the deletion.
+   */
+  private class Job {
+
+    private final RefineClient client;
+    private final ProcessesAwaiter processes;
+    private final Item item;
+    private final Map<PipelineStage, LatencyHistogram> latencies;
+    private final AtomicLong statements = new AtomicLong();
+
+    private String project;
+    private PipelineStage failedStage;
+    private RefineException error;
+
+    private Job(
+        RefineClient client,
+        ProcessesAwaiter processes,
+        Item item,
+        Map<PipelineStage, LatencyHistogram> latencies) {
+      this.client = client;
+      this.processes = processes;
+      this.item = item;
+      this.latencies = latencies;
+    }
+
+    void create() {
+      run(PipelineStage.CREATE, () -> {
+        project = RefineCommands
+            .createProject()
+            .name(item.getName())
+            .file(item.getFile())
+            .format(item.getFormat())
+            .options(item.getOptions())
+            .useClientToken()
+            .build()
+            .execute(client)
+            .getProjectId();
+        return null;
+      });
+    }
+
+    CompletableFuture<Void> applyOperations() {
+      if (operations.length == 0 || error != null) {
+        return CompletableFuture.completedFuture(null);
+      }
+
+      final long start = System.nanoTime();
+      try {
+        ApplyOperationsResponse response = RefineCommands
+            .applyOperations()
+            .project(project)
+            .operations(operations)
+            .useClientToken()
+            .build()
+            .execute(client);
+        if (ResponseCode.ERROR.equals(response.getCode())) {
+          throw new RefineException(
+              "Failed to apply operations on project: '%s' due to: %s",
+              project,
+              response.getMessage());
+        }
+
+        if (ResponseCode.PENDING.equals(response.getCode())) {
+          return processes
+              .await(client, project)
+              .handle((ignored, exc) -> {
+                complete(PipelineStage.APPLY_OPERATIONS, start, exc);
+                return null;
+              });
+        }
+        complete(PipelineStage.APPLY_OPERATIONS, start, null);
+      } catch (RefineException | RuntimeException exc) {
+        complete(PipelineStage.APPLY_OPERATIONS, start, exc);
+      }
+      return CompletableFuture.completedFuture(null);
+    }
+
+    void export() {
+      run(PipelineStage.EXPORT, () -> {
+        RDFHandler handler = sink.open(item, project);
+        try {
+          exporter.export(client, project, new RDFHandlerWrapper(handler) {
+
+            @Override
+            public void handleStatement(Statement statement) {
+              super.handleStatement(statement);
+              statements.incrementAndGet();
+            }
+          });
+        } catch (RefineException | RuntimeException exc) {
+          try {
+            sink.complete(handler, asRefineException(exc));
+          } catch (IOException | RuntimeException completion) {
+            exc.addSuppressed(completion);
+          }
+          throw exc;
+        }
+        sink.complete(handler, null);
+        return null;
+      });
+    }
+
+    PipelineResult delete() {
+      if (project == null) {
+        return new PipelineResult(item, null, failedStage, error, statements.get(), null);
+      }
+
+      RefineException deleteError = null;
+      final long start = System.nanoTime();
+      try {
+        RefineCommands.deleteProject().project(project).useClientToken().build().execute(client);
+      } catch (RefineException | RuntimeException exc) {
+        deleteError = asRefineException(exc);
+      } finally {
+        latencies.get(PipelineStage.DELETE).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+      return new PipelineResult(item, project, failedStage, error, statements.get(), deleteError);
+    }
+
+    private void run(PipelineStage stage, ThrowingSupplier<Void, IOException> action) {
+      if (error != null) {
+        return;
+      }
+
+      final long start = System.nanoTime();
+      Exception failure = null;
+      try {
+        action.get();
+      } catch (IOException | RuntimeException exc) {
+        failure = exc;
+      }
+      complete(stage, start, failure);
+    }
+
+    private void complete(PipelineStage stage, long start, Throwable failure) {
+      latencies.get(stage).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      if (failure != null) {
+        failedStage = stage;
+        error = asRefineException(failure);
+      }
+    }
+  }
+
+  private static RefineException asRefineException(Throwable exc) {
+    Throwable cause = exc instanceof CompletionException && exc.getCause() != null
+        ? exc.getCause()
+        : exc;
+    return cause instanceof RefineException
+        ? (RefineException) cause
+        : new RefineException("Pipeline stage failed due to: " + cause.getMessage(), cause);
+  }
+
+  /**
+   * The builder for {@link ProjectPipeline}.
+   */
+  public static class Builder {
+
+    private static final int DEFAULT_CONCURRENCY = 4;
+
+    private final Map<PipelineStage, Integer> concurrency = new EnumMap<>(PipelineStage.class);
+    private Operation[] operations = new Operation[0];
+    private RdfExporter exporter;
+    private RdfSink sink;
+    private int maxInFlight;
+    private ProcessesAwaiter awaiter;
+
+    /**
+     * Sets the operations, which are applied on each project. By default no operations are
+     * applied.
+     *
+     * @param operations the operations
+     * @return the builder for fluent usage
+     */
+    public Builder setOperations(Operation... operations) {
+      this.operations = operations;
+      return this;
+    }
+
+    /**
+     * Sets the exporter of the RDF data.
+     *
+     * @param exporter of the projects data
+     * @return the builder for fluent usage
+     */
+    public Builder setExporter(RdfExporter exporter) {
+      this.exporter = exporter;
+      return this;
+    }
+
+    /**
+     * Sets the exporter of the RDF data to {@link RefineCommands#exportRdf()}, which uses the
+     * given mapping and format.
+     *
+     * @param mapping used to convert the data to RDF
+     * @param format of the exported data
+     * @return the builder for fluent usage
+     */
+    public Builder setExporter(String mapping, ResultFormat format) {
+      return setExporter((client, project, handler) -> RefineCommands
+          .exportRdf()
+          .setProject(project)
+          .setMapping(mapping)
+          .setFormat(format)
+          .build()
+          .execute(client, handler));
+    }
+
+    /**
+     * Sets the sink, which receives the exported data.
+     *
+     * @param sink for the data
+     * @return the builder for fluent usage
+     */
+    public Builder setSink(RdfSink sink) {
+      this.sink = sink;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of inputs processed concurrently by the given stage. The default is
+     * <code>4</code> for each stage.
+     *
+     * @param stage the stage to limit
+     * @param limit the number of concurrent executions
+     * @return the builder for fluent usage
+     */
+    public Builder setConcurrency(PipelineStage stage, int limit) {
+      concurrency.put(notNull(stage, "Missing 'stage' argument"), limit);
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of inputs, which are processed at the same time, from the creation
+     * of the project until its deletion. By default it is the sum of the concurrency of the
+     * creation, the operations and the export stages.
+     *
+     * @param maxInFlight the maximum number of projects processed at the same time
+     * @return the builder for fluent usage
+     */
+    public Builder setMaxInFlight(int maxInFlight) {
+      this.maxInFlight = maxInFlight;
+      return this;
+    }
+
+    /**
+     * Sets the awaiter of the processes, when the operations are applied asynchronously by the
+     * Refine instance. The provided awaiter is not closed by the pipeline. By default each run of
+     * the pipeline uses own awaiter with the default back-off.
+     *
+     * @param awaiter of the processes
+     * @return the builder for fluent usage
+     */
+    public Builder setAwaiter(ProcessesAwaiter awaiter) {
+      this.awaiter = awaiter;
+      return this;
+    }
+
+    /**
+     * Builds the pipeline after validation.
+     *
+     * @return the pipeline
+     */
+    public ProjectPipeline build() {
+      notNull(operations, "'operations' argument should not be null");
+      noNullElements(operations, "'operations' should not contain 'null' elements");
+      notNull(exporter, "Missing 'exporter' argument");
+      notNull(sink, "Missing 'sink' argument");
+      isTrue(maxInFlight >= 0, "The 'maxInFlight' should not be negative");
+
+      Map<PipelineStage, Integer> limits = new EnumMap<>(PipelineStage.class);
+      for (PipelineStage stage : PipelineStage.values()) {
+        int limit = concurrency.getOrDefault(stage, DEFAULT_CONCURRENCY);
+        isTrue(limit > 0, "The concurrency of stage '%s' should be positive", stage);
+        limits.put(stage, limit);
+      }
+
+      int inFlight = maxInFlight > 0
+          ? maxInFlight
+          : limits.get(PipelineStage.CREATE)
+              + limits.get(PipelineStage.APPLY_OPERATIONS)
+              + limits.get(PipelineStage.EXPORT);
+      return new ProjectPipeline(
+          operations.clone(), exporter, sink, limits, inFlight, awaiter);
+    }
+  }
+}
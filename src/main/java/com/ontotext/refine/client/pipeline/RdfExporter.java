@@ -0,0 +1,23 @@
+package com.ontotext.refine.client.pipeline;
+
+import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.exceptions.RefineException;
+import org.eclipse.rdf4j.rio.RDFHandler;
+
+/**
+ * Exports the data of single project as RDF into handler. Allows the {@link ProjectPipeline} to use
+ * any of the RDF export commands, for example the SPARQL based ones.
+ */
+@FunctionalInterface
+public interface RdfExporter {
+
+  /**
+   * Exports the data of the project.
+   *
+   * @param client used for the export
+   * @param project the identifier of the project
+   * @param handler which receives the exported statements
+   * @throws RefineException when the export fails
+   */
+  void export(RefineClient client, String project, RDFHandler handler) throws RefineException;
+}
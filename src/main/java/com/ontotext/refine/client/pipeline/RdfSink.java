@@ -0,0 +1,42 @@
+package com.ontotext.refine.client.pipeline;
+
+import com.ontotext.refine.client.command.create.BatchCreateProjectsCommand.Item;
+import com.ontotext.refine.client.exceptions.RefineException;
+import java.io.Closeable;
+import java.io.IOException;
+import org.eclipse.rdf4j.rio.RDFHandler;
+
+/**
+ * Provides the handlers, which receive the RDF data exported by the {@link ProjectPipeline}. The
+ * data of each input is streamed into separate handler, while the export response is read. Each
+ * opened handler is completed, when the export of its project ends, successfully or not.
+ */
+@FunctionalInterface
+public interface RdfSink {
+
+  /**
+   * Opens handler for the data of the given input. The handler is invoked by the thread, which
+   * exports the project, so the sink should be thread safe, when it is shared by multiple inputs.
+   *
+   * @param item the input of the pipeline
+   * @param project the identifier of the project created for the input
+   * @return the handler for the exported data
+   * @throws IOException when the handler cannot be opened
+   */
+  RDFHandler open(Item item, String project) throws IOException;
+
+  /**
+   * Completes the handler, when the export of its project ends. The handler is completed also when
+   * the export fails, so that the sink could release it or discard the partially exported data. By
+   * default, the handler is closed, if it is {@link Closeable}.
+   *
+   * @param handler opened for the input
+   * @param failure of the export or <code>null</code>, when the export is successful
+   * @throws IOException when the handler cannot be completed
+   */
+  default void complete(RDFHandler handler, RefineException failure) throws IOException {
+    if (handler instanceof Closeable) {
+      ((Closeable) handler).close();
+    }
+  }
+}
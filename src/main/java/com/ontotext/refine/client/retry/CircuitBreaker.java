@@ -0,0 +1,173 @@
+package com.ontotext.refine.client.retry;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import java.time.Duration;
+
+/**
+ * Stops the requests to Refine instance, which is failing. After a number of consecutive failures
+ * the breaker opens and the requests are rejected without being sent. When the open period
+ * expires, the breaker lets a limited number of probe requests through. If a probe succeeds, the
+ * breaker closes and the requests are sent normally, otherwise the breaker opens again.
+ *
+ * <p>The failures are the errors of the transport and the responses with retryable status, as
+ * defined by the {@link RetryPolicy}. The responses with other statuses mean that the instance is
+ * available and they are considered successful. The requests, which fail before they are sent,
+ * like the ones rejected by the admission control, do not affect the breaker.
+ */
+public class CircuitBreaker {
+
+  /**
+   * The states of the breaker.
+   */
+  public enum State {
+    /** The requests are sent normally. */
+    CLOSED,
+    /** The requests are rejected. */
+    OPEN,
+    /** Limited number of probe requests is sent. */
+    HALF_OPEN
+  }
+
+  private final int failureThreshold;
+  private final long openDuration;
+  private final int probes;
+
+  private State state = State.CLOSED;
+  private int failures;
+  private long openedAt;
+  private int probesInFlight;
+
+  private CircuitBreaker(int failureThreshold, Duration openDuration, int probes) {
+    this.failureThreshold = failureThreshold;
+    this.openDuration = openDuration.toNanos();
+    this.probes = probes;
+  }
+
+  /**
+   * Provides the current state of the breaker. The open breaker is reported as half-open, once its
+   * open period expires.
+   *
+   * @return the state
+   */
+  public synchronized State getState() {
+    if (state == State.OPEN && System.nanoTime() - openedAt >= openDuration) {
+      return State.HALF_OPEN;
+    }
+    return state;
+  }
+
+  /**
+   * Acquires permission to send request.
+   *
+   * @return <code>true</code> when the request can be sent, <code>false</code> when it should be
+   *         rejected
+   */
+  synchronized boolean tryAcquire() {
+    if (state == State.OPEN) {
+      if (System.nanoTime() - openedAt < openDuration) {
+        return false;
+      }
+      state = State.HALF_OPEN;
+      probesInFlight = 0;
+    }
+
+    if (state == State.HALF_OPEN) {
+      if (probesInFlight >= probes) {
+        return false;
+      }
+      probesInFlight++;
+    }
+    return true;
+  }
+
+  /**
+   * Returns the permission of request, which was not sent, without reporting outcome. The probe of
+   * the half-open breaker is given to the next request.
+   */
+  synchronized void release() {
+    if (state == State.HALF_OPEN && probesInFlight > 0) {
+      probesInFlight--;
+    }
+  }
+
+  synchronized void onSuccess() {
+    state = State.CLOSED;
+    failures = 0;
+    probesInFlight = 0;
+  }
+
+  synchronized void onFailure() {
+    if (state == State.HALF_OPEN || ++failures >= failureThreshold) {
+      state = State.OPEN;
+      openedAt = System.nanoTime();
+      failures = 0;
+      probesInFlight = 0;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "CircuitBreaker{state=" + getState() + '}';
+  }
+
+  /**
+   * The builder for {@link CircuitBreaker}.
+   */
+  public static class Builder {
+
+    private int failureThreshold = 5;
+    private Duration openDuration = Duration.ofSeconds(10);
+    private int probes = 1;
+
+    /**
+     * Sets the number of consecutive failures, which open the breaker. The default is
+     * <code>5</code>.
+     *
+     * @param failureThreshold the number of consecutive failures
+     * @return the builder for fluent usage
+     */
+    public Builder setFailureThreshold(int failureThreshold) {
+      this.failureThreshold = failureThreshold;
+      return this;
+    }
+
+    /**
+     * Sets the period, in which the open breaker rejects all requests. The default is
+     * <code>10</code> s.
+     *
+     * @param openDuration the open period
+     * @return the builder for fluent usage
+     */
+    public Builder setOpenDuration(Duration openDuration) {
+      this.openDuration = openDuration;
+      return this;
+    }
+
+    /**
+     * Sets the number of the concurrent probe requests, which are sent by the half-open breaker.
+     * The default is <code>1</code>.
+     *
+     * @param probes the number of the probe requests
+     * @return the builder for fluent usage
+     */
+    public Builder setProbes(int probes) {
+      this.probes = probes;
+      return this;
+    }
+
+    /**
+     * Builds the breaker after validation.
+     *
+     * @return the breaker
+     */
+    public CircuitBreaker build() {
+      isTrue(failureThreshold > 0, "The 'failureThreshold' should be positive");
+      notNull(openDuration, "Missing 'openDuration' argument");
+      isTrue(!openDuration.isNegative(), "The 'openDuration' should not be negative");
+      isTrue(probes > 0, "The 'probes' should be positive");
+      return new CircuitBreaker(failureThreshold, openDuration, probes);
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package com.ontotext.refine.client.retry;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the number of the retries relatively to the number of the requests. Each request deposits
+ * part of a retry in the budget and each retry withdraws whole one. For example with ratio
+ * <code>0.1</code> at most one retry is made for each ten requests. The budget is capped, which
+ * allows bursts of retries after long period without failures, but prevents the retries from
+ * multiplying the load, when the Refine instance is down.
+ *
+ * <p>The budget can be shared between multiple interceptors, in which case it limits their total
+ * number of retries.
+ */
+public class RetryBudget {
+
+  private static final long SCALE = 1000;
+
+  private final long deposit;
+  private final long capacity;
+  private final AtomicLong balance;
+
+  private RetryBudget(double ratio, int capacity) {
+    this.deposit = (long) (ratio * SCALE);
+    this.capacity = capacity * SCALE;
+    this.balance = new AtomicLong(this.capacity);
+  }
+
+  /**
+   * Creates new budget.
+   *
+   * @param ratio the number of retries allowed per request, between <code>0</code> and
+   *        <code>1</code>
+   * @param capacity the maximum number of retries, which can be accumulated in the budget. The
+   *        budget is initially full
+   * @return new budget
+   */
+  public static RetryBudget create(double ratio, int capacity) {
+    isTrue(ratio >= 0 && ratio <= 1, "The 'ratio' should be between 0 and 1");
+    isTrue(capacity >= 0, "The 'capacity' should not be negative");
+    return new RetryBudget(ratio, capacity);
+  }
+
+  /**
+   * Creates budget, which does not limit the retries.
+   *
+   * @return new budget
+   */
+  public static RetryBudget unlimited() {
+    return new RetryBudget(0, 0) {
+
+      @Override
+      boolean tryWithdraw() {
+        return true;
+      }
+
+      @Override
+      public double getAvailable() {
+        return Double.POSITIVE_INFINITY;
+      }
+    };
+  }
+
+  /**
+   * Provides the number of retries, which are currently available.
+   *
+   * @return the available retries
+   */
+  public double getAvailable() {
+    return (double) balance.get() / SCALE;
+  }
+
+  void deposit() {
+    if (deposit > 0) {
+      balance.accumulateAndGet(deposit, (current, add) -> Math.min(capacity, current + add));
+    }
+  }
+
+  boolean tryWithdraw() {
+    long current;
+    do {
+      current = balance.get();
+      if (current < SCALE) {
+        return false;
+      }
+    } while (!balance.compareAndSet(current, current - SCALE));
+    return true;
+  }
+}
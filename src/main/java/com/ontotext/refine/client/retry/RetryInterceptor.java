@@ -0,0 +1,445 @@
+package com.ontotext.refine.client.retry;
+
+import static org.apache.commons.lang3.Validate.notBlank;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import com.ontotext.refine.client.ExecutionInterceptor;
+import com.ontotext.refine.client.exceptions.CircuitOpenException;
+import com.ontotext.refine.client.exceptions.RefineException;
+import com.ontotext.refine.client.metrics.MetricsInterceptor;
+import com.ontotext.refine.client.metrics.MetricsRecorder;
+import java.io.IOException;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import javax.net.ssl.SSLException;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.StatusLine;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * Retries the failed requests and protects the Refine instance via {@link CircuitBreaker}. It is
+ * registered via {@link com.ontotext.refine.client.RefineClient#addInterceptor}.
+ *
+ * <p>A request is retried only when it is idempotent and its entity can be sent more than once.
+ * By default the requests with idempotent HTTP method and the requests to the endpoints, which
+ * only read data, like the exports, are considered idempotent. The requests, which modify the
+ * projects, are not retried, as their effect could be applied twice.
+ *
+ * <p>The retried failures are the errors of the transport and the responses with retryable status.
+ * The errors thrown by the handler of the response are never retried, as the handler could have
+ * already consumed part of the response, for example written it in file or pushed it into
+ * {@link org.eclipse.rdf4j.rio.RDFHandler}, and they are not reported to the circuit breaker.
+ * The {@link RetryPolicy} can be configured per endpoint of the commands, for example to retry the
+ * exports more times than the metadata requests. The total number of retries is limited by the
+ * {@link RetryBudget}, so the retries do not multiply the load, when the instance is down.
+ *
+ * <p>When the {@link CircuitBreaker} is open, the requests fail immediately with
+ * {@link CircuitOpenException}, instead of waiting for the connection timeouts.
+ */
+public class RetryInterceptor implements ExecutionInterceptor {
+
+  private static final Set<String> IDEMPOTENT_METHODS =
+      Set.of("GET", "HEAD", "OPTIONS", "TRACE", "PUT", "DELETE");
+
+  private static final Set<String> READ_ONLY_ENDPOINTS = Set.of(
+      "/orefine/command/core/export-rows",
+      "/orefine/command/core/preview-expression",
+      "/orefine/command/core/guess-types-of-column",
+      "/orefine/command/core/get-csrf-token",
+      "/project-aliases/identify",
+      "/rest/rdf-mapper/",
+      "/repositories/",
+      "/graphdb-proxy/repositories/");
+
+  private final RetryPolicy defaultPolicy;
+  private final TreeMap<String, RetryPolicy> policies;
+  private final Predicate<HttpUriRequest> idempotency;
+  private final RetryBudget budget;
+  private final CircuitBreaker breaker;
+  private final MetricsRecorder metrics;
+
+  private RetryInterceptor(Builder builder) {
+    this.defaultPolicy = builder.defaultPolicy;
+    this.policies = new TreeMap<>(builder.policies);
+    this.idempotency = builder.idempotency;
+    this.budget = builder.budget;
+    this.breaker = builder.breaker;
+    this.metrics = builder.metrics;
+  }
+
+  /**
+   * Checks whether the request is idempotent, based on its method and the endpoint. This is the
+   * default classification of the requests.
+   *
+   * @param request to check
+   * @return <code>true</code> when the request can be sent more than once without side effects
+   */
+  public static boolean isIdempotent(HttpUriRequest request) {
+    if (IDEMPOTENT_METHODS.contains(request.getMethod())) {
+      return true;
+    }
+
+    String path = request.getURI().getPath();
+    return path != null && READ_ONLY_ENDPOINTS.stream().anyMatch(path::startsWith);
+  }
+
+  public CircuitBreaker getCircuitBreaker() {
+    return breaker;
+  }
+
+  public RetryBudget getBudget() {
+    return budget;
+  }
+
+  @Override
+  public <T> T intercept(HttpUriRequest request, ResponseHandler<? extends T> handler, Chain chain)
+      throws IOException {
+    RetryPolicy policy = policyOf(request);
+    int attempts = isRetryable(request) ? policy.getMaxAttempts() : 1;
+    budget.deposit();
+
+    for (int attempt = 1; ; attempt++) {
+      Attempt<T> current = begin(request, handler, policy, attempt < attempts);
+      try {
+        T result = chain.proceed(request, current);
+        current.released();
+        return result;
+      } catch (IOException | RuntimeException exc) {
+        if (!current.shouldRetry(exc)) {
+          throw exc;
+        }
+      }
+
+      retrying(request);
+      pause(policy.getDelay(attempt));
+      reset(request);
+    }
+  }
+
+  @Override
+  public <T> CompletableFuture<T> interceptAsync(
+      HttpUriRequest request, ResponseHandler<? extends T> handler, AsyncChain chain) {
+    RetryPolicy policy = policyOf(request);
+    int attempts = isRetryable(request) ? policy.getMaxAttempts() : 1;
+    budget.deposit();
+
+    CompletableFuture<T> result = new CompletableFuture<>();
+    attemptAsync(request, handler, chain, policy, attempts, 1, result);
+    return result;
+  }
+
+  private <T> void attemptAsync(
+      HttpUriRequest request,
+      ResponseHandler<? extends T> handler,
+      AsyncChain chain,
+      RetryPolicy policy,
+      int attempts,
+      int attempt,
+      CompletableFuture<T> result) {
+    Attempt<T> current;
+    try {
+      current = begin(request, handler, policy, attempt < attempts);
+    } catch (CircuitOpenException coe) {
+      result.completeExceptionally(coe);
+      return;
+    }
+
+    chain.proceed(request, current).whenComplete((value, error) -> {
+      if (error == null) {
+        current.released();
+        result.complete(value);
+        return;
+      }
+
+      Throwable cause = error instanceof CompletionException && error.getCause() != null
+          ? error.getCause()
+          : error;
+      if (!current.shouldRetry(cause)) {
+        result.completeExceptionally(cause);
+        return;
+      }
+
+      retrying(request);
+      reset(request);
+      CompletableFuture
+          .delayedExecutor(policy.getDelay(attempt), TimeUnit.NANOSECONDS)
+          .execute(() -> attemptAsync(request, handler, chain, policy, attempts, attempt + 1,
+              result));
+    });
+  }
+
+  private <T> Attempt<T> begin(
+      HttpUriRequest request,
+      ResponseHandler<? extends T> handler,
+      RetryPolicy policy,
+      boolean retryable) throws CircuitOpenException {
+    if (breaker != null && !breaker.tryAcquire()) {
+      throw new CircuitOpenException(
+          "The request to '" + request.getURI() + "' is rejected, as the circuit breaker is open.");
+    }
+    return new Attempt<>(handler, policy, retryable);
+  }
+
+  private RetryPolicy policyOf(HttpUriRequest request) {
+    String path = request.getURI().getPath();
+    if (path == null) {
+      return defaultPolicy;
+    }
+
+    // the longest registered prefix of the path is the most specific one
+    for (Map.Entry<String, RetryPolicy> entry = policies.floorEntry(path);
+        entry != null;
+        entry = policies.lowerEntry(entry.getKey())) {
+      if (path.startsWith(entry.getKey())) {
+        return entry.getValue();
+      }
+    }
+    return defaultPolicy;
+  }
+
+  private boolean isRetryable(HttpUriRequest request) {
+    if (request instanceof HttpEntityEnclosingRequest) {
+      HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+      if (entity != null && !entity.isRepeatable()) {
+        return false;
+      }
+    }
+    return idempotency.test(request);
+  }
+
+  private void retrying(HttpUriRequest request) {
+    if (metrics != null) {
+      metrics.recordRetry(MetricsInterceptor.endpointOf(request));
+    }
+  }
+
+  private static boolean isTransient(Throwable error) {
+    return error instanceof IOException
+        && !(error instanceof RefineException)
+        && !(error instanceof UnknownHostException)
+        && !(error instanceof SSLException);
+  }
+
+  private static void pause(long nanos) throws RefineException {
+    try {
+      TimeUnit.NANOSECONDS.sleep(nanos);
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new RefineException("Interrupted while waiting to retry the request.", ie);
+    }
+  }
+
+  private static void reset(HttpUriRequest request) {
+    if (request instanceof HttpRequestBase) {
+      ((HttpRequestBase) request).reset();
+    }
+  }
+
+  /**
+   * Single attempt to execute the request. It reports its outcome to the circuit breaker exactly
+   * once and decides whether the request should be retried. The success is reported only when the
+   * response is received, the attempts which fail before that only release their permission.
+   */
+  private class Attempt<T> implements ResponseHandler<T> {
+
+    private final ResponseHandler<? extends T> handler;
+    private final RetryPolicy policy;
+    private final boolean retryable;
+    private boolean reported;
+    private volatile boolean handling;
+
+    private Attempt(ResponseHandler<? extends T> handler, RetryPolicy policy, boolean retryable) {
+      this.handler = handler;
+      this.policy = policy;
+      this.retryable = retryable;
+    }
+
+    @Override
+    public T handleResponse(HttpResponse response) throws IOException {
+      StatusLine status = response.getStatusLine();
+      if (!policy.isRetryableStatus(status.getStatusCode())) {
+        succeeded();
+        return handle(response);
+      }
+
+      failed();
+      if (retryable && budget.tryWithdraw()) {
+        EntityUtils.consumeQuietly(response.getEntity());
+        throw new RetryableStatusException(status);
+      }
+      return handle(response);
+    }
+
+    private T handle(HttpResponse response) throws IOException {
+      handling = true;
+      return handler.handleResponse(response);
+    }
+
+    private boolean shouldRetry(Throwable error) {
+      if (handling) {
+        // the handler could have consumed part of the response, the outcome is already reported
+        return false;
+      }
+
+      if (error instanceof RetryableStatusException) {
+        return true;
+      }
+
+      if (!isTransient(error)) {
+        // the error is local, like rejected admission, the responses are reported when received
+        released();
+        return false;
+      }
+
+      failed();
+      return retryable && budget.tryWithdraw();
+    }
+
+    private synchronized void succeeded() {
+      if (!reported && breaker != null) {
+        breaker.onSuccess();
+      }
+      reported = true;
+    }
+
+    private synchronized void failed() {
+      if (!reported && breaker != null) {
+        breaker.onFailure();
+      }
+      reported = true;
+    }
+
+    private synchronized void released() {
+      if (!reported && breaker != null) {
+        breaker.release();
+      }
+      reported = true;
+    }
+  }
+
+  /**
+   * Signals that the response has retryable status and the request should be sent again.
+   */
+  private static class RetryableStatusException extends IOException {
+
+    private static final long serialVersionUID = 7046288517683617436L;
+
+    private RetryableStatusException(StatusLine status) {
+      super("Retryable response: " + status);
+    }
+  }
+
+  /**
+   * The builder for {@link RetryInterceptor}.
+   */
+  public static class Builder {
+
+    private final Map<String, RetryPolicy> policies = new TreeMap<>();
+    private RetryPolicy defaultPolicy = new RetryPolicy.Builder().build();
+    private Predicate<HttpUriRequest> idempotency = RetryInterceptor::isIdempotent;
+    private RetryBudget budget = RetryBudget.create(0.2, 20);
+    private CircuitBreaker breaker = new CircuitBreaker.Builder().build();
+    private MetricsRecorder metrics;
+
+    /**
+     * Sets the policy for the requests, which have no specific policy. By default the requests are
+     * retried up to two times with the default back-off of the {@link RetryPolicy.Builder}.
+     *
+     * @param policy the default policy
+     * @return the builder for fluent usage
+     */
+    public Builder setDefaultPolicy(RetryPolicy policy) {
+      this.defaultPolicy = policy;
+      return this;
+    }
+
+    /**
+     * Sets the policy for the requests to the given endpoint. The endpoint is matched as prefix of
+     * the request path, which allows setting of policy for group of endpoints. When multiple
+     * endpoints match, the longest one is used.
+     *
+     * @param endpoint the endpoint of the command, see
+     *        {@link com.ontotext.refine.client.command.RefineCommand#endpoint()}
+     * @param policy for the requests to the endpoint
+     * @return the builder for fluent usage
+     */
+    public Builder setPolicy(String endpoint, RetryPolicy policy) {
+      policies.put(
+          notBlank(endpoint, "Missing 'endpoint' argument"),
+          notNull(policy, "Missing 'policy' argument"));
+      return this;
+    }
+
+    /**
+     * Sets the classification of the idempotent requests. By default it is
+     * {@link RetryInterceptor#isIdempotent(HttpUriRequest)}.
+     *
+     * @param idempotency the classification of the requests
+     * @return the builder for fluent usage
+     */
+    public Builder setIdempotency(Predicate<HttpUriRequest> idempotency) {
+      this.idempotency = idempotency;
+      return this;
+    }
+
+    /**
+     * Sets the budget of the retries. By default up to one retry is allowed for each five
+     * requests, with capacity of <code>20</code> retries.
+     *
+     * @param budget of the retries
+     * @return the builder for fluent usage
+     */
+    public Builder setBudget(RetryBudget budget) {
+      this.budget = budget;
+      return this;
+    }
+
+    /**
+     * Sets the circuit breaker. By default it is breaker with the default configurations of the
+     * {@link CircuitBreaker.Builder}. The breaker is disabled, when <code>null</code> is set.
+     *
+     * @param breaker the circuit breaker
+     * @return the builder for fluent usage
+     */
+    public Builder setCircuitBreaker(CircuitBreaker breaker) {
+      this.breaker = breaker;
+      return this;
+    }
+
+    /**
+     * Sets the recorder of the retries. The retries are reported with the endpoint provided by
+     * {@link MetricsInterceptor#endpointOf(HttpUriRequest)}. By default the retries are not
+     * reported.
+     *
+     * @param metrics the recorder of the retries
+     * @return the builder for fluent usage
+     */
+    public Builder setMetrics(MetricsRecorder metrics) {
+      this.metrics = metrics;
+      return this;
+    }
+
+    /**
+     * Builds the interceptor after validation.
+     *
+     * @return the interceptor
+     */
+    public RetryInterceptor build() {
+      notNull(defaultPolicy, "Missing 'defaultPolicy' argument");
+      notNull(idempotency, "Missing 'idempotency' argument");
+      notNull(budget, "Missing 'budget' argument");
+      return new RetryInterceptor(this);
+    }
+  }
+}
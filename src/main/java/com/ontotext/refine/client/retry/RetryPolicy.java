@@ -0,0 +1,206 @@
+package com.ontotext.refine.client.retry;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import org.apache.http.HttpStatus;
+
+/**
+ * Defines how many times and when failed request is retried by the {@link RetryInterceptor}. The
+ * delay before each retry grows exponentially, up to the maximum back-off, and it is randomized
+ * with the configured jitter, so that the clients, which failed at the same time, do not retry at
+ * the same time as well.
+ */
+public class RetryPolicy {
+
+  private static final RetryPolicy NONE = new Builder().setMaxAttempts(1).build();
+
+  private final int maxAttempts;
+  private final Duration initialBackoff;
+  private final Duration maxBackoff;
+  private final double multiplier;
+  private final double jitter;
+  private final Set<Integer> retryableStatuses;
+
+  private RetryPolicy(Builder builder) {
+    this.maxAttempts = builder.maxAttempts;
+    this.initialBackoff = builder.initialBackoff;
+    this.maxBackoff = builder.maxBackoff;
+    this.multiplier = builder.multiplier;
+    this.jitter = builder.jitter;
+    this.retryableStatuses = builder.retryableStatuses;
+  }
+
+  /**
+   * Provides policy, which does not retry the requests.
+   *
+   * @return the policy without retries
+   */
+  public static RetryPolicy none() {
+    return NONE;
+  }
+
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  public Duration getInitialBackoff() {
+    return initialBackoff;
+  }
+
+  public Duration getMaxBackoff() {
+    return maxBackoff;
+  }
+
+  public double getMultiplier() {
+    return multiplier;
+  }
+
+  public double getJitter() {
+    return jitter;
+  }
+
+  public Set<Integer> getRetryableStatuses() {
+    return retryableStatuses;
+  }
+
+  /**
+   * Checks whether the response with the given status should be retried.
+   *
+   * @param status of the response
+   * @return <code>true</code> when the status is retryable, <code>false</code> otherwise
+   */
+  public boolean isRetryableStatus(int status) {
+    return retryableStatuses.contains(status);
+  }
+
+  /**
+   * Calculates the randomized delay before the given retry.
+   *
+   * @param retry the number of the retry, starting from <code>1</code>
+   * @return the delay in nanoseconds
+   */
+  long getDelay(int retry) {
+    double delay = initialBackoff.toNanos() * Math.pow(multiplier, retry - 1d);
+    delay = Math.min(delay, maxBackoff.toNanos());
+    double factor = 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+    return (long) (delay * factor);
+  }
+
+  @Override
+  public String toString() {
+    return "RetryPolicy{maxAttempts=" + maxAttempts
+        + ", initialBackoff=" + initialBackoff
+        + ", maxBackoff=" + maxBackoff
+        + ", multiplier=" + multiplier
+        + ", jitter=" + jitter
+        + ", retryableStatuses=" + retryableStatuses + '}';
+  }
+
+  /**
+   * The builder for {@link RetryPolicy}.
+   */
+  public static class Builder {
+
+    private int maxAttempts = 3;
+    private Duration initialBackoff = Duration.ofMillis(100);
+    private Duration maxBackoff = Duration.ofSeconds(5);
+    private double multiplier = 2;
+    private double jitter = 0.5;
+    private Set<Integer> retryableStatuses = Set.of(
+        HttpStatus.SC_BAD_GATEWAY,
+        HttpStatus.SC_SERVICE_UNAVAILABLE,
+        HttpStatus.SC_GATEWAY_TIMEOUT);
+
+    /**
+     * Sets the maximum number of attempts, including the first one. The default is <code>3</code>.
+     *
+     * @param maxAttempts the maximum number of attempts
+     * @return the builder for fluent usage
+     */
+    public Builder setMaxAttempts(int maxAttempts) {
+      this.maxAttempts = maxAttempts;
+      return this;
+    }
+
+    /**
+     * Sets the delay before the first retry. The default is <code>100</code> ms.
+     *
+     * @param initialBackoff the delay before the first retry
+     * @return the builder for fluent usage
+     */
+    public Builder setInitialBackoff(Duration initialBackoff) {
+      this.initialBackoff = initialBackoff;
+      return this;
+    }
+
+    /**
+     * Sets the upper bound of the delay between the retries. The default is <code>5</code> s.
+     *
+     * @param maxBackoff the maximum delay
+     * @return the builder for fluent usage
+     */
+    public Builder setMaxBackoff(Duration maxBackoff) {
+      this.maxBackoff = maxBackoff;
+      return this;
+    }
+
+    /**
+     * Sets the multiplier of the delay for each next retry. The default is <code>2</code>.
+     *
+     * @param multiplier of the delay, not less than <code>1</code>
+     * @return the builder for fluent usage
+     */
+    public Builder setMultiplier(double multiplier) {
+      this.multiplier = multiplier;
+      return this;
+    }
+
+    /**
+     * Sets the relative randomization of the delays. The default is <code>0.5</code>, which means
+     * that each delay is randomized within 50% of its value.
+     *
+     * @param jitter between <code>0</code> and <code>1</code>
+     * @return the builder for fluent usage
+     */
+    public Builder setJitter(double jitter) {
+      this.jitter = jitter;
+      return this;
+    }
+
+    /**
+     * Sets the statuses of the responses, which are retried. By default the responses with status
+     * <code>502</code>, <code>503</code> and <code>504</code> are retried.
+     *
+     * @param statuses of the retryable responses
+     * @return the builder for fluent usage
+     */
+    public Builder setRetryableStatuses(Integer... statuses) {
+      notNull(statuses, "Missing 'statuses' argument");
+      this.retryableStatuses = Arrays.stream(statuses).collect(Collectors.toUnmodifiableSet());
+      return this;
+    }
+
+    /**
+     * Builds the policy after validation.
+     *
+     * @return the policy
+     */
+    public RetryPolicy build() {
+      isTrue(maxAttempts > 0, "The 'maxAttempts' should be positive");
+      notNull(initialBackoff, "Missing 'initialBackoff' argument");
+      notNull(maxBackoff, "Missing 'maxBackoff' argument");
+      isTrue(!initialBackoff.isNegative(), "The 'initialBackoff' should not be negative");
+      isTrue(maxBackoff.compareTo(initialBackoff) >= 0,
+          "The 'maxBackoff' should not be less than the 'initialBackoff'");
+      isTrue(multiplier >= 1, "The 'multiplier' should not be less than 1");
+      isTrue(jitter >= 0 && jitter <= 1, "The 'jitter' should be between 0 and 1");
+      return new RetryPolicy(this);
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package com.ontotext.refine.client.tracing;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.methods.HttpRequestWrapper;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpCoreContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+/**
+ * Observes the phases of the HTTP exchanges, which are visible only inside the HTTP clients.
+ *
+ * <p>The {@link #requestExecutor()} of the synchronous client observes, when the request is sent
+ * over leased connection and when the head of the response is received. The asynchronous client
+ * does not allow such observation, so only the head of the response is observed via the
+ * {@link #RESPONSE} interceptor.
+ *
+ * <p>The probes are installed in the clients created via
+ * {@link com.ontotext.refine.client.RefineClients#pooled}. The applications that provide their own
+ * HTTP clients should install them, in order to trace the connection lease and the time to first
+ * byte. The probes do nothing, when the request is not traced.
+ */
+public final class ExchangeProbes {
+
+  private static final Map<HttpRequest, Probe> PROBES = new ConcurrentHashMap<>();
+
+  /** Records the time, when the head of the response is received. */
+  public static final HttpResponseInterceptor RESPONSE = (response, context) -> {
+    HttpRequest request = HttpCoreContext.adapt(context).getRequest();
+    Probe probe = request == null ? null : PROBES.get(original(request));
+    if (probe != null && probe.firstByte == 0) {
+      probe.firstByte = System.nanoTime();
+    }
+  };
+
+  private ExchangeProbes() {
+    // utility
+  }
+
+  /**
+   * Creates request executor for synchronous HTTP client, see
+   * {@link org.apache.http.impl.client.HttpClientBuilder#setRequestExecutor}.
+   *
+   * @return new request executor
+   */
+  public static HttpRequestExecutor requestExecutor() {
+    return new ProbingRequestExecutor();
+  }
+
+  static Probe register(HttpRequest request) {
+    Probe probe = new Probe();
+    PROBES.put(request, probe);
+    return probe;
+  }
+
+  static void unregister(HttpRequest request) {
+    PROBES.remove(request);
+  }
+
+  private static HttpRequest original(HttpRequest request) {
+    HttpRequest current = request;
+    while (current instanceof HttpRequestWrapper) {
+      current = ((HttpRequestWrapper) current).getOriginal();
+    }
+    return current;
+  }
+
+  /**
+   * The times of the phases of single exchange, as values of {@link System#nanoTime()}. The phases
+   * which are not observed are zero.
+   */
+  static class Probe {
+
+    volatile long leased;
+    volatile long sent;
+    volatile long firstByte;
+  }
+
+  /**
+   * Executes the request over connection, which is already leased from the pool and connected.
+   */
+  private static class ProbingRequestExecutor extends HttpRequestExecutor {
+
+    @Override
+    protected HttpResponse doSendRequest(
+        HttpRequest request, HttpClientConnection conn, HttpContext context)
+        throws IOException, HttpException {
+      Probe probe = PROBES.get(original(request));
+      if (probe != null) {
+        probe.leased = System.nanoTime();
+      }
+
+      HttpResponse response = super.doSendRequest(request, conn, context);
+      if (probe != null) {
+        probe.sent = System.nanoTime();
+      }
+      return response;
+    }
+
+    @Override
+    protected HttpResponse doReceiveResponse(
+        HttpRequest request, HttpClientConnection conn, HttpContext context)
+        throws IOException, HttpException {
+      HttpResponse response = super.doReceiveResponse(request, conn, context);
+      Probe probe = PROBES.get(original(request));
+      if (probe != null) {
+        probe.firstByte = System.nanoTime();
+      }
+      return response;
+    }
+  }
+}
@@ -0,0 +1,162 @@
+package com.ontotext.refine.client.tracing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * {@link RefineTracer}, which keeps the ended spans in memory, without dependencies on tracing
+ * libraries. It is suitable for tests and for diagnostics of single slow execution.
+ */
+public class InMemoryTracer implements RefineTracer {
+
+  private final List<RecordedSpan> spans = new CopyOnWriteArrayList<>();
+
+  @Override
+  public TraceSpan start(String name, TraceSpan parent, long start) {
+    String traceId = parent == null ? randomHex(32) : parent.getTraceId();
+    String parentId = parent == null ? null : parent.getSpanId();
+    return new RecordedSpan(name, traceId, randomHex(16), parentId, start);
+  }
+
+  /**
+   * Provides the ended spans in the order of their ending.
+   *
+   * @return the ended spans
+   */
+  public List<RecordedSpan> getSpans() {
+    return Collections.unmodifiableList(spans);
+  }
+
+  /**
+   * Provides the ended spans with the given name.
+   *
+   * @param name of the spans
+   * @return the ended spans
+   */
+  public List<RecordedSpan> getSpans(String name) {
+    return spans.stream().filter(span -> span.name.equals(name)).collect(Collectors.toList());
+  }
+
+  /**
+   * Provides the ended children of the given span.
+   *
+   * @param parent of the spans
+   * @return the ended children
+   */
+  public List<RecordedSpan> getChildren(RecordedSpan parent) {
+    List<RecordedSpan> children = new ArrayList<>();
+    for (RecordedSpan span : spans) {
+      if (parent.spanId.equals(span.parentId)) {
+        children.add(span);
+      }
+    }
+    return children;
+  }
+
+  public void clear() {
+    spans.clear();
+  }
+
+  private static String randomHex(int length) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    StringBuilder hex = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      hex.append(Character.forDigit(random.nextInt(16), 16));
+    }
+    return hex.toString();
+  }
+
+  /**
+   * Span recorded by the {@link InMemoryTracer}.
+   */
+  public class RecordedSpan implements TraceSpan {
+
+    private final String name;
+    private final String traceId;
+    private final String spanId;
+    private final String parentId;
+    private final long start;
+    private final Map<String, String> attributes = new ConcurrentHashMap<>();
+    private volatile Throwable error;
+    private volatile long end;
+
+    private RecordedSpan(String name, String traceId, String spanId, String parentId, long start) {
+      this.name = name;
+      this.traceId = traceId;
+      this.spanId = spanId;
+      this.parentId = parentId;
+      this.start = start;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public String getTraceId() {
+      return traceId;
+    }
+
+    @Override
+    public String getSpanId() {
+      return spanId;
+    }
+
+    public String getParentId() {
+      return parentId;
+    }
+
+    @Override
+    public boolean isSampled() {
+      return true;
+    }
+
+    @Override
+    public void setAttribute(String key, String value) {
+      attributes.put(key, value);
+    }
+
+    public String getAttribute(String key) {
+      return attributes.get(key);
+    }
+
+    @Override
+    public void recordError(Throwable error) {
+      this.error = error;
+    }
+
+    public Throwable getError() {
+      return error;
+    }
+
+    @Override
+    public void end(long end) {
+      this.end = end;
+      spans.add(this);
+    }
+
+    public long getStart() {
+      return start;
+    }
+
+    public long getEnd() {
+      return end;
+    }
+
+    public long getDuration() {
+      return end - start;
+    }
+
+    @Override
+    public String toString() {
+      return "RecordedSpan{name=" + name + ", spanId=" + spanId + ", parentId=" + parentId
+          + ", duration=" + getDuration() + "ns, attributes=" + attributes + '}';
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package com.ontotext.refine.client.tracing;
+
+/**
+ * Creates the spans of the traced executions. This is the extension point for the tracing
+ * libraries, which should be implemented by the applications that use library different from the
+ * provided ones.
+ *
+ * <p>The spans are started and ended with explicit timestamps, as some of the phases of the HTTP
+ * exchanges, like the connection lease, are known only after they are completed.
+ *
+ * @see InMemoryTracer
+ * @see com.ontotext.refine.client.tracing.opentelemetry.OpenTelemetryTracer
+ */
+public interface RefineTracer {
+
+  /**
+   * Starts new span.
+   *
+   * @param name of the span
+   * @param parent of the span or <code>null</code>, when the span has no parent in the client. In
+   *        that case the tracer may use the current context of the application as parent
+   * @param start the start of the span as nanoseconds since the epoch
+   * @return the started span
+   */
+  TraceSpan start(String name, TraceSpan parent, long start);
+}
@@ -0,0 +1,80 @@
+package com.ontotext.refine.client.tracing;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the span of the command, which is executed on the current thread, so the exchanges of the
+ * command become its children. It also converts the monotonic time of the measurements to
+ * timestamps.
+ */
+class TraceContext {
+
+  private static final ThreadLocal<TraceContext> CURRENT = new ThreadLocal<>();
+  private static final long EPOCH_BASE;
+  private static final long NANO_BASE;
+
+  static {
+    Instant now = Instant.now();
+    NANO_BASE = System.nanoTime();
+    EPOCH_BASE = TimeUnit.SECONDS.toNanos(now.getEpochSecond()) + now.getNano();
+  }
+
+  private final TraceSpan span;
+  private final long start;
+  private boolean built;
+
+  TraceContext(TraceSpan span, long start) {
+    this.span = span;
+    this.start = start;
+  }
+
+  static TraceContext current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Makes the context current for the thread.
+   *
+   * @return the context, which was current before, it should be restored after the execution
+   */
+  TraceContext attach() {
+    TraceContext previous = CURRENT.get();
+    CURRENT.set(this);
+    return previous;
+  }
+
+  static void restore(TraceContext previous) {
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+  }
+
+  TraceSpan getSpan() {
+    return span;
+  }
+
+  long getStart() {
+    return start;
+  }
+
+  /**
+   * Marks that the first request of the command is built.
+   *
+   * @return <code>true</code> only for the first request
+   */
+  synchronized boolean markBuilt() {
+    boolean first = !built;
+    built = true;
+    return first;
+  }
+
+  /**
+   * Converts value of {@link System#nanoTime()} to nanoseconds since the epoch.
+   */
+  static long toEpochNanos(long nanoTime) {
+    return EPOCH_BASE + (nanoTime - NANO_BASE);
+  }
+}
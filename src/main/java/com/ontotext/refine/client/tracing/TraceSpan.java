@@ -0,0 +1,50 @@
+package com.ontotext.refine.client.tracing;
+
+/**
+ * Single span of trace, created via {@link RefineTracer}.
+ */
+public interface TraceSpan {
+
+  /**
+   * Provides the identifier of the trace, as 32 lowercase hex characters.
+   *
+   * @return the trace identifier
+   */
+  String getTraceId();
+
+  /**
+   * Provides the identifier of the span, as 16 lowercase hex characters.
+   *
+   * @return the span identifier
+   */
+  String getSpanId();
+
+  /**
+   * Checks whether the span is sampled, which is propagated to the Refine instance.
+   *
+   * @return <code>true</code> when the span is recorded
+   */
+  boolean isSampled();
+
+  /**
+   * Sets attribute of the span.
+   *
+   * @param key of the attribute
+   * @param value of the attribute
+   */
+  void setAttribute(String key, String value);
+
+  /**
+   * Records the error, which failed the traced operation.
+   *
+   * @param error the failure
+   */
+  void recordError(Throwable error);
+
+  /**
+   * Ends the span.
+   *
+   * @param end the end of the span as nanoseconds since the epoch
+   */
+  void end(long end);
+}
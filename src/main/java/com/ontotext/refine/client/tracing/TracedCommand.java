@@ -0,0 +1,110 @@
+package com.ontotext.refine.client.tracing;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.command.RefineCommand;
+import com.ontotext.refine.client.exceptions.RefineException;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.apache.http.HttpResponse;
+
+/**
+ * Decorates {@link RefineCommand} and traces its executions as span, named after the
+ * {@link RefineCommand#endpoint()} of the command. The exchanges of the command, traced by the
+ * {@link TracingInterceptor}, become children of the span and the first of them has also
+ * <code>build</code> span, which covers the building of the request.
+ *
+ * <p>The span of the command is passed to the exchanges via the calling thread, so it covers the
+ * exchanges, which are started on that thread. This includes the asynchronous executions, as their
+ * requests are built and dispatched on the calling thread.
+ *
+ * @param <T> the type of the response
+ */
+public class TracedCommand<T> implements RefineCommand<T> {
+
+  private final RefineCommand<T> command;
+  private final RefineTracer tracer;
+
+  private TracedCommand(RefineCommand<T> command, RefineTracer tracer) {
+    this.command = command;
+    this.tracer = tracer;
+  }
+
+  /**
+   * Decorates the command.
+   *
+   * @param <T> the type of the response
+   * @param command to decorate
+   * @param tracer which creates the spans
+   * @return the decorated command
+   */
+  public static <T> TracedCommand<T> of(RefineCommand<T> command, RefineTracer tracer) {
+    return new TracedCommand<>(
+        notNull(command, "Missing 'command' argument"),
+        notNull(tracer, "Missing 'tracer' argument"));
+  }
+
+  @Override
+  public String endpoint() {
+    return command.endpoint();
+  }
+
+  @Override
+  public T execute(RefineClient client) throws RefineException {
+    TraceContext context = start();
+    TraceContext previous = context.attach();
+    try {
+      T result = command.execute(client);
+      end(context, null);
+      return result;
+    } catch (RefineException | RuntimeException exc) {
+      end(context, exc);
+      throw exc;
+    } finally {
+      TraceContext.restore(previous);
+    }
+  }
+
+  @Override
+  public CompletableFuture<T> executeAsync(RefineClient client) {
+    TraceContext context = start();
+    TraceContext previous = context.attach();
+    try {
+      return command.executeAsync(client).whenComplete((result, error) -> end(context, error));
+    } catch (RuntimeException exc) {
+      end(context, exc);
+      throw exc;
+    } finally {
+      TraceContext.restore(previous);
+    }
+  }
+
+  @Override
+  public T handleResponse(HttpResponse response) throws IOException {
+    return command.handleResponse(response);
+  }
+
+  private TraceContext start() {
+    long start = System.nanoTime();
+    TraceSpan span = tracer.start(
+        "refine " + endpoint(), null, TraceContext.toEpochNanos(start));
+    span.setAttribute("refine.command", command.getClass().getSimpleName());
+    return new TraceContext(span, start);
+  }
+
+  private static void end(TraceContext context, Throwable error) {
+    if (error != null) {
+      context.getSpan().recordError(error instanceof CompletionException && error.getCause() != null
+          ? error.getCause()
+          : error);
+    }
+    context.getSpan().end(TraceContext.toEpochNanos(System.nanoTime()));
+  }
+
+  @Override
+  public String toString() {
+    return "TracedCommand{" + command + '}';
+  }
+}
@@ -0,0 +1,283 @@
+package com.ontotext.refine.client.tracing;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+import com.ontotext.refine.client.ExecutionInterceptor;
+import com.ontotext.refine.client.metrics.MetricsInterceptor;
+import com.ontotext.refine.client.tracing.ExchangeProbes.Probe;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import org.apache.commons.io.input.ProxyInputStream;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.HttpEntityWrapper;
+
+/**
+ * Traces the HTTP exchanges of the client via {@link RefineTracer} and propagates the trace to the
+ * Refine instance via the W3C <code>traceparent</code> header. It is registered via
+ * {@link com.ontotext.refine.client.RefineClient#addInterceptor}.
+ *
+ * <p>Each exchange is traced as span with the following child spans, which show where the time of
+ * slow request goes:
+ *
+ * <ul>
+ *   <li><code>build</code> - the building of the request by the command, only for the first
+ *   exchange of command decorated via {@link TracedCommand}</li>
+ *   <li><code>lease</code> - the waiting for connection from the pool, including its opening</li>
+ *   <li><code>send</code> - the sending of the request</li>
+ *   <li><code>first-byte</code> - the waiting for the head of the response. For the asynchronous
+ *   exchanges it covers also the lease and the sending, which are not observed separately</li>
+ *   <li><code>body</code> - the receiving of the response body</li>
+ *   <li><code>parse</code> - the processing of the response by the handler of the command</li>
+ * </ul>
+ *
+ * <p>The <code>lease</code>, <code>send</code> and <code>first-byte</code> spans require the
+ * {@link ExchangeProbes} in the HTTP client. The <code>body</code> and <code>parse</code> spans
+ * overlap, when the handler parses the response while it is received.
+ */
+public class TracingInterceptor implements ExecutionInterceptor {
+
+  static final String TRACEPARENT = "traceparent";
+
+  private final RefineTracer tracer;
+  private final Function<HttpUriRequest, String> endpoints;
+
+  private TracingInterceptor(RefineTracer tracer, Function<HttpUriRequest, String> endpoints) {
+    this.tracer = tracer;
+    this.endpoints = endpoints;
+  }
+
+  @Override
+  public <T> T intercept(HttpUriRequest request, ResponseHandler<? extends T> handler, Chain chain)
+      throws IOException {
+    Exchange<T> exchange = new Exchange<>(request, handler);
+    try {
+      T result = chain.proceed(request, exchange);
+      exchange.completed(null);
+      return result;
+    } catch (IOException | RuntimeException exc) {
+      exchange.completed(exc);
+      throw exc;
+    }
+  }
+
+  @Override
+  public <T> CompletableFuture<T> interceptAsync(
+      HttpUriRequest request, ResponseHandler<? extends T> handler, AsyncChain chain) {
+    Exchange<T> exchange = new Exchange<>(request, handler);
+    CompletableFuture<T> result;
+    try {
+      result = chain.proceed(request, exchange);
+    } catch (RuntimeException exc) {
+      exchange.completed(exc);
+      throw exc;
+    }
+    return result.whenComplete((value, error) -> exchange.completed(error));
+  }
+
+  /**
+   * Formats the value of the W3C <code>traceparent</code> header for the given span.
+   *
+   * @param span to propagate
+   * @return the header value or <code>null</code>, when the span has no valid identifiers
+   */
+  static String traceparent(TraceSpan span) {
+    String traceId = span.getTraceId();
+    String spanId = span.getSpanId();
+    if (!isValidId(traceId, 32) || !isValidId(spanId, 16)) {
+      return null;
+    }
+    return "00-" + traceId + "-" + spanId + (span.isSampled() ? "-01" : "-00");
+  }
+
+  /**
+   * Single traced exchange. The times of its phases are collected, while it is executed, and the
+   * child spans are created, when it completes.
+   */
+  private class Exchange<T> implements ResponseHandler<T> {
+
+    private final HttpUriRequest request;
+    private final ResponseHandler<? extends T> handler;
+    private final long start = System.nanoTime();
+    private final TraceSpan span;
+    private final Probe probe;
+    private volatile TimedEntity received;
+    private volatile long handling;
+    private volatile long handled;
+
+    private Exchange(HttpUriRequest request, ResponseHandler<? extends T> handler) {
+      this.request = request;
+      this.handler = handler;
+
+      TraceContext context = TraceContext.current();
+      TraceSpan parent = context == null ? null : context.getSpan();
+      String endpoint = endpoints.apply(request);
+      this.span = tracer.start(
+          "refine " + request.getMethod() + " " + endpoint, parent, epoch(start));
+      span.setAttribute("http.method", request.getMethod());
+      span.setAttribute("http.url", request.getURI().toString());
+      span.setAttribute("refine.endpoint", endpoint);
+      if (context != null && context.markBuilt()) {
+        child("build", context.getStart(), start);
+      }
+
+      String traceparent = traceparent(span);
+      if (traceparent != null) {
+        request.setHeader(TRACEPARENT, traceparent);
+      }
+
+      this.probe = ExchangeProbes.register(request);
+    }
+
+    @Override
+    public T handleResponse(HttpResponse response) throws IOException {
+      span.setAttribute("http.status_code", Integer.toString(
+          response.getStatusLine().getStatusCode()));
+      HttpEntity entity = response.getEntity();
+      if (entity != null) {
+        received = new TimedEntity(entity);
+        response.setEntity(received);
+      }
+
+      handling = System.nanoTime();
+      try {
+        return handler.handleResponse(response);
+      } finally {
+        handled = System.nanoTime();
+      }
+    }
+
+    private void completed(Throwable error) {
+      ExchangeProbes.unregister(request);
+      long end = System.nanoTime();
+      if (error != null) {
+        span.recordError(error instanceof CompletionException && error.getCause() != null
+            ? error.getCause()
+            : error);
+      }
+
+      long leased = probe.leased;
+      long sent = probe.sent;
+      long firstByte = probe.firstByte;
+      if (leased != 0) {
+        child("lease", start, leased);
+        child("send", leased, sent);
+        child("first-byte", sent, firstByte);
+      } else {
+        // the lease and the sending are not observed for the asynchronous exchanges
+        child("first-byte", start, firstByte);
+      }
+
+      if (handling != 0) {
+        TimedEntity body = received;
+        long bodyEnd = body != null && body.finished != 0 ? body.finished : handling;
+        child("body", firstByte != 0 ? firstByte : handling, bodyEnd);
+        child("parse", handling, handled != 0 ? handled : end);
+      }
+      span.end(epoch(end));
+    }
+
+    private void child(String name, long from, long to) {
+      if (from != 0 && to != 0 && to >= from) {
+        tracer.start(name, span, epoch(from)).end(epoch(to));
+      }
+    }
+  }
+
+  private static boolean isValidId(String id, int length) {
+    // the identifiers of the spans, which are not recorded, contain only zeros
+    return id != null && id.length() == length && id.chars().anyMatch(ch -> ch != '0');
+  }
+
+  private static long epoch(long nanoTime) {
+    return TraceContext.toEpochNanos(nanoTime);
+  }
+
+  /**
+   * Records the time, when the content of the entity is fully read or written.
+   */
+  private static class TimedEntity extends HttpEntityWrapper {
+
+    private volatile long finished;
+
+    private TimedEntity(HttpEntity entity) {
+      super(entity);
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+      return new ProxyInputStream(super.getContent()) {
+
+        @Override
+        protected void afterRead(int read) {
+          if (read < 0) {
+            finished = System.nanoTime();
+          }
+        }
+
+        @Override
+        public void close() throws IOException {
+          if (finished == 0) {
+            finished = System.nanoTime();
+          }
+          super.close();
+        }
+      };
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+      super.writeTo(outStream);
+      finished = System.nanoTime();
+    }
+  }
+
+  /**
+   * The builder for {@link TracingInterceptor}.
+   */
+  public static class Builder {
+
+    private RefineTracer tracer;
+    private Function<HttpUriRequest, String> endpoints = MetricsInterceptor::endpointOf;
+
+    /**
+     * Sets the tracer, which creates the spans. It is required.
+     *
+     * @param tracer of the exchanges
+     * @return the builder for fluent usage
+     */
+    public Builder setTracer(RefineTracer tracer) {
+      this.tracer = tracer;
+      return this;
+    }
+
+    /**
+     * Sets the extraction of the endpoints of the requests, which are used in the names of the
+     * spans. By default it is {@link MetricsInterceptor#endpointOf(HttpUriRequest)}.
+     *
+     * @param endpoints provides the endpoint of the request
+     * @return the builder for fluent usage
+     */
+    public Builder setEndpoints(Function<HttpUriRequest, String> endpoints) {
+      this.endpoints = endpoints;
+      return this;
+    }
+
+    /**
+     * Builds the interceptor after validation.
+     *
+     * @return the interceptor
+     */
+    public TracingInterceptor build() {
+      notNull(tracer, "Missing 'tracer' argument");
+      notNull(endpoints, "Missing 'endpoints' argument");
+      return new TracingInterceptor(tracer, endpoints);
+    }
+  }
+}
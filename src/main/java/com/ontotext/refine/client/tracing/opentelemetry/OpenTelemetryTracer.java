@@ -0,0 +1,99 @@
+package com.ontotext.refine.client.tracing.opentelemetry;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+import com.ontotext.refine.client.tracing.RefineTracer;
+import com.ontotext.refine.client.tracing.TraceSpan;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanBuilder;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RefineTracer}, which creates OpenTelemetry spans. The OpenTelemetry API is optional
+ * dependency of the library, so it should be provided by the application, which uses this binding.
+ *
+ * <p>The spans without parent in the client become children of the current OpenTelemetry
+ * {@link Context} of the calling thread, which connects the executions of the client to the trace
+ * of the application.
+ */
+public class OpenTelemetryTracer implements RefineTracer {
+
+  private static final String INSTRUMENTATION = "com.ontotext.refine.client";
+
+  private final Tracer tracer;
+
+  /**
+   * Creates tracer, which uses the given OpenTelemetry instance.
+   *
+   * @param openTelemetry provides the tracer
+   */
+  public OpenTelemetryTracer(OpenTelemetry openTelemetry) {
+    this(notNull(openTelemetry, "Missing 'openTelemetry' argument").getTracer(INSTRUMENTATION));
+  }
+
+  /**
+   * Creates tracer, which uses the given OpenTelemetry tracer.
+   *
+   * @param tracer which creates the spans
+   */
+  public OpenTelemetryTracer(Tracer tracer) {
+    this.tracer = notNull(tracer, "Missing 'tracer' argument");
+  }
+
+  @Override
+  public TraceSpan start(String name, TraceSpan parent, long start) {
+    SpanBuilder builder = tracer.spanBuilder(name)
+        .setStartTimestamp(start, TimeUnit.NANOSECONDS);
+    if (parent instanceof OpenTelemetrySpan) {
+      builder.setParent(Context.current().with(((OpenTelemetrySpan) parent).span));
+    }
+    return new OpenTelemetrySpan(builder.startSpan());
+  }
+
+  /**
+   * Adapts OpenTelemetry {@link Span} to {@link TraceSpan}.
+   */
+  private static class OpenTelemetrySpan implements TraceSpan {
+
+    private final Span span;
+
+    private OpenTelemetrySpan(Span span) {
+      this.span = span;
+    }
+
+    @Override
+    public String getTraceId() {
+      return span.getSpanContext().getTraceId();
+    }
+
+    @Override
+    public String getSpanId() {
+      return span.getSpanContext().getSpanId();
+    }
+
+    @Override
+    public boolean isSampled() {
+      return span.getSpanContext().isSampled();
+    }
+
+    @Override
+    public void setAttribute(String key, String value) {
+      span.setAttribute(key, value);
+    }
+
+    @Override
+    public void recordError(Throwable error) {
+      span.recordException(error);
+      span.setStatus(StatusCode.ERROR);
+    }
+
+    @Override
+    public void end(long end) {
+      span.end(end, TimeUnit.NANOSECONDS);
+    }
+  }
+}
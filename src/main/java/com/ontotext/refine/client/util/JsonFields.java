@@ -0,0 +1,55 @@
+package com.ontotext.refine.client.util;
+
+import com.ontotext.refine.client.exceptions.RefineException;
+import java.util.Map;
+
+/**
+ * The fields of JSON object, which are read from stream via
+ * {@link JsonParser#readFields(java.io.InputStream, JsonParser.FieldReader)}. Only the fields
+ * requested by the reader are kept, the rest of the object is skipped while it is read.
+ */
+public final class JsonFields {
+
+  private final Map<String, Object> values;
+
+  JsonFields(Map<String, Object> values) {
+    this.values = values;
+  }
+
+  /**
+   * Checks whether the given field is read.
+   *
+   * @param name of the field
+   * @return <code>true</code> if the field is present, <code>false</code> otherwise
+   */
+  public boolean has(String name) {
+    return values.containsKey(name);
+  }
+
+  /**
+   * Provides the value of the given field.
+   *
+   * @param <T> the type of the value, as it is returned by the reader
+   * @param name of the field
+   * @return the value of the field or <code>null</code>, when the field is missing
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(String name) {
+    return (T) values.get(name);
+  }
+
+  /**
+   * Provides the value of the given field, which is expected to be present.
+   *
+   * @param <T> the type of the value, as it is returned by the reader
+   * @param name of the field
+   * @return the value of the field
+   * @throws RefineException when the field is missing
+   */
+  public <T> T getExisting(String name) throws RefineException {
+    if (!values.containsKey(name)) {
+      throw new RefineException("Node with path '%s' is missing in the response", name);
+    }
+    return get(name);
+  }
+}
@@ -1,32 +1,56 @@
 package com.ontotext.refine.client.util;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.ontotext.refine.client.exceptions.RefineException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.lang3.StringUtils;
 
 /**
  * Provides logic for JSON parsing.
+ *
+ * <p>The parsing is done via shared mappers and immutable {@link ObjectReader}s, which are created
+ * once per type and reused by all of the commands. When the Jackson Blackbird or Afterburner
+ * module is present on the classpath, it is registered in the mappers, which replaces the
+ * reflection in the data binding with generated accessors.
  */
 public enum JsonParser {
 
   JSON_PARSER;
 
-  private static final ObjectMapper OBJECT_MAPPER =
-      new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+  /**
+   * The optional modules which speed up the data binding, in order of preference. Only the first
+   * present module is registered, as they provide the same optimization.
+   */
+  private static final List<String> OPTIONAL_MODULES = List.of(
+      "com.fasterxml.jackson.module.blackbird.BlackbirdModule",
+      "com.fasterxml.jackson.module.afterburner.AfterburnerModule");
 
-  private static final ObjectMapper STRICT_OBJECT_MAPPER =
+  private static final ObjectMapper OBJECT_MAPPER = withOptionalModule(
+      new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false));
+
+  private static final ObjectMapper STRICT_OBJECT_MAPPER = withOptionalModule(
       new ObjectMapper().disable(
           DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES,
-          DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT);
+          DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT));
+
+  private static final Map<Type, ObjectReader> READERS = new ConcurrentHashMap<>();
+  private static final Map<Type, ObjectReader> STRICT_READERS = new ConcurrentHashMap<>();
 
   /**
    * Parses given JSON to specific type using {@link ObjectMapper}.
@@ -38,7 +62,7 @@ public enum JsonParser {
    * @throws IOException when there is an error during the parsing process
    */
   public <T> T read(String json, Class<T> type) throws IOException {
-    return OBJECT_MAPPER.readValue(json, type);
+    return reader(type).readValue(json);
   }
 
   /**
@@ -51,7 +75,111 @@ public enum JsonParser {
    * @throws IOException when there is an error during the parsing process
    */
   public <T> T read(String json, TypeReference<T> type) throws IOException {
-    return OBJECT_MAPPER.readValue(json, type);
+    return reader(type).readValue(json);
+  }
+
+  /**
+   * Parses given JSON stream to specific type using {@link ObjectMapper}. The type is bound
+   * directly from the stream, without intermediate string or tree.
+   *
+   * @param <T> the class of the type
+   * @param json the JSON stream that should be parsed
+   * @param type the type
+   * @return new instance of the given type if the parsing is successful
+   * @throws IOException when there is an error during the parsing process
+   */
+  public <T> T read(InputStream json, Class<T> type) throws IOException {
+    return reader(type).readValue(json);
+  }
+
+  /**
+   * Provides the shared reader for the given type. The reader is created on the first request and
+   * it is reused afterwards, as it is immutable and thread-safe.
+   *
+   * @param type of the values read by the reader
+   * @return the reader for the type
+   */
+  public ObjectReader reader(Class<?> type) {
+    return READERS.computeIfAbsent(type, key -> OBJECT_MAPPER.readerFor(type));
+  }
+
+  /**
+   * Provides the shared reader for the given generic type. See {@link #reader(Class)}.
+   *
+   * @param type of the values read by the reader
+   * @return the reader for the type
+   */
+  public ObjectReader reader(TypeReference<?> type) {
+    return READERS.computeIfAbsent(type.getType(), key -> OBJECT_MAPPER.readerFor(type));
+  }
+
+  /**
+   * Reads the fields of JSON object from the given stream token by token. For each field of the
+   * object the reader is called with parser positioned on the first token of the value. The values
+   * returned by the reader are kept in the result, the values which are not consumed by the reader
+   * are skipped without being materialized.
+   *
+   * @param json the stream with JSON object
+   * @param reader of the values of the fields
+   * @return the fields kept by the reader
+   * @throws RefineException when the stream does not contain valid JSON object
+   * @throws IOException when there is an error during the reading of the stream
+   */
+  public JsonFields readFields(InputStream json, FieldReader reader) throws IOException {
+    Map<String, Object> values = new HashMap<>();
+    try (com.fasterxml.jackson.core.JsonParser parser = OBJECT_MAPPER.createParser(json)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new RefineException("Parser error: expected JSON object, but was: %s",
+            parser.currentToken());
+      }
+
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String name = parser.getCurrentName();
+        parser.nextToken();
+        Object value = reader.read(name, parser);
+        if (value != null) {
+          values.put(name, value);
+        }
+        // the token is cleared, when the value is bound via the object mapper
+        JsonToken token = parser.currentToken();
+        if (token != null && token.isStructStart()) {
+          parser.skipChildren();
+        }
+      }
+    } catch (JsonProcessingException jpe) {
+      throw new RefineException("Parser error: " + jpe.getMessage(), jpe);
+    }
+    return new JsonFields(values);
+  }
+
+  /**
+   * Reads the given fields of JSON object from the given stream as text. The rest of the object is
+   * skipped. See {@link #readFields(InputStream, FieldReader)}.
+   *
+   * <p>The values are converted like {@link JsonNode#asText()}, so the JSON <code>null</code> is
+   * read as <code>"null"</code> and the objects and the arrays are read as empty text.
+   *
+   * @param json the stream with JSON object
+   * @param names of the fields which should be read
+   * @return the read fields
+   * @throws RefineException when the stream does not contain valid JSON object
+   * @throws IOException when there is an error during the reading of the stream
+   */
+  public JsonFields readTextFields(InputStream json, String... names) throws IOException {
+    List<String> requested = List.of(names);
+    return readFields(json, (name, value) -> requested.contains(name) ? asText(value) : null);
+  }
+
+  private static String asText(com.fasterxml.jackson.core.JsonParser value) throws IOException {
+    JsonToken token = value.currentToken();
+    if (token == JsonToken.VALUE_NULL) {
+      return "null";
+    }
+    if (token.isStructStart()) {
+      // the value is skipped by the caller
+      return "";
+    }
+    return value.getValueAsString();
   }
 
   /**
@@ -130,10 +258,52 @@ public enum JsonParser {
     }
 
     try {
-      STRICT_OBJECT_MAPPER.readValue(json, clazz);
+      STRICT_READERS
+          .computeIfAbsent(clazz, key -> STRICT_OBJECT_MAPPER.readerFor(clazz))
+          .readValue(json);
       return true;
     } catch (IOException ioe) { // NOSONAR
       return false;
     }
   }
+
+  /**
+   * Provides the identifiers of the modules registered in the shared mappers.
+   *
+   * @return the registered modules
+   */
+  static Set<Object> getRegisteredModules() {
+    return OBJECT_MAPPER.getRegisteredModuleIds();
+  }
+
+  private static ObjectMapper withOptionalModule(ObjectMapper mapper) {
+    for (String module : OPTIONAL_MODULES) {
+      try {
+        Class<?> type = Class.forName(module, true, JsonParser.class.getClassLoader());
+        return mapper.registerModule((Module) type.getConstructor().newInstance());
+      } catch (ReflectiveOperationException | LinkageError exc) { // NOSONAR
+        // the module is not present or it is not supported by the runtime
+      }
+    }
+    return mapper;
+  }
+
+  /**
+   * Reads the values of the fields in {@link JsonParser#readFields(InputStream, FieldReader)}.
+   */
+  @FunctionalInterface
+  public interface FieldReader {
+
+    /**
+     * Reads the value of single field. The value could be consumed via the parser, for example via
+     * {@link com.fasterxml.jackson.core.JsonParser#readValueAs(TypeReference)}, or it could be
+     * ignored, in which case it is skipped.
+     *
+     * @param name of the field
+     * @param value parser positioned on the first token of the value
+     * @return the value, which should be kept, or <code>null</code> to ignore the field
+     * @throws IOException when the value cannot be read
+     */
+    Object read(String name, com.fasterxml.jackson.core.JsonParser value) throws IOException;
+  }
 }
@@ -0,0 +1,119 @@
+package com.ontotext.refine.client.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies. The latencies are recorded in buckets with exponential bounds,
+ * where each bucket covers latencies up to two times larger than the previous one, starting from
+ * one microsecond. This keeps the histogram small and constant in size, while the percentiles are
+ * reported with relative error below two times, which is sufficient to compare the stages of
+ * processing with latencies that span multiple orders of magnitude.
+ */
+public class LatencyHistogram {
+
+  private static final int BUCKETS = 64;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder total = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+  /**
+   * Records single latency.
+   *
+   * @param latency the recorded latency
+   * @param unit of the latency
+   */
+  public void record(long latency, TimeUnit unit) {
+    long nanos = Math.max(0L, unit.toNanos(latency));
+    buckets.incrementAndGet(bucketOf(TimeUnit.NANOSECONDS.toMicros(nanos)));
+    count.increment();
+    total.add(nanos);
+    max.accumulate(nanos);
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * Provides the average of the recorded latencies.
+   *
+   * @param unit of the result
+   * @return the mean latency or zero, when there are no recorded latencies
+   */
+  public long getMean(TimeUnit unit) {
+    long recorded = count.sum();
+    return recorded == 0 ? 0L : unit.convert(total.sum() / recorded, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Provides the maximum recorded latency.
+   *
+   * @param unit of the result
+   * @return the maximum latency or zero, when there are no recorded latencies
+   */
+  public long getMax(TimeUnit unit) {
+    return unit.convert(max.get(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Provides the upper bound of the latencies below which the given percent of the recorded
+   * latencies fall. The result is the upper bound of the bucket, which contains the percentile,
+   * but not more than the maximum recorded latency.
+   *
+   * @param percentile between <code>0</code> and <code>100</code>
+   * @param unit of the result
+   * @return the percentile or zero, when there are no recorded latencies
+   */
+  public long getPercentile(double percentile, TimeUnit unit) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("The percentile should be between 0 and 100");
+    }
+
+    long[] snapshot = new long[BUCKETS];
+    long recorded = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = buckets.get(i);
+      recorded += snapshot[i];
+    }
+
+    if (recorded == 0) {
+      return 0L;
+    }
+
+    long rank = Math.max(1L, (long) Math.ceil(recorded * percentile / 100d));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        long bound = TimeUnit.MICROSECONDS.toNanos(upperBoundOf(i));
+        return unit.convert(Math.min(bound, max.get()), TimeUnit.NANOSECONDS);
+      }
+    }
+    return getMax(unit);
+  }
+
+  private static int bucketOf(long micros) {
+    // bucket 0 holds up to 1 microsecond, bucket i holds up to 2^i microseconds
+    return micros <= 1 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros - 1));
+  }
+
+  private static long upperBoundOf(int bucket) {
+    return bucket >= 62 ? Long.MAX_VALUE / 1000 : 1L << bucket;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "LatencyHistogram{count=%d, mean=%dms, p50=%dms, p99=%dms, max=%dms}",
+        getCount(),
+        getMean(TimeUnit.MILLISECONDS),
+        getPercentile(50, TimeUnit.MILLISECONDS),
+        getPercentile(99, TimeUnit.MILLISECONDS),
+        getMax(TimeUnit.MILLISECONDS));
+  }
+}
@@ -0,0 +1,23 @@
+package com.ontotext.refine.client.util;
+
+
+/**
+ * A {@link FunctionalInterface} that can be used to transform an object and potentially throw a
+ * {@link Throwable}.
+ *
+ * @param <I> the type of the input
+ * @param <O> the type of the result
+ * @param <T> the type of the {@link Throwable}
+ */
+@FunctionalInterface
+public interface ThrowingFunction<I, O, T extends Throwable> {
+
+  /**
+   * Applies the function to the given argument.
+   *
+   * @param input of the function
+   * @return a result
+   * @throws T when error occurs
+   */
+  O apply(I input) throws T;
+}
@@ -0,0 +1,217 @@
+package com.ontotext.refine.client.util.mappings;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Bounded cache of the normalized mappings. The same mapping is usually used for the export of
+ * many projects, so the result of the normalization is kept and reused for the same input instead
+ * of normalizing it for each command.
+ *
+ * <p>The entries are keyed by the content of the input, they are compared via the hash code of the
+ * string, which is cached by the string itself, and their equality. The cache is limited by number
+ * of entries and by weight, which is the approximate number of bytes retained by the input and the
+ * result. When any of the limits is exceeded, the least recently used entries are evicted.
+ *
+ * <p>The cache is thread-safe. The normalization is executed outside of the lock, so concurrent
+ * misses for the same input could normalize it more than once.
+ */
+public class MappingsCache {
+
+  private static final MappingsCache DEFAULT = new MappingsCache(128, 16L * 1024 * 1024);
+
+  private final int maxEntries;
+  private final long maxWeight;
+  private final Map<Key, Object> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  private long weight;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /**
+   * Creates new cache.
+   *
+   * @param maxEntries the maximum number of the cached entries
+   * @param maxWeight the maximum number of bytes retained by the cached entries
+   */
+  public MappingsCache(int maxEntries, long maxWeight) {
+    isTrue(maxEntries > 0, "The maximum number of entries should be positive");
+    isTrue(maxWeight > 0, "The maximum weight should be positive");
+    this.maxEntries = maxEntries;
+    this.maxWeight = maxWeight;
+  }
+
+  /**
+   * Provides the cache shared by the commands, which normalize the provided mappings. It retains up
+   * to 128 entries and up to 16 MB.
+   *
+   * @return the shared cache
+   */
+  public static MappingsCache getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Provides the mapping for RDF export extracted from the given JSON. See
+   * {@link MappingsNormalizer#forRdfExport(String)}. The inputs, which do not contain mapping, are
+   * not cached.
+   *
+   * @param json to normalize
+   * @return the prepared mapping or <code>null</code> if the provided JSON cannot be handled
+   */
+  public PreparedMapping forRdfExport(String json) {
+    if (json == null) {
+      return null;
+    }
+
+    Key key = new Key(json, true);
+    PreparedMapping mapping = (PreparedMapping) get(key);
+    if (mapping == null) {
+      String normalized = MappingsNormalizer.forRdfExport(json);
+      if (normalized == null) {
+        return null;
+      }
+
+      mapping = new PreparedMapping(normalized);
+      put(key, mapping);
+    }
+    return mapping;
+  }
+
+  /**
+   * Provides the input JSON wrapped as operation, when it is mapping. See
+   * {@link MappingsNormalizer#forApplyOperations(String)}. Only the mappings are cached. The
+   * inputs, which do not start as mapping, are returned as they are, without lookup in the cache.
+   *
+   * @param json to try to convert to mapping operation
+   * @return mappings wrapped as operation or the input argument
+   */
+  public String forApplyOperations(String json) {
+    if (json == null || !MappingsStructures.startsAsMapping(json)) {
+      return json;
+    }
+
+    Key key = new Key(json, false);
+    String operation = (String) get(key);
+    if (operation == null) {
+      operation = MappingsNormalizer.forApplyOperations(json);
+      if (operation == null || operation.equals(json)) {
+        return operation;
+      }
+
+      put(key, operation);
+    }
+    return operation;
+  }
+
+  /**
+   * Removes all entries from the cache. The statistics are preserved.
+   */
+  public synchronized void clear() {
+    entries.clear();
+    weight = 0;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public synchronized long getWeight() {
+    return weight;
+  }
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  private synchronized Object get(Key key) {
+    Object value = entries.get(key);
+    if (value == null) {
+      misses++;
+    } else {
+      hits++;
+    }
+    return value;
+  }
+
+  private synchronized void put(Key key, Object value) {
+    long entryWeight = key.weight() + weightOf(value);
+    if (entryWeight > maxWeight) {
+      return;
+    }
+
+    Object previous = entries.put(key, value);
+    if (previous != null) {
+      weight -= key.weight() + weightOf(previous);
+    }
+    weight += entryWeight;
+
+    Iterator<Entry<Key, Object>> eldest = entries.entrySet().iterator();
+    while (entries.size() > maxEntries || weight > maxWeight) {
+      Entry<Key, Object> entry = eldest.next();
+      weight -= entry.getKey().weight() + weightOf(entry.getValue());
+      eldest.remove();
+      evictions++;
+    }
+  }
+
+  // the strings are weighted with two bytes per character, as they could be encoded as UTF-16
+  private static long weightOf(Object value) {
+    if (value instanceof PreparedMapping) {
+      PreparedMapping mapping = (PreparedMapping) value;
+      return mapping.getSize() + 2L * mapping.getMapping().length();
+    }
+    return 2L * ((String) value).length();
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "MappingsCache{" + "size=" + entries.size() + ", weight=" + weight + ", hits=" + hits
+        + ", misses=" + misses + ", evictions=" + evictions + '}';
+  }
+
+  private static final class Key {
+
+    private final String json;
+    private final boolean export;
+
+    Key(String json, boolean export) {
+      this.json = json;
+      this.export = export;
+    }
+
+    long weight() {
+      return 2L * json.length();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return export == other.export && json.equals(other.json);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * json.hashCode() + Boolean.hashCode(export);
+    }
+  }
+}
@@ -1,6 +1,10 @@
 package com.ontotext.refine.client.util.mappings;
 
 import static com.ontotext.refine.client.util.JsonParser.JSON_PARSER;
+import static com.ontotext.refine.client.util.mappings.MappingsStructures.isMapping;
+import static com.ontotext.refine.client.util.mappings.MappingsStructures.isOperationEntries;
+import static com.ontotext.refine.client.util.mappings.MappingsStructures.isOperations;
+import static com.ontotext.refine.client.util.mappings.MappingsStructures.startsAsMapping;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
@@ -8,12 +12,7 @@ import com.ontotext.refine.client.command.models.GetProjectModelsCommand;
 import com.ontotext.refine.client.command.operations.ApplyOperationsCommand;
 import com.ontotext.refine.client.command.operations.GetOperationsCommand;
 import com.ontotext.refine.client.exceptions.RefineException;
-import com.ontotext.refine.client.util.mappings.MappingsStructures.MappingJson;
-import com.ontotext.refine.client.util.mappings.MappingsStructures.OperationEntry;
-import com.ontotext.refine.client.util.mappings.MappingsStructures.OperationsJson;
-import com.ontotext.refine.client.util.mappings.MappingsStructures.RelaxedOperationEntry;
 import java.util.List;
-import java.util.function.Predicate;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -23,9 +22,6 @@ import org.apache.commons.lang3.StringUtils;
  */
 public class MappingsNormalizer {
 
-  private static final Predicate<JsonNode> NOT_MAPPING_ASSIGNABLE =
-      json -> !JSON_PARSER.isAssignable(json.toString(), MappingJson.class);
-
   private MappingsNormalizer() {
     // utility
   }
@@ -43,73 +39,73 @@ public class MappingsNormalizer {
    * @return mapping for RDF export or <code>null</code> if the provided JSON cannot be handled
    */
   public static String forRdfExport(String json) {
-    if (JSON_PARSER.isAssignable(json, MappingJson.class)) {
-      return json;
+    JsonNode root = parse(json);
+    if (root == null) {
+      return null;
     }
 
-    // operations JSON case
-    if (JSON_PARSER.isAssignable(json, OperationsJson.class)) {
-      return extractMappingsFromOperations(json);
+    if (isMapping(root)) {
+      return json;
     }
 
-    // operations array JSON case
-    if (JSON_PARSER.isAssignable(json, OperationEntry[].class)) {
-      return extractMappingsFromOperations(json);
+    // operations JSON and operations array JSON cases
+    if (isOperations(root) || isOperationEntries(root, false)) {
+      return extractMappingsFromOperations(root);
     }
 
     // project models case
-    String mappingsStr = tryExtractFromModels(json);
+    String mappingsStr = tryExtractFromModels(root);
     if (mappingsStr != null) {
       return mappingsStr;
     }
 
     // last resort
     // operations array JSON case
-    if (JSON_PARSER.isAssignable(json, RelaxedOperationEntry[].class)) {
-      return extractMappingsFromOperations(json);
+    if (isOperationEntries(root, true)) {
+      return extractMappingsFromOperations(root);
     }
 
     return null;
   }
 
-  // extracts the last object for the RDF mapping as there could be more than one saved
-  private static String extractMappingsFromOperations(String json) {
-    try {
-      List<JsonNode> listOfMappings = JSON_PARSER.parseJson(json).findValues("mapping");
-      listOfMappings.removeIf(NOT_MAPPING_ASSIGNABLE);
-      if (listOfMappings.isEmpty()) {
-        return null;
-      }
-
-      JsonNode lastMapping = listOfMappings.get(listOfMappings.size() - 1);
-      return lastMapping.toString();
-    } catch (RefineException re) { // NOSONAR
-      return null; // shouldn't be reachable
-    }
-  }
-
-  private static String tryExtractFromModels(String json) {
+  // the document is parsed once, its shape is detected and the mapping is extracted from the tree
+  private static JsonNode parse(String json) {
     if (StringUtils.isBlank(json)) {
       return null;
     }
 
     try {
-      JsonNode models = JSON_PARSER.parseJson(json);
-      JsonNode overlayModels = models.findValue("overlayModels");
-      if (overlayModels == null) {
-        return null;
-      }
+      return JSON_PARSER.parseJson(json);
+    } catch (RefineException re) { // NOSONAR
+      return null;
+    }
+  }
 
-      JsonNode mappingDef = overlayModels.findValue("mappingDefinition");
-      if (mappingDef == null) {
-        return null;
+  // extracts the last object for the RDF mapping as there could be more than one saved
+  private static String extractMappingsFromOperations(JsonNode operations) {
+    List<JsonNode> listOfMappings = operations.findValues("mapping");
+    for (int i = listOfMappings.size() - 1; i >= 0; i--) {
+      JsonNode mapping = listOfMappings.get(i);
+      if (isMapping(mapping)) {
+        return mapping.toString();
       }
+    }
+    return null;
+  }
 
-      JsonNode mappings = mappingDef.findValue("mappingDefinition");
-      return mappings != null ? mappings.toString() : null;
-    } catch (RefineException re) { // NOSONAR
+  private static String tryExtractFromModels(JsonNode models) {
+    JsonNode overlayModels = models.findValue("overlayModels");
+    if (overlayModels == null) {
       return null;
     }
+
+    JsonNode mappingDef = overlayModels.findValue("mappingDefinition");
+    if (mappingDef == null) {
+      return null;
+    }
+
+    JsonNode mappings = mappingDef.findValue("mappingDefinition");
+    return mappings != null ? mappings.toString() : null;
   }
 
   /**
@@ -121,17 +117,18 @@ public class MappingsNormalizer {
    * @return mappings wrapped as operation or the input argument
    */
   public static String forApplyOperations(String json) {
-    if (!JSON_PARSER.isAssignable(json, MappingJson.class)) {
+    if (StringUtils.isBlank(json) || !startsAsMapping(json)) {
       return json;
     }
 
-    try {
-      return JsonNodeFactory.instance.objectNode()
-          .put("op", "mapping-editor/save-rdf-mapping")
-          .set("mapping", JSON_PARSER.parseJson(json))
-          .toString();
-    } catch (RefineException re) { // NOSONAR
-      return null; // shouldn't be reachable
+    JsonNode mapping = parse(json);
+    if (mapping == null || !isMapping(mapping)) {
+      return json;
     }
+
+    return JsonNodeFactory.instance.objectNode()
+        .put("op", "mapping-editor/save-rdf-mapping")
+        .set("mapping", mapping)
+        .toString();
   }
 }
@@ -1,75 +1,169 @@
 package com.ontotext.refine.client.util.mappings;
 
-import com.fasterxml.jackson.annotation.JsonAlias;
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.annotation.JsonProperty;
-import java.util.List;
-import java.util.Map;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.Set;
 
 /**
- * Contains class representations of the JSON object structures for the mapping JSON used for RDF
- * export.
+ * Contains the checks for the JSON object structures of the mapping JSON used for RDF export.
+ *
+ * <p>The checks are executed over already parsed JSON, so that the shape of the document can be
+ * detected and the mapping extracted from it with single parse. They are strict, as the data
+ * binding used to be, unknown properties are rejected and the values should have the expected
+ * type, where any scalar is accepted as string and <code>null</code> is accepted for any value.
  *
  * @author Antoniy Kunchev
  */
 final class MappingsStructures {
 
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private static final Set<String> MAPPING_FIELDS =
+      Set.of("baseIRI", "namespaces", "subjectMappings");
+
+  private static final Set<String> OPERATION_FIELDS = Set.of("description", "op", "operation");
+
   private MappingsStructures() {
     // utility
   }
 
   /**
-   * Structure for materializing the mapping JSON and detect if it can be used directly or it needs
-   * to be normalized.
+   * Sniffs the beginning of the JSON, without parsing the whole document, to check whether it could
+   * be mapping JSON. The check passes, when the document is object, which starts with one of the
+   * fields of the mapping. It is used to skip the parsing of the documents, which are not mappings.
    *
-   * @author Antoniy Kunchev
+   * @param json to check
+   * @return <code>true</code> if the JSON could be mapping, <code>false</code> otherwise
    */
-  static class MappingJson {
-
-    @JsonProperty("baseIRI")
-    private String baseIri;
-
-    @JsonProperty
-    private Map<String, String> namespaces;
-
-    @JsonProperty
-    private List<Object> subjectMappings;
+  static boolean startsAsMapping(String json) {
+    try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+      return parser.nextToken() == JsonToken.START_OBJECT
+          && parser.nextToken() == JsonToken.FIELD_NAME
+          && MAPPING_FIELDS.contains(parser.getCurrentName());
+    } catch (IOException ioe) { // NOSONAR
+      return false;
+    }
   }
 
   /**
-   * Structure for materializing the single operation from operations JSON.
+   * Checks whether the node is mapping JSON, which can be used directly for RDF export. The
+   * mapping contains <code>baseIRI</code>, <code>namespaces</code> and
+   * <code>subjectMappings</code>. Empty object is not considered mapping.
    *
-   * @author Antoniy Kunchev
+   * @param node to check
+   * @return <code>true</code> if the node is mapping, <code>false</code> otherwise
    */
-  static class OperationEntry {
+  static boolean isMapping(JsonNode node) {
+    if (!node.isObject() || node.isEmpty()) {
+      return false;
+    }
+
+    Iterator<Entry<String, JsonNode>> fields = node.fields();
+    while (fields.hasNext()) {
+      Entry<String, JsonNode> field = fields.next();
+      if (!MAPPING_FIELDS.contains(field.getKey()) || !isMappingValue(field)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isMappingValue(Entry<String, JsonNode> field) {
+    JsonNode value = field.getValue();
+    switch (field.getKey()) {
+      case "baseIRI":
+        return value.isValueNode();
+      case "namespaces":
+        return value.isNull() || isObjectOfScalars(value);
+      default:
+        return value.isNull() || value.isArray();
+    }
+  }
 
-    @JsonProperty
-    private String description;
+  private static boolean isObjectOfScalars(JsonNode node) {
+    if (!node.isObject()) {
+      return false;
+    }
 
-    @JsonProperty
-    @JsonAlias({"op", "operation"})
-    private Object operation;
+    for (JsonNode value : node) {
+      if (!value.isValueNode()) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
-   * Relaxed structure for materializing the single operation from operations JSON. It will ignore
-   * any unknown property.
+   * Checks whether the node is operations JSON, which is object with the operation entries in
+   * <code>entries</code> array.
    *
-   * @author Antoniy Kunchev
+   * @param node to check
+   * @return <code>true</code> if the node is operations JSON, <code>false</code> otherwise
    */
-  @JsonIgnoreProperties(ignoreUnknown = true)
-  static class RelaxedOperationEntry extends OperationEntry {
-    // nothing more
+  static boolean isOperations(JsonNode node) {
+    if (!node.isObject() || node.isEmpty()) {
+      return false;
+    }
+
+    Iterator<Entry<String, JsonNode>> fields = node.fields();
+    while (fields.hasNext()) {
+      Entry<String, JsonNode> field = fields.next();
+      if (!"entries".equals(field.getKey())) {
+        return false;
+      }
+
+      JsonNode entries = field.getValue();
+      if (!entries.isNull() && !isOperationEntries(entries, false)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
-   * Structure for materializing the operations JSON.
+   * Checks whether the node is array of operation entries. Each entry contains
+   * <code>description</code> and the operation itself in <code>op</code> or
+   * <code>operation</code>.
    *
-   * @author Antoniy Kunchev
+   * @param node to check
+   * @param relaxed whether the unknown properties of the entries should be ignored
+   * @return <code>true</code> if the node is array of entries, <code>false</code> otherwise
    */
-  static class OperationsJson {
+  static boolean isOperationEntries(JsonNode node, boolean relaxed) {
+    if (!node.isArray()) {
+      return false;
+    }
+
+    for (JsonNode entry : node) {
+      if (!entry.isNull() && !isOperationEntry(entry, relaxed)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isOperationEntry(JsonNode entry, boolean relaxed) {
+    if (!entry.isObject()) {
+      return false;
+    }
 
-    @JsonProperty
-    private List<OperationEntry> entries;
+    Iterator<Entry<String, JsonNode>> fields = entry.fields();
+    while (fields.hasNext()) {
+      Entry<String, JsonNode> field = fields.next();
+      String name = field.getKey();
+      if (!OPERATION_FIELDS.contains(name)) {
+        if (!relaxed) {
+          return false;
+        }
+      } else if ("description".equals(name) && !field.getValue().isValueNode()) {
+        return false;
+      }
+    }
+    return true;
   }
 }
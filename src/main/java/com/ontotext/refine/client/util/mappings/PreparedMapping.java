@@ -0,0 +1,96 @@
+package com.ontotext.refine.client.util.mappings;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.ontotext.refine.client.JsonOperation;
+import com.ontotext.refine.client.Operation;
+import com.ontotext.refine.client.command.operations.ApplyOperationsCommand;
+import com.ontotext.refine.client.command.rdf.DefaultRdfExportCommand;
+import com.ontotext.refine.client.exceptions.RefineException;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+
+/**
+ * Mapping for RDF export, which is normalized once and can be reused by any number of commands.
+ * The mapping is kept as encoded JSON, so the commands send it without normalizing, parsing or
+ * serializing it again.
+ *
+ * <p>The prepared mapping can be passed to {@link DefaultRdfExportCommand.Builder} or it can be
+ * applied to project as operation via {@link ApplyOperationsCommand}.
+ */
+public final class PreparedMapping {
+
+  private final String mapping;
+  private final byte[] bytes;
+  private volatile Operation operation;
+
+  PreparedMapping(String mapping) {
+    this.mapping = mapping;
+    this.bytes = mapping.getBytes(UTF_8);
+  }
+
+  /**
+   * Normalizes the given JSON via {@link MappingsNormalizer#forRdfExport(String)} and prepares the
+   * extracted mapping for reuse.
+   *
+   * @param json mapping, operations or project models JSON, which contains the mapping
+   * @return the prepared mapping
+   * @throws RefineException when the JSON does not contain mapping
+   */
+  public static PreparedMapping of(String json) throws RefineException {
+    String mapping = MappingsNormalizer.forRdfExport(json);
+    if (mapping == null) {
+      throw new RefineException("The provided JSON does not contain mapping for RDF export.");
+    }
+    return new PreparedMapping(mapping);
+  }
+
+  /**
+   * Provides the normalized mapping.
+   *
+   * @return the mapping JSON
+   */
+  public String getMapping() {
+    return mapping;
+  }
+
+  /**
+   * Provides the size of the encoded mapping.
+   *
+   * @return the number of bytes of the mapping
+   */
+  public int getSize() {
+    return bytes.length;
+  }
+
+  /**
+   * Creates request entity with the mapping. The entity wraps the encoded mapping without copying
+   * it and it is repeatable.
+   *
+   * @return new entity with the mapping
+   */
+  public HttpEntity toEntity() {
+    return new ByteArrayEntity(bytes, ContentType.APPLICATION_JSON);
+  }
+
+  /**
+   * Provides the mapping as operation, which saves it in the project. The operation is created on
+   * the first request and it is reused afterwards.
+   *
+   * @return the mapping as operation
+   */
+  public Operation asOperation() {
+    Operation result = operation;
+    if (result == null) {
+      result = JsonOperation.from(MappingsNormalizer.forApplyOperations(mapping));
+      operation = result;
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "PreparedMapping{" + "size=" + bytes.length + '}';
+  }
+}
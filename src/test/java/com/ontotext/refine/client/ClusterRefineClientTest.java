@@ -0,0 +1,239 @@
+package com.ontotext.refine.client;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ontotext.refine.client.ClusterRefineClient.Balancing;
+import com.ontotext.refine.client.ClusterRefineClient.NodeState;
+import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.command.create.CreateProjectResponse;
+import com.ontotext.refine.client.exceptions.RefineException;
+import com.ontotext.refine.client.testsupport.StubRefineServer;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ClusterRefineClient}.
+ */
+class ClusterRefineClientTest {
+
+  private static final String VERSION_PATH = "/orefine/command/core/get-version";
+  private static final String METADATA_PATH = "/orefine/command/core/get-project-metadata";
+  private static final String CREATE_PATH = "/orefine/command/core/create-project-from-upload";
+
+  private StubRefineServer first;
+  private StubRefineServer second;
+  private ClusterRefineClient cluster;
+
+  @BeforeEach
+  void setup() throws IOException {
+    String version = Files.readString(Path.of("src/test/resources/responseBody/get-version.json"));
+    first = StubRefineServer.start()
+        .respond(VERSION_PATH, 200, "application/json", version)
+        .handle(CREATE_PATH, this::handleCreate);
+    second = StubRefineServer.start()
+        .respond(VERSION_PATH, 200, "application/json", version)
+        .handle(CREATE_PATH, this::handleCreate);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    if (cluster != null) {
+      cluster.close();
+    }
+    first.close();
+    second.close();
+  }
+
+  @Test
+  void execute_balancesStatelessCommands() throws Exception {
+    cluster = cluster(Balancing.LEAST_IN_FLIGHT);
+
+    for (int i = 0; i < 10; i++) {
+      RefineCommands.getVersion().build().execute(cluster.any());
+      cluster.execute(RefineCommands.getVersion().build());
+    }
+
+    assertEquals(10, first.hits(VERSION_PATH));
+    assertEquals(10, second.hits(VERSION_PATH));
+  }
+
+  @Test
+  void execute_powerOfTwoChoicesUsesAllNodes() throws Exception {
+    cluster = cluster(Balancing.POWER_OF_TWO_CHOICES);
+
+    for (int i = 0; i < 20; i++) {
+      cluster.execute(RefineCommands.getVersion().build());
+    }
+
+    assertTrue(first.hits(VERSION_PATH) > 0);
+    assertTrue(second.hits(VERSION_PATH) > 0);
+    assertEquals(20, first.hits(VERSION_PATH) + second.hits(VERSION_PATH));
+  }
+
+  @Test
+  void execute_pinsCreatedProjectToOwner() throws Exception {
+    String metadata = metadata();
+    first.respond(METADATA_PATH, 200, "application/json", metadata);
+    second.respond(METADATA_PATH, 200, "application/json", metadata);
+    cluster = cluster(Balancing.LEAST_IN_FLIGHT);
+
+    CreateProjectResponse created = cluster.execute(RefineCommands.createProject()
+        .token("token")
+        .name("pinned")
+        .stream(new ByteArrayInputStream("id\n1".getBytes(UTF_8)))
+        .format(UploadFormat.SEPARATOR_BASED)
+        .build());
+    StubRefineServer owner = first.hits(CREATE_PATH) == 1 ? first : second;
+    StubRefineServer other = owner == first ? second : first;
+
+    for (int i = 0; i < 5; i++) {
+      cluster.execute(created.getProjectId(),
+          RefineCommands.getProjectMetadataCommand().project(created.getProjectId()).build());
+    }
+
+    assertEquals(5, owner.hits(METADATA_PATH));
+    assertEquals(0, other.hits(METADATA_PATH));
+    assertEquals(owner.uri(), cluster.forProject(created.getProjectId()).createUri("").toString());
+  }
+
+  @Test
+  void forProject_locatesOwnerOfUnknownProject() throws Exception {
+    first.respond(METADATA_PATH, 404, "application/json", "{}");
+    second.respond(METADATA_PATH, 200, "application/json", metadata());
+    cluster = cluster(Balancing.LEAST_IN_FLIGHT);
+
+    RefineClient client = cluster.forProject("1234");
+    cluster.forProject("1234");
+
+    assertEquals(second.uri(), client.createUri("").toString());
+    assertEquals(1, second.hits(METADATA_PATH));
+    assertTrue(first.hits(METADATA_PATH) <= 1);
+  }
+
+  @Test
+  void forProject_failsWhenNoNodeHasProject() throws Exception {
+    first.respond(METADATA_PATH, 404, "application/json", "{}");
+    second.respond(METADATA_PATH, 404, "application/json", "{}");
+    cluster = cluster(Balancing.LEAST_IN_FLIGHT);
+
+    RefineException exc = assertThrows(RefineException.class, () -> cluster.forProject("1234"));
+
+    assertTrue(exc.getMessage().contains("1234"));
+  }
+
+  @Test
+  void forProject_jsonErrorIsTreatedAsMissingProject() throws Exception {
+    first.respond(METADATA_PATH, 200, "application/json",
+        "{\"code\":\"error\",\"message\":\"Can't find project: missing or bad URL parameter\"}");
+    second.respond(METADATA_PATH, 200, "application/json", metadata());
+    cluster = cluster(Balancing.LEAST_IN_FLIGHT);
+
+    assertEquals(second.uri(), cluster.forProject("1234").createUri("").toString());
+  }
+
+  @Test
+  void forProject_failsWhenNodeIsUnavailable() throws Exception {
+    second.respond(METADATA_PATH, 404, "application/json", "{}");
+    cluster = cluster(Balancing.LEAST_IN_FLIGHT);
+    first.close();
+
+    RefineException exc = assertThrows(RefineException.class, () -> cluster.forProject("1234"));
+
+    assertTrue(exc.getMessage().contains("Failed to look up project '1234'"));
+    assertEquals(1, exc.getSuppressed().length);
+    assertFalse(cluster.getNodes().get(0).isHealthy());
+  }
+
+  @Test
+  void forProject_failsOnServerError() throws Exception {
+    first.respond(METADATA_PATH, 500, "text/plain", "failure");
+    second.respond(METADATA_PATH, 404, "application/json", "{}");
+    cluster = cluster(Balancing.LEAST_IN_FLIGHT);
+
+    RefineException exc = assertThrows(RefineException.class, () -> cluster.forProject("1234"));
+
+    assertTrue(exc.getMessage().contains("Failed to look up project '1234'"));
+    assertEquals(1, exc.getSuppressed().length);
+    assertTrue(exc.getSuppressed()[0].getMessage().contains("Unexpected response"));
+  }
+
+  @Test
+  void forProject_locatesOwnerBehindUnavailableNode() throws Exception {
+    second.respond(METADATA_PATH, 200, "application/json", metadata());
+    cluster = cluster(Balancing.LEAST_IN_FLIGHT);
+    first.close();
+
+    // the closed node is still considered healthy and the balancing starts with it
+    assertEquals(second.uri(), cluster.forProject("1234").createUri("").toString());
+    assertEquals(second.uri(), cluster.forProject("1234").createUri("").toString());
+
+    assertEquals(1, second.hits(METADATA_PATH));
+    assertFalse(cluster.getNodes().get(0).isHealthy());
+  }
+
+  @Test
+  void execute_failsOverFromUnavailableNode() throws Exception {
+    cluster = cluster(Balancing.LEAST_IN_FLIGHT);
+    first.close();
+
+    for (int i = 0; i < 6; i++) {
+      cluster.execute(RefineCommands.getVersion().build());
+    }
+
+    assertEquals(6, second.hits(VERSION_PATH));
+    List<NodeState> nodes = cluster.getNodes();
+    assertFalse(nodes.get(0).isHealthy());
+    assertTrue(nodes.get(1).isHealthy());
+  }
+
+  @Test
+  void healthCheck_marksUnavailableNode() throws Exception {
+    first.close();
+    cluster = new ClusterRefineClient.Builder()
+        .addNode(first.uri())
+        .addNode(second.uri())
+        .setHealthCheckInterval(Duration.ofMillis(20))
+        .build();
+
+    long deadline = System.currentTimeMillis() + 5000;
+    while ((cluster.getNodes().get(0).isHealthy() || second.hits(VERSION_PATH) < 2)
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+
+    assertFalse(cluster.getNodes().get(0).isHealthy());
+    assertTrue(cluster.getNodes().get(1).isHealthy());
+    assertTrue(second.hits(VERSION_PATH) >= 2);
+  }
+
+  private ClusterRefineClient cluster(Balancing balancing) throws Exception {
+    return new ClusterRefineClient.Builder()
+        .addNode(first.uri())
+        .addNode(second.uri())
+        .setBalancing(balancing)
+        .setHealthCheckInterval(null)
+        .build();
+  }
+
+  private static String metadata() throws IOException {
+    return Files.readString(Path.of("src/test/resources/responseBody/project-metadata.json"));
+  }
+
+  private void handleCreate(HttpExchange exchange) throws IOException {
+    StubRefineServer.drain(exchange);
+    exchange.getResponseHeaders().add("Location", "/project?project=2048");
+    exchange.sendResponseHeaders(302, -1);
+  }
+}
@@ -0,0 +1,282 @@
+package com.ontotext.refine.client;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.command.delete.DeleteProjectCommand;
+import com.ontotext.refine.client.command.delete.DeleteProjectResponse;
+import com.ontotext.refine.client.exceptions.InvalidCsrfTokenException;
+import com.ontotext.refine.client.exceptions.RefineException;
+import com.ontotext.refine.client.testsupport.StubRefineServer;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link CsrfTokenProvider}.
+ */
+class CsrfTokenProviderTest {
+
+  private static final String TOKEN_PATH = "/orefine/command/core/get-csrf-token";
+  private static final String DELETE_PATH = "/orefine/command/core/delete-project";
+  private static final String INVALID_TOKEN =
+      "{\"code\":\"error\",\"message\":\"Missing or invalid csrf_token parameter\"}";
+
+  private final AtomicInteger issued = new AtomicInteger();
+  private final List<String> received = new CopyOnWriteArrayList<>();
+
+  private StubRefineServer server;
+  private RefineClient client;
+
+  @BeforeEach
+  void setup() throws Exception {
+    server = StubRefineServer.start();
+    client = RefineClients.pooled(server.uri(), ConnectionPoolConfig.createDefault());
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    client.close();
+    server.close();
+  }
+
+  @Test
+  void getToken_cached() throws IOException {
+    server.handle(TOKEN_PATH, this::issueToken);
+    server.handle(DELETE_PATH, exchange -> deleteProject(exchange, "token-1"));
+
+    for (int i = 0; i < 3; i++) {
+      DeleteProjectResponse response =
+          RefineCommands.deleteProject().project("1").useClientToken().build().execute(client);
+      assertEquals(ResponseCode.OK, response.getCode());
+    }
+
+    assertEquals(1, server.hits(TOKEN_PATH));
+    assertEquals(List.of("token-1", "token-1", "token-1"), received);
+  }
+
+  @Test
+  void getToken_sharedWithDelegatingClient() throws IOException {
+    server.handle(TOKEN_PATH, this::issueToken);
+    RefineClient delegating = new RefineClient(client);
+
+    assertSame(client.getCsrfTokenProvider(), delegating.getCsrfTokenProvider());
+    assertEquals("token-1", client.getCsrfTokenProvider().getToken());
+    assertEquals("token-1", delegating.getCsrfTokenProvider().getToken());
+    assertEquals(1, server.hits(TOKEN_PATH));
+  }
+
+  @Test
+  void getToken_concurrentCallersShareSingleRequest() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    server.handle(TOKEN_PATH, exchange -> {
+      await(release);
+      issueToken(exchange);
+    });
+
+    int callers = 16;
+    ExecutorService executor = Executors.newFixedThreadPool(callers);
+    try {
+      Callable<String> call = () -> client.getCsrfTokenProvider().getToken();
+      List<Future<String>> futures = new ArrayList<>(callers);
+      for (int i = 0; i < callers; i++) {
+        futures.add(executor.submit(call));
+      }
+
+      Thread.sleep(200);
+      release.countDown();
+
+      for (Future<String> future : futures) {
+        assertEquals("token-1", future.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(1, server.hits(TOKEN_PATH));
+  }
+
+  @Test
+  void getToken_failureIsNotCached() throws IOException {
+    server.handle(TOKEN_PATH, exchange -> {
+      if (server.hits(TOKEN_PATH) == 1) {
+        send(exchange, 500, "error");
+      } else {
+        issueToken(exchange);
+      }
+    });
+
+    CsrfTokenProvider provider = client.getCsrfTokenProvider();
+    assertThrows(RefineException.class, provider::getToken);
+    assertEquals("token-1", provider.getToken());
+    assertEquals(2, server.hits(TOKEN_PATH));
+  }
+
+  @Test
+  void execute_staleTokenIsRefreshedAndRetried() throws IOException {
+    server.handle(TOKEN_PATH, this::issueToken);
+    server.handle(DELETE_PATH, exchange -> deleteProject(exchange, "token-2"));
+
+    assertEquals("token-1", client.getCsrfTokenProvider().getToken());
+
+    DeleteProjectResponse response =
+        RefineCommands.deleteProject().project("1").useClientToken().build().execute(client);
+
+    assertEquals(ResponseCode.OK, response.getCode());
+    assertEquals(List.of("token-1", "token-2"), received);
+    assertEquals(2, server.hits(TOKEN_PATH));
+    assertEquals("token-2", client.getCsrfTokenProvider().getToken());
+  }
+
+  @Test
+  void execute_explicitTokenIsNotRefreshed() {
+    server.handle(TOKEN_PATH, this::issueToken);
+    server.handle(DELETE_PATH, exchange -> deleteProject(exchange, "token-1"));
+
+    RefineException exc = assertThrows(RefineException.class,
+        () -> RefineCommands.deleteProject().project("1").token("stale").build().execute(client));
+
+    assertTrue(exc.getMessage().contains("invalid csrf_token"));
+    assertEquals(List.of("stale"), received);
+    assertEquals(0, server.hits(TOKEN_PATH));
+  }
+
+  @Test
+  void executeAsync_staleTokenIsRefreshedAndRetried() throws IOException {
+    server.handle(TOKEN_PATH, this::issueToken);
+    server.handle(DELETE_PATH, exchange -> deleteProject(exchange, "token-2"));
+
+    assertEquals("token-1", client.getCsrfTokenProvider().getToken());
+
+    DeleteProjectResponse response = RefineCommands.deleteProject()
+        .project("1")
+        .useClientToken()
+        .build()
+        .executeAsync(client)
+        .join();
+
+    assertEquals(ResponseCode.OK, response.getCode());
+    assertEquals(List.of("token-1", "token-2"), received);
+    assertEquals(2, server.hits(TOKEN_PATH));
+    assertEquals("token-2", client.getCsrfTokenProvider().getToken());
+  }
+
+  @Test
+  void executeAsync_tokenIsRetrievedWithoutBlocking() {
+    CountDownLatch issue = new CountDownLatch(1);
+    server.handle(TOKEN_PATH, exchange -> {
+      try {
+        // bounded, so the blocking retrieval fails the test instead of hanging it
+        issue.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+      }
+      issueToken(exchange);
+    });
+    server.handle(DELETE_PATH, exchange -> deleteProject(exchange, "token-1"));
+
+    CompletableFuture<DeleteProjectResponse> future = RefineCommands.deleteProject()
+        .project("1")
+        .useClientToken()
+        .build()
+        .executeAsync(client);
+
+    // the calling thread is not waiting for the token, which is issued only after the latch
+    assertEquals(0, issued.get());
+    assertFalse(future.isDone());
+    issue.countDown();
+
+    assertEquals(ResponseCode.OK, future.join().getCode());
+    assertEquals(List.of("token-1"), received);
+    assertEquals(1, server.hits(TOKEN_PATH));
+  }
+
+  @Test
+  void executeAsync_tokenFailureIsReported() {
+    server.respond(TOKEN_PATH, 500, "text/plain", "failure");
+
+    CompletableFuture<DeleteProjectResponse> future = RefineCommands.deleteProject()
+        .project("1")
+        .useClientToken()
+        .build()
+        .executeAsync(client);
+
+    CompletionException exc = assertThrows(CompletionException.class, future::join);
+    assertTrue(exc.getCause() instanceof RefineException);
+    assertEquals(List.of(), received);
+  }
+
+  @Test
+  void executeAsync_explicitTokenIsNotRetried() {
+    server.handle(TOKEN_PATH, this::issueToken);
+    server.handle(DELETE_PATH, exchange -> deleteProject(exchange, "token-1"));
+
+    CompletableFuture<DeleteProjectResponse> future =
+        RefineCommands.deleteProject().project("1").token("stale").build().executeAsync(client);
+
+    CompletionException exc = assertThrows(CompletionException.class, future::join);
+    assertTrue(exc.getCause() instanceof InvalidCsrfTokenException);
+    assertEquals(List.of("stale"), received);
+    assertEquals(0, server.hits(TOKEN_PATH));
+  }
+
+  @Test
+  void build_tokenIsRequired() {
+    DeleteProjectCommand.Builder builder = RefineCommands.deleteProject().project("1");
+
+    assertThrows(NullPointerException.class, builder::build);
+    assertThrows(IllegalArgumentException.class, () -> builder.token(" ").build());
+    assertNotNull(builder.token("token").build());
+    assertNotNull(builder.token(null).useClientToken().build());
+  }
+
+  private void issueToken(HttpExchange exchange) throws IOException {
+    StubRefineServer.drain(exchange);
+    send(exchange, 200, "{\"token\":\"token-" + issued.incrementAndGet() + "\"}");
+  }
+
+  private void deleteProject(HttpExchange exchange, String valid) throws IOException {
+    StubRefineServer.drain(exchange);
+    String token = exchange.getRequestURI().getQuery().replaceFirst(".*csrf_token=", "");
+    received.add(token);
+    send(exchange, 200, valid.equals(token) ? "{\"code\":\"ok\"}" : INVALID_TOKEN);
+  }
+
+  private static void send(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream os = exchange.getResponseBody()) {
+      os.write(bytes);
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
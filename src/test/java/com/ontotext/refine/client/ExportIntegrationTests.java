@@ -21,10 +21,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * Integration tests related to export commands. The test contains different tests which are
@@ -40,6 +42,9 @@ class ExportIntegrationTests extends CommandIntegrationTest {
       "/integration/netherlands_restaurants_operations.json";
   private static final String RESTAURANTS_CSV = "integration/reduced_netherlands_restaurants.csv";
 
+  @TempDir
+  Path exportDir;
+
   /**
    * Note the scenario uses reduced dataset in order to complete the operations quickly!
    *
@@ -97,6 +102,7 @@ class ExportIntegrationTests extends CommandIntegrationTest {
         .setFormat(format)
         .setToken(getToken())
         .setExportConfigs(AdditionalExportConfigs.createDefault().setTruncateFile(true))
+        .setTarget(exportDir.resolve(projectId + "." + format))
         .build()
         .execute(getClient());
   }
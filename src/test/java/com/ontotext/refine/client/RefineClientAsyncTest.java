@@ -0,0 +1,225 @@
+package com.ontotext.refine.client;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.command.version.GetVersionResponse;
+import com.ontotext.refine.client.exceptions.RefineException;
+import com.ontotext.refine.client.testsupport.StubRefineServer;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test for the asynchronous execution of the {@link RefineClient}.
+ */
+class RefineClientAsyncTest {
+
+  private static final String VERSION_PATH = "/orefine/command/core/get-version";
+  private static final String VERSION_BODY = "{\"full_name\":\"Refine\",\"full_version\":\"1.2\","
+      + "\"version\":\"1.2\",\"revision\":\"1\"}";
+
+  private StubRefineServer server;
+  private RefineClient client;
+
+  @BeforeEach
+  void setup() throws Exception {
+    server = StubRefineServer.start();
+    client = RefineClients.pooled(server.uri(), ConnectionPoolConfig.createDefault());
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    client.close();
+    server.close();
+  }
+
+  @Test
+  void executeAsync_command() {
+    server.respond(VERSION_PATH, 200, "application/json", VERSION_BODY, Duration.ofMillis(50));
+
+    List<CompletableFuture<GetVersionResponse>> futures = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      futures.add(RefineCommands.getVersion().build().executeAsync(client));
+    }
+
+    for (CompletableFuture<GetVersionResponse> future : futures) {
+      assertEquals("1.2", future.join().getVersion());
+    }
+    assertEquals(50, server.hits(VERSION_PATH));
+  }
+
+  @Test
+  void executeAsync_failedCommand() {
+    server.respond(VERSION_PATH, 500, "text/plain", "error");
+
+    CompletableFuture<GetVersionResponse> future =
+        RefineCommands.getVersion().build().executeAsync(client);
+
+    CompletionException exc = assertThrows(CompletionException.class, future::join);
+    assertInstanceOf(RefineException.class, exc.getCause());
+  }
+
+  @Test
+  void executeAsync_transportFailureOfCommand() throws Exception {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+
+    try (RefineClient unreachable = RefineClients.pooled(
+        "http://localhost:" + port, ConnectionPoolConfig.createDefault())) {
+      CompletableFuture<GetVersionResponse> future =
+          RefineCommands.getVersion().build().executeAsync(unreachable);
+
+      CompletionException exc = assertThrows(CompletionException.class, future::join);
+      assertInstanceOf(RefineException.class, exc.getCause());
+      assertInstanceOf(IOException.class, exc.getCause().getCause());
+    }
+  }
+
+  @Test
+  void executeAsync_handlerOnConfiguredExecutor() throws Exception {
+    server.respond(VERSION_PATH, 200, "application/json", VERSION_BODY);
+    ExecutorService executor =
+        Executors.newSingleThreadExecutor(task -> new Thread(task, "refine-handler"));
+    ConnectionPoolConfig config =
+        new ConnectionPoolConfig.Builder().setAsyncExecutor(executor).build();
+
+    try (RefineClient custom = RefineClients.pooled(server.uri(), config)) {
+      CompletableFuture<String> future = custom.executeAsync(
+          RequestBuilder.get(custom.createUri(VERSION_PATH)).build(),
+          response -> Thread.currentThread().getName());
+
+      assertEquals("refine-handler", future.join());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void executeAsync_largeResponseIsSpilled() {
+    int size = 3 * 1024 * 1024;
+    server.handle("/large", exchange -> {
+      StubRefineServer.drain(exchange);
+      exchange.sendResponseHeaders(200, 0);
+      try (OutputStream os = exchange.getResponseBody()) {
+        byte[] chunk = new byte[1024];
+        for (int i = 0; i < size / chunk.length; i++) {
+          os.write(chunk);
+        }
+      }
+    });
+
+    CompletableFuture<Integer> future =
+        client.executeAsync(RequestBuilder.get(client.createUri("/large")).build(), response -> {
+          try (InputStream is = response.getEntity().getContent()) {
+            return IOUtils.toByteArray(is).length;
+          }
+        });
+
+    assertEquals(size, future.join());
+  }
+
+  @Test
+  void executeAsync_postWithEntity() {
+    server.handle("/echo", exchange -> {
+      byte[] body = exchange.getRequestBody().readAllBytes();
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream os = exchange.getResponseBody()) {
+        os.write(body);
+      }
+    });
+
+    CompletableFuture<String> future = client.executeAsync(
+        RequestBuilder.post(client.createUri("/echo")).addParameter("key", "value").build(),
+        response -> IOUtils.toString(response.getEntity().getContent(), UTF_8));
+
+    assertEquals("key=value", future.join());
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  void executeAsync_multipartEntityIsStreamed(boolean repeatable) {
+    byte[] content = new byte[3 * 1024 * 1024 + 17];
+    new Random(42).nextBytes(content);
+    server.handle("/upload", exchange -> {
+      byte[] body = exchange.getRequestBody().readAllBytes();
+      byte[] length = String.valueOf(body.length).getBytes(UTF_8);
+      exchange.sendResponseHeaders(200, length.length);
+      try (OutputStream os = exchange.getResponseBody()) {
+        os.write(length);
+      }
+    });
+
+    MultipartEntityBuilder multipart = MultipartEntityBuilder.create();
+    if (repeatable) {
+      multipart.addBinaryBody("file", content, ContentType.DEFAULT_BINARY, "data.bin");
+    } else {
+      multipart.addBinaryBody(
+          "file", new ByteArrayInputStream(content), ContentType.DEFAULT_BINARY, "data.bin");
+    }
+    HttpEntity entity = multipart.build();
+    long expected = repeatable ? entity.getContentLength() : -1;
+
+    CompletableFuture<Long> future = client.executeAsync(
+        RequestBuilder.post(client.createUri("/upload")).setEntity(entity).build(),
+        response -> Long.valueOf(IOUtils.toString(response.getEntity().getContent(), UTF_8)));
+
+    long received = future.join();
+    assertTrue(received > content.length);
+    if (repeatable) {
+      assertEquals(expected, received);
+    }
+  }
+
+  @Test
+  void executeAsync_compressedResponse() {
+    byte[] content = "id\n1\n2\n3".repeat(1000).getBytes(UTF_8);
+    server.handle("/compressed", exchange -> {
+      StubRefineServer.drain(exchange);
+      String accepted = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+      exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+      exchange.sendResponseHeaders(accepted != null && accepted.contains("gzip") ? 200 : 406, 0);
+      try (OutputStream os = new GZIPOutputStream(exchange.getResponseBody())) {
+        os.write(content);
+      }
+    });
+
+    CompletableFuture<byte[]> future = client.executeAsync(
+        RequestBuilder.get(client.createUri("/compressed")).build(), response -> {
+          assertEquals(200, response.getStatusLine().getStatusCode());
+          assertNull(response.getFirstHeader("Content-Encoding"));
+          return IOUtils.toByteArray(response.getEntity().getContent());
+        });
+
+    assertArrayEquals(content, future.join());
+  }
+}
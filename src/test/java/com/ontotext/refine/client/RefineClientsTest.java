@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.net.URISyntaxException;
+import java.time.Duration;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.HttpClients;
 import org.junit.jupiter.api.Test;
@@ -43,4 +44,33 @@ class RefineClientsTest {
 
     assertNotNull(client);
   }
+
+  @Test
+  void pooled_exceptionOnMissingConfig() {
+    assertThrows(NullPointerException.class, () -> RefineClients.pooled(URI, null));
+  }
+
+  @Test
+  void pooled_successful() {
+    RefineClient client = assertDoesNotThrow(
+        () -> RefineClients.pooled(URI, ConnectionPoolConfig.createDefault()));
+
+    assertNotNull(client);
+  }
+
+  @Test
+  void poolConfig_exceptionOnInvalidPoolSize() {
+    ConnectionPoolConfig.Builder builder =
+        new ConnectionPoolConfig.Builder().setMaxConnectionsPerRoute(10).setMaxConnectionsTotal(5);
+
+    assertThrows(IllegalArgumentException.class, builder::build);
+  }
+
+  @Test
+  void poolConfig_exceptionOnNegativeTimeout() {
+    ConnectionPoolConfig.Builder builder =
+        new ConnectionPoolConfig.Builder().setSocketTimeout(Duration.ofSeconds(-1));
+
+    assertThrows(IllegalArgumentException.class, builder::build);
+  }
 }
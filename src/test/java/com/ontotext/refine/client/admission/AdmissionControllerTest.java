@@ -0,0 +1,273 @@
+package com.ontotext.refine.client.admission;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ontotext.refine.client.ConnectionPoolConfig;
+import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.RefineClients;
+import com.ontotext.refine.client.command.RefineCommand;
+import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.command.rdf.ResultFormat;
+import com.ontotext.refine.client.exceptions.AdmissionRejectedException;
+import com.ontotext.refine.client.testsupport.StubRefineServer;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Test for {@link AdmissionController}.
+ */
+class AdmissionControllerTest {
+
+  private static final String EXPORT_PATH = "/orefine/command/core/export-rows";
+  private static final String VERSION_PATH = "/orefine/command/core/get-version";
+
+  private final AtomicInteger exporting = new AtomicInteger();
+  private final AtomicInteger maxExporting = new AtomicInteger();
+  private volatile long exportLatency = 50;
+
+  private StubRefineServer server;
+  private RefineClient client;
+
+  @BeforeEach
+  void setup() throws Exception {
+    server = StubRefineServer.start()
+        .handle(EXPORT_PATH, this::handleExport)
+        .respond(VERSION_PATH, 200, "application/json", "{}");
+    client = RefineClients.pooled(server.uri(), ConnectionPoolConfig.createDefault());
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    client.close();
+    server.close();
+  }
+
+  @Test
+  void execute_limitsInFlight() throws Exception {
+    AdmissionController controller = new AdmissionController.Builder()
+        .setLimits(CommandCategory.EXPORT, new AdmissionLimits.Builder().setMaxInFlight(2).build())
+        .build();
+    client.addInterceptor(controller);
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<String>> futures = new ArrayList<>();
+      for (int i = 0; i < 16; i++) {
+        futures.add(executor.submit(() -> client.execute(export(), this::body)));
+      }
+      for (Future<String> future : futures) {
+        assertEquals("exported", future.get(10, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    AdmissionMetrics metrics = controller.getMetrics(CommandCategory.EXPORT);
+    assertTrue(maxExporting.get() <= 2, "Too many concurrent exports: " + maxExporting.get());
+    assertEquals(16, metrics.getAdmitted());
+    assertEquals(16, metrics.getQueueTime().getCount());
+    assertEquals(0, metrics.getInFlight());
+    assertEquals(0, metrics.getQueued());
+  }
+
+  @Test
+  void executeAsync_limitsInFlight() {
+    AdmissionController controller = new AdmissionController.Builder()
+        .setLimits(CommandCategory.EXPORT, new AdmissionLimits.Builder().setMaxInFlight(3).build())
+        .build();
+    client.addInterceptor(controller);
+
+    List<CompletableFuture<String>> futures = new ArrayList<>();
+    for (int i = 0; i < 30; i++) {
+      futures.add(client.executeAsync(export(), this::body));
+    }
+    assertTrue(controller.getMetrics(CommandCategory.EXPORT).getQueued() > 0);
+
+    futures.forEach(future -> assertEquals("exported", future.join()));
+    assertTrue(maxExporting.get() <= 3, "Too many concurrent exports: " + maxExporting.get());
+    assertEquals(30, controller.getMetrics(CommandCategory.EXPORT).getAdmitted());
+    assertEquals(0, controller.getMetrics(CommandCategory.EXPORT).getInFlight());
+  }
+
+  @Test
+  void execute_limitsRate() throws IOException {
+    client.addInterceptor(new AdmissionController.Builder()
+        .setLimits(CommandCategory.METADATA, new AdmissionLimits.Builder()
+            .setRate(20)
+            .setBurst(1)
+            .build())
+        .build());
+
+    final long start = System.nanoTime();
+    for (int i = 0; i < 6; i++) {
+      client.execute(version(), this::body);
+    }
+
+    // the first request takes the burst and the next five wait 50 ms each
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(240));
+  }
+
+  @Test
+  void execute_rejectsAfterMaxQueueTime() {
+    exportLatency = 300;
+    AdmissionController controller = new AdmissionController.Builder()
+        .setLimits(CommandCategory.EXPORT, new AdmissionLimits.Builder()
+            .setMaxInFlight(1)
+            .setMaxQueueTime(Duration.ofMillis(20))
+            .build())
+        .build();
+    client.addInterceptor(controller);
+
+    CompletableFuture<String> first = client.executeAsync(export(), this::body);
+    AdmissionRejectedException rejected =
+        assertThrows(AdmissionRejectedException.class, () -> client.execute(export(), this::body));
+    assertTrue(rejected.getMessage().contains("EXPORT"));
+
+    CompletionException exc = assertThrows(
+        CompletionException.class, () -> client.executeAsync(export(), this::body).join());
+    assertInstanceOf(AdmissionRejectedException.class, exc.getCause());
+
+    assertEquals("exported", first.join());
+    assertEquals(2, controller.getMetrics(CommandCategory.EXPORT).getRejected());
+    assertEquals(1, server.hits(EXPORT_PATH));
+  }
+
+  @Test
+  void execute_rejectsWhenTokenWaitExceedsMaxQueueTime() throws IOException {
+    AdmissionController controller = new AdmissionController.Builder()
+        .setLimits(CommandCategory.METADATA, new AdmissionLimits.Builder()
+            .setRate(2)
+            .setBurst(1)
+            .setMaxQueueTime(Duration.ofMillis(100))
+            .build())
+        .build();
+    client.addInterceptor(controller);
+
+    assertEquals("{}", client.execute(version(), this::body));
+    final long start = System.nanoTime();
+    assertThrows(AdmissionRejectedException.class, () -> client.execute(version(), this::body));
+
+    // the next token is available after 500 ms, so the request is rejected without waiting
+    assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+    AdmissionMetrics metrics = controller.getMetrics(CommandCategory.METADATA);
+    assertEquals(1, metrics.getRejected());
+    assertEquals(0, metrics.getInFlight());
+    assertEquals(1, server.hits(VERSION_PATH));
+  }
+
+  @Test
+  void execute_categoriesAreIndependent() throws IOException {
+    AdmissionController controller = new AdmissionController.Builder()
+        .setLimits(CommandCategory.EXPORT, new AdmissionLimits.Builder()
+            .setMaxInFlight(1)
+            .setMaxQueueTime(Duration.ofMillis(20))
+            .build())
+        .build();
+    client.addInterceptor(controller);
+
+    CompletableFuture<String> export = client.executeAsync(export(), this::body);
+    assertEquals("{}", client.execute(version(), this::body));
+
+    assertEquals("exported", export.join());
+    assertEquals(1, controller.getMetrics(CommandCategory.METADATA).getAdmitted());
+  }
+
+  @Test
+  void categoryOf() {
+    assertEquals(CommandCategory.UPLOAD, CommandCategory.of(
+        RequestBuilder.post("http://localhost/orefine/command/core/create-project-from-upload")
+            .build()));
+    assertEquals(CommandCategory.EXPORT, CommandCategory.of(
+        RequestBuilder.post("http://localhost/rest/rdf-mapper/rdf/ontorefine:1").build()));
+    assertEquals(CommandCategory.PROCESSING, CommandCategory.of(
+        RequestBuilder.post("http://localhost/orefine/command/core/reconcile").build()));
+    assertEquals(CommandCategory.METADATA, CommandCategory.of(version()));
+  }
+
+  @ParameterizedTest
+  @MethodSource("exportCommands")
+  void categoryOf_exportCommands(RefineCommand<?> command) {
+    String path = command.endpoint().replace("{repo}", "repository");
+
+    assertEquals(CommandCategory.EXPORT,
+        CommandCategory.of(RequestBuilder.post(client.createUri(path)).build()));
+  }
+
+  private static Stream<RefineCommand<?>> exportCommands() {
+    return Stream.of(
+        RefineCommands.exportRows().setProject("1").setFormat("csv").useClientToken().build(),
+        RefineCommands.getProjectConfigurations().setProject("1").build(),
+        RefineCommands.exportRdf()
+            .setProject("1")
+            .setMapping("{}")
+            .setFormat(ResultFormat.TURTLE)
+            .build(),
+        RefineCommands.exportAsRdf()
+            .setProject("1")
+            .setQuery("CONSTRUCT WHERE { ?s ?p ?o }")
+            .setFormat(ResultFormat.TURTLE)
+            .build(),
+        RefineCommands.exportRdfUsingSparql()
+            .setProject("1")
+            .setQuery("CONSTRUCT WHERE { ?s ?p ?o }")
+            .setFormat(ResultFormat.TURTLE)
+            .setRepository("repository")
+            .build());
+  }
+
+  private HttpUriRequest export() {
+    return RequestBuilder.post(client.createUri(EXPORT_PATH)).build();
+  }
+
+  private HttpUriRequest version() {
+    return RequestBuilder.get(client.createUri(VERSION_PATH)).build();
+  }
+
+  private String body(HttpResponse response) throws IOException {
+    return EntityUtils.toString(response.getEntity(), UTF_8);
+  }
+
+  private void handleExport(HttpExchange exchange) throws IOException {
+    StubRefineServer.drain(exchange);
+    maxExporting.accumulateAndGet(exporting.incrementAndGet(), Math::max);
+    try {
+      Thread.sleep(exportLatency);
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+    } finally {
+      // the client could start next export as soon as it receives the response
+      exporting.decrementAndGet();
+    }
+
+    byte[] data = "exported".getBytes(UTF_8);
+    exchange.sendResponseHeaders(200, data.length);
+    try (OutputStream os = exchange.getResponseBody()) {
+      os.write(data);
+    }
+  }
+}
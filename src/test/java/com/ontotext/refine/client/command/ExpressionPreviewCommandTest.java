@@ -11,11 +11,10 @@ import static org.mockito.Mockito.when;
 import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.ResponseCode;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.nio.charset.Charset;
 import java.util.Arrays;
-import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -27,8 +26,6 @@ import org.mockito.MockitoAnnotations;
  */
 class ExpressionPreviewCommandTest {
 
-  private static final Charset UTF_8 = Charset.forName("UTF-8");
-
   @Mock
   private RefineClient refineClient;
 
@@ -58,8 +55,8 @@ class ExpressionPreviewCommandTest {
   @Test
   void should_parse_expression_preview_success_response()
       throws IOException, URISyntaxException {
-    String responseBody = IOUtils
-        .toString(getClass().getResource("/responseBody/expression-preview.json").toURI(), UTF_8);
+    InputStream responseBody =
+        getClass().getResourceAsStream("/responseBody/expression-preview.json");
 
     ExpressionPreviewResponse response = command.parseExpressionPreviewResponse(responseBody);
     assertNotNull(response);
@@ -71,8 +68,7 @@ class ExpressionPreviewCommandTest {
   @Test
   void should_parse_expression_preview_error_response()
       throws IOException, URISyntaxException {
-    String responseBody =
-        IOUtils.toString(getClass().getResource("/responseBody/code-error.json").toURI(), UTF_8);
+    InputStream responseBody = getClass().getResourceAsStream("/responseBody/code-error.json");
 
     ExpressionPreviewResponse response = command.parseExpressionPreviewResponse(responseBody);
     assertNotNull(response);
@@ -0,0 +1,144 @@
+package com.ontotext.refine.client.command.create;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ontotext.refine.client.ConnectionPoolConfig;
+import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.RefineClients;
+import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.command.create.BatchCreateProjectsResponse.Result;
+import com.ontotext.refine.client.testsupport.StubRefineServer;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link BatchCreateProjectsCommand}.
+ */
+class BatchCreateProjectsCommandTest {
+
+  private static final String TOKEN_PATH = "/orefine/command/core/get-csrf-token";
+  private static final String CREATE_PATH = "/orefine/command/core/create-project-from-upload";
+
+  private final AtomicInteger inProgress = new AtomicInteger();
+  private final AtomicInteger maxInProgress = new AtomicInteger();
+  private final AtomicInteger projectIds = new AtomicInteger();
+
+  private StubRefineServer server;
+  private RefineClient client;
+
+  @TempDir
+  Path dir;
+
+  @BeforeEach
+  void setup() throws Exception {
+    server = StubRefineServer.start()
+        .respond(TOKEN_PATH, 200, "application/json", "{\"token\":\"csrf-token\"}")
+        .handle(CREATE_PATH, this::createProject);
+    client = RefineClients.pooled(server.uri(), ConnectionPoolConfig.createDefault());
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    client.close();
+    server.close();
+  }
+
+  @Test
+  void execute_failuresDoNotAbortBatch() throws IOException {
+    BatchCreateProjectsCommand.Builder builder =
+        RefineCommands.createProjects().useClientToken().parallelism(3);
+    for (int i = 0; i < 12; i++) {
+      String name = i == 5 ? "fail" : "project-" + i;
+      builder.addProject(name, file(name, "id\n" + i).toFile());
+    }
+
+    BatchCreateProjectsResponse response = builder.build().execute(client);
+
+    assertEquals(12, response.getResults().size());
+    assertEquals(11, response.getCreatedCount());
+    assertEquals(1, response.getFailedCount());
+    assertEquals(1, server.hits(TOKEN_PATH));
+    assertTrue(maxInProgress.get() <= 3, "Too many concurrent uploads: " + maxInProgress.get());
+    assertTrue(response.getFilesPerSecond() > 0);
+
+    for (int i = 0; i < 12; i++) {
+      Result result = response.getResults().get(i);
+      if (i == 5) {
+        assertFalse(result.isCreated());
+        assertNotNull(result.getError());
+        assertEquals("fail", result.getItem().getName());
+      } else {
+        assertTrue(result.isCreated());
+        assertNull(result.getError());
+        assertEquals("project-" + i, result.getItem().getName());
+        assertNotNull(result.getResponse().getProjectId());
+      }
+    }
+  }
+
+  @Test
+  void execute_explicitToken() throws IOException {
+    BatchCreateProjectsResponse response = RefineCommands
+        .createProjects()
+        .token("explicit-token")
+        .addProject("project", file("project", "id\n1").toFile())
+        .build()
+        .execute(client);
+
+    assertEquals(1, response.getCreatedCount());
+    assertEquals(0, server.hits(TOKEN_PATH));
+  }
+
+  @Test
+  void build_emptyBatch() {
+    BatchCreateProjectsCommand.Builder builder = RefineCommands.createProjects();
+    assertThrows(IllegalArgumentException.class, builder::build);
+  }
+
+  private Path file(String name, String content) throws IOException {
+    return Files.writeString(dir.resolve(name + ".csv"), content);
+  }
+
+  private void createProject(HttpExchange exchange) throws IOException {
+    int current = inProgress.incrementAndGet();
+    maxInProgress.accumulateAndGet(current, Math::max);
+    String body;
+    try {
+      body = new String(exchange.getRequestBody().readAllBytes(), UTF_8);
+      Thread.sleep(20);
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      return;
+    } finally {
+      // the client could start next upload as soon as it receives the response
+      inProgress.decrementAndGet();
+    }
+
+    if (body.contains("fail")) {
+      byte[] error = "<html>error</html>".getBytes(UTF_8);
+      exchange.sendResponseHeaders(500, error.length);
+      try (OutputStream os = exchange.getResponseBody()) {
+        os.write(error);
+      }
+      return;
+    }
+
+    exchange.getResponseHeaders()
+        .add("Location", "/project?project=" + projectIds.incrementAndGet());
+    exchange.sendResponseHeaders(302, -1);
+  }
+}
@@ -1,17 +1,35 @@
 package com.ontotext.refine.client.command.create;
 
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.ontotext.refine.client.ConnectionPoolConfig;
 import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.RefineClients;
 import com.ontotext.refine.client.UploadFormat;
 import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.exceptions.RefineException;
+import com.ontotext.refine.client.testsupport.StubRefineServer;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.channels.Channels;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -23,6 +41,10 @@ import org.mockito.MockitoAnnotations;
  */
 class CreateProjectCommandTest {
 
+  private static final String TOKEN_PATH = "/orefine/command/core/get-csrf-token";
+  private static final String CREATE_PATH = "/orefine/command/core/create-project-from-upload";
+  private static final String CSV = "id,name\n1,first\n2,second";
+
   @Mock
   private RefineClient refineClient;
 
@@ -48,4 +70,138 @@ class CreateProjectCommandTest {
     verify(refineClient).createUri(anyString());
     verify(refineClient).execute(any(), any());
   }
+
+  @Test
+  void execute_streamIsUploadedInChunks() throws Exception {
+    List<String> uploads = new CopyOnWriteArrayList<>();
+    try (StubRefineServer server = StubRefineServer.start()
+        .handle(CREATE_PATH, exchange -> createProject(exchange, uploads, 0));
+        RefineClient client = pooled(server)) {
+
+      CreateProjectResponse response = RefineCommands
+          .createProject()
+          .token("test-token")
+          .name("streamed")
+          .stream(new ByteArrayInputStream(CSV.getBytes(UTF_8)))
+          .format(UploadFormat.SEPARATOR_BASED)
+          .build()
+          .execute(client);
+
+      assertEquals("1", response.getProjectId());
+      assertEquals(1, uploads.size());
+      assertTrue(uploads.get(0).contains("chunked"));
+      assertTrue(uploads.get(0).contains("filename=\"streamed\""));
+      assertTrue(uploads.get(0).contains(CSV));
+    }
+  }
+
+  @Test
+  void execute_supplierIsReopenedOnRetry() throws Exception {
+    List<String> uploads = new CopyOnWriteArrayList<>();
+    try (StubRefineServer server = StubRefineServer.start()
+        .respond(TOKEN_PATH, 200, "application/json", "{\"token\":\"test-token\"}")
+        .handle(CREATE_PATH, exchange -> createProject(exchange, uploads, 1));
+        RefineClient client = pooled(server)) {
+
+      AtomicInteger opened = new AtomicInteger();
+      CreateProjectResponse response = RefineCommands
+          .createProject()
+          .useClientToken()
+          .name("supplied")
+          .stream(() -> {
+            opened.incrementAndGet();
+            return new ByteArrayInputStream(CSV.getBytes(UTF_8));
+          })
+          .fileName("supplied.csv")
+          .build()
+          .execute(client);
+
+      assertEquals("2", response.getProjectId());
+      assertEquals(2, opened.get());
+      assertEquals(2, uploads.size());
+      assertTrue(uploads.get(1).contains("filename=\"supplied.csv\""));
+      assertTrue(uploads.get(1).contains(CSV));
+    }
+  }
+
+  @Test
+  void execute_channelIsNotReopenedOnRetry() throws Exception {
+    List<String> uploads = new CopyOnWriteArrayList<>();
+    try (StubRefineServer server = StubRefineServer.start()
+        .respond(TOKEN_PATH, 200, "application/json", "{\"token\":\"test-token\"}")
+        .handle(CREATE_PATH, exchange -> createProject(exchange, uploads, 1));
+        RefineClient client = pooled(server)) {
+
+      InputStream data = new ByteArrayInputStream(CSV.getBytes(UTF_8));
+      CreateProjectCommand channelCommand = RefineCommands
+          .createProject()
+          .useClientToken()
+          .name("channel")
+          .channel(Channels.newChannel(data))
+          .build();
+
+      RefineException exc =
+          assertThrows(RefineException.class, () -> channelCommand.execute(client));
+      assertTrue(exc.getMessage().contains("cannot be reopened"));
+      assertEquals(1, uploads.size());
+    }
+  }
+
+  @Test
+  void execute_compressedUpload() throws Exception {
+    List<byte[]> uploads = new CopyOnWriteArrayList<>();
+    try (StubRefineServer server = StubRefineServer.start()
+        .handle(CREATE_PATH, exchange -> {
+          uploads.add(exchange.getRequestBody().readAllBytes());
+          exchange.getResponseHeaders().add("Location", "/project?project=1");
+          exchange.sendResponseHeaders(302, -1);
+        });
+        RefineClient client = pooled(server)) {
+
+      RefineCommands
+          .createProject()
+          .token("test-token")
+          .name("compressed")
+          .stream(() -> new ByteArrayInputStream(CSV.getBytes(UTF_8)))
+          .fileName("data.csv")
+          .compress(true)
+          .build()
+          .execute(client);
+
+      // ISO-8859-1 maps the bytes one to one, so the compressed part can be extracted as text
+      String body = new String(uploads.get(0), ISO_8859_1);
+      assertTrue(body.contains("filename=\"data.csv.gz\""));
+      assertTrue(body.contains("Content-Type: application/x-gzip"));
+
+      int start = body.indexOf("\r\n\r\n", body.indexOf("data.csv.gz")) + 4;
+      int end = body.indexOf("\r\n--", start);
+      byte[] archive = body.substring(start, end).getBytes(ISO_8859_1);
+      try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(archive))) {
+        assertEquals(CSV, new String(gzip.readAllBytes(), UTF_8));
+      }
+    }
+  }
+
+  private static RefineClient pooled(StubRefineServer server) throws URISyntaxException {
+    return RefineClients.pooled(server.uri(), ConnectionPoolConfig.createDefault());
+  }
+
+  private static void createProject(HttpExchange exchange, List<String> uploads, int rejected)
+      throws IOException {
+    String body = new String(exchange.getRequestBody().readAllBytes(), UTF_8);
+    uploads.add(exchange.getRequestHeaders().getFirst("Transfer-encoding") + "\n" + body);
+    if (uploads.size() <= rejected) {
+      byte[] error = "{\"code\":\"error\",\"message\":\"Missing or invalid csrf_token\"}"
+          .getBytes(UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, error.length);
+      try (OutputStream os = exchange.getResponseBody()) {
+        os.write(error);
+      }
+      return;
+    }
+
+    exchange.getResponseHeaders().add("Location", "/project?project=" + uploads.size());
+    exchange.sendResponseHeaders(302, -1);
+  }
 }
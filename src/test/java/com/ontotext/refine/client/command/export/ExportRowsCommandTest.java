@@ -1,7 +1,12 @@
 package com.ontotext.refine.client.command.export;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
@@ -10,9 +15,17 @@ import com.ontotext.refine.client.RefineClient;
 import com.ontotext.refine.client.command.RefineCommands;
 import com.ontotext.refine.client.exceptions.RefineException;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.channels.Channels;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.io.IOUtils;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.ProtocolVersion;
@@ -21,6 +34,7 @@ import org.apache.http.entity.BasicHttpEntity;
 import org.apache.http.message.BasicStatusLine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -69,11 +83,148 @@ class ExportRowsCommandTest {
       assertNotNull(rowsResponse.getFile());
     } finally {
       if (rowsResponse != null && rowsResponse.getFile() != null) {
-        rowsResponse.getFile().deleteOnExit();
+        Files.deleteIfExists(rowsResponse.getFile().toPath());
       }
     }
   }
 
+  @Test
+  void createDefaultFile_hasDefaultPermissions(@TempDir Path dir) throws IOException {
+    assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+    Path reference = Files.createFile(dir.resolve("reference.csv"));
+
+    Path file = ExportRowsCommand.createDefaultFile("csv");
+    try {
+      assertTrue(file.getFileName().toString().matches("\\d+-\\d+\\.csv"));
+      assertEquals(
+          Files.getPosixFilePermissions(reference), Files.getPosixFilePermissions(file));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test
+  void shouldWriteToTargetFile(@TempDir Path dir) throws IOException {
+    mockResponse("a,b\n1,2\n");
+    Path target = dir.resolve("export.csv");
+
+    ExportRowsResponse rowsResponse = RefineCommands
+        .exportRows()
+        .setProject("1234567890")
+        .setToken("csrf-token")
+        .setFormat("csv")
+        .setExportConfigs(AdditionalExportConfigs.createDefault().setTruncateFile(true))
+        .setTarget(target)
+        .build()
+        .execute(client);
+
+    assertEquals(target.toFile(), rowsResponse.getFile());
+    assertEquals(7, rowsResponse.getSize());
+    assertEquals("a,b\n1,2", Files.readString(target));
+  }
+
+  @Test
+  void shouldWriteToTargetChannel() throws IOException {
+    mockResponse("a,b\n1,2\n");
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    ExportRowsResponse rowsResponse = RefineCommands
+        .exportRows()
+        .setProject("1234567890")
+        .setToken("csrf-token")
+        .setFormat("csv")
+        .setTarget(Channels.newChannel(output))
+        .build()
+        .execute(client);
+
+    assertNull(rowsResponse.getFile());
+    assertEquals(8, rowsResponse.getSize());
+    assertEquals("a,b\n1,2\n", output.toString(UTF_8));
+  }
+
+  @Test
+  void shouldStream() throws IOException {
+    mockResponse("a,b\n1,2\n");
+
+    String data = RefineCommands
+        .exportRows()
+        .setProject("1234567890")
+        .setToken("csrf-token")
+        .setFormat("csv")
+        .setExportConfigs(AdditionalExportConfigs.createDefault().setTruncateFile(true))
+        .build()
+        .stream(client, is -> IOUtils.toString(is, UTF_8));
+
+    assertEquals("a,b\n1,2", data);
+  }
+
+  @Test
+  void stream_shouldFailOnConsumerError() throws IOException {
+    mockResponse("a,b\n1,2\n");
+
+    ExportRowsCommand command = RefineCommands
+        .exportRows()
+        .setProject("1234567890")
+        .setToken("csrf-token")
+        .setFormat("csv")
+        .build();
+
+    assertThrows(RefineException.class, () -> command.stream(client, is -> {
+      throw new IOException("Consumer failure");
+    }));
+  }
+
+  @Test
+  void shouldParseRows() throws IOException {
+    mockResponse("a,b\n1,\"2,3\"\n");
+    List<List<String>> rows = new ArrayList<>();
+
+    long count = RefineCommands
+        .exportRows()
+        .setProject("1234567890")
+        .setToken("csrf-token")
+        .setFormat("csv")
+        .build()
+        .forEachRow(client, row -> rows.add(row.toList()));
+
+    assertEquals(2, count);
+    assertEquals(List.of(List.of("a", "b"), List.of("1", "2,3")), rows);
+  }
+
+  @Test
+  void rows_shouldFailOnUnsupportedFormat() {
+    ExportRowsCommand command = RefineCommands
+        .exportRows()
+        .setProject("1234567890")
+        .setToken("csrf-token")
+        .setFormat("xls")
+        .build();
+
+    assertThrows(IllegalArgumentException.class, () -> command.rows(client, RowReader::next));
+  }
+
+  @Test
+  void shouldValidateRange() {
+    ExportRowsCommand.Builder builder = RefineCommands
+        .exportRows()
+        .setProject("1234567890")
+        .setToken("csrf-token")
+        .setFormat("csv");
+
+    assertThrows(IllegalArgumentException.class, () -> builder.setOffset(-1).build());
+    assertThrows(IllegalArgumentException.class, () -> builder.setOffset(0).setLimit(0).build());
+    assertThrows(IllegalArgumentException.class,
+        () -> builder.setLimit(10).setEngine(Engines.RECORD_BASED).build());
+  }
+
+  private void mockResponse(String content) throws IOException {
+    BasicHttpEntity entity = new BasicHttpEntity();
+    entity.setContent(new ByteArrayInputStream(content.getBytes(UTF_8)));
+    when(response.getEntity()).thenReturn(entity);
+    when(client.execute(any(), any())).thenAnswer(
+        answer -> answer.getArgument(1, ResponseHandler.class).handleResponse(response));
+  }
+
   @Test
   void shouldFail() throws IOException {
     when(client.execute(any(), any())).thenThrow(new IOException());
@@ -0,0 +1,207 @@
+package com.ontotext.refine.client.command.export;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ontotext.refine.client.ConnectionPoolConfig;
+import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.RefineClients;
+import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.exceptions.RefineException;
+import com.ontotext.refine.client.testsupport.StubRefineServer;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.utils.URLEncodedUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link ParallelExportRowsCommand}.
+ */
+class ParallelExportRowsCommandTest {
+
+  private static final String METADATA_PATH = "/orefine/command/core/get-project-metadata";
+  private static final String EXPORT_PATH = "/orefine/command/core/export-rows";
+  private static final int ROWS = 10;
+
+  private StubRefineServer server;
+  private RefineClient client;
+
+  @BeforeEach
+  void setup() throws Exception {
+    server = StubRefineServer.start()
+        .respond(METADATA_PATH, 200, "application/json",
+            "{\"name\":\"test\",\"rowCount\":" + ROWS + "}")
+        .handle(EXPORT_PATH, ParallelExportRowsCommandTest::export);
+    client = RefineClients.pooled(server.uri(), ConnectionPoolConfig.createDefault());
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    client.close();
+    server.close();
+  }
+
+  @Test
+  void shouldExportSlicesInOrder(@TempDir Path dir) throws IOException {
+    Path target = dir.resolve("export.csv");
+
+    ExportRowsResponse response = RefineCommands
+        .exportRowsInParallel()
+        .setProject("1234567890")
+        .setToken("csrf-token")
+        .setFormat("csv")
+        .setSlices(3)
+        .setExportConfigs(AdditionalExportConfigs.createDefault().setTruncateFile(true))
+        .setTarget(target)
+        .build()
+        .execute(client);
+
+    assertEquals(3, server.hits(EXPORT_PATH));
+    assertEquals(target.toFile(), response.getFile());
+    assertEquals("id\nr0\nr1\nr2\nr3\nr4\nr5\nr6\nr7\nr8\nr9", Files.readString(target));
+  }
+
+  @Test
+  void shouldExportSingleSlice(@TempDir Path dir) throws IOException {
+    Path target = dir.resolve("export.csv");
+
+    RefineCommands
+        .exportRowsInParallel()
+        .setProject("1234567890")
+        .setToken("csrf-token")
+        .setFormat("csv")
+        .setSlices(1)
+        .setTarget(target)
+        .build()
+        .execute(client);
+
+    assertEquals(1, server.hits(EXPORT_PATH));
+    assertEquals("id\nr0\nr1\nr2\nr3\nr4\nr5\nr6\nr7\nr8\nr9\n", Files.readString(target));
+  }
+
+  @Test
+  void shouldCancelSlicesOnFailure(@TempDir Path dir) throws Exception {
+    AtomicBoolean responded = new AtomicBoolean();
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try (StubRefineServer failing = StubRefineServer.start()
+        .respond(METADATA_PATH, 200, "application/json", "{\"rowCount\":" + ROWS + "}")
+        .handle(EXPORT_PATH, exchange -> {
+          String body = URLDecoder.decode(
+              new String(exchange.getRequestBody().readAllBytes(), UTF_8), UTF_8);
+          if (body.contains("\"from\":0")) {
+            // the connection is closed without response
+            exchange.close();
+            return;
+          }
+
+          sleep(300);
+          responded.set(true);
+          exchange.sendResponseHeaders(200, -1);
+        });
+        RefineClient failingClient =
+            RefineClients.pooled(failing.uri(), ConnectionPoolConfig.createDefault())) {
+      ParallelExportRowsCommand command = RefineCommands
+          .exportRowsInParallel()
+          .setProject("1234567890")
+          .setToken("csrf-token")
+          .setFormat("csv")
+          .setSlices(6)
+          .setExecutor(executor)
+          .setTarget(dir.resolve("export.csv"))
+          .build();
+
+      assertThrows(RefineException.class, () -> command.execute(failingClient));
+      assertTrue(responded.get(), "The command returned before the running slice was stopped");
+      // the thread of the failed slice could start one more slice, before the rest are cancelled
+      assertTrue(failing.hits(EXPORT_PATH) <= 3, "The queued slices were not cancelled");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void shouldFailOnInvalidOptions(@TempDir Path dir) {
+    ParallelExportRowsCommand command = RefineCommands
+        .exportRowsInParallel()
+        .setProject("1234567890")
+        .setToken("csrf-token")
+        .setFormat("csv")
+        .setOptions(() -> "[]")
+        .setTarget(dir.resolve("export.csv"))
+        .build();
+
+    assertThrows(RefineException.class, () -> command.execute(client));
+  }
+
+  @Test
+  void shouldFailOnUnsupportedFormat() {
+    ParallelExportRowsCommand.Builder builder = RefineCommands
+        .exportRowsInParallel()
+        .setProject("1234567890")
+        .setToken("csrf-token")
+        .setFormat("xls");
+
+    assertThrows(IllegalArgumentException.class, builder::build);
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Simulates the export of project with single column and {@link #ROWS} rows, which supports the
+   * row range facet and the header option.
+   */
+  private static void export(HttpExchange exchange) throws IOException {
+    String body = new String(exchange.getRequestBody().readAllBytes(), UTF_8);
+    Map<String, String> form = URLEncodedUtils.parse(body, UTF_8).stream()
+        .collect(Collectors.toMap(NameValuePair::getName, NameValuePair::getValue));
+
+    ObjectMapper mapper = new ObjectMapper();
+    JsonNode engine = mapper.readTree(form.get("engine"));
+    JsonNode options = mapper.readTree(form.get("options"));
+
+    long from = 0;
+    long to = Long.MAX_VALUE;
+    JsonNode facet = engine.path("facets").path(0);
+    if (!facet.isMissingNode()) {
+      from = facet.get("from").asLong();
+      to = facet.get("to").asLong();
+    }
+
+    StringBuilder csv = new StringBuilder();
+    if (options.path("outputColumnHeaders").asBoolean(true)) {
+      csv.append("id\n");
+    }
+    for (long i = from; i < Math.min(to, ROWS); i++) {
+      csv.append('r').append(i).append('\n');
+    }
+
+    byte[] bytes = csv.toString().getBytes(UTF_8);
+    exchange.sendResponseHeaders(200, bytes.length == 0 ? -1 : bytes.length);
+    try (OutputStream os = exchange.getResponseBody()) {
+      os.write(bytes);
+    }
+  }
+}
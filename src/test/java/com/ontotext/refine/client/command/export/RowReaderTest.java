@@ -0,0 +1,97 @@
+package com.ontotext.refine.client.command.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test for {@link RowReader}.
+ */
+class RowReaderTest {
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2, 3, 7, 65536})
+  void shouldParseCsv(int bufferSize) throws IOException {
+    String csv = "name,description,count\r\n"
+        + "plain,\"with, comma\",1\r\n"
+        + "\"quoted \"\"word\"\"\",\"multi\nline\",\r\n"
+        + ",,\n";
+
+    List<List<String>> rows = readAll(new RowReader(new StringReader(csv), ',', bufferSize));
+
+    assertEquals(List.of(
+        List.of("name", "description", "count"),
+        List.of("plain", "with, comma", "1"),
+        List.of("quoted \"word\"", "multi\nline", ""),
+        List.of("", "", "")), rows);
+  }
+
+  @Test
+  void shouldParseTsv() throws IOException {
+    String tsv = "a\tb\n1,2\t\"3\t4\"";
+
+    List<List<String>> rows = readAll(RowReader.forFormat(new StringReader(tsv), "tsv"));
+
+    assertEquals(List.of(List.of("a", "b"), List.of("1,2", "3\t4")), rows);
+  }
+
+  @Test
+  void shouldTreatInnerQuotesAsContent() throws IOException {
+    List<List<String>> rows = readAll(RowReader.forFormat(new StringReader("a\"b,c\n"), "csv"));
+
+    assertEquals(List.of(List.of("a\"b", "c")), rows);
+  }
+
+  @Test
+  void shouldExposeCellViews() throws IOException {
+    try (RowReader reader = RowReader.forFormat(new StringReader("abc,de\nfg\n"), "csv")) {
+      assertTrue(reader.next());
+      Row row = reader.row();
+      CharSequence cell = row.get(0);
+      assertEquals(0, row.getIndex());
+      assertEquals(3, cell.length());
+      assertEquals('b', cell.charAt(1));
+      assertEquals("bc", cell.subSequence(1, 3));
+      assertThrows(IndexOutOfBoundsException.class, () -> row.get(2));
+
+      assertTrue(reader.next());
+      assertEquals(1, row.getIndex());
+      assertEquals("fg", cell.toString());
+      assertFalse(reader.next());
+    }
+  }
+
+  @Test
+  void shouldStreamRows() throws IOException {
+    try (RowReader reader = RowReader.forFormat(new StringReader("a\nb\nc\n"), "csv")) {
+      assertEquals("a|b|c",
+          reader.stream().map(row -> row.getString(0)).collect(Collectors.joining("|")));
+    }
+  }
+
+  @Test
+  void shouldFailOnUnsupportedFormat() {
+    StringReader source = new StringReader("");
+    assertThrows(IllegalArgumentException.class, () -> RowReader.forFormat(source, "xls"));
+  }
+
+  private static List<List<String>> readAll(RowReader reader) throws IOException {
+    try (reader) {
+      List<List<String>> rows = new ArrayList<>();
+      while (reader.next()) {
+        rows.add(reader.row().toList());
+      }
+      return rows;
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package com.ontotext.refine.client.command.export;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.stream.Stream;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Test for {@link TrailingNewlineStrippingInputStream}.
+ */
+class TrailingNewlineStrippingInputStreamTest {
+
+  private static Stream<Arguments> contents() {
+    return Stream.of(
+        Arguments.of("a,b\n1,2\n", "a,b\n1,2"),
+        Arguments.of("a,b\n1,2", "a,b\n1,2"),
+        Arguments.of("\n", ""),
+        Arguments.of("\n\n", "\n"),
+        Arguments.of("", ""));
+  }
+
+  @ParameterizedTest
+  @MethodSource("contents")
+  void shouldStripOnlyTheTrailingNewline(String input, String expected) throws IOException {
+    assertEquals(expected, readBulk(input, 8192));
+    assertEquals(expected, readBulk(input, 2));
+    assertEquals(expected, readSingle(input));
+  }
+
+  private static String readBulk(String input, int bufferSize) throws IOException {
+    try (InputStream is = wrap(input)) {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      byte[] buffer = new byte[bufferSize];
+      int read;
+      while ((read = is.read(buffer)) >= 0) {
+        output.write(buffer, 0, read);
+      }
+      return output.toString(UTF_8);
+    }
+  }
+
+  private static String readSingle(String input) throws IOException {
+    try (InputStream is = wrap(input)) {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      int read;
+      while ((read = is.read()) >= 0) {
+        output.write(read);
+      }
+      return output.toString(UTF_8);
+    }
+  }
+
+  private static InputStream wrap(String input) {
+    return new TrailingNewlineStrippingInputStream(
+        new ByteArrayInputStream(input.getBytes(UTF_8)));
+  }
+
+  @Test
+  void shouldReadLargeContent() throws IOException {
+    String content = "row\n".repeat(100_000);
+    try (InputStream is = wrap(content)) {
+      assertEquals(content.length() - 1, IOUtils.toByteArray(is).length);
+    }
+  }
+}
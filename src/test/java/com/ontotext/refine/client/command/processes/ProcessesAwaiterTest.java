@@ -0,0 +1,202 @@
+package com.ontotext.refine.client.command.processes;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ontotext.refine.client.ConnectionPoolConfig;
+import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.RefineClients;
+import com.ontotext.refine.client.exceptions.RefineException;
+import com.ontotext.refine.client.testsupport.StubRefineServer;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ProcessesAwaiter}.
+ */
+class ProcessesAwaiterTest {
+
+  private static final String PROCESSES_PATH = "/orefine/command/core/get-processes";
+  private static final String RUNNING =
+      "{\"processes\":[{\"id\":1,\"progress\":%d,\"description\":\"Reconcile\","
+          + "\"status\":\"running\",\"immediate\":false,\"onDone\":[]}]}";
+
+  private final Map<String, AtomicInteger> polls = new ConcurrentHashMap<>();
+
+  private StubRefineServer server;
+  private RefineClient client;
+
+  /** The number of checks after which the processes of each project are drained. */
+  private volatile int drainAfter = 3;
+
+  /** Whether the progress of the processes advances between the checks. */
+  private volatile boolean progressing;
+
+  @BeforeEach
+  void setup() throws Exception {
+    server = StubRefineServer.start().handle(PROCESSES_PATH, this::processes);
+    client = RefineClients.pooled(server.uri(), ConnectionPoolConfig.createDefault());
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    client.close();
+    server.close();
+  }
+
+  @Test
+  void await_completesWhenDrained() throws Exception {
+    try (ProcessesAwaiter awaiter = awaiter().build()) {
+      awaiter.await(client, "1").get(5, TimeUnit.SECONDS);
+
+      assertEquals(4, polls.get("1").get());
+      assertEquals(0, awaiter.getAwaitedCount());
+    }
+  }
+
+  @Test
+  void await_manyProjectsOnSingleThread() throws Exception {
+    AtomicInteger threads = new AtomicInteger();
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+      threads.incrementAndGet();
+      return new Thread(task);
+    });
+
+    try (ProcessesAwaiter awaiter = awaiter().setScheduler(scheduler).build()) {
+      List<CompletableFuture<Void>> futures = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        futures.add(awaiter.await(client, String.valueOf(i)));
+      }
+
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+      assertEquals(200, polls.size());
+      assertEquals(800, server.hits(PROCESSES_PATH));
+      assertEquals(1, threads.get());
+    } finally {
+      assertTrue(!scheduler.isShutdown(), "The provided scheduler should not be shut down");
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  void await_backOffResetByProgress() throws Exception {
+    drainAfter = 6;
+    progressing = true;
+    ProcessesAwaiter.Builder builder = awaiter()
+        .setInitialDelay(Duration.ofMillis(20))
+        .setMaxDelay(Duration.ofSeconds(10))
+        .setMultiplier(10);
+
+    try (ProcessesAwaiter awaiter = builder.build()) {
+      final long start = System.nanoTime();
+      awaiter.await(client, "1").get(5, TimeUnit.SECONDS);
+
+      // without the progress the delays would be 20, 200, 2000 ms and so on
+      assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+    }
+  }
+
+  @Test
+  void await_timeout() {
+    drainAfter = Integer.MAX_VALUE;
+    try (ProcessesAwaiter awaiter = awaiter().setTimeout(Duration.ofMillis(100)).build()) {
+      CompletableFuture<Void> future = awaiter.await(client, "1");
+
+      CompletionException exc = assertThrows(CompletionException.class, future::join);
+      assertInstanceOf(RefineException.class, exc.getCause());
+      assertTrue(exc.getCause().getMessage().contains("did not complete within"));
+    }
+  }
+
+  @Test
+  void await_timeoutOfPendingCheck() {
+    try (ProcessesAwaiter awaiter = awaiter().setTimeout(Duration.ofMillis(100)).build()) {
+      final long start = System.nanoTime();
+      CompletableFuture<Void> future = awaiter.await(client, "hang");
+
+      CompletionException exc = assertThrows(CompletionException.class, future::join);
+      assertTrue(exc.getCause().getMessage().contains("did not complete within"));
+      assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(800));
+    }
+  }
+
+  @Test
+  void await_failedCheck() {
+    try (ProcessesAwaiter awaiter = awaiter().build()) {
+      CompletableFuture<Void> future = awaiter.await(client, "error");
+
+      CompletionException exc = assertThrows(CompletionException.class, future::join);
+      assertInstanceOf(RefineException.class, exc.getCause());
+    }
+  }
+
+  @Test
+  void close_stopsAwaiting() {
+    drainAfter = Integer.MAX_VALUE;
+    ProcessesAwaiter awaiter = awaiter().build();
+    CompletableFuture<Void> future = awaiter.await(client, "1");
+
+    awaiter.close();
+
+    CompletionException exc = assertThrows(CompletionException.class, future::join);
+    assertTrue(exc.getCause().getMessage().contains("is stopped"));
+  }
+
+  private static ProcessesAwaiter.Builder awaiter() {
+    return new ProcessesAwaiter.Builder()
+        .setInitialDelay(Duration.ofMillis(5))
+        .setMaxDelay(Duration.ofMillis(50));
+  }
+
+  private void processes(HttpExchange exchange) throws IOException {
+    String project = exchange.getRequestURI().getQuery().replaceFirst(".*project=", "");
+    if ("error".equals(project)) {
+      exchange.sendResponseHeaders(500, -1);
+      return;
+    }
+
+    if ("hang".equals(project)) {
+      sleep(1000);
+      exchange.close();
+      return;
+    }
+
+    int count = polls.computeIfAbsent(project, key -> new AtomicInteger()).incrementAndGet();
+    String body = count > drainAfter
+        ? "{\"processes\":[]}"
+        : String.format(RUNNING, progressing ? count * 10 : 0);
+    byte[] data = body.getBytes(UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, data.length);
+    try (OutputStream os = exchange.getResponseBody()) {
+      os.write(data);
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package com.ontotext.refine.client.command.rdf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link BufferingPolicy}.
+ */
+class BufferingPolicyTest {
+
+  @Test
+  void tryBuffer_respectsThresholdAndBudget() {
+    MemoryBudget budget = new MemoryBudget(150);
+    BufferingPolicy policy = new BufferingPolicy.Builder()
+        .setThreshold(100)
+        .setBudget(budget)
+        .build();
+
+    assertFalse(policy.tryBuffer(-1), "Unknown length should not be buffered");
+    assertFalse(policy.tryBuffer(101), "Length over the threshold should not be buffered");
+    assertTrue(policy.tryBuffer(100));
+    assertFalse(policy.tryBuffer(60), "The budget should be exceeded");
+    assertEquals(1, policy.getSpilledOverBudgetCount());
+
+    policy.release(100);
+    assertTrue(policy.tryBuffer(60));
+    assertEquals(60, budget.getUsed());
+    assertEquals(2, policy.getBufferedCount());
+    assertEquals(160, policy.getBufferedBytes());
+  }
+
+  @Test
+  void build_invalidThreshold() {
+    BufferingPolicy.Builder builder = new BufferingPolicy.Builder().setThreshold(-1);
+    assertThrows(IllegalArgumentException.class, builder::build);
+  }
+
+  @Test
+  void memoryBudget_invalidCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new MemoryBudget(0));
+  }
+}
@@ -3,6 +3,9 @@ package com.ontotext.refine.client.command.rdf;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -13,17 +16,24 @@ import static org.mockito.Mockito.when;
 import com.ontotext.refine.client.command.BaseCommandTest;
 import com.ontotext.refine.client.command.RefineCommands;
 import com.ontotext.refine.client.exceptions.RefineException;
+import com.ontotext.refine.client.util.mappings.PreparedMapping;
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpEntityEnclosingRequest;
 import org.apache.http.HttpHeaders;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.util.EntityUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 
@@ -105,6 +115,22 @@ class DefaultRdfExportCommandTest
     verifyNoInteractions(client);
   }
 
+  @Test
+  void execute_preparedMapping() throws IOException {
+    PreparedMapping prepared = PreparedMapping.of(mapping);
+    DefaultRdfExportCommand command = RefineCommands.exportRdf()
+        .setProject(PROJECT_ID)
+        .setMapping(prepared)
+        .setFormat(ResultFormat.TURTLE)
+        .build();
+
+    assertDoesNotThrow(() -> command.execute(client));
+
+    verify(client).execute(requestCaptor.capture(), any());
+    HttpEntityEnclosingRequest request = (HttpEntityEnclosingRequest) requestCaptor.getValue();
+    assertEquals(prepared.getMapping(), EntityUtils.toString(request.getEntity(), UTF_8));
+  }
+
   @Test
   void handleResponse_asStringExplicit() throws IOException {
     byte[] bytes = "dummy RDF data".getBytes();
@@ -158,4 +184,69 @@ class DefaultRdfExportCommandTest
       assertEquals("dummy RDF data", IOUtils.toString(response.getResultStream(), UTF_8));
     }
   }
+
+  @Test
+  void handleResponse_toTargetFile(@TempDir Path dir) throws IOException {
+    Path target = dir.resolve("result.ttl");
+    try (InputStream is = new ByteArrayInputStream("dummy RDF data".getBytes())) {
+      DefaultRdfExportCommand command = commandBuilder().setTarget(target).build();
+      ExportRdfResponse response = command.handleResponse(okResponse(is));
+      assertEquals(target.toFile(), response.getResultFile());
+      assertEquals("dummy RDF data", Files.readString(target));
+    }
+  }
+
+  @Test
+  void handleResponse_toSpoolDirectory(@TempDir Path dir) throws IOException {
+    File result;
+    try (SpoolDirectory spool = SpoolDirectory.in(dir)) {
+      try (InputStream is = new ByteArrayInputStream("dummy RDF data".getBytes())) {
+        DefaultRdfExportCommand command =
+            commandBuilder().setOutput(OutputType.FILE).setSpoolDirectory(spool).build();
+        result = command.handleResponse(okResponse(is)).getResultFile();
+      }
+
+      assertEquals(dir, result.toPath().getParent());
+      assertEquals("dummy RDF data", FileUtils.readFileToString(result, UTF_8));
+    }
+
+    assertFalse(result.exists());
+  }
+
+  @Test
+  void handleResponse_spillsOverThreshold() throws IOException {
+    BufferingPolicy policy = new BufferingPolicy.Builder().setThreshold(10).build();
+    byte[] bytes = "dummy RDF data".getBytes();
+    try (InputStream is = new ByteArrayInputStream(bytes)) {
+      DefaultRdfExportCommand command = commandBuilder().setBufferingPolicy(policy).build();
+      ExportRdfResponse response =
+          command.handleResponse(okResponse(is, BigInteger.valueOf(bytes.length)));
+      assertNotNull(response.getResultFile());
+      assertEquals("dummy RDF data", response.getResult());
+      FileUtils.deleteQuietly(response.getResultFile());
+    }
+
+    assertEquals(0, policy.getBufferedCount());
+    assertEquals(1, policy.getSpilledCount());
+  }
+
+  @Test
+  void handleResponse_buffersUnderThreshold() throws IOException {
+    BufferingPolicy policy = new BufferingPolicy.Builder().setThreshold(100).build();
+    byte[] bytes = "dummy RDF data".getBytes();
+    try (InputStream is = new ByteArrayInputStream(bytes)) {
+      DefaultRdfExportCommand command = commandBuilder().setBufferingPolicy(policy).build();
+      ExportRdfResponse response =
+          command.handleResponse(okResponse(is, BigInteger.valueOf(bytes.length)));
+      assertEquals("dummy RDF data", response.getResult());
+      assertEquals(bytes.length, policy.getBudget().getUsed());
+
+      response.release();
+      assertNull(response.getResult());
+    }
+
+    assertEquals(1, policy.getBufferedCount());
+    assertEquals(0, policy.getSpilledCount());
+    assertEquals(0, policy.getBudget().getUsed());
+  }
 }
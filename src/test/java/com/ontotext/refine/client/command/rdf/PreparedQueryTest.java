@@ -0,0 +1,80 @@
+package com.ontotext.refine.client.command.rdf;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test for {@link PreparedQuery}.
+ */
+class PreparedQueryTest {
+
+  private static final String TEMPLATE = "CONSTRUCT { ?s ?p ?o } WHERE {\n"
+      + "  SERVICE <rdf-mapper:ontorefine:#project_placeholder#> { ?s ?p ?o }\n"
+      + "  FILTER(?o != \"ü & #project_placeholder#\")\n"
+      + "}";
+
+  @ParameterizedTest
+  @ValueSource(strings = {"1958197932150", "project $1 & ü"})
+  void toFormEntity_equalToFormOfBoundQuery(String project) throws IOException {
+    PreparedQuery query = PreparedQuery.of(TEMPLATE);
+
+    String bound = TEMPLATE.replaceFirst(
+        Pattern.quote(PreparedQuery.DEFAULT_PLACEHOLDER), Matcher.quoteReplacement(project));
+
+    assertEquals(bound, query.bind(project));
+    assertEquals(form(bound), content(query.toFormEntity(project)));
+  }
+
+  @Test
+  void toFormEntity_literalPlaceholder() throws IOException {
+    PreparedQuery query = PreparedQuery.of("SELECT * WHERE { <urn:(.*)> ?p ?o }", "(.*)");
+
+    assertEquals("SELECT * WHERE { <urn:42> ?p ?o }", query.bind("42"));
+    assertEquals(form("SELECT * WHERE { <urn:42> ?p ?o }"), content(query.toFormEntity("42")));
+  }
+
+  @Test
+  void toFormEntity_withoutPlaceholder() throws IOException {
+    PreparedQuery query = PreparedQuery.of("CONSTRUCT WHERE { ?s ?p ?o }");
+
+    assertEquals("CONSTRUCT WHERE { ?s ?p ?o }", query.bind("42"));
+    assertEquals(form("CONSTRUCT WHERE { ?s ?p ?o }"), content(query.toFormEntity("42")));
+  }
+
+  @Test
+  void toEntity() throws IOException {
+    HttpEntity entity = PreparedQuery.of(TEMPLATE).toEntity();
+
+    assertTrue(entity.isRepeatable());
+    assertEquals(TEMPLATE, content(entity));
+    assertEquals(TEMPLATE, content(entity));
+  }
+
+  @Test
+  void of_blankQuery() {
+    assertThrows(IllegalArgumentException.class, () -> PreparedQuery.of(" "));
+  }
+
+  private static String form(String query) throws IOException {
+    return content(new UrlEncodedFormEntity(
+        singletonList(new BasicNameValuePair("query", query)), UTF_8));
+  }
+
+  private static String content(HttpEntity entity) throws IOException {
+    return EntityUtils.toString(entity, UTF_8);
+  }
+}
@@ -17,8 +17,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.commons.io.IOUtils;
 import org.apache.http.HttpHeaders;
+import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -98,4 +101,39 @@ class SparqlBasedRdfExportCommandTest
       assertEquals("dummy RDF data", IOUtils.toString(response.getResultStream(), UTF_8));
     }
   }
+
+  @Test
+  void execute_withHandler() throws IOException {
+    String turtle = "@prefix ex: <http://example.com/> .\n"
+        + "ex:s1 ex:p \"1\" .\n"
+        + "ex:s2 ex:p \"2\" .\n"
+        + "ex:s3 ex:p \"3\" .\n"
+        + "ex:s4 ex:p \"4\" .\n"
+        + "ex:s5 ex:p \"5\" .\n";
+    mockResponse(turtle);
+
+    List<Integer> sizes = new ArrayList<>();
+    BatchingRdfHandler handler = new BatchingRdfHandler(2, batch -> sizes.add(batch.size()));
+    command().execute(client, handler);
+
+    assertEquals(List.of(2, 2, 1), sizes);
+    assertEquals(5, handler.getStatements());
+    assertEquals(3, handler.getBatches());
+  }
+
+  @Test
+  void execute_withHandlerParseFailure() throws IOException {
+    mockResponse("not a turtle");
+
+    BatchingRdfHandler handler = new BatchingRdfHandler(2, batch -> { });
+    SparqlBasedRdfExportCommand command = command();
+
+    assertThrows(RefineException.class, () -> command.execute(client, handler));
+  }
+
+  private void mockResponse(String content) throws IOException {
+    when(client.execute(any(), any())).thenAnswer(invocation -> invocation
+        .getArgument(1, ResponseHandler.class)
+        .handleResponse(okResponse(new ByteArrayInputStream(content.getBytes(UTF_8)))));
+  }
 }
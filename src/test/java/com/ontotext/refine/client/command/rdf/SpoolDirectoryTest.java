@@ -0,0 +1,50 @@
+package com.ontotext.refine.client.command.rdf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link SpoolDirectory}.
+ */
+class SpoolDirectoryTest {
+
+  @Test
+  void create_deletesDirectoryOnClose() throws IOException {
+    Path directory;
+    Path file;
+    try (SpoolDirectory spool = SpoolDirectory.create()) {
+      directory = spool.getDirectory();
+      file = spool.newFile("test-", ".tmp");
+      assertEquals(directory, file.getParent());
+      assertTrue(Files.exists(file));
+    }
+
+    assertFalse(Files.exists(file));
+    assertFalse(Files.exists(directory));
+  }
+
+  @Test
+  void in_deletesOnlyCreatedFiles(@TempDir Path dir) throws IOException {
+    final Path foreign = Files.createFile(dir.resolve("foreign.txt"));
+    Path released;
+    Path file;
+    try (SpoolDirectory spool = SpoolDirectory.in(dir.resolve("spool"))) {
+      released = spool.newFile("test-", ".tmp");
+      file = spool.newFile("test-", ".tmp");
+      spool.delete(released);
+      assertFalse(Files.exists(released));
+      assertTrue(Files.exists(file));
+    }
+
+    assertFalse(Files.exists(file));
+    assertTrue(Files.exists(dir.resolve("spool")));
+    assertTrue(Files.exists(foreign));
+  }
+}
@@ -0,0 +1,206 @@
+package com.ontotext.refine.client.metrics;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ontotext.refine.client.ConnectionPoolConfig;
+import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.RefineClients;
+import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.command.version.GetVersionCommand;
+import com.ontotext.refine.client.exceptions.RefineException;
+import com.ontotext.refine.client.metrics.InMemoryMetrics.EndpointMetrics;
+import com.ontotext.refine.client.retry.RetryInterceptor;
+import com.ontotext.refine.client.retry.RetryPolicy;
+import com.ontotext.refine.client.testsupport.StubRefineServer;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.apache.http.entity.mime.content.ByteArrayBody;
+import org.apache.http.entity.mime.content.ContentBody;
+import org.apache.http.entity.mime.content.InputStreamBody;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test for {@link MetricsInterceptor} and {@link MeteredCommand}.
+ */
+class MetricsInterceptorTest {
+
+  private static final String VERSION_PATH = "/orefine/command/core/get-version";
+  private static final String EXPORT_PATH = "/orefine/command/core/export-rows";
+  private static final String FLAKY_PATH = "/orefine/command/core/guess-types-of-column";
+  private static final String UPLOAD_PATH = "/orefine/command/core/create-project-from-upload";
+
+  private final AtomicInteger flaky = new AtomicInteger();
+  private final AtomicLong uploaded = new AtomicLong();
+  private final InMemoryMetrics metrics = new InMemoryMetrics();
+
+  private StubRefineServer server;
+  private RefineClient client;
+  private String versionBody;
+
+  @BeforeEach
+  void setup() throws Exception {
+    versionBody = Files.readString(Path.of("src/test/resources/responseBody/get-version.json"));
+    server = StubRefineServer.start()
+        .respond(VERSION_PATH, 200, "application/json", versionBody)
+        .respond(EXPORT_PATH, 500, "text/plain", "failed")
+        .handle(FLAKY_PATH, exchange -> {
+          StubRefineServer.drain(exchange);
+          exchange.sendResponseHeaders(flaky.incrementAndGet() == 1 ? 503 : 200, -1);
+        })
+        .handle(UPLOAD_PATH, exchange -> {
+          try (InputStream is = exchange.getRequestBody()) {
+            uploaded.addAndGet(is.transferTo(OutputStream.nullOutputStream()));
+          }
+          exchange.sendResponseHeaders(200, -1);
+        });
+    client = RefineClients.pooled(server.uri(), ConnectionPoolConfig.createDefault());
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    client.close();
+    server.close();
+  }
+
+  @Test
+  void execute_recordsExchange() throws IOException {
+    client.addInterceptor(new MetricsInterceptor.Builder().setRecorder(metrics).build());
+
+    HttpUriRequest request = RequestBuilder.post(client.createUri(EXPORT_PATH))
+        .setEntity(new StringEntity("engine=%7B%7D", UTF_8))
+        .build();
+    assertEquals("failed", client.execute(request, this::body));
+    assertEquals(versionBody, client.executeAsync(version(), this::body).join());
+
+    EndpointMetrics export = metrics.getExchanges(EXPORT_PATH);
+    assertEquals(1, export.getCount());
+    assertEquals(1, export.getCount("500"));
+    assertEquals(13, export.getRequestBytes());
+    assertEquals(6, export.getResponseBytes());
+
+    EndpointMetrics versions = metrics.getExchanges(VERSION_PATH);
+    assertEquals(1, versions.getCount("200"));
+    assertEquals(0, versions.getRequestBytes());
+    assertEquals(versionBody.getBytes(UTF_8).length, versions.getResponseBytes());
+  }
+
+  @Test
+  void execute_recordsTransportErrors() throws IOException {
+    client.addInterceptor(new MetricsInterceptor.Builder().setRecorder(metrics).build());
+    server.close();
+
+    assertThrows(IOException.class, () -> client.execute(version(), this::body));
+
+    EndpointMetrics version = metrics.getExchanges(VERSION_PATH);
+    assertEquals(1, version.getCount());
+    assertEquals(1, version.getCount("HttpHostConnectException"));
+  }
+
+  @Test
+  void execute_recordsRetries() throws IOException {
+    client.addInterceptor(new RetryInterceptor.Builder()
+        .setDefaultPolicy(new RetryPolicy.Builder()
+            .setInitialBackoff(Duration.ofMillis(1))
+            .build())
+        .setMetrics(metrics)
+        .build());
+    client.addInterceptor(new MetricsInterceptor.Builder().setRecorder(metrics).build());
+
+    client.execute(RequestBuilder.post(client.createUri(FLAKY_PATH)).build(), this::body);
+
+    EndpointMetrics guess = metrics.getExchanges(FLAKY_PATH);
+    assertEquals(1, guess.getRetries());
+    assertEquals(1, guess.getCount("503"));
+    assertEquals(1, guess.getCount("200"));
+  }
+
+  @ParameterizedTest
+  @CsvSource({"1024, true", "65536, true", "65536, false"})
+  void executeAsync_countsMultipartUpload(int size, boolean repeatable) {
+    client.addInterceptor(new MetricsInterceptor.Builder().setRecorder(metrics).build());
+
+    byte[] data = new byte[size];
+    ContentBody body = repeatable
+        ? new ByteArrayBody(data, "data.csv")
+        : new InputStreamBody(new ByteArrayInputStream(data), "data.csv");
+    HttpUriRequest request = RequestBuilder.post(client.createUri(UPLOAD_PATH))
+        .setEntity(MultipartEntityBuilder.create().addPart("project-file", body).build())
+        .build();
+    client.executeAsync(request, this::body).join();
+
+    EndpointMetrics upload = metrics.getExchanges(UPLOAD_PATH);
+    assertEquals(1, upload.getCount("200"));
+    assertTrue(upload.getRequestBytes() > size, "Not counted: " + upload.getRequestBytes());
+    assertEquals(uploaded.get(), upload.getRequestBytes());
+  }
+
+  @Test
+  void meteredCommand_recordsExecutions() throws RefineException {
+    GetVersionCommand command = RefineCommands.getVersion().build();
+
+    MeteredCommand.of(command, metrics).execute(client);
+    MeteredCommand.of(command, metrics).executeAsync(client).join();
+    server.close();
+    assertThrows(RefineException.class, () -> MeteredCommand.of(command, metrics).execute(client));
+
+    EndpointMetrics version = metrics.getCommands(command.endpoint());
+    assertEquals(3, version.getCount());
+    assertEquals(2, version.getCount(MeteredCommand.SUCCESS));
+    assertEquals(1, version.getCount("RefineException"));
+  }
+
+  @Test
+  void bindPool_reportsPoolStats() throws IOException {
+    metrics.bindPool("refine", client::getPoolStats);
+
+    client.execute(version(), this::body);
+    client.executeAsync(version(), this::body).join();
+
+    PoolStats stats = metrics.getPoolStats("refine");
+    assertNotNull(stats);
+    assertEquals(0, stats.getLeased());
+    assertEquals(2, stats.getAvailable());
+    assertEquals(2 * ConnectionPoolConfig.createDefault().getMaxConnectionsTotal(), stats.getMax());
+  }
+
+  @Test
+  void endpointOf_replacesProjectIdentifiers() {
+    assertEquals("/rest/rdf-mapper/rdf/{project}", MetricsInterceptor.endpointOf(
+        RequestBuilder.post("http://localhost/rest/rdf-mapper/rdf/ontorefine:2048").build()));
+    assertEquals("/projects/{project}/rows", MetricsInterceptor.endpointOf(
+        RequestBuilder.get("http://localhost/projects/2048/rows").build()));
+    assertEquals(VERSION_PATH, MetricsInterceptor.endpointOf(version()));
+    assertTrue(MetricsInterceptor.endpointOf(RequestBuilder.get("http://localhost").build())
+        .startsWith("/"));
+  }
+
+  private HttpUriRequest version() {
+    return RequestBuilder.get(client.createUri(VERSION_PATH)).build();
+  }
+
+  private String body(HttpResponse response) throws IOException {
+    return response.getEntity() == null ? null : EntityUtils.toString(response.getEntity(), UTF_8);
+  }
+}
@@ -0,0 +1,57 @@
+package com.ontotext.refine.client.metrics.micrometer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.pool.PoolStats;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link MicrometerMetrics}.
+ */
+class MicrometerMetricsTest {
+
+  private final MeterRegistry registry = new SimpleMeterRegistry();
+  private final MicrometerMetrics metrics = new MicrometerMetrics(registry);
+
+  @Test
+  void recordExchange() {
+    metrics.recordExchange("/export", "200", TimeUnit.MILLISECONDS.toNanos(20), 10, 100);
+    metrics.recordExchange("/export", "200", TimeUnit.MILLISECONDS.toNanos(40), 10, 300);
+    metrics.recordExchange("/export", "503", TimeUnit.MILLISECONDS.toNanos(5), 10, 0);
+
+    Timer ok = registry.get("refine.client.requests")
+        .tags("endpoint", "/export", "outcome", "200")
+        .timer();
+    assertEquals(2, ok.count());
+    assertEquals(60, ok.totalTime(TimeUnit.MILLISECONDS), 0.001);
+    assertEquals(1, registry.get("refine.client.requests").tag("outcome", "503").timer().count());
+    assertEquals(400, registry.get("refine.client.response.bytes").summary().totalAmount(), 0.001);
+    assertEquals(30, registry.get("refine.client.request.bytes").summary().totalAmount(), 0.001);
+  }
+
+  @Test
+  void recordCommandAndRetry() {
+    metrics.recordCommand("/get-version", "success", 1000);
+    metrics.recordRetry("/get-version");
+    metrics.recordRetry("/get-version");
+
+    assertEquals(1, registry.get("refine.client.commands").tag("outcome", "success").timer()
+        .count());
+    assertEquals(2, registry.get("refine.client.retries").counter().count(), 0.001);
+  }
+
+  @Test
+  void bindPool() {
+    metrics.bindPool("refine", () -> new PoolStats(3, 1, 2, 20));
+
+    assertEquals(3, registry.get("refine.client.pool.leased").tag("pool", "refine").gauge()
+        .value(), 0.001);
+    assertEquals(1, registry.get("refine.client.pool.pending").gauge().value(), 0.001);
+    assertEquals(2, registry.get("refine.client.pool.available").gauge().value(), 0.001);
+    assertEquals(20, registry.get("refine.client.pool.max").gauge().value(), 0.001);
+  }
+}
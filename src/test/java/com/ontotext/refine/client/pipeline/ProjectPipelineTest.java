@@ -0,0 +1,275 @@
+package com.ontotext.refine.client.pipeline;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ontotext.refine.client.ConnectionPoolConfig;
+import com.ontotext.refine.client.JsonOperation;
+import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.RefineClients;
+import com.ontotext.refine.client.command.create.BatchCreateProjectsCommand.Item;
+import com.ontotext.refine.client.command.processes.ProcessesAwaiter;
+import com.ontotext.refine.client.command.rdf.ResultFormat;
+import com.ontotext.refine.client.exceptions.RefineException;
+import com.ontotext.refine.client.testsupport.StubRefineServer;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.io.IOUtils;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link ProjectPipeline}.
+ */
+class ProjectPipelineTest {
+
+  private static final String TOKEN_PATH = "/orefine/command/core/get-csrf-token";
+  private static final String CREATE_PATH = "/orefine/command/core/create-project-from-upload";
+  private static final String OPERATIONS_PATH = "/orefine/command/core/apply-operations";
+  private static final String PROCESSES_PATH = "/orefine/command/core/get-processes";
+  private static final String EXPORT_PATH = "/rest/rdf-mapper/rdf/ontorefine";
+  private static final String DELETE_PATH = "/orefine/command/core/delete-project";
+
+  private final AtomicInteger projects = new AtomicInteger();
+  private final AtomicInteger exporting = new AtomicInteger();
+  private final AtomicInteger maxExporting = new AtomicInteger();
+  private final Set<String> deleted = ConcurrentHashMap.newKeySet();
+
+  private StubRefineServer server;
+  private RefineClient client;
+  private String mapping;
+
+  @TempDir
+  Path dir;
+
+  @BeforeEach
+  void setup() throws Exception {
+    server = StubRefineServer.start()
+        .respond(TOKEN_PATH, 200, "application/json", "{\"token\":\"csrf-token\"}")
+        .respond(OPERATIONS_PATH, 200, "application/json", "{\"code\":\"pending\"}")
+        .respond(PROCESSES_PATH, 200, "application/json", "{\"processes\":[]}")
+        .handle(CREATE_PATH, this::create)
+        .handle(EXPORT_PATH, this::export)
+        .handle(DELETE_PATH, this::delete);
+    client = RefineClients.pooled(server.uri(), ConnectionPoolConfig.createDefault());
+
+    try (InputStream is = getClass().getClassLoader()
+        .getResourceAsStream("rdf/getOperations_response.json")) {
+      mapping = IOUtils.toString(is, UTF_8);
+    }
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    client.close();
+    server.close();
+  }
+
+  @Test
+  void run_allStagesWithCleanup() throws IOException {
+    List<Item> items = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      String name = i == 3 ? "fail-create" : "project-" + i;
+      Path file = Files.writeString(dir.resolve(name + ".csv"), "id\n" + name);
+      items.add(new Item(name, file.toFile(), null, null));
+    }
+
+    Map<String, AtomicInteger> received = new ConcurrentHashMap<>();
+    ProcessesAwaiter awaiter = new ProcessesAwaiter.Builder()
+        .setInitialDelay(Duration.ofMillis(10))
+        .build();
+    ProjectPipeline pipeline = new ProjectPipeline.Builder()
+        .setOperations(JsonOperation.from("{\"op\":\"core/column-removal\",\"columnName\":\"id\"}"))
+        .setExporter(mapping, ResultFormat.TURTLE)
+        .setSink((item, project) -> new AbstractRDFHandler() {
+
+          @Override
+          public void handleStatement(Statement statement) {
+            received.computeIfAbsent(item.getName(), name -> new AtomicInteger()).incrementAndGet();
+          }
+        })
+        .setConcurrency(PipelineStage.CREATE, 2)
+        .setConcurrency(PipelineStage.EXPORT, 3)
+        .setAwaiter(awaiter)
+        .build();
+
+    PipelineReport report;
+    try (awaiter) {
+      report = pipeline.run(client, items);
+    }
+
+    assertEquals(10, report.getResults().size());
+    assertEquals(8, report.getSuccessfulCount());
+    assertEquals(2, report.getFailedCount());
+    assertTrue(maxExporting.get() <= 3, "Too many concurrent exports: " + maxExporting.get());
+    assertEquals(1, server.hits(TOKEN_PATH));
+    assertEquals(9, server.hits(PROCESSES_PATH));
+
+    PipelineResult failedCreate = report.getResults().get(3);
+    assertEquals(PipelineStage.CREATE, failedCreate.getFailedStage());
+    assertNull(failedCreate.getProject());
+
+    int failedExports = 0;
+    for (PipelineResult result : report.getResults()) {
+      if (result.getProject() == null) {
+        continue;
+      }
+
+      assertTrue(result.isDeleted());
+      assertTrue(deleted.contains(result.getProject()), "Not deleted: " + result);
+      if (result.isSuccessful()) {
+        assertEquals(2, result.getStatements());
+        assertEquals(2, received.get(result.getItem().getName()).get());
+      } else {
+        assertEquals(PipelineStage.EXPORT, result.getFailedStage());
+        failedExports++;
+      }
+    }
+
+    assertEquals(1, failedExports);
+    assertEquals(9, deleted.size());
+    assertEquals(10, report.getLatency(PipelineStage.CREATE).getCount());
+    assertEquals(9, report.getLatency(PipelineStage.EXPORT).getCount());
+    assertEquals(9, report.getLatency(PipelineStage.DELETE).getCount());
+    assertTrue(report.getLatency(PipelineStage.EXPORT).getPercentile(50, TimeUnit.NANOSECONDS) > 0);
+    assertFalse(report.getResults().get(0).getItem().getName().isEmpty());
+  }
+
+  @Test
+  void run_handlersAreCompletedWhenExportFails() throws IOException {
+    List<Item> items = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      Path file = Files.writeString(dir.resolve("project-" + i + ".csv"), "id\n" + i);
+      items.add(new Item("project-" + i, file.toFile(), null, null));
+    }
+
+    AtomicInteger closed = new AtomicInteger();
+    Map<String, Optional<RefineException>> completed = new ConcurrentHashMap<>();
+    ProjectPipeline pipeline = new ProjectPipeline.Builder()
+        .setExporter(mapping, ResultFormat.TURTLE)
+        .setSink(new RdfSink() {
+
+          @Override
+          public RDFHandler open(Item item, String project) {
+            return new ClosingHandler(project, closed);
+          }
+
+          @Override
+          public void complete(RDFHandler handler, RefineException failure) throws IOException {
+            completed.put(((ClosingHandler) handler).project, Optional.ofNullable(failure));
+            RdfSink.super.complete(handler, failure);
+          }
+        })
+        .build();
+
+    PipelineReport report = pipeline.run(client, items);
+
+    assertEquals(4, report.getSuccessfulCount());
+    assertEquals(5, completed.size());
+    assertEquals(5, closed.get());
+    for (PipelineResult result : report.getResults()) {
+      Optional<RefineException> failure = completed.get(result.getProject());
+      if (result.isSuccessful()) {
+        assertTrue(failure.isEmpty());
+      } else {
+        assertEquals(PipelineStage.EXPORT, result.getFailedStage());
+        assertSame(result.getError(), failure.orElseThrow());
+      }
+    }
+  }
+
+  private void create(HttpExchange exchange) throws IOException {
+    String body = new String(exchange.getRequestBody().readAllBytes(), UTF_8);
+    if (body.contains("fail-create")) {
+      exchange.sendResponseHeaders(500, -1);
+      return;
+    }
+
+    exchange.getResponseHeaders()
+        .add("Location", "/project?project=" + projects.incrementAndGet());
+    exchange.sendResponseHeaders(302, -1);
+  }
+
+  private void export(HttpExchange exchange) throws IOException {
+    StubRefineServer.drain(exchange);
+    maxExporting.accumulateAndGet(exporting.incrementAndGet(), Math::max);
+    try {
+      sleep();
+    } finally {
+      // the client could start next export as soon as it receives the response
+      exporting.decrementAndGet();
+    }
+
+    String project = exchange.getRequestURI().getPath().replaceFirst(".*:", "");
+    if ("5".equals(project)) {
+      exchange.sendResponseHeaders(500, -1);
+      return;
+    }
+
+    byte[] data = ("<http://example.com/" + project + "> <http://example.com/p> \"a\" , \"b\" .")
+        .getBytes(UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "text/turtle");
+    exchange.sendResponseHeaders(200, data.length);
+    try (OutputStream os = exchange.getResponseBody()) {
+      os.write(data);
+    }
+  }
+
+  private void delete(HttpExchange exchange) throws IOException {
+    String body = new String(exchange.getRequestBody().readAllBytes(), UTF_8);
+    deleted.add(body.replaceFirst(".*project=", ""));
+    byte[] data = "{\"code\":\"ok\"}".getBytes(UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, data.length);
+    try (OutputStream os = exchange.getResponseBody()) {
+      os.write(data);
+    }
+  }
+
+  private static class ClosingHandler extends AbstractRDFHandler implements Closeable {
+
+    private final String project;
+    private final AtomicInteger closed;
+
+    private ClosingHandler(String project, AtomicInteger closed) {
+      this.project = project;
+      this.closed = closed;
+    }
+
+    @Override
+    public void close() {
+      closed.incrementAndGet();
+    }
+  }
+
+  private static void sleep() {
+    try {
+      Thread.sleep(20);
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
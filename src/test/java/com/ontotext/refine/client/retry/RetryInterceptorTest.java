@@ -0,0 +1,281 @@
+package com.ontotext.refine.client.retry;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ontotext.refine.client.ConnectionPoolConfig;
+import com.ontotext.refine.client.ExecutionInterceptor;
+import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.RefineClients;
+import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.exceptions.AdmissionRejectedException;
+import com.ontotext.refine.client.exceptions.CircuitOpenException;
+import com.ontotext.refine.client.exceptions.RefineException;
+import com.ontotext.refine.client.testsupport.StubRefineServer;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link RetryInterceptor}.
+ */
+class RetryInterceptorTest {
+
+  private static final String VERSION_PATH = "/orefine/command/core/get-version";
+  private static final String DELETE_PATH = "/orefine/command/core/delete-project";
+  private static final String VERSION_BODY = "{\"full_name\":\"Refine\",\"full_version\":\"1.2\","
+      + "\"version\":\"1.2\",\"revision\":\"1\"}";
+
+  private static final RetryPolicy FAST = new RetryPolicy.Builder()
+      .setMaxAttempts(3)
+      .setInitialBackoff(Duration.ofMillis(5))
+      .setMaxBackoff(Duration.ofMillis(20))
+      .build();
+
+  /** The number of requests, which are answered with 503, before the successful response. */
+  private final AtomicInteger unavailable = new AtomicInteger();
+
+  private StubRefineServer server;
+  private RefineClient client;
+
+  @BeforeEach
+  void setup() throws Exception {
+    server = StubRefineServer.start()
+        .handle(VERSION_PATH, this::version)
+        .respond(DELETE_PATH, 503, "text/plain", "Unavailable");
+    client = RefineClients.pooled(server.uri(), ConnectionPoolConfig.createDefault());
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    client.close();
+    server.close();
+  }
+
+  @Test
+  void execute_retriesUnavailable() throws IOException {
+    client.addInterceptor(new RetryInterceptor.Builder().setDefaultPolicy(FAST).build());
+    unavailable.set(2);
+
+    assertNotNull(RefineCommands.getVersion().build().execute(client));
+    assertEquals(3, server.hits(VERSION_PATH));
+  }
+
+  @Test
+  void execute_givesUpAfterMaxAttempts() {
+    client.addInterceptor(new RetryInterceptor.Builder().setDefaultPolicy(FAST).build());
+    unavailable.set(10);
+
+    assertThrows(RefineException.class, () -> RefineCommands.getVersion().build().execute(client));
+    assertEquals(3, server.hits(VERSION_PATH));
+  }
+
+  @Test
+  void execute_policyPerEndpoint() {
+    RetryPolicy once = new RetryPolicy.Builder().setMaxAttempts(1).build();
+    client.addInterceptor(new RetryInterceptor.Builder()
+        .setDefaultPolicy(FAST)
+        .setPolicy("/orefine/command/core/get-", once)
+        .build());
+    unavailable.set(10);
+
+    assertThrows(RefineException.class, () -> RefineCommands.getVersion().build().execute(client));
+    assertEquals(1, server.hits(VERSION_PATH));
+  }
+
+  @Test
+  void execute_nonIdempotentNotRetried() {
+    client.addInterceptor(new RetryInterceptor.Builder().setDefaultPolicy(FAST).build());
+
+    assertThrows(RefineException.class, () -> RefineCommands
+        .deleteProject()
+        .project("1")
+        .token("token")
+        .build()
+        .execute(client));
+    assertEquals(1, server.hits(DELETE_PATH));
+  }
+
+  @Test
+  void execute_budgetLimitsRetries() {
+    client.addInterceptor(new RetryInterceptor.Builder()
+        .setDefaultPolicy(FAST)
+        .setBudget(RetryBudget.create(0, 1))
+        .setCircuitBreaker(null)
+        .build());
+    unavailable.set(10);
+
+    for (int i = 0; i < 3; i++) {
+      assertThrows(RefineException.class,
+          () -> RefineCommands.getVersion().build().execute(client));
+    }
+    assertEquals(4, server.hits(VERSION_PATH));
+  }
+
+  @Test
+  void execute_circuitOpensAndProbes() throws Exception {
+    CircuitBreaker breaker = new CircuitBreaker.Builder()
+        .setFailureThreshold(3)
+        .setOpenDuration(Duration.ofMillis(200))
+        .build();
+    client.addInterceptor(new RetryInterceptor.Builder()
+        .setDefaultPolicy(RetryPolicy.none())
+        .setCircuitBreaker(breaker)
+        .build());
+    unavailable.set(4);
+
+    for (int i = 0; i < 3; i++) {
+      assertThrows(RefineException.class, this::getVersion);
+    }
+    assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+    RefineException rejected = assertThrows(RefineException.class, this::getVersion);
+    assertTrue(rejected.getMessage().contains("circuit breaker is open"));
+    assertEquals(3, server.hits(VERSION_PATH));
+
+    Thread.sleep(250);
+    assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+    // the probe fails and the breaker opens again
+    assertThrows(RefineException.class, this::getVersion);
+    assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    assertEquals(4, server.hits(VERSION_PATH));
+
+    Thread.sleep(250);
+    assertNotNull(getVersion());
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+  }
+
+  @Test
+  void execute_localFailureDoesNotCloseCircuit() throws Exception {
+    CircuitBreaker breaker = new CircuitBreaker.Builder()
+        .setFailureThreshold(1)
+        .setOpenDuration(Duration.ofMillis(100))
+        .build();
+    AtomicBoolean rejecting = new AtomicBoolean();
+    client.addInterceptor(new RetryInterceptor.Builder()
+        .setDefaultPolicy(RetryPolicy.none())
+        .setCircuitBreaker(breaker)
+        .build());
+    client.addInterceptor(new ExecutionInterceptor() {
+      @Override
+      public <T> T intercept(
+          HttpUriRequest request, ResponseHandler<? extends T> handler, Chain chain)
+          throws IOException {
+        if (rejecting.get()) {
+          throw new AdmissionRejectedException("Too many concurrent requests");
+        }
+        return chain.proceed(request, handler);
+      }
+    });
+    unavailable.set(1);
+
+    assertThrows(RefineException.class, this::getVersion);
+    Thread.sleep(150);
+
+    // the rejected probe is not sent, so it neither closes the breaker nor holds its permission
+    rejecting.set(true);
+    assertThrows(RefineException.class, this::getVersion);
+    assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    assertEquals(1, server.hits(VERSION_PATH));
+
+    rejecting.set(false);
+    assertNotNull(getVersion());
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    assertEquals(2, server.hits(VERSION_PATH));
+  }
+
+  @Test
+  void execute_handlerFailureNotRetried() {
+    CircuitBreaker breaker = new CircuitBreaker.Builder().setFailureThreshold(1).build();
+    client.addInterceptor(new RetryInterceptor.Builder()
+        .setDefaultPolicy(FAST)
+        .setCircuitBreaker(breaker)
+        .build());
+    AtomicInteger handled = new AtomicInteger();
+
+    IOException exc = assertThrows(IOException.class, () -> client.execute(
+        RequestBuilder.get(server.uri() + VERSION_PATH).build(),
+        response -> {
+          handled.incrementAndGet();
+          response.getEntity().getContent().read(new byte[8]);
+          throw new IOException("No space left on device");
+        }));
+
+    assertEquals("No space left on device", exc.getMessage());
+    assertEquals(1, handled.get());
+    assertEquals(1, server.hits(VERSION_PATH));
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+  }
+
+  @Test
+  void executeAsync_retriesUnavailable() {
+    client.addInterceptor(new RetryInterceptor.Builder().setDefaultPolicy(FAST).build());
+    unavailable.set(2);
+
+    assertNotNull(RefineCommands.getVersion().build().executeAsync(client).join());
+    assertEquals(3, server.hits(VERSION_PATH));
+  }
+
+  @Test
+  void executeAsync_circuitOpen() {
+    CircuitBreaker breaker = new CircuitBreaker.Builder().setFailureThreshold(1).build();
+    client.addInterceptor(new RetryInterceptor.Builder()
+        .setDefaultPolicy(RetryPolicy.none())
+        .setCircuitBreaker(breaker)
+        .build());
+    unavailable.set(10);
+
+    assertThrows(CompletionException.class,
+        () -> RefineCommands.getVersion().build().executeAsync(client).join());
+    CompletionException exc = assertThrows(CompletionException.class,
+        () -> RefineCommands.getVersion().build().executeAsync(client).join());
+
+    assertInstanceOf(CircuitOpenException.class, exc.getCause());
+    assertEquals(1, server.hits(VERSION_PATH));
+  }
+
+  @Test
+  void isIdempotent() {
+    assertTrue(RetryInterceptor.isIdempotent(RequestBuilder.get("http://localhost/x").build()));
+    assertTrue(RetryInterceptor.isIdempotent(
+        RequestBuilder.post("http://localhost/orefine/command/core/export-rows").build()));
+    assertTrue(RetryInterceptor.isIdempotent(
+        RequestBuilder.post("http://localhost/rest/rdf-mapper/rdf/ontorefine:1").build()));
+    assertFalse(RetryInterceptor.isIdempotent(
+        RequestBuilder.post("http://localhost/orefine/command/core/apply-operations").build()));
+    assertFalse(RetryInterceptor.isIdempotent(
+        RequestBuilder.post("http://localhost/orefine/command/project-configurations/import")
+            .build()));
+  }
+
+  private Object getVersion() throws RefineException {
+    return RefineCommands.getVersion().build().execute(client);
+  }
+
+  private void version(HttpExchange exchange) throws IOException {
+    StubRefineServer.drain(exchange);
+    boolean fail = unavailable.getAndDecrement() > 0;
+    byte[] data = (fail ? "Unavailable" : VERSION_BODY).getBytes(UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", fail ? "text/plain" : "application/json");
+    exchange.sendResponseHeaders(fail ? 503 : 200, data.length);
+    try (OutputStream os = exchange.getResponseBody()) {
+      os.write(data);
+    }
+  }
+}
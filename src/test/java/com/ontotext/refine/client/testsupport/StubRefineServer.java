@@ -0,0 +1,173 @@
+package com.ontotext.refine.client.testsupport;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lightweight HTTP server, which can be used as a stub of Refine instance in tests and benchmarks.
+ * The server is bound to the loopback interface on random port and serves predefined responses
+ * for specific paths.
+ */
+public class StubRefineServer implements AutoCloseable {
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+
+  private StubRefineServer(HttpServer server, ExecutorService executor) {
+    this.server = server;
+    this.executor = executor;
+  }
+
+  /**
+   * Starts new stub server.
+   *
+   * @return the started server
+   * @throws IOException when the server cannot be bound
+   */
+  public static StubRefineServer start() throws IOException {
+    HttpServer server =
+        HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    ExecutorService executor = Executors.newCachedThreadPool();
+    server.setExecutor(executor);
+    server.start();
+    return new StubRefineServer(server, executor);
+  }
+
+  /**
+   * Provides the base URI of the server.
+   *
+   * @return the URI as string
+   */
+  public String uri() {
+    InetSocketAddress address = server.getAddress();
+    return "http://" + address.getHostString() + ":" + address.getPort();
+  }
+
+  /**
+   * Registers a static response for the given path.
+   *
+   * @param path of the request
+   * @param status of the response
+   * @param contentType of the response body
+   * @param body of the response
+   * @return the current server for fluent usage
+   */
+  public StubRefineServer respond(String path, int status, String contentType, String body) {
+    return respond(path, status, contentType, body, Duration.ZERO);
+  }
+
+  /**
+   * Registers a static response for the given path, which is sent after specific delay. The delay
+   * simulates the processing time of the Refine instance.
+   *
+   * @param path of the request
+   * @param status of the response
+   * @param contentType of the response body
+   * @param body of the response
+   * @param latency before the response is sent
+   * @return the current server for fluent usage
+   */
+  public StubRefineServer respond(
+      String path, int status, String contentType, String body, Duration latency) {
+    byte[] bytes = body.getBytes(UTF_8);
+    return handle(path, exchange -> {
+      drain(exchange);
+      sleep(latency);
+      exchange.getResponseHeaders().add("Content-Type", contentType);
+      exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+      try (OutputStream os = exchange.getResponseBody()) {
+        os.write(bytes);
+      }
+    });
+  }
+
+  /**
+   * Registers custom handler for the given path.
+   *
+   * @param path of the request
+   * @param handler of the requests
+   * @return the current server for fluent usage
+   */
+  public StubRefineServer handle(String path, StubHandler handler) {
+    server.createContext(path, exchange -> {
+      hits.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+      try {
+        handler.handle(exchange);
+      } finally {
+        exchange.close();
+      }
+    });
+    return this;
+  }
+
+  /**
+   * Provides the number of requests received for the given path.
+   *
+   * @param path of the requests
+   * @return the count of the received requests
+   */
+  public int hits(String path) {
+    AtomicInteger counter = hits.get(path);
+    return counter == null ? 0 : counter.get();
+  }
+
+  /**
+   * Consumes the body of the request.
+   *
+   * @param exchange which request body to consume
+   * @return the number of the consumed bytes
+   * @throws IOException when the body cannot be read
+   */
+  public static long drain(HttpExchange exchange) throws IOException {
+    try (InputStream is = exchange.getRequestBody()) {
+      return is.transferTo(OutputStream.nullOutputStream());
+    }
+  }
+
+  private static void sleep(Duration latency) {
+    if (latency.isZero()) {
+      return;
+    }
+
+    try {
+      Thread.sleep(latency.toMillis());
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  /**
+   * Handles the requests to specific path of the stub server.
+   */
+  @FunctionalInterface
+  public interface StubHandler {
+
+    /**
+     * Handles the exchange.
+     *
+     * @param exchange to handle
+     * @throws IOException when the response cannot be written
+     */
+    void handle(HttpExchange exchange) throws IOException;
+  }
+}
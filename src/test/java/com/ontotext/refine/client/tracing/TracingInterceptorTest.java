@@ -0,0 +1,179 @@
+package com.ontotext.refine.client.tracing;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ontotext.refine.client.ConnectionPoolConfig;
+import com.ontotext.refine.client.RefineClient;
+import com.ontotext.refine.client.RefineClients;
+import com.ontotext.refine.client.command.RefineCommands;
+import com.ontotext.refine.client.testsupport.StubRefineServer;
+import com.ontotext.refine.client.tracing.InMemoryTracer.RecordedSpan;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link TracingInterceptor} and {@link TracedCommand}.
+ */
+class TracingInterceptorTest {
+
+  private static final String VERSION_PATH = "/orefine/command/core/get-version";
+  private static final String EXPORT_PATH = "/orefine/command/core/export-rows";
+
+  private final InMemoryTracer tracer = new InMemoryTracer();
+
+  private StubRefineServer server;
+  private RefineClient client;
+  private String versionBody;
+  private volatile String traceparent;
+
+  @BeforeEach
+  void setup() throws Exception {
+    versionBody = Files.readString(Path.of("src/test/resources/responseBody/get-version.json"));
+    server = StubRefineServer.start()
+        .handle(VERSION_PATH, this::handleVersion)
+        .respond(EXPORT_PATH, 200, "text/csv", "id\n1\n2\n");
+    client = RefineClients.pooled(server.uri(), ConnectionPoolConfig.createDefault());
+    client.addInterceptor(new TracingInterceptor.Builder().setTracer(tracer).build());
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    client.close();
+    server.close();
+  }
+
+  @Test
+  void execute_tracesPhasesOfCommand() throws IOException {
+    TracedCommand.of(RefineCommands.getVersion().build(), tracer).execute(client);
+
+    RecordedSpan command = single("refine " + VERSION_PATH);
+    RecordedSpan exchange = single("refine GET " + VERSION_PATH);
+    assertEquals(command.getSpanId(), exchange.getParentId());
+    assertEquals(command.getTraceId(), exchange.getTraceId());
+    assertEquals("200", exchange.getAttribute("http.status_code"));
+    assertEquals("GetVersionCommand", command.getAttribute("refine.command"));
+
+    assertEquals(Set.of("build", "lease", "send", "first-byte", "body", "parse"),
+        names(tracer.getChildren(exchange)));
+    for (RecordedSpan phase : tracer.getChildren(exchange)) {
+      assertTrue(phase.getStart() >= command.getStart(), phase.getName());
+      assertTrue(phase.getEnd() <= command.getEnd(), phase.getName());
+    }
+
+    assertEquals("00-" + exchange.getTraceId() + "-" + exchange.getSpanId() + "-01", traceparent);
+  }
+
+  @Test
+  void execute_tracesPhasesOfExchange() throws IOException {
+    HttpUriRequest request = RequestBuilder.post(client.createUri(EXPORT_PATH))
+        .setEntity(new StringEntity("engine=%7B%7D", UTF_8))
+        .build();
+
+    assertEquals("id\n1\n2\n", client.executeAsync(request, this::body).join());
+    assertEquals("id\n1\n2\n", client.execute(request, this::body));
+
+    List<RecordedSpan> exchanges = tracer.getSpans("refine POST " + EXPORT_PATH);
+    assertEquals(2, exchanges.size());
+    exchanges.forEach(exchange -> assertNull(exchange.getParentId()));
+    assertEquals(Set.of("first-byte", "body", "parse"),
+        names(tracer.getChildren(exchanges.get(0))));
+    assertEquals(Set.of("lease", "send", "first-byte", "body", "parse"),
+        names(tracer.getChildren(exchanges.get(1))));
+  }
+
+  @Test
+  void execute_recordsError() throws IOException {
+    server.close();
+
+    assertThrows(IOException.class, () -> client.execute(
+        RequestBuilder.get(client.createUri(VERSION_PATH)).build(), this::body));
+
+    RecordedSpan exchange = single("refine GET " + VERSION_PATH);
+    assertInstanceOf(IOException.class, exchange.getError());
+    assertTrue(tracer.getChildren(exchange).isEmpty());
+  }
+
+  @Test
+  void traceparent_skipsInvalidIdentifiers() {
+    TraceSpan span = new InMemoryTracer().start("span", null, 0L);
+    assertEquals(55, TracingInterceptor.traceparent(span).length());
+
+    TraceSpan invalid = new TraceSpan() {
+
+      @Override
+      public String getTraceId() {
+        return "00000000000000000000000000000000";
+      }
+
+      @Override
+      public String getSpanId() {
+        return "0000000000000000";
+      }
+
+      @Override
+      public boolean isSampled() {
+        return false;
+      }
+
+      @Override
+      public void setAttribute(String key, String value) {
+        // not recorded
+      }
+
+      @Override
+      public void recordError(Throwable error) {
+        // not recorded
+      }
+
+      @Override
+      public void end(long end) {
+        // not recorded
+      }
+    };
+    assertNull(TracingInterceptor.traceparent(invalid));
+  }
+
+  private RecordedSpan single(String name) {
+    List<RecordedSpan> spans = tracer.getSpans(name);
+    assertEquals(1, spans.size(), () -> "Spans: " + tracer.getSpans());
+    return spans.get(0);
+  }
+
+  private static Set<String> names(List<RecordedSpan> spans) {
+    return spans.stream().map(RecordedSpan::getName).collect(Collectors.toSet());
+  }
+
+  private String body(HttpResponse response) throws IOException {
+    return EntityUtils.toString(response.getEntity(), UTF_8);
+  }
+
+  private void handleVersion(HttpExchange exchange) throws IOException {
+    StubRefineServer.drain(exchange);
+    traceparent = exchange.getRequestHeaders().getFirst(TracingInterceptor.TRACEPARENT);
+    byte[] data = versionBody.getBytes(UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, data.length);
+    try (OutputStream os = exchange.getResponseBody()) {
+      os.write(data);
+    }
+  }
+}
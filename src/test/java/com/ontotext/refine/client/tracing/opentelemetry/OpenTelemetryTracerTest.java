@@ -0,0 +1,76 @@
+package com.ontotext.refine.client.tracing.opentelemetry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ontotext.refine.client.tracing.TraceSpan;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link OpenTelemetryTracer}.
+ */
+class OpenTelemetryTracerTest {
+
+  private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+  private final SdkTracerProvider provider = SdkTracerProvider.builder()
+      .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+      .build();
+  private final OpenTelemetryTracer tracer =
+      new OpenTelemetryTracer(provider.get("test"));
+
+  @AfterEach
+  void tearDown() {
+    provider.close();
+  }
+
+  @Test
+  void start_createsSpansWithTimestamps() {
+    long start = TimeUnit.SECONDS.toNanos(1_700_000_000L);
+    TraceSpan parent = tracer.start("refine GET /get-version", null, start);
+    parent.setAttribute("refine.endpoint", "/get-version");
+    TraceSpan child = tracer.start("lease", parent, start + 1000);
+    child.end(start + 2000);
+    parent.recordError(new IllegalStateException("failed"));
+    parent.end(start + 5000);
+
+    List<SpanData> spans = exporter.getFinishedSpanItems();
+    assertEquals(2, spans.size());
+    SpanData lease = spans.get(0);
+    SpanData exchange = spans.get(1);
+    assertEquals("lease", lease.getName());
+    assertEquals(exchange.getSpanId(), lease.getParentSpanId());
+    assertEquals(start + 1000, lease.getStartEpochNanos());
+    assertEquals(start + 2000, lease.getEndEpochNanos());
+    assertEquals("/get-version", exchange.getAttributes().asMap().values().iterator().next());
+    assertEquals(StatusCode.ERROR, exchange.getStatus().getStatusCode());
+    assertEquals(parent.getTraceId(), lease.getTraceId());
+    assertTrue(parent.isSampled());
+  }
+
+  @Test
+  void start_usesCurrentContextAsParent() {
+    Span application = provider.get("application").spanBuilder("application").startSpan();
+    try (Scope scope = application.makeCurrent()) {
+      TraceSpan span = tracer.start("refine GET /get-version", null, System.nanoTime());
+      span.end(System.nanoTime());
+      assertEquals(application.getSpanContext().getTraceId(), span.getTraceId());
+      assertFalse(span.getSpanId().equals(application.getSpanContext().getSpanId()));
+    } finally {
+      application.end();
+    }
+
+    assertEquals(application.getSpanContext().getSpanId(),
+        exporter.getFinishedSpanItems().get(0).getParentSpanId());
+  }
+}
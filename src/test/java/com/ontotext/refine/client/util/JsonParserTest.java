@@ -1,13 +1,23 @@
 package com.ontotext.refine.client.util;
 
 import static com.ontotext.refine.client.util.JsonParser.JSON_PARSER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.ontotext.refine.client.exceptions.RefineException;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 
@@ -34,4 +44,75 @@ class JsonParserTest {
 
     assertThrows(RefineException.class, () -> JSON_PARSER.parseJson(plainText));
   }
+
+  @Test
+  void readTextFields_skipsOtherFields() throws IOException {
+    JsonFields fields = JSON_PARSER.readTextFields(
+        stream("{\"code\":\"error\",\"stack\":{\"trace\":[1,2]},\"message\":\"failed\"}"),
+        "code", "message");
+
+    assertEquals("error", fields.get("code"));
+    assertEquals("failed", fields.getExisting("message"));
+    assertFalse(fields.has("stack"));
+    assertThrows(RefineException.class, () -> fields.getExisting("types"));
+  }
+
+  @Test
+  void readTextFields_likeAsText() throws IOException {
+    String json = "{\"null\":null,\"object\":{\"a\":1},\"array\":[1],\"number\":1.5,"
+        + "\"flag\":true,\"text\":\"t\",\"last\":\"l\"}";
+    JsonNode node = JSON_PARSER.parseJson(json);
+    String[] names = {"null", "object", "array", "number", "flag", "text", "last"};
+
+    JsonFields fields = JSON_PARSER.readTextFields(stream(json), names);
+
+    for (String name : names) {
+      assertEquals(node.get(name).asText(), fields.getExisting(name), name);
+    }
+    assertEquals("null", fields.get("null"));
+    assertEquals("", fields.get("object"));
+  }
+
+  @Test
+  void readFields_bindsValuesFromStream() throws IOException {
+    JsonFields fields = JSON_PARSER.readFields(
+        stream("{\"skipped\":[{\"a\":1}],\"types\":[{\"id\":\"Q5\"}],\"code\":\"ok\"}"),
+        (name, value) -> "types".equals(name)
+            ? value.readValueAs(new TypeReference<List<Map<String, String>>>() {})
+            : null);
+
+    List<Map<String, String>> types = fields.getExisting("types");
+    assertEquals(List.of(Map.of("id", "Q5")), types);
+    assertFalse(fields.has("code"));
+  }
+
+  @Test
+  void readFields_failsForInvalidJson() {
+    assertThrows(RefineException.class,
+        () -> JSON_PARSER.readTextFields(stream("[\"code\"]"), "code"));
+    assertThrows(RefineException.class,
+        () -> JSON_PARSER.readTextFields(stream("{\"code\":"), "code"));
+  }
+
+  @Test
+  void reader_isSharedPerType() throws IOException {
+    TypeReference<List<Map<String, String>>> type = new TypeReference<>() {};
+
+    assertSame(JSON_PARSER.reader(Map.class), JSON_PARSER.reader(Map.class));
+    assertSame(JSON_PARSER.reader(type),
+        JSON_PARSER.reader(new TypeReference<List<Map<String, String>>>() {}));
+    assertEquals(List.of(Map.of("id", "Q5")), JSON_PARSER.read("[{\"id\":\"Q5\"}]", type));
+  }
+
+  @Test
+  void registersOptionalModule() {
+    // the module is optional dependency, so it is present in the tests
+    assertTrue(JsonParser.getRegisteredModules().stream()
+        .anyMatch(module -> module.toString().contains("Blackbird")),
+        () -> "Modules: " + JsonParser.getRegisteredModules());
+  }
+
+  private static InputStream stream(String json) {
+    return new ByteArrayInputStream(json.getBytes(UTF_8));
+  }
 }
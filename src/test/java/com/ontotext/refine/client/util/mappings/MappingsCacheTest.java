@@ -0,0 +1,138 @@
+package com.ontotext.refine.client.util.mappings;
+
+import static com.ontotext.refine.client.util.JsonParser.JSON_PARSER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.ontotext.refine.client.exceptions.RefineException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link MappingsCache} and {@link PreparedMapping}.
+ */
+class MappingsCacheTest {
+
+  private static final String MAPPING =
+      "{\"baseIRI\":\"http://example/base/\",\"namespaces\":{},\"subjectMappings\":[]}";
+
+  @Test
+  void forRdfExport_reusesNormalizedMapping() throws IOException {
+    MappingsCache cache = new MappingsCache(10, 1024 * 1024);
+    String operations = loadResource("forRdfExport_operations.json");
+
+    PreparedMapping first = cache.forRdfExport(operations);
+    PreparedMapping second = cache.forRdfExport(new String(operations));
+
+    assertSame(first, second);
+    assertEquals(MappingsNormalizer.forRdfExport(operations), first.getMapping());
+    assertEquals(1, cache.getHits());
+    assertEquals(1, cache.getMisses());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  void forRdfExport_withoutMapping() {
+    MappingsCache cache = new MappingsCache(10, 1024 * 1024);
+
+    assertNull(cache.forRdfExport("{}"));
+    assertNull(cache.forRdfExport(null));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void forApplyOperations_cachesOnlyMappings() {
+    MappingsCache cache = new MappingsCache(10, 1024 * 1024);
+    String operation = "{\"op\":\"core/column-removal\",\"columnName\":\"name\"}";
+
+    assertSame(operation, cache.forApplyOperations(operation));
+    String wrapped = cache.forApplyOperations(MAPPING);
+
+    assertSame(wrapped, cache.forApplyOperations(MAPPING));
+    assertEquals(MappingsNormalizer.forApplyOperations(MAPPING), wrapped);
+    assertEquals(1, cache.size());
+    assertEquals(1, cache.getHits());
+    assertEquals(1, cache.getMisses());
+  }
+
+  @Test
+  void evictsLeastRecentlyUsed_whenEntriesExceeded() {
+    MappingsCache cache = new MappingsCache(2, 1024 * 1024);
+
+    final PreparedMapping first = cache.forRdfExport(mapping("first"));
+    cache.forRdfExport(mapping("second"));
+    cache.forRdfExport(mapping("first"));
+    cache.forRdfExport(mapping("third"));
+
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictions());
+    assertSame(first, cache.forRdfExport(mapping("first")));
+  }
+
+  @Test
+  void evictsLeastRecentlyUsed_whenWeightExceeded() {
+    String mapping = mapping("first");
+    long entryWeight = 2L * mapping.length() + 3L * mapping.length();
+    MappingsCache cache = new MappingsCache(10, entryWeight + entryWeight / 2);
+
+    cache.forRdfExport(mapping);
+    cache.forRdfExport(mapping("other"));
+
+    assertEquals(1, cache.size());
+    assertEquals(1, cache.getEvictions());
+    assertEquals(entryWeight, cache.getWeight());
+  }
+
+  @Test
+  void skipsEntriesHeavierThanCache() {
+    MappingsCache cache = new MappingsCache(10, 16);
+
+    PreparedMapping mapping = cache.forRdfExport(MAPPING);
+
+    assertEquals(MAPPING, mapping.getMapping());
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getWeight());
+  }
+
+  @Test
+  void clear() {
+    MappingsCache cache = new MappingsCache(10, 1024 * 1024);
+    cache.forRdfExport(MAPPING);
+
+    cache.clear();
+
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getWeight());
+  }
+
+  @Test
+  void preparedMapping() throws IOException {
+    PreparedMapping mapping = PreparedMapping.of(MAPPING);
+
+    assertEquals(MAPPING, IOUtils.toString(mapping.toEntity().getContent(),
+        StandardCharsets.UTF_8));
+    assertSame(mapping.asOperation(), mapping.asOperation());
+    assertEquals(JSON_PARSER.parseJson(MappingsNormalizer.forApplyOperations(MAPPING)),
+        JSON_PARSER.parseJson(mapping.asOperation().asJson()));
+  }
+
+  @Test
+  void preparedMapping_withoutMapping() {
+    assertThrows(RefineException.class, () -> PreparedMapping.of("{\"entries\":[]}"));
+  }
+
+  private static String mapping(String base) {
+    return MAPPING.replace("/base/", "/" + base + "/");
+  }
+
+  private static String loadResource(String resource) throws IOException {
+    return IOUtils.toString(
+        MappingsCacheTest.class.getClassLoader()
+            .getResourceAsStream("mappings-normalizer/" + resource),
+        StandardCharsets.UTF_8);
+  }
+}
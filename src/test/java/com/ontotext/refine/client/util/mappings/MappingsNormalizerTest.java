@@ -54,6 +54,24 @@ class MappingsNormalizerTest {
         .forRdfExport(loadResource("forRdfExport_operations-without-mapping.json")));
   }
 
+  @Test
+  void forRdfExport_lastValidMapping() {
+    String operations = "[{\"description\":\"first\",\"operation\":{\"mapping\":"
+        + "{\"baseIRI\":\"http://first/\",\"subjectMappings\":[]}}},"
+        + "{\"description\":\"second\",\"operation\":{\"mapping\":"
+        + "{\"baseIRI\":\"http://second/\",\"unknown\":true}}}]";
+
+    String actual = MappingsNormalizer.forRdfExport(operations);
+
+    assertEquals(toJson("{\"baseIRI\":\"http://first/\",\"subjectMappings\":[]}"),
+        toJson(actual));
+  }
+
+  @Test
+  void forRdfExport_invalidJson() {
+    assertNull(MappingsNormalizer.forRdfExport("{\"entries\":["));
+  }
+
   @ParameterizedTest
   @NullAndEmptySource
   void forRdfExport_emptyOrNullArg(String input) {